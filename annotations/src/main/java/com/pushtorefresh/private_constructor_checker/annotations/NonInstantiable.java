@@ -0,0 +1,44 @@
+package com.pushtorefresh.private_constructor_checker.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks class that must have one private constructor, the same rules as
+ * {@code PrivateConstructorChecker} enforces at runtime are checked during compilation
+ * by the annotation processor from the {@code processor} artifact.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface NonInstantiable {
+
+    /**
+     * Type of the exception that must be thrown by the constructor, not checked by default.
+     */
+    Class<? extends Throwable> expectedTypeOfException() default NotSpecified.class;
+
+    /**
+     * Message of the exception that must be thrown by the constructor, not checked by default.
+     */
+    String expectedExceptionMessage() default "";
+
+    /**
+     * Parameters of the constructor, constructor without parameters is expected by default.
+     */
+    Class<?>[] expectedWithParameters() default {};
+
+    /**
+     * Default value of {@link #expectedTypeOfException()}, means that type of the exception is not checked.
+     */
+    final class NotSpecified extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private NotSpecified() {
+            throw new IllegalStateException("No instances please!");
+        }
+    }
+}
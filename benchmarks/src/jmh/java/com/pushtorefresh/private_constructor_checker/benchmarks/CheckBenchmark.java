@@ -0,0 +1,91 @@
+package com.pushtorefresh.private_constructor_checker.benchmarks;
+
+import com.pushtorefresh.private_constructor_checker.PrivateConstructorChecker;
+import com.pushtorefresh.private_constructor_checker.benchmarks.fixtures.Fixture0;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Check of the single class: warm class was already loaded and initialized,
+ * cold class is loaded by the new {@link ClassLoader} before every invocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CheckBenchmark {
+
+    @State(Scope.Thread)
+    public static class ColdClass {
+
+        Class clazz;
+
+        @Setup(Level.Invocation)
+        public void loadClass() throws ClassNotFoundException {
+            final URL fixturesLocation = Fixture0.class.getProtectionDomain().getCodeSource().getLocation();
+
+            // Parent is bootstrap class loader, so class is always loaded again
+            clazz = new URLClassLoader(new URL[]{fixturesLocation}, null).loadClass(Fixture0.class.getName());
+        }
+    }
+
+    @Benchmark
+    public void warmClass() {
+        PrivateConstructorChecker
+                .forClass(Fixture0.class)
+                .expectedTypeOfException(IllegalStateException.class)
+                .check();
+    }
+
+    /**
+     * Same class checked again and again, as by tests of several modules in one JVM,
+     * compare with {@link #warmClass()} which runs the constructor every time.
+     */
+    @Benchmark
+    public void warmClassMemoized() {
+        PrivateConstructorChecker
+                .forClass(Fixture0.class)
+                .memoized()
+                .expectedTypeOfException(IllegalStateException.class)
+                .check();
+    }
+
+    @Benchmark
+    public void coldClass(ColdClass coldClass) {
+        PrivateConstructorChecker
+                .forClass(coldClass.clazz)
+                .expectedTypeOfException(IllegalStateException.class)
+                .check();
+    }
+
+    @Benchmark
+    public void warmClassInBytecodeOnlyMode() {
+        PrivateConstructorChecker
+                .forClass(Fixture0.class)
+                .bytecodeOnly()
+                .expectedTypeOfException(IllegalStateException.class)
+                .check();
+    }
+
+    /**
+     * Exception thrown by the constructor is matched by type and message,
+     * covers handling of {@link java.lang.reflect.InvocationTargetException}.
+     */
+    @Benchmark
+    public void exceptionMatching() {
+        PrivateConstructorChecker
+                .forClass(Fixture0.class)
+                .expectedTypeOfException(IllegalStateException.class)
+                .expectedExceptionMessage("No instances please!")
+                .check();
+    }
+}
@@ -0,0 +1,55 @@
+package com.pushtorefresh.private_constructor_checker.benchmarks;
+
+import com.pushtorefresh.private_constructor_checker.PrivateConstructorChecker;
+import com.pushtorefresh.private_constructor_checker.benchmarks.fixtures.Fixture0;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks that fail, message of the failure is returned so it's not eliminated as dead code.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FailurePathBenchmark {
+
+    static final class ClassWithParameters {
+        private ClassWithParameters(String string, int value, Object[] objects) {
+        }
+    }
+
+    /**
+     * Message of the failure lists expected and actual parameters of the constructor.
+     */
+    @Benchmark
+    public String parametersMismatch() {
+        try {
+            PrivateConstructorChecker
+                    .forClass(ClassWithParameters.class)
+                    .expectedWithParameters(String.class, long.class, Object[].class)
+                    .check();
+        } catch (AssertionError expected) {
+            return expected.getMessage();
+        }
+
+        throw new IllegalStateException("Check must fail");
+    }
+
+    @Benchmark
+    public String exceptionTypeMismatch() {
+        try {
+            PrivateConstructorChecker
+                    .forClass(Fixture0.class)
+                    .expectedTypeOfException(UnsupportedOperationException.class)
+                    .check();
+        } catch (IllegalStateException expected) {
+            return expected.getMessage();
+        }
+
+        throw new IllegalStateException("Check must fail");
+    }
+}
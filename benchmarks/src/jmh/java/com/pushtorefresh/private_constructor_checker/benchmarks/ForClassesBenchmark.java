@@ -0,0 +1,56 @@
+package com.pushtorefresh.private_constructor_checker.benchmarks;
+
+import com.pushtorefresh.private_constructor_checker.PrivateConstructorChecker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Check of the generated classes via {@link PrivateConstructorChecker#forClasses(Class[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ForClassesBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int classesCount;
+
+    private Class[] classes;
+
+    @Setup
+    public void loadClasses() throws ClassNotFoundException {
+        classes = new Class[classesCount];
+
+        for (int i = 0; i < classesCount; i++) {
+            classes[i] = Class.forName("com.pushtorefresh.private_constructor_checker.benchmarks.fixtures.Fixture" + i);
+        }
+    }
+
+    @Benchmark
+    public void forClasses() {
+        PrivateConstructorChecker
+                .forClasses(classes)
+                .expectedTypeOfException(IllegalStateException.class)
+                .expectedExceptionMessage("No instances please!")
+                .check();
+    }
+
+    @Benchmark
+    public void forClassesInParallel() {
+        PrivateConstructorChecker
+                .forClasses(classes)
+                .inParallel()
+                .expectedTypeOfException(IllegalStateException.class)
+                .expectedExceptionMessage("No instances please!")
+                .check();
+    }
+}
@@ -0,0 +1,203 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Known violations that do not fail the check, see {@link PrivateConstructorChecker.Builder#baseline(File)}.
+ * <p>
+ * File lists names of the failed classes, one per line, sorted by {@link String#compareTo(String)}, so it's
+ * compared with the result of the check by a single merge pass while it's read line by line.
+ */
+final class Baseline {
+
+    private static final String HEADER = "# Classes that fail the private constructor check, one per line, sorted";
+
+    private final File file;
+
+    /**
+     * Names of the classes whose check was completed, collected only while they are checked.
+     */
+    private final List<String> checkedClassNames = Collections.synchronizedList(new ArrayList<String>());
+
+    Baseline(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Called once the check of the class is completed, classes whose checks were not completed
+     * are kept in the baseline even if they are not among the failures.
+     */
+    void recordChecked(ClassTarget target) {
+        checkedClassNames.add(target.getClassName());
+    }
+
+    /**
+     * Writes the baseline if it does not exist yet, otherwise removes classes that passed the check from it.
+     *
+     * @param result result of the check of the recorded targets.
+     * @return result with failures of the classes that are not in the baseline.
+     */
+    CheckResult apply(CheckResult result) {
+        final List<String> failedClassNames = new ArrayList<String>(result.getFailures().size());
+
+        for (CheckFailure failure : result.getFailures()) {
+            failedClassNames.add(failure.getClassName());
+        }
+
+        Collections.sort(failedClassNames);
+
+        final Set<String> newFailedClassNames;
+
+        try {
+            if (!file.exists()) {
+                write(failedClassNames.iterator());
+                newFailedClassNames = Collections.emptySet();
+            } else {
+                final List<String> checkedClassNames = new ArrayList<String>(this.checkedClassNames);
+                Collections.sort(checkedClassNames);
+                newFailedClassNames = merge(checkedClassNames, failedClassNames);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Can not update baseline " + file, e);
+        }
+
+        final List<CheckFailure> newFailures = new ArrayList<CheckFailure>(newFailedClassNames.size());
+
+        for (CheckFailure failure : result.getFailures()) {
+            if (newFailedClassNames.contains(failure.getClassName())) {
+                newFailures.add(failure);
+            }
+        }
+
+        return new CheckResult(result.getCheckedClassesCount(), Collections.unmodifiableList(newFailures));
+    }
+
+    /**
+     * Merges sorted baseline with sorted names of the checked and failed classes and drops
+     * classes that were checked and passed from the baseline, classes that were not checked are kept.
+     *
+     * @return names of the failed classes that are not in the baseline.
+     */
+    private Set<String> merge(List<String> checkedClassNames, List<String> failedClassNames) throws IOException {
+        final Set<String> newFailedClassNames = new HashSet<String>();
+        final List<String> keptClassNames = new ArrayList<String>();
+        boolean changed = false;
+
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+
+        try {
+            int failedIndex = 0;
+            int checkedIndex = 0;
+            String previousClassName = null;
+            String line;
+            int lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                final String className = line.trim();
+
+                if (className.length() == 0 || className.startsWith("#")) {
+                    continue;
+                }
+
+                if (previousClassName != null && previousClassName.compareTo(className) >= 0) {
+                    throw new IllegalStateException("Baseline " + file + " is not sorted at line " + lineNumber);
+                }
+
+                previousClassName = className;
+
+                while (failedIndex < failedClassNames.size() && failedClassNames.get(failedIndex).compareTo(className) < 0) {
+                    newFailedClassNames.add(failedClassNames.get(failedIndex++));
+                }
+
+                if (failedIndex < failedClassNames.size() && failedClassNames.get(failedIndex).equals(className)) {
+                    // Still fails, same as before
+                    while (failedIndex < failedClassNames.size() && failedClassNames.get(failedIndex).equals(className)) {
+                        failedIndex++;
+                    }
+
+                    keptClassNames.add(className);
+                    continue;
+                }
+
+                while (checkedIndex < checkedClassNames.size() && checkedClassNames.get(checkedIndex).compareTo(className) < 0) {
+                    checkedIndex++;
+                }
+
+                if (checkedIndex < checkedClassNames.size() && checkedClassNames.get(checkedIndex).equals(className)) {
+                    // Fixed
+                    changed = true;
+                } else {
+                    keptClassNames.add(className);
+                }
+            }
+
+            while (failedIndex < failedClassNames.size()) {
+                newFailedClassNames.add(failedClassNames.get(failedIndex++));
+            }
+        } finally {
+            reader.close();
+        }
+
+        if (changed) {
+            write(keptClassNames.iterator());
+        }
+
+        return newFailedClassNames;
+    }
+
+    private void write(Iterator<String> sortedClassNames) throws IOException {
+        final File directory = file.getAbsoluteFile().getParentFile();
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Can not create directory " + directory);
+        }
+
+        // Written to the temporary file first, so interrupted write does not lose the baseline
+        final File temporaryFile = new File(directory, file.getName() + ".tmp");
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(temporaryFile), "UTF-8"));
+
+        try {
+            writer.write(HEADER);
+            writer.write('\n');
+
+            String previousClassName = null;
+
+            while (sortedClassNames.hasNext()) {
+                final String className = sortedClassNames.next();
+
+                // Same class may be passed for the check several times
+                if (!className.equals(previousClassName)) {
+                    writer.write(className);
+                    writer.write('\n');
+                }
+
+                previousClassName = className;
+            }
+        } finally {
+            writer.close();
+        }
+
+        if (file.exists() && !file.delete()) {
+            throw new IOException("Can not replace " + file);
+        }
+
+        if (!temporaryFile.renameTo(file)) {
+            throw new IOException("Can not rename " + temporaryFile + " to " + file);
+        }
+    }
+}
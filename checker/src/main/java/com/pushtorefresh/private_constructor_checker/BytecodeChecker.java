@@ -0,0 +1,423 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reaches the same verdicts as the reflective check, but only by analysis
+ * of the class file, so checked class is never loaded or initialized.
+ * <p>
+ * Constructor is considered throwing only if its body unconditionally ends with
+ * {@code throw new SomeException("literal message")} and runs no code except {@code Object.<init>} before
+ * creation of the exception. Constructor is considered completing normally
+ * only if it has no {@code athrow} instruction, runs no code except {@code Object.<init>} and the class
+ * has no static initializer, everything else can not be verified from bytecode.
+ */
+final class BytecodeChecker {
+
+    private static final int DUP = 0x59;
+    private static final int LDC = 0x12;
+    private static final int LDC_W = 0x13;
+    private static final int IRETURN = 0xac;
+    private static final int RETURN = 0xb1;
+    private static final int GETSTATIC = 0xb2;
+    private static final int PUTSTATIC = 0xb3;
+    private static final int INVOKEVIRTUAL = 0xb6;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKEDYNAMIC = 0xba;
+    private static final int NEW = 0xbb;
+    private static final int ATHROW = 0xbf;
+    private static final int WIDE = 0xc4;
+    private static final int TABLESWITCH = 0xaa;
+    private static final int LOOKUPSWITCH = 0xab;
+
+    private static final String[] PRIMITIVE_NAMES = {
+            "boolean", "byte", "char", "short", "int", "long", "float", "double", "void"
+    };
+
+    private static final String[] PRIMITIVE_DESCRIPTORS = {
+            "Z", "B", "C", "S", "I", "J", "F", "D", "V"
+    };
+
+    private final Class<? extends Throwable> expectedTypeOfException;
+
+    private final String expectedExceptionMessage;
+
+    private final Class[] expectedParameters;
+
+    BytecodeChecker(Class<? extends Throwable> expectedTypeOfException,
+                    String expectedExceptionMessage,
+                    Class[] expectedParameters) {
+        this.expectedTypeOfException = expectedTypeOfException;
+        this.expectedExceptionMessage = expectedExceptionMessage;
+        this.expectedParameters = expectedParameters;
+    }
+
+    /**
+     * Same as {@link PrivateConstructorChecker} skips discovered classes that can not have constructors written by hand.
+     */
+    static boolean isCheckableClass(ClassFile classFile) {
+        final int skippedFlags = ClassFile.ACC_INTERFACE
+                | ClassFile.ACC_ANNOTATION
+                | ClassFile.ACC_ENUM
+                | ClassFile.ACC_SYNTHETIC;
+
+        return (classFile.getAccessFlags() & skippedFlags) == 0 && !classFile.isAnonymousOrLocal();
+    }
+
+    void check(ClassFile classFile) throws IOException {
+        // Same as Class.toString()
+        final String clazz = ((classFile.getAccessFlags() & ClassFile.ACC_INTERFACE) != 0 ? "interface " : "class ") + classFile.getClassName();
+        final List<ClassFile.Method> constructors = classFile.getConstructors();
+
+        if (constructors.size() > 1) {
+            throw new AssertionError(clazz + " has more than one constructor");
+        } else if (constructors.isEmpty()) {
+            throw new AssertionError(clazz + " has no constructors");
+        }
+
+        final ClassFile.Method constructor = constructors.get(0);
+
+        if ((constructor.accessFlags & ClassFile.ACC_PRIVATE) == 0) {
+            throw new AssertionError("Constructor of " + clazz + " must be private");
+        }
+
+        final List<String> parameterTypes = parameterDescriptorsOf(constructor.descriptor);
+
+        if (parameterTypes.size() > 0) {
+            if (expectedParameters == null) {
+                throw new AssertionError(clazz + " has non-default constructor with some parameters");
+            } else {
+                final List<String> expectedParameterTypes = new ArrayList<String>(expectedParameters.length);
+
+                for (Class expectedParameter : expectedParameters) {
+                    expectedParameterTypes.add(descriptorOf(expectedParameter));
+                }
+
+                if (!parameterTypes.equals(expectedParameterTypes)) {
+                    throw new AssertionError("Expected constructor with parameters " + getReadableDescriptorsOutput(expectedParameterTypes) + " but found constructor with parameters " + getReadableDescriptorsOutput(parameterTypes));
+                } else {
+                    return;
+                }
+            }
+        }
+
+        final ThrownException thrownException = analyzeConstructor(classFile, constructor);
+
+        if (thrownException == ThrownException.NOTHING) {
+            // Constructor completes normally, same as successful newInstance()
+            return;
+        }
+
+        if (expectedTypeOfException != null || expectedExceptionMessage != null) {
+            if (thrownException == ThrownException.UNKNOWN) {
+                throw new IllegalStateException("For " + clazz + " thrown exception can not be determined from bytecode");
+            }
+
+            if (expectedTypeOfException != null && !expectedTypeOfException.getName().equals(thrownException.className)) {
+                throw new IllegalStateException("For " + clazz + " expected exception of type = " + expectedTypeOfException + ", but was exception of type = class " + thrownException.className);
+            }
+
+            if (expectedExceptionMessage != null) {
+                if (!thrownException.messageKnown) {
+                    throw new IllegalStateException("For " + clazz + " message of thrown exception can not be determined from bytecode");
+                }
+
+                if (!expectedExceptionMessage.equals(thrownException.message)) {
+                    throw new IllegalStateException("For " + clazz + " expected exception message = '" + expectedExceptionMessage + "', but was = '" + thrownException.message + "'");
+                }
+            }
+
+            // Everything is okay
+        } else if (thrownException == ThrownException.UNKNOWN) {
+            throw new IllegalStateException("For " + clazz + " no exception was expected, but constructor may throw one");
+        } else {
+            throw new IllegalStateException("For " + clazz + " no exception was expected");
+        }
+    }
+
+    /**
+     * Finds out what constructor throws without running it.
+     */
+    static ThrownException analyzeConstructor(ClassFile classFile, ClassFile.Method constructor) throws IOException {
+        final ClassFile.Code code = constructor.code;
+
+        if (code == null) {
+            return ThrownException.UNKNOWN;
+        }
+
+        final byte[] bytecode = code.bytecode;
+        final List<Integer> offsets = new ArrayList<Integer>();
+
+        boolean hasBranches = code.exceptionTableLength > 0;
+        // Index of the first instruction that may run code of other methods, -1 if there is none
+        int otherCodeIndex = -1;
+        int returnsCount = 0;
+        int throwsCount = 0;
+
+        for (int offset = 0; offset < bytecode.length; offset += instructionLength(bytecode, offset)) {
+            final int opcode = bytecode[offset] & 0xff;
+            offsets.add(offset);
+
+            if (isBranch(opcode)) {
+                hasBranches = true;
+            } else if (opcode >= IRETURN && opcode <= RETURN) {
+                returnsCount++;
+            } else if (opcode == ATHROW) {
+                throwsCount++;
+            } else if (otherCodeIndex == -1 && runsOtherCode(classFile, bytecode, offset, opcode)) {
+                otherCodeIndex = offsets.size() - 1;
+            }
+        }
+
+        if (throwsCount == 0) {
+            // Called methods, constructor of the superclass or initializers of the classes may throw
+            return otherCodeIndex != -1 || hasStaticInitializer(classFile) ? ThrownException.UNKNOWN : ThrownException.NOTHING;
+        }
+
+        final int lastIndex = offsets.size() - 1;
+
+        if (hasBranches || returnsCount > 0 || throwsCount > 1 || opcodeAt(bytecode, offsets, lastIndex) != ATHROW) {
+            return ThrownException.UNKNOWN;
+        }
+
+        // Expecting "new T; dup; [arguments]; invokespecial T.<init>; athrow" at the end of the body
+        final int invokeIndex = lastIndex - 1;
+
+        if (invokeIndex < 0 || opcodeAt(bytecode, offsets, invokeIndex) != INVOKESPECIAL) {
+            return ThrownException.UNKNOWN;
+        }
+
+        final String[] initRef = classFile.memberRefAt(u2(bytecode, offsets.get(invokeIndex) + 1));
+        final String exceptionClassName = initRef[0];
+
+        if (!"<init>".equals(initRef[1])) {
+            return ThrownException.UNKNOWN;
+        }
+
+        int newIndex = -1;
+
+        for (int i = invokeIndex - 1; i >= 0; i--) {
+            if (opcodeAt(bytecode, offsets, i) == NEW
+                    && exceptionClassName.equals(classFile.classNameAt(u2(bytecode, offsets.get(i) + 1)))) {
+                newIndex = i;
+                break;
+            }
+        }
+
+        // Exception of the body is thrown only if nothing before its creation throws first
+        if (newIndex == -1 || otherCodeIndex < newIndex) {
+            return ThrownException.UNKNOWN;
+        }
+
+        // Only JDK exceptions are known to use passed message as is
+        final boolean jdkException = exceptionClassName.startsWith("java.") || exceptionClassName.startsWith("javax.");
+
+        if ("()V".equals(initRef[2]) && newIndex + 2 == invokeIndex) {
+            return new ThrownException(exceptionClassName, jdkException, null);
+        }
+
+        if ("(Ljava/lang/String;)V".equals(initRef[2])
+                && newIndex + 3 == invokeIndex
+                && opcodeAt(bytecode, offsets, newIndex + 1) == DUP) {
+            final int ldcOffset = offsets.get(newIndex + 2);
+            final int ldcOpcode = bytecode[ldcOffset] & 0xff;
+
+            if (ldcOpcode == LDC || ldcOpcode == LDC_W) {
+                final int index = ldcOpcode == LDC ? bytecode[ldcOffset + 1] & 0xff : u2(bytecode, ldcOffset + 1);
+                final String message = classFile.stringAt(index);
+
+                if (message != null) {
+                    return new ThrownException(exceptionClassName, jdkException, message);
+                }
+            }
+        }
+
+        return new ThrownException(exceptionClassName, false, null);
+    }
+
+    /**
+     * Instructions that may run code of other methods, including initializers of the classes.
+     */
+    private static boolean runsOtherCode(ClassFile classFile, byte[] bytecode, int offset, int opcode) throws IOException {
+        if (opcode == INVOKESPECIAL) {
+            final String[] methodRef = classFile.memberRefAt(u2(bytecode, offset + 1));
+            return !"java.lang.Object".equals(methodRef[0]) || !"<init>".equals(methodRef[1]);
+        }
+
+        return opcode == GETSTATIC
+                || opcode == PUTSTATIC
+                || (opcode >= INVOKEVIRTUAL && opcode <= INVOKEDYNAMIC)
+                || opcode == NEW;
+    }
+
+    private static boolean hasStaticInitializer(ClassFile classFile) {
+        for (ClassFile.Method method : classFile.getMethods()) {
+            if ("<clinit>".equals(method.name)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static int opcodeAt(byte[] bytecode, List<Integer> offsets, int index) {
+        return bytecode[offsets.get(index)] & 0xff;
+    }
+
+    private static boolean isBranch(int opcode) {
+        return (opcode >= 0x99 && opcode <= 0xa9) // if<cond>, if_<cmp>, goto, jsr, ret
+                || opcode == TABLESWITCH
+                || opcode == LOOKUPSWITCH
+                || (opcode >= 0xc6 && opcode <= 0xc9); // ifnull, ifnonnull, goto_w, jsr_w
+    }
+
+    /**
+     * See chapter 6.5 of The Java Virtual Machine Specification.
+     */
+    static int instructionLength(byte[] bytecode, int offset) {
+        final int opcode = bytecode[offset] & 0xff;
+
+        switch (opcode) {
+            case 0x10: // bipush
+            case 0x12: // ldc
+            case 0x15: case 0x16: case 0x17: case 0x18: case 0x19: // xload
+            case 0x36: case 0x37: case 0x38: case 0x39: case 0x3a: // xstore
+            case 0xa9: // ret
+            case 0xbc: // newarray
+                return 2;
+            case 0x11: // sipush
+            case 0x13: case 0x14: // ldc_w, ldc2_w
+            case 0x84: // iinc
+            case 0xb2: case 0xb3: case 0xb4: case 0xb5: // get/put static/field
+            case 0xb6: case 0xb7: case 0xb8: // invokevirtual, invokespecial, invokestatic
+            case 0xbb: // new
+            case 0xbd: // anewarray
+            case 0xc0: case 0xc1: // checkcast, instanceof
+            case 0xc6: case 0xc7: // ifnull, ifnonnull
+                return 3;
+            case 0xc5: // multianewarray
+                return 4;
+            case 0xb9: case 0xba: // invokeinterface, invokedynamic
+            case 0xc8: case 0xc9: // goto_w, jsr_w
+                return 5;
+            case WIDE:
+                return (bytecode[offset + 1] & 0xff) == 0x84 ? 6 : 4;
+            case TABLESWITCH: {
+                final int padded = (offset + 4) & ~3;
+                final int low = s4(bytecode, padded + 4);
+                final int high = s4(bytecode, padded + 8);
+                return padded - offset + 12 + (high - low + 1) * 4;
+            }
+            case LOOKUPSWITCH: {
+                final int padded = (offset + 4) & ~3;
+                final int pairsCount = s4(bytecode, padded + 4);
+                return padded - offset + 8 + pairsCount * 8;
+            }
+            default:
+                if (opcode >= 0x99 && opcode <= 0xa8) { // if<cond>, if_<cmp>, goto, jsr
+                    return 3;
+                }
+                return 1;
+        }
+    }
+
+    private static int u2(byte[] bytecode, int offset) {
+        return ((bytecode[offset] & 0xff) << 8) | (bytecode[offset + 1] & 0xff);
+    }
+
+    private static int s4(byte[] bytecode, int offset) {
+        return ((bytecode[offset] & 0xff) << 24)
+                | ((bytecode[offset + 1] & 0xff) << 16)
+                | ((bytecode[offset + 2] & 0xff) << 8)
+                | (bytecode[offset + 3] & 0xff);
+    }
+
+    static List<String> parameterDescriptorsOf(String methodDescriptor) {
+        final List<String> parameters = new ArrayList<String>();
+
+        int index = 1; // skip '('
+
+        while (methodDescriptor.charAt(index) != ')') {
+            int end = index;
+
+            while (methodDescriptor.charAt(end) == '[') {
+                end++;
+            }
+
+            if (methodDescriptor.charAt(end) == 'L') {
+                end = methodDescriptor.indexOf(';', end);
+            }
+
+            parameters.add(methodDescriptor.substring(index, end + 1));
+            index = end + 1;
+        }
+
+        return parameters;
+    }
+
+    static String descriptorOf(Class clazz) {
+        if (clazz.isArray()) {
+            return clazz.getName().replace('.', '/');
+        } else if (clazz.isPrimitive()) {
+            final int index = Arrays.asList(PRIMITIVE_NAMES).indexOf(clazz.getName());
+            return PRIMITIVE_DESCRIPTORS[index];
+        } else {
+            return "L" + clazz.getName().replace('.', '/') + ";";
+        }
+    }
+
+    /**
+     * Same as reflective check prints simple names of the parameters.
+     */
+    private static String getReadableDescriptorsOutput(List<String> descriptors) {
+        final StringBuilder stringBuilder = new StringBuilder("(");
+
+        if (descriptors.size() > 0) {
+            final String concatenator = ", ";
+
+            for (String descriptor : descriptors) {
+                stringBuilder.append(simpleNameOf(descriptor)).append(concatenator);
+            }
+
+            stringBuilder.setLength(stringBuilder.length() - concatenator.length());
+        }
+
+        return stringBuilder.append(')').toString();
+    }
+
+    private static String simpleNameOf(String descriptor) {
+        if (descriptor.charAt(0) == '[') {
+            return simpleNameOf(descriptor.substring(1)) + "[]";
+        } else if (descriptor.charAt(0) == 'L') {
+            final String className = descriptor.substring(1, descriptor.length() - 1);
+            return className.substring(Math.max(className.lastIndexOf('/'), className.lastIndexOf('$')) + 1);
+        } else {
+            return PRIMITIVE_NAMES[Arrays.asList(PRIMITIVE_DESCRIPTORS).indexOf(descriptor)];
+        }
+    }
+
+    /**
+     * Exception thrown by constructor as it's seen in bytecode.
+     */
+    static final class ThrownException {
+
+        static final ThrownException NOTHING = new ThrownException(null, false, null);
+
+        static final ThrownException UNKNOWN = new ThrownException(null, false, null);
+
+        final String className;
+
+        final boolean messageKnown;
+
+        final String message;
+
+        ThrownException(String className, boolean messageKnown, String message) {
+            this.className = className;
+            this.messageKnown = messageKnown;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.pushtorefresh.private_constructor_checker;
+
+/**
+ * Failed check of one class.
+ */
+public final class CheckFailure {
+
+    private final String className;
+
+    private final Throwable error;
+
+    CheckFailure(String className, Throwable error) {
+        this.className = className;
+        this.error = error;
+    }
+
+    /**
+     * @return name of the class that did not pass the check.
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * @return error that would be thrown by the check of this class alone.
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return className + ": " + error;
+    }
+}
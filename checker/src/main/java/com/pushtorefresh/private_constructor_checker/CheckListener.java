@@ -0,0 +1,21 @@
+package com.pushtorefresh.private_constructor_checker;
+
+/**
+ * Receives events of the check, see {@link PrivateConstructorChecker.Builder#listener(CheckListener)}.
+ * <p>
+ * In parallel mode methods are called from the threads that run the checks, so implementation must be thread-safe.
+ * Implementation should not throw exceptions, otherwise they are reported as failures of the checked classes.
+ */
+public interface CheckListener {
+    /**
+     * Called after check of each class, including failed and skipped ones.
+     *
+     * @param event outcome and timings of the check of the class.
+     */
+    void onClassChecked(ClassCheckEvent event);
+
+    /**
+     * Called once after checks of all classes are finished or stopped by the failure.
+     */
+    void onCheckFinished();
+}
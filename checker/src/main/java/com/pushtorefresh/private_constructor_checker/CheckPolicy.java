@@ -0,0 +1,273 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Expectations that differ by package, applied via {@link PrivateConstructorChecker.Builder#policy(CheckPolicy)}.
+ * <p>
+ * Policy consists of rules, each rule is a pattern of the binary class name with expectations:
+ * <pre>
+ * **.util.*.typeOfException = java.lang.UnsupportedOperationException
+ * **.util.*.exceptionMessage = No instances
+ * com.example.internal.**.parameters = java.lang.String,int
+ * </pre>
+ * Segments of the pattern are separated by dots, {@code *} matches exactly one segment and {@code **}
+ * matches any number of segments. Types are named as by {@link Class#getName()}, empty {@code parameters}
+ * means constructor without parameters. If several rules match the class, rule with more literal segments wins,
+ * then rule with less {@code **}. Classes that do not match any rule are checked with expectations
+ * set via {@link PrivateConstructorChecker.Builder}.
+ * <p>
+ * Rules are compiled into a trie of the segments, so the rule of the class is found in time proportional
+ * to the depth of its package rather than to the count of the rules.
+ */
+public final class CheckPolicy {
+
+    static final String TYPE_OF_EXCEPTION = "typeOfException";
+
+    static final String EXCEPTION_MESSAGE = "exceptionMessage";
+
+    static final String PARAMETERS = "parameters";
+
+    private static final String ANY_SEGMENT = "*";
+
+    private static final String ANY_SEGMENTS = "**";
+
+    private final Node root;
+
+    private CheckPolicy(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Loads policy from the properties file.
+     *
+     * @param file properties file with rules, should exist.
+     * @return compiled policy.
+     */
+    public static CheckPolicy load(File file) {
+        if (file == null) {
+            throw new IllegalArgumentException("file can not be null");
+        }
+
+        final Properties properties = new Properties();
+
+        try {
+            final InputStream inputStream = new FileInputStream(file);
+
+            try {
+                properties.load(inputStream);
+            } finally {
+                inputStream.close();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Can not read policy " + file, e);
+        }
+
+        try {
+            return fromProperties(properties);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid policy " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Compiles policy from the rules.
+     *
+     * @param properties rules, keys are patterns followed by {@code .typeOfException},
+     *                   {@code .exceptionMessage} or {@code .parameters}, should not be {@code null}.
+     * @return compiled policy.
+     */
+    public static CheckPolicy fromProperties(Properties properties) {
+        if (properties == null) {
+            throw new IllegalArgumentException("properties can not be null");
+        }
+
+        // Sorted, so errors and compiled trie do not depend on the order of the hash table
+        final Map<String, Map<String, String>> rules = new TreeMap<String, Map<String, String>>();
+
+        for (String key : properties.stringPropertyNames()) {
+            final int attributeStart = key.lastIndexOf('.');
+            final String attribute = key.substring(attributeStart + 1);
+
+            if (attributeStart <= 0
+                    || !(TYPE_OF_EXCEPTION.equals(attribute) || EXCEPTION_MESSAGE.equals(attribute) || PARAMETERS.equals(attribute))) {
+                throw new IllegalArgumentException("Key " + key + " must be a pattern followed by ." + TYPE_OF_EXCEPTION
+                        + ", ." + EXCEPTION_MESSAGE + " or ." + PARAMETERS);
+            }
+
+            final String pattern = key.substring(0, attributeStart);
+            Map<String, String> rule = rules.get(pattern);
+
+            if (rule == null) {
+                rule = new HashMap<String, String>();
+                rules.put(pattern, rule);
+            }
+
+            // Message is taken as is, it may end with whitespaces
+            final String value = properties.getProperty(key);
+            rule.put(attribute, EXCEPTION_MESSAGE.equals(attribute) ? value : value.trim());
+        }
+
+        final Node root = new Node();
+
+        for (Map.Entry<String, Map<String, String>> rule : rules.entrySet()) {
+            add(root, rule.getKey(), rule.getValue());
+        }
+
+        return new CheckPolicy(root);
+    }
+
+    private static void add(Node root, String pattern, Map<String, String> attributes) {
+        final String[] segments = pattern.split("\\.", -1);
+        int literalSegmentsCount = 0;
+        int anySegmentsCount = 0;
+        Node node = root;
+
+        for (String segment : segments) {
+            if (segment.length() == 0) {
+                throw new IllegalArgumentException("Pattern " + pattern + " has empty segment");
+            }
+
+            if (ANY_SEGMENTS.equals(segment)) {
+                anySegmentsCount++;
+            } else if (!ANY_SEGMENT.equals(segment)) {
+                if (segment.indexOf('*') >= 0) {
+                    throw new IllegalArgumentException("Pattern " + pattern + " has wildcard that is not a whole segment");
+                }
+
+                literalSegmentsCount++;
+            }
+
+            Node child = node.children.get(segment);
+
+            if (child == null) {
+                child = new Node();
+                node.children.put(segment, child);
+            }
+
+            node = child;
+        }
+
+        final String typeOfException = attributes.get(TYPE_OF_EXCEPTION);
+        final String exceptionMessage = attributes.get(EXCEPTION_MESSAGE);
+        final String parameters = attributes.get(PARAMETERS);
+
+        node.rule = new Rule(
+                pattern,
+                literalSegmentsCount,
+                anySegmentsCount,
+                Expectations.named(
+                        typeOfException == null || typeOfException.length() == 0 ? null : typeOfException,
+                        exceptionMessage == null || exceptionMessage.length() == 0 ? null : exceptionMessage,
+                        parameters == null ? null : parseParameters(parameters)
+                )
+        );
+    }
+
+    private static String[] parseParameters(String parameters) {
+        if (parameters.length() == 0) {
+            return new String[0];
+        }
+
+        final String[] names = parameters.split(",", -1);
+
+        for (int i = 0; i < names.length; i++) {
+            names[i] = names[i].trim();
+        }
+
+        return names;
+    }
+
+    /**
+     * @return expectations of the most specific rule that matches the class, {@code null} if no rule matches it.
+     */
+    Expectations expectationsOf(String className) {
+        final Rule rule = match(root, className.split("\\."), 0, null);
+        return rule == null ? null : rule.expectations;
+    }
+
+    private static Rule match(Node node, String[] segments, int index, Rule best) {
+        if (index == segments.length) {
+            best = moreSpecific(best, node.rule);
+        } else {
+            final Node literal = node.children.get(segments[index]);
+
+            if (literal != null) {
+                best = match(literal, segments, index + 1, best);
+            }
+
+            final Node anySegment = node.children.get(ANY_SEGMENT);
+
+            if (anySegment != null) {
+                best = match(anySegment, segments, index + 1, best);
+            }
+        }
+
+        final Node anySegments = node.children.get(ANY_SEGMENTS);
+
+        if (anySegments != null) {
+            // "**" consumes from zero to all remaining segments
+            for (int next = index; next <= segments.length; next++) {
+                best = match(anySegments, segments, next, best);
+            }
+        }
+
+        return best;
+    }
+
+    private static Rule moreSpecific(Rule first, Rule second) {
+        if (first == null) {
+            return second;
+        }
+
+        if (second == null) {
+            return first;
+        }
+
+        if (first.literalSegmentsCount != second.literalSegmentsCount) {
+            return first.literalSegmentsCount > second.literalSegmentsCount ? first : second;
+        }
+
+        if (first.anySegmentsCount != second.anySegmentsCount) {
+            return first.anySegmentsCount < second.anySegmentsCount ? first : second;
+        }
+
+        // Deterministic choice between equally specific rules
+        return first.pattern.compareTo(second.pattern) <= 0 ? first : second;
+    }
+
+    private static final class Node {
+
+        final Map<String, Node> children = new HashMap<String, Node>(4);
+
+        /**
+         * {@code null} if no pattern ends at this node.
+         */
+        Rule rule;
+    }
+
+    private static final class Rule {
+
+        final String pattern;
+
+        final int literalSegmentsCount;
+
+        final int anySegmentsCount;
+
+        final Expectations expectations;
+
+        Rule(String pattern, int literalSegmentsCount, int anySegmentsCount, Expectations expectations) {
+            this.pattern = pattern;
+            this.literalSegmentsCount = literalSegmentsCount;
+            this.anySegmentsCount = anySegmentsCount;
+            this.expectations = expectations;
+        }
+    }
+}
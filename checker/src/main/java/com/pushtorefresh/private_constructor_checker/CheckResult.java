@@ -0,0 +1,74 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.util.List;
+
+/**
+ * Aggregated result of the check of multiple classes.
+ */
+public final class CheckResult {
+
+    private final int checkedClassesCount;
+
+    private final List<CheckFailure> failures;
+
+    CheckResult(int checkedClassesCount, List<CheckFailure> failures) {
+        this.checkedClassesCount = checkedClassesCount;
+        this.failures = failures;
+    }
+
+    /**
+     * @return count of classes that were checked, including failed ones.
+     */
+    public int getCheckedClassesCount() {
+        return checkedClassesCount;
+    }
+
+    /**
+     * @return immutable list of failures in the order of the checked classes.
+     */
+    public List<CheckFailure> getFailures() {
+        return failures;
+    }
+
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+
+    /**
+     * Throws error of the single failure as is, or {@link AssertionError} which lists all failures.
+     */
+    public void assertSuccessful() {
+        if (failures.isEmpty()) {
+            return;
+        }
+
+        if (failures.size() == 1) {
+            final Throwable error = failures.get(0).getError();
+
+            if (error instanceof RuntimeException) {
+                throw (RuntimeException) error;
+            } else if (error instanceof Error) {
+                throw (Error) error;
+            }
+        }
+
+        final AssertionError assertionError = new AssertionError(toString());
+        assertionError.initCause(failures.get(0).getError());
+        throw assertionError;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder stringBuilder = new StringBuilder()
+                .append(failures.size())
+                .append(" of ")
+                .append(checkedClassesCount)
+                .append(" classes did not pass the check");
+
+        for (CheckFailure failure : failures) {
+            stringBuilder.append("\n  ").append(failure);
+        }
+
+        return stringBuilder.toString();
+    }
+}
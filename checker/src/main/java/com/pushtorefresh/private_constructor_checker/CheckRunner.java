@@ -0,0 +1,218 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs checks of all classes and collects every failure instead of stopping at the first one.
+ */
+final class CheckRunner {
+
+    /**
+     * How many checks can be submitted but not yet completed per thread,
+     * bounds memory used by the parallel check of lazily discovered classes.
+     */
+    private static final int IN_FLIGHT_CHECKS_PER_THREAD = 4;
+
+    private final PrivateConstructorChecker checker;
+
+    private final boolean failFast;
+
+    /**
+     * {@code null} if check has no baseline.
+     */
+    private final Baseline baseline;
+
+    CheckRunner(PrivateConstructorChecker checker, boolean failFast, Baseline baseline) {
+        this.checker = checker;
+        this.failFast = failFast;
+        this.baseline = baseline;
+    }
+
+    CheckResult runSequentially(Iterator<ClassTarget> targets) {
+        final List<CheckFailure> failures = new ArrayList<CheckFailure>();
+        int checkedClassesCount = 0;
+
+        while (targets.hasNext()) {
+            final ClassTarget target = targets.next();
+            checkedClassesCount++;
+
+            final CheckFailure failure = checkCatching(target);
+
+            if (failure != null) {
+                failures.add(failure);
+
+                if (failFast) {
+                    break;
+                }
+            }
+        }
+
+        return new CheckResult(checkedClassesCount, Collections.unmodifiableList(failures));
+    }
+
+    /**
+     * Runs checks on the passed {@link Executor}, or on the temporary thread pool
+     * with one thread per available processor if executor is {@code null}.
+     */
+    CheckResult runInParallel(Iterator<ClassTarget> targets, Executor executor) {
+        if (executor != null) {
+            return runInParallel(targets, executor, IN_FLIGHT_CHECKS_PER_THREAD * Runtime.getRuntime().availableProcessors());
+        }
+
+        final int threadsCount = Runtime.getRuntime().availableProcessors();
+        final ExecutorService executorService = Executors.newFixedThreadPool(threadsCount, new DaemonThreadFactory());
+
+        try {
+            return runInParallel(targets, executorService, IN_FLIGHT_CHECKS_PER_THREAD * threadsCount);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private CheckResult runInParallel(Iterator<ClassTarget> targets, Executor executor, int maxInFlightChecks) {
+        final Semaphore inFlightChecks = new Semaphore(maxInFlightChecks);
+        final AtomicBoolean cancelled = new AtomicBoolean();
+        final Set<FutureTask<Void>> runningChecks = Collections.newSetFromMap(new ConcurrentHashMap<FutureTask<Void>, Boolean>());
+        final List<IndexedFailure> failures = Collections.synchronizedList(new ArrayList<IndexedFailure>());
+
+        int checkedClassesCount = 0;
+
+        try {
+            while (!cancelled.get() && targets.hasNext()) {
+                final ClassTarget target = targets.next();
+                final int index = checkedClassesCount++;
+
+                inFlightChecks.acquireUninterruptibly();
+
+                final AtomicReference<FutureTask<Void>> self = new AtomicReference<FutureTask<Void>>();
+
+                final FutureTask<Void> check = new FutureTask<Void>(new Runnable() {
+                    @Override
+                    public void run() {
+                        final CheckFailure failure = checkCatching(target);
+
+                        if (failure == null) {
+                            return;
+                        }
+
+                        if (!failFast) {
+                            failures.add(new IndexedFailure(index, failure));
+                        } else if (cancelled.compareAndSet(false, true)) {
+                            // Only the first failure is reported, others may be caused by the cancellation
+                            failures.add(new IndexedFailure(index, failure));
+
+                            for (FutureTask<Void> runningCheck : runningChecks) {
+                                if (runningCheck != self.get()) {
+                                    runningCheck.cancel(true);
+                                }
+                            }
+                        }
+                    }
+                }, null) {
+                    @Override
+                    protected void done() {
+                        // Called on completion and cancellation, so permit is never lost
+                        runningChecks.remove(this);
+                        inFlightChecks.release();
+                    }
+                };
+
+                self.set(check);
+                runningChecks.add(check);
+
+                if (cancelled.get()) {
+                    check.cancel(false);
+                } else {
+                    try {
+                        executor.execute(check);
+                    } catch (RuntimeException e) {
+                        // For example RejectedExecutionException, releases the permit of the check
+                        check.cancel(false);
+                        throw e;
+                    }
+                }
+            }
+        } finally {
+            // Waits for all submitted checks
+            inFlightChecks.acquireUninterruptibly(maxInFlightChecks);
+        }
+
+        Collections.sort(failures, new Comparator<IndexedFailure>() {
+            @Override
+            public int compare(IndexedFailure first, IndexedFailure second) {
+                return first.index < second.index ? -1 : (first.index == second.index ? 0 : 1);
+            }
+        });
+
+        final List<CheckFailure> result = new ArrayList<CheckFailure>(failures.size());
+
+        for (IndexedFailure failure : failures) {
+            result.add(failure.failure);
+        }
+
+        return new CheckResult(checkedClassesCount, Collections.unmodifiableList(result));
+    }
+
+    /**
+     * Any {@link Throwable} is a failure of the check, for example {@link Error} thrown as is by the static
+     * initializer of the class, otherwise it would be swallowed by {@link FutureTask} of the parallel check.
+     *
+     * @return failure of the check or {@code null} if class passed the check.
+     */
+    private CheckFailure checkCatching(ClassTarget target) {
+        CheckFailure failure;
+
+        try {
+            checker.check(target);
+            failure = null;
+        } catch (Throwable e) {
+            failure = new CheckFailure(target.getClassName(), e);
+        }
+
+        if (baseline != null) {
+            baseline.recordChecked(target);
+        }
+
+        return failure;
+    }
+
+    private static final class IndexedFailure {
+
+        final int index;
+
+        final CheckFailure failure;
+
+        IndexedFailure(int index, CheckFailure failure) {
+            this.index = index;
+            this.failure = failure;
+        }
+    }
+
+    private static final class DaemonThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadsCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            final Thread thread = new Thread(runnable, "private-constructor-checker-" + threadsCount.incrementAndGet());
+            // Stuck constructor must not prevent JVM from exit
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
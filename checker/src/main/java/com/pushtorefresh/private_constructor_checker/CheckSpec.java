@@ -0,0 +1,85 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable settings of the check created by {@link PrivateConstructorChecker.Builder#toSpec()},
+ * for example expectations shared by all tests of the project:
+ * <pre>
+ * static final CheckSpec UTILITY_CLASS = PrivateConstructorChecker
+ *     .forSpec()
+ *     .expectedTypeOfException(IllegalStateException.class)
+ *     .toSpec();
+ *
+ * UTILITY_CLASS.check(Strings.class);
+ * </pre>
+ * Spec can be published to other threads in any way and applied concurrently, each application runs
+ * its own check with a private copy of the settings. Classes of the builder the spec was created by are not checked.
+ */
+public final class CheckSpec {
+
+    /**
+     * Never exposed and never changed after the construction, final field makes it safely published.
+     */
+    private final PrivateConstructorChecker.Builder settings;
+
+    CheckSpec(PrivateConstructorChecker.Builder settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Runs the check of the passed classes, same as {@link PrivateConstructorChecker.Builder#check()}.
+     *
+     * @param classes classes that need to be checked.
+     */
+    public void check(Class... classes) {
+        builderFor(classes).check();
+    }
+
+    /**
+     * Checks all passed classes, same as {@link PrivateConstructorChecker.Builder#checkAll()}.
+     *
+     * @param classes classes that need to be checked.
+     * @return result of the check.
+     */
+    public CheckResult checkAll(Class... classes) {
+        return builderFor(classes).checkAll();
+    }
+
+    /**
+     * Checks classes that are taken from the passed {@link Iterable} one by one while they are checked,
+     * same as {@link PrivateConstructorChecker#forClassIterable(Iterable)}.
+     * <p>
+     * Java 8 {@code Stream} can be passed as {@code stream::iterator}.
+     *
+     * @param classes classes that need to be checked, iterated once.
+     * @return result of the check.
+     */
+    public CheckResult checkAll(Iterable<? extends Class> classes) {
+        if (classes == null) {
+            throw new IllegalArgumentException("classes can not be null");
+        }
+
+        return new PrivateConstructorChecker.Builder(settings, LazyClassTargets.ofClasses(classes)).checkAll();
+    }
+
+    private PrivateConstructorChecker.Builder builderFor(Class[] classes) {
+        if (classes == null || classes.length == 0) {
+            throw new IllegalArgumentException("classes can not be null or empty");
+        }
+
+        final List<ClassTarget> targets = new ArrayList<ClassTarget>(classes.length);
+
+        for (Class clazz : classes) {
+            if (clazz == null) {
+                throw new IllegalArgumentException("class can not be null");
+            }
+
+            targets.add(ClassTarget.of(clazz));
+        }
+
+        return new PrivateConstructorChecker.Builder(settings, Collections.unmodifiableList(targets));
+    }
+}
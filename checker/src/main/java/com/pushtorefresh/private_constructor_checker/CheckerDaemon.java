@@ -0,0 +1,338 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Long-lived process that checks classes on behalf of the tests, so they don't pay for startup
+ * and warm-up of the checker, see {@link PrivateConstructorChecker.Builder#viaDaemon()}.
+ * <p>
+ * Daemon listens on the loopback interface and writes its port together with the random token to the
+ * daemon file readable only by the owner, requests without the token are rejected. Classes of each request
+ * are loaded by the new {@link ClassLoader} from the classpath of the client, verdicts of the unchanged
+ * classes are kept by the {@link ResultCache} next to the daemon file.
+ * <p>
+ * Can be started as {@code java -cp private-constructor-checker.jar com.pushtorefresh.private_constructor_checker.CheckerDaemon [daemonFile]}.
+ */
+public final class CheckerDaemon implements Closeable {
+
+    static final String DAEMON_FILE_PROPERTY = "private_constructor_checker.daemon.file";
+
+    private static final int REQUEST_READ_TIMEOUT_MILLIS = 30 * 1000;
+
+    private final ServerSocket serverSocket;
+
+    private final File daemonFile;
+
+    private final String token;
+
+    private final ResultCache resultCache;
+
+    private final ExecutorService executorService;
+
+    private final AtomicInteger handledRequestsCount = new AtomicInteger();
+
+    private CheckerDaemon(ServerSocket serverSocket, File daemonFile, String token) {
+        this.serverSocket = serverSocket;
+        this.daemonFile = daemonFile;
+        this.token = token;
+        this.resultCache = ResultCache.open(new File(daemonFile.getPath() + ".cache"));
+        this.executorService = Executors.newCachedThreadPool(new ThreadFactory() {
+
+            private final AtomicInteger threadsCount = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                final Thread thread = new Thread(runnable, "private-constructor-checker-daemon-" + threadsCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Starts daemon at the default daemon file, which is taken from the {@code private_constructor_checker.daemon.file}
+     * system property or is {@code ~/.private-constructor-checker/daemon}.
+     *
+     * @param args optional path of the daemon file.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        final CheckerDaemon daemon = start(args.length > 0 ? new File(args[0]) : defaultDaemonFile());
+        System.out.println("Private constructor checker daemon is listening on port " + daemon.getPort());
+        daemon.awaitClose();
+    }
+
+    static File defaultDaemonFile() {
+        final String path = System.getProperty(DAEMON_FILE_PROPERTY);
+
+        return path != null
+                ? new File(path)
+                : new File(new File(System.getProperty("user.home"), ".private-constructor-checker"), "daemon");
+    }
+
+    /**
+     * Starts daemon that accepts requests on the background thread until it's closed.
+     *
+     * @param daemonFile file where port and token of the daemon are written, should not be {@code null}.
+     * @return started daemon.
+     */
+    public static CheckerDaemon start(File daemonFile) {
+        if (daemonFile == null) {
+            throw new IllegalArgumentException("daemonFile can not be null");
+        }
+
+        final byte[] tokenBytes = new byte[16];
+        new SecureRandom().nextBytes(tokenBytes);
+
+        final StringBuilder token = new StringBuilder(tokenBytes.length * 2);
+
+        for (byte b : tokenBytes) {
+            token.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+
+        final CheckerDaemon daemon;
+
+        try {
+            final ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getByName(null));
+            daemon = new CheckerDaemon(serverSocket, daemonFile, token.toString());
+            daemon.writeDaemonFile();
+        } catch (IOException e) {
+            throw new IllegalStateException("Can not start daemon at " + daemonFile, e);
+        }
+
+        final Thread acceptThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                daemon.acceptConnections();
+            }
+        }, "private-constructor-checker-daemon");
+
+        acceptThread.start();
+        return daemon;
+    }
+
+    private void writeDaemonFile() throws IOException {
+        final File directory = daemonFile.getAbsoluteFile().getParentFile();
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Can not create directory " + directory);
+        }
+
+        // Written to the temporary file first, so clients never see the file without token
+        final File temporaryFile = new File(directory, daemonFile.getName() + ".tmp");
+
+        if (!temporaryFile.exists() && !temporaryFile.createNewFile()) {
+            throw new IOException("Can not create " + temporaryFile);
+        }
+
+        // Token must not be readable by other users
+        temporaryFile.setReadable(false, false);
+        temporaryFile.setReadable(true, true);
+        temporaryFile.setWritable(false, false);
+        temporaryFile.setWritable(true, true);
+
+        final OutputStream outputStream = new FileOutputStream(temporaryFile);
+
+        try {
+            outputStream.write((serverSocket.getLocalPort() + "\n" + token + "\n").getBytes("UTF-8"));
+        } finally {
+            outputStream.close();
+        }
+
+        if (daemonFile.exists() && !daemonFile.delete()) {
+            throw new IOException("Can not replace " + daemonFile);
+        }
+
+        if (!temporaryFile.renameTo(daemonFile)) {
+            throw new IOException("Can not rename " + temporaryFile + " to " + daemonFile);
+        }
+    }
+
+    /**
+     * @return port on the loopback interface.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    int getHandledRequestsCount() {
+        return handledRequestsCount.get();
+    }
+
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            final Socket socket;
+
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException e) {
+                // Closed
+                break;
+            } catch (IOException e) {
+                continue;
+            }
+
+            executorService.execute(new Runnable() {
+                @Override
+                public void run() {
+                    handle(socket);
+                }
+            });
+        }
+
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+
+    private void handle(Socket socket) {
+        try {
+            try {
+                socket.setSoTimeout(REQUEST_READ_TIMEOUT_MILLIS);
+
+                final DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+                handle(socket, input, output);
+                output.flush();
+            } finally {
+                socket.close();
+            }
+        } catch (IOException e) {
+            // Client went away, nothing to report to
+        }
+    }
+
+    private void handle(Socket socket, DataInputStream input, DataOutputStream output) throws IOException {
+        output.writeUTF(DaemonProtocol.VERSION);
+
+        final String version = input.readUTF();
+
+        if (!DaemonProtocol.VERSION.equals(version)) {
+            output.writeInt(DaemonProtocol.STATUS_ERROR);
+            DaemonProtocol.writeLongString(output, "Unsupported version of the client " + version);
+            return;
+        }
+
+        if (!token.equals(input.readUTF())) {
+            output.writeInt(DaemonProtocol.STATUS_ERROR);
+            DaemonProtocol.writeLongString(output, "Invalid token");
+            return;
+        }
+
+        final int flags = input.readInt();
+        final int classpathSize = input.readInt();
+        final List<URL> classpath = new ArrayList<URL>(classpathSize);
+
+        for (int i = 0; i < classpathSize; i++) {
+            classpath.add(new File(input.readUTF()).toURI().toURL());
+        }
+
+        // Parent is the loader of the JDK, so classes of the daemon itself are not visible to the checked classes
+        final URLClassLoader classLoader = new URLClassLoader(
+                classpath.toArray(new URL[classpath.size()]),
+                ClassLoader.getSystemClassLoader().getParent()
+        );
+
+        try {
+            final int classesCount = input.readInt();
+            final List<ClassTarget> targets = new ArrayList<ClassTarget>(classesCount);
+
+            for (int i = 0; i < classesCount; i++) {
+                final String className = input.readUTF();
+                final ClassTarget target = input.readBoolean()
+                        ? ClassTarget.discovered(className, classLoader)
+                        : ClassTarget.named(className, classLoader);
+
+                // Expectations are always sent, so expectations of the daemon's builder are never used
+                targets.add(target.withExpectations(DaemonProtocol.readExpectations(input)));
+            }
+
+            // Check itself may take longer than reading of the request
+            socket.setSoTimeout(0);
+
+            final PrivateConstructorChecker.Builder builder = new PrivateConstructorChecker.Builder(targets)
+                    .resultCache(resultCache);
+
+            if ((flags & DaemonProtocol.FLAG_BYTECODE_ONLY) != 0) {
+                builder.bytecodeOnly();
+            }
+
+            if ((flags & DaemonProtocol.FLAG_PARALLEL) != 0) {
+                builder.inParallel();
+            }
+
+            if ((flags & DaemonProtocol.FLAG_FAIL_FAST) != 0) {
+                builder.failFast();
+            }
+
+            final CheckResult result = builder.checkAll();
+
+            output.writeInt(DaemonProtocol.STATUS_OK);
+            output.writeInt(result.getCheckedClassesCount());
+            output.writeInt(result.getFailures().size());
+
+            for (CheckFailure failure : result.getFailures()) {
+                output.writeUTF(failure.getClassName());
+                output.writeUTF(failure.getError().getClass().getName());
+                DaemonProtocol.writeNullableString(output, failure.getError().getMessage());
+            }
+
+            handledRequestsCount.incrementAndGet();
+        } finally {
+            if (classLoader instanceof Closeable) {
+                // Releases jars of the classpath since Java 7
+                ((Closeable) classLoader).close();
+            }
+        }
+    }
+
+    /**
+     * Blocks until the daemon is closed.
+     */
+    public synchronized void awaitClose() throws InterruptedException {
+        while (!serverSocket.isClosed()) {
+            wait();
+        }
+    }
+
+    /**
+     * Stops accepting requests and deletes the daemon file, requests that are being handled are completed.
+     */
+    @Override
+    public void close() {
+        daemonFile.delete();
+
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            // Nothing to do
+        }
+
+        executorService.shutdown();
+
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Check of one class, see {@link PrivateConstructorChecker.Checkable#checksPerClass()}.
+ */
+public final class ClassCheck {
+
+    private final PrivateConstructorChecker checker;
+
+    private final ClassTarget target;
+
+    /**
+     * Called once after the first run of the check, so the whole check is finished after the last class.
+     */
+    private final Runnable onCompleted;
+
+    private final AtomicBoolean completed = new AtomicBoolean();
+
+    ClassCheck(PrivateConstructorChecker checker, ClassTarget target, Runnable onCompleted) {
+        this.checker = checker;
+        this.target = target;
+        this.onCompleted = onCompleted;
+    }
+
+    /**
+     * @return name of the checked class.
+     */
+    public String getClassName() {
+        return target.getClassName();
+    }
+
+    /**
+     * Runs the check of the class, throws the same error as {@link PrivateConstructorChecker.Checkable#check()}
+     * would throw for this class.
+     */
+    public void check() {
+        try {
+            checker.checkSeparately(target);
+        } finally {
+            if (completed.compareAndSet(false, true)) {
+                onCompleted.run();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return target.getClassName();
+    }
+}
@@ -0,0 +1,137 @@
+package com.pushtorefresh.private_constructor_checker;
+
+/**
+ * Outcome and timings of the check of one class.
+ */
+public final class ClassCheckEvent {
+
+    /**
+     * Phases of the check, each class goes through some of them depending on the mode of the check.
+     */
+    public enum Phase {
+        /**
+         * Reading of the class file to compute key of the {@link ResultCache}.
+         */
+        READ_CLASS_FILE,
+
+        /**
+         * Computing of the key and lookup in the {@link ResultCache}.
+         */
+        CACHE_LOOKUP,
+
+        /**
+         * Loading of the class without its initialization.
+         */
+        LOAD,
+
+        /**
+         * {@link Class#getDeclaredConstructors()}, once per class in the JVM, lookup of the cached constructors afterwards.
+         */
+        GET_DECLARED_CONSTRUCTORS,
+
+        /**
+         * {@link java.lang.reflect.Constructor#setAccessible(boolean)}, once per class in the JVM.
+         */
+        SET_ACCESSIBLE,
+
+        /**
+         * Invocation of the constructor, includes static initialization of the class.
+         */
+        NEW_INSTANCE,
+
+        /**
+         * Parsing of the class file in {@link PrivateConstructorChecker.Builder#bytecodeOnly()} mode,
+         * includes reading of the class file if it was not read for the {@link ResultCache}.
+         */
+        PARSE_CLASS_FILE,
+
+        /**
+         * Analysis of the bytecode of the constructor in {@link PrivateConstructorChecker.Builder#bytecodeOnly()} mode.
+         */
+        ANALYZE_BYTECODE
+    }
+
+    public enum Outcome {
+        PASSED,
+
+        FAILED,
+
+        /**
+         * Check was skipped because class passed it before, see {@link ResultCache}
+         * and {@link PrivateConstructorChecker.Builder#memoized()}.
+         */
+        CACHED,
+
+        /**
+         * Discovered class was skipped because it can not have constructor written by hand,
+         * for example it's an interface or anonymous class.
+         */
+        SKIPPED
+    }
+
+    private final String className;
+
+    private final Outcome outcome;
+
+    private final Throwable error;
+
+    private final long totalDurationNanos;
+
+    private final long[] phaseDurationsNanos;
+
+    ClassCheckEvent(String className, Outcome outcome, Throwable error, long totalDurationNanos, long[] phaseDurationsNanos) {
+        this.className = className;
+        this.outcome = outcome;
+        this.error = error;
+        this.totalDurationNanos = totalDurationNanos;
+        this.phaseDurationsNanos = phaseDurationsNanos;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * @return error of the failed check or {@code null} if check did not fail.
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    /**
+     * @return duration of the whole check of the class, including time that is not attributed to any phase.
+     */
+    public long getTotalDurationNanos() {
+        return totalDurationNanos;
+    }
+
+    /**
+     * @return duration of the phase or {@code 0} if class did not go through it.
+     */
+    public long getDurationNanos(Phase phase) {
+        return phaseDurationsNanos[phase.ordinal()];
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder stringBuilder = new StringBuilder()
+                .append(className)
+                .append(' ')
+                .append(outcome)
+                .append(" in ")
+                .append(totalDurationNanos)
+                .append(" ns");
+
+        for (Phase phase : Phase.values()) {
+            if (phaseDurationsNanos[phase.ordinal()] != 0) {
+                stringBuilder.append(", ").append(phase).append(' ').append(phaseDurationsNanos[phase.ordinal()]).append(" ns");
+            }
+        }
+
+        return stringBuilder.toString();
+    }
+}
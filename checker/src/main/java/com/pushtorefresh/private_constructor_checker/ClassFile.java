@@ -0,0 +1,432 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Minimal parser of {@code .class} files, reads only the parts needed by the checker:
+ * constant pool, access flags, methods with their code and line numbers and {@code InnerClasses} attribute.
+ * <p>
+ * See chapter 4 of The Java Virtual Machine Specification.
+ */
+final class ClassFile {
+
+    static final int ACC_PUBLIC = 0x0001;
+    static final int ACC_PRIVATE = 0x0002;
+    static final int ACC_PROTECTED = 0x0004;
+    static final int ACC_STATIC = 0x0008;
+    static final int ACC_INTERFACE = 0x0200;
+    static final int ACC_SYNTHETIC = 0x1000;
+    static final int ACC_ANNOTATION = 0x2000;
+    static final int ACC_ENUM = 0x4000;
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELD_REF = 9;
+    private static final int CONSTANT_METHOD_REF = 10;
+    private static final int CONSTANT_INTERFACE_METHOD_REF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private final int[] tags;
+
+    private final Object[] constants;
+
+    private final int accessFlags;
+
+    private final String className;
+
+    private final List<Method> methods;
+
+    private final List<InnerClass> innerClasses;
+
+    private ClassFile(int[] tags, Object[] constants, int accessFlags, String className,
+                      List<Method> methods, List<InnerClass> innerClasses) {
+        this.tags = tags;
+        this.constants = constants;
+        this.accessFlags = accessFlags;
+        this.className = className;
+        this.methods = methods;
+        this.innerClasses = innerClasses;
+    }
+
+    /**
+     * Parses class file, stream is not closed.
+     *
+     * @param inputStream stream with content of the class file.
+     * @return parsed class file.
+     * @throws IOException if stream can not be read or it does not contain valid class file.
+     */
+    static ClassFile parse(InputStream inputStream) throws IOException {
+        final DataInputStream input = new DataInputStream(inputStream);
+
+        if (input.readInt() != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+
+        input.readUnsignedShort(); // minor_version
+        input.readUnsignedShort(); // major_version
+
+        final int constantPoolCount = input.readUnsignedShort();
+        final int[] tags = new int[constantPoolCount];
+        final Object[] constants = new Object[constantPoolCount];
+
+        for (int i = 1; i < constantPoolCount; i++) {
+            final int tag = input.readUnsignedByte();
+            tags[i] = tag;
+
+            switch (tag) {
+                case CONSTANT_UTF8:
+                    constants[i] = input.readUTF();
+                    break;
+                case CONSTANT_CLASS:
+                case CONSTANT_STRING:
+                case CONSTANT_METHOD_TYPE:
+                case CONSTANT_MODULE:
+                case CONSTANT_PACKAGE:
+                    constants[i] = input.readUnsignedShort();
+                    break;
+                case CONSTANT_FIELD_REF:
+                case CONSTANT_METHOD_REF:
+                case CONSTANT_INTERFACE_METHOD_REF:
+                case CONSTANT_NAME_AND_TYPE:
+                case CONSTANT_DYNAMIC:
+                case CONSTANT_INVOKE_DYNAMIC:
+                    constants[i] = new int[]{input.readUnsignedShort(), input.readUnsignedShort()};
+                    break;
+                case CONSTANT_INTEGER:
+                case CONSTANT_FLOAT:
+                    input.readInt();
+                    break;
+                case CONSTANT_LONG:
+                case CONSTANT_DOUBLE:
+                    input.readLong();
+                    i++; // 8-byte constants take two entries of the constant pool
+                    break;
+                case CONSTANT_METHOD_HANDLE:
+                    input.readUnsignedByte();
+                    input.readUnsignedShort();
+                    break;
+                default:
+                    throw new IOException("Unknown tag of constant pool entry " + tag);
+            }
+        }
+
+        final int accessFlags = input.readUnsignedShort();
+        final int thisClass = input.readUnsignedShort();
+
+        input.readUnsignedShort(); // super_class
+
+        final int interfacesCount = input.readUnsignedShort();
+
+        for (int i = 0; i < interfacesCount; i++) {
+            input.readUnsignedShort();
+        }
+
+        // Only constant pool is available at this point
+        final ClassFile constantPool = new ClassFile(tags, constants, accessFlags, null, null, null);
+
+        final List<Method> methods = new ArrayList<Method>();
+        final List<InnerClass> innerClasses = new ArrayList<InnerClass>();
+
+        final int fieldsCount = input.readUnsignedShort();
+
+        for (int i = 0; i < fieldsCount; i++) {
+            input.readUnsignedShort(); // access_flags
+            input.readUnsignedShort(); // name_index
+            input.readUnsignedShort(); // descriptor_index
+            skipAttributes(input);
+        }
+
+        final int methodsCount = input.readUnsignedShort();
+
+        for (int i = 0; i < methodsCount; i++) {
+            final int methodAccessFlags = input.readUnsignedShort();
+            final String name = constantPool.utf8(input.readUnsignedShort());
+            final String descriptor = constantPool.utf8(input.readUnsignedShort());
+
+            Code code = null;
+
+            final int attributesCount = input.readUnsignedShort();
+
+            for (int j = 0; j < attributesCount; j++) {
+                final String attributeName = constantPool.utf8(input.readUnsignedShort());
+                final int length = input.readInt();
+
+                if ("Code".equals(attributeName)) {
+                    code = readCode(input, constantPool);
+                } else {
+                    skipFully(input, length);
+                }
+            }
+
+            methods.add(new Method(methodAccessFlags, name, descriptor, code));
+        }
+
+        final int attributesCount = input.readUnsignedShort();
+
+        for (int i = 0; i < attributesCount; i++) {
+            final String attributeName = constantPool.utf8(input.readUnsignedShort());
+            final int length = input.readInt();
+
+            if ("InnerClasses".equals(attributeName)) {
+                final int numberOfClasses = input.readUnsignedShort();
+
+                for (int j = 0; j < numberOfClasses; j++) {
+                    final int innerClassInfo = input.readUnsignedShort();
+                    final int outerClassInfo = input.readUnsignedShort();
+                    final int innerName = input.readUnsignedShort();
+                    final int innerAccessFlags = input.readUnsignedShort();
+
+                    innerClasses.add(new InnerClass(
+                            constantPool.classNameAt(innerClassInfo),
+                            outerClassInfo == 0 ? null : constantPool.classNameAt(outerClassInfo),
+                            innerName == 0 ? null : constantPool.utf8(innerName),
+                            innerAccessFlags
+                    ));
+                }
+            } else {
+                skipFully(input, length);
+            }
+        }
+
+        return new ClassFile(
+                tags,
+                constants,
+                accessFlags,
+                constantPool.classNameAt(thisClass),
+                Collections.unmodifiableList(methods),
+                Collections.unmodifiableList(innerClasses)
+        );
+    }
+
+    private static Code readCode(DataInputStream input, ClassFile constantPool) throws IOException {
+        input.readUnsignedShort(); // max_stack
+        input.readUnsignedShort(); // max_locals
+
+        final byte[] bytecode = new byte[input.readInt()];
+        input.readFully(bytecode);
+
+        final int exceptionTableLength = input.readUnsignedShort();
+        skipFully(input, exceptionTableLength * 8);
+
+        final boolean[] lineStarts = new boolean[bytecode.length];
+        final int attributesCount = input.readUnsignedShort();
+
+        for (int i = 0; i < attributesCount; i++) {
+            final String attributeName = constantPool.utf8(input.readUnsignedShort());
+            final int length = input.readInt();
+
+            if ("LineNumberTable".equals(attributeName)) {
+                final int lineNumberTableLength = input.readUnsignedShort();
+
+                for (int j = 0; j < lineNumberTableLength; j++) {
+                    final int startPc = input.readUnsignedShort();
+                    final int lineNumber = input.readUnsignedShort();
+
+                    if (startPc < bytecode.length && lineNumber != 0) {
+                        lineStarts[startPc] = true;
+                    }
+                }
+            } else {
+                skipFully(input, length);
+            }
+        }
+
+        return new Code(bytecode, exceptionTableLength, lineStarts);
+    }
+
+    private static void skipAttributes(DataInputStream input) throws IOException {
+        final int attributesCount = input.readUnsignedShort();
+
+        for (int i = 0; i < attributesCount; i++) {
+            input.readUnsignedShort(); // attribute_name_index
+            skipFully(input, input.readInt());
+        }
+    }
+
+    private static void skipFully(DataInputStream input, int length) throws IOException {
+        int remaining = length;
+
+        while (remaining > 0) {
+            final int skipped = input.skipBytes(remaining);
+
+            if (skipped <= 0) {
+                // skipBytes() may skip less than requested without reaching the end
+                input.readByte();
+                remaining--;
+            } else {
+                remaining -= skipped;
+            }
+        }
+    }
+
+    int getAccessFlags() {
+        return accessFlags;
+    }
+
+    /**
+     * @return binary name of the class, for example {@code com.example.Outer$Inner}.
+     */
+    String getClassName() {
+        return className;
+    }
+
+    List<Method> getMethods() {
+        return methods;
+    }
+
+    List<Method> getConstructors() {
+        final List<Method> constructors = new ArrayList<Method>();
+
+        for (Method method : methods) {
+            if ("<init>".equals(method.name)) {
+                constructors.add(method);
+            }
+        }
+
+        return constructors;
+    }
+
+    List<InnerClass> getInnerClasses() {
+        return innerClasses;
+    }
+
+    /**
+     * @return {@code true} if class is anonymous or local according to its own {@code InnerClasses} entry.
+     */
+    boolean isAnonymousOrLocal() {
+        for (InnerClass innerClass : innerClasses) {
+            if (className.equals(innerClass.className)) {
+                return innerClass.outerClassName == null || innerClass.simpleName == null;
+            }
+        }
+
+        return false;
+    }
+
+    String utf8(int index) throws IOException {
+        if (tags[index] != CONSTANT_UTF8) {
+            throw new IOException("Constant pool entry " + index + " is not utf8");
+        }
+
+        return (String) constants[index];
+    }
+
+    /**
+     * @return binary name of the class referenced by {@code CONSTANT_Class} entry.
+     */
+    String classNameAt(int index) throws IOException {
+        if (tags[index] != CONSTANT_CLASS) {
+            throw new IOException("Constant pool entry " + index + " is not a class");
+        }
+
+        return utf8((Integer) constants[index]).replace('/', '.');
+    }
+
+    /**
+     * @return value of {@code CONSTANT_String} entry or {@code null} if entry is of another kind.
+     */
+    String stringAt(int index) throws IOException {
+        if (tags[index] != CONSTANT_STRING) {
+            return null;
+        }
+
+        return utf8((Integer) constants[index]);
+    }
+
+    /**
+     * @return {@code [owner, name, descriptor]} of method or field reference.
+     */
+    String[] memberRefAt(int index) throws IOException {
+        final int tag = tags[index];
+
+        if (tag != CONSTANT_METHOD_REF && tag != CONSTANT_INTERFACE_METHOD_REF && tag != CONSTANT_FIELD_REF) {
+            throw new IOException("Constant pool entry " + index + " is not a member reference");
+        }
+
+        final int[] ref = (int[]) constants[index];
+        final int[] nameAndType = (int[]) constants[ref[1]];
+
+        return new String[]{classNameAt(ref[0]), utf8(nameAndType[0]), utf8(nameAndType[1])};
+    }
+
+    static final class Method {
+
+        final int accessFlags;
+
+        final String name;
+
+        final String descriptor;
+
+        /**
+         * {@code null} for abstract and native methods.
+         */
+        final Code code;
+
+        Method(int accessFlags, String name, String descriptor, Code code) {
+            this.accessFlags = accessFlags;
+            this.name = name;
+            this.descriptor = descriptor;
+            this.code = code;
+        }
+    }
+
+    static final class Code {
+
+        final byte[] bytecode;
+
+        final int exceptionTableLength;
+
+        /**
+         * Offsets in the bytecode where lines of the source code start, all {@code false} without debug information.
+         */
+        final boolean[] lineStarts;
+
+        Code(byte[] bytecode, int exceptionTableLength, boolean[] lineStarts) {
+            this.bytecode = bytecode;
+            this.exceptionTableLength = exceptionTableLength;
+            this.lineStarts = lineStarts;
+        }
+    }
+
+    static final class InnerClass {
+
+        final String className;
+
+        /**
+         * {@code null} for local and anonymous classes.
+         */
+        final String outerClassName;
+
+        /**
+         * {@code null} for anonymous classes.
+         */
+        final String simpleName;
+
+        final int accessFlags;
+
+        InnerClass(String className, String outerClassName, String simpleName, int accessFlags) {
+            this.className = className;
+            this.outerClassName = outerClassName;
+            this.simpleName = simpleName;
+            this.accessFlags = accessFlags;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * Reads index of the classes written at build time by the annotation processor, so classes
+ * can be checked without scanning the classpath.
+ * <p>
+ * Index is UTF-8 text, each line except empty lines and comments starting with {@code #} lists one class:
+ * <pre>
+ * binaryNameOfClass TAB typeOfException TAB exceptionMessage TAB (parameterType,parameterType)
+ * </pre>
+ * Empty or omitted trailing fields are not checked, parameters are not specified if the last field is empty.
+ * Types are named as by {@link Class#getName()}, backslash, tab, carriage return and line feed
+ * of the message are escaped as {@code \\}, {@code \t}, {@code \r} and {@code \n}.
+ */
+final class ClassIndex {
+
+    static final String RESOURCE_NAME = "META-INF/private-constructor-checker.idx";
+
+    private ClassIndex() {
+        throw new IllegalStateException("No instances please!");
+    }
+
+    /**
+     * Reads indexes of all classpath roots visible to the loader.
+     *
+     * @return targets of the indexed classes, in the order of the indexes.
+     */
+    static List<ClassTarget> read(ClassLoader classLoader) {
+        final List<ClassTarget> targets = new ArrayList<ClassTarget>();
+        final Enumeration<URL> indexes;
+
+        try {
+            indexes = classLoader.getResources(RESOURCE_NAME);
+        } catch (IOException e) {
+            throw new IllegalStateException("Can not find " + RESOURCE_NAME, e);
+        }
+
+        if (!indexes.hasMoreElements()) {
+            throw new IllegalStateException("Can not find " + RESOURCE_NAME + ", make sure that annotation processor "
+                    + "of the classes runs with -AprivateConstructorChecker.index=true");
+        }
+
+        while (indexes.hasMoreElements()) {
+            final URL index = indexes.nextElement();
+
+            try {
+                final InputStream inputStream = index.openStream();
+
+                try {
+                    read(inputStream, index.toString(), classLoader, targets);
+                } finally {
+                    inputStream.close();
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Can not read index " + index, e);
+            }
+        }
+
+        return Collections.unmodifiableList(targets);
+    }
+
+    static void read(InputStream inputStream, String source, ClassLoader classLoader, List<ClassTarget> targets) throws IOException {
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, "UTF-8"));
+        int lineNumber = 0;
+        String line;
+
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+
+            if (line.length() == 0 || line.charAt(0) == '#') {
+                continue;
+            }
+
+            try {
+                targets.add(parseLine(line, classLoader));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException("Malformed line " + lineNumber + " of index " + source + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private static ClassTarget parseLine(String line, ClassLoader classLoader) {
+        final String[] fields = line.split("\t", -1);
+
+        if (fields.length > 4) {
+            throw new IllegalArgumentException("expected at most 4 fields, but was " + fields.length);
+        }
+
+        final String className = fields[0];
+
+        if (className.length() == 0) {
+            throw new IllegalArgumentException("name of the class is empty");
+        }
+
+        final String typeOfException = fields.length > 1 && fields[1].length() > 0 ? fields[1] : null;
+        final String exceptionMessage = fields.length > 2 && fields[2].length() > 0 ? unescape(fields[2]) : null;
+        final String[] parameters = fields.length > 3 && fields[3].length() > 0 ? parseParameters(fields[3]) : null;
+
+        return ClassTarget.indexed(className, classLoader, Expectations.named(typeOfException, exceptionMessage, parameters));
+    }
+
+    private static String[] parseParameters(String field) {
+        if (field.charAt(0) != '(' || field.charAt(field.length() - 1) != ')') {
+            throw new IllegalArgumentException("parameters must be enclosed in parentheses, but were " + field);
+        }
+
+        final String parameters = field.substring(1, field.length() - 1);
+        return parameters.length() == 0 ? new String[0] : parameters.split(",", -1);
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+
+        final StringBuilder stringBuilder = new StringBuilder(value.length());
+
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+
+            if (c != '\\') {
+                stringBuilder.append(c);
+                continue;
+            }
+
+            if (++i == value.length()) {
+                throw new IllegalArgumentException("message ends with unfinished escape sequence");
+            }
+
+            final char escaped = value.charAt(i);
+
+            switch (escaped) {
+                case '\\':
+                    stringBuilder.append('\\');
+                    break;
+                case 't':
+                    stringBuilder.append('\t');
+                    break;
+                case 'r':
+                    stringBuilder.append('\r');
+                    break;
+                case 'n':
+                    stringBuilder.append('\n');
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown escape sequence \\" + escaped);
+            }
+        }
+
+        return stringBuilder.toString();
+    }
+}
@@ -0,0 +1,382 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Lazily discovers classes in directories and jars.
+ * <p>
+ * Nothing is collected upfront: directories are listed one by one while iterating
+ * and jars are read through {@link ZipFile} which only reads the central directory
+ * of the archive (mapped into memory by the JDK) without extracting entries.
+ */
+final class ClassPathScanner implements Iterable<ClassTarget> {
+
+    private static final String CLASS_FILE_EXTENSION = ".class";
+
+    private final List<File> roots;
+
+    private final String packagePath;
+
+    private final ClassLoader classLoader;
+
+    private ClassPathScanner(List<File> roots, String packagePath, ClassLoader classLoader) {
+        this.roots = roots;
+        this.packagePath = packagePath;
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Creates scanner for all classes of the package and its subpackages
+     * that are visible to the passed {@link ClassLoader}.
+     */
+    static ClassPathScanner forPackage(String packageName, ClassLoader classLoader) {
+        final String packagePath = packageName.replace('.', '/');
+        final List<File> roots = new ArrayList<File>();
+
+        final Enumeration<URL> resources;
+
+        try {
+            resources = classLoader.getResources(packagePath);
+        } catch (IOException e) {
+            throw new IllegalStateException("Can not find package " + packageName, e);
+        }
+
+        while (resources.hasMoreElements()) {
+            final File root = rootOf(resources.nextElement(), packagePath);
+
+            if (root != null && !roots.contains(root)) {
+                roots.add(root);
+            }
+        }
+
+        if (roots.isEmpty()) {
+            // Jars without directory entries, for example shaded ones, have no resources of the packages
+            roots.addAll(jarsOf(classLoader));
+        }
+
+        return new ClassPathScanner(roots, packagePath, classLoader);
+    }
+
+    /**
+     * @return jars of the classpath that is visible to the passed {@link ClassLoader}, as far as it can be listed.
+     */
+    private static List<File> jarsOf(ClassLoader classLoader) {
+        final List<File> jars = new ArrayList<File>();
+        final ClassLoader systemClassLoader = ClassLoader.getSystemClassLoader();
+
+        for (ClassLoader loader = classLoader; loader != null; loader = loader.getParent()) {
+            if (loader instanceof URLClassLoader) {
+                for (URL url : ((URLClassLoader) loader).getURLs()) {
+                    if ("file".equals(url.getProtocol())) {
+                        try {
+                            addJar(jars, new File(url.toURI()));
+                        } catch (URISyntaxException e) {
+                            // Not a local file, so it can not be scanned anyway
+                        } catch (IllegalArgumentException e) {
+                            // Same as above, for example file url with authority
+                        }
+                    }
+                }
+            } else if (loader == systemClassLoader) {
+                // Since Java 9 application class loader is not URLClassLoader
+                for (String path : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+                    if (path.length() > 0) {
+                        addJar(jars, new File(path));
+                    }
+                }
+            }
+        }
+
+        return jars;
+    }
+
+    private static void addJar(List<File> jars, File file) {
+        // Directories of the package are always found as resources
+        if (file.isFile() && !jars.contains(file)) {
+            jars.add(file);
+        }
+    }
+
+    /**
+     * Creates scanner for all classes in the directory or jar, classes are loaded
+     * by child of passed {@link ClassLoader} so they can reference classes from the rest of the classpath.
+     */
+    static ClassPathScanner forClasspathRoot(File root, ClassLoader parentClassLoader) {
+        return forClasspathRoots(Collections.singletonList(root), parentClassLoader);
+    }
+
+    /**
+     * Same as {@link #forClasspathRoot(File, ClassLoader)}, but classes of all roots
+     * are loaded by the same {@link ClassLoader}, so they can reference each other.
+     */
+    static ClassPathScanner forClasspathRoots(List<File> roots, ClassLoader parentClassLoader) {
+        final URL[] urls = new URL[roots.size()];
+
+        for (int i = 0; i < urls.length; i++) {
+            try {
+                urls[i] = roots.get(i).toURI().toURL();
+            } catch (MalformedURLException e) {
+                throw new IllegalArgumentException("Can not convert " + roots.get(i) + " to url", e);
+            }
+        }
+
+        return new ClassPathScanner(roots, "", new URLClassLoader(urls, parentClassLoader));
+    }
+
+    private static File rootOf(URL url, String packagePath) {
+        try {
+            if ("file".equals(url.getProtocol())) {
+                // Directory of the package, walk up to the root of the classpath entry
+                File root = new File(url.toURI());
+
+                for (int i = 0, depth = packagePath.split("/").length; i < depth && root != null; i++) {
+                    root = root.getParentFile();
+                }
+
+                return root;
+            } else if ("jar".equals(url.getProtocol())) {
+                // jar:file:/path/to/lib.jar!/com/example
+                final String path = url.getPath();
+                final int separatorIndex = path.indexOf("!/");
+
+                if (path.startsWith("file:") && separatorIndex != -1) {
+                    return new File(new URI(path.substring(0, separatorIndex)));
+                }
+            }
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Can not convert " + url + " to file", e);
+        }
+
+        // Unsupported kind of classpath entry
+        return null;
+    }
+
+    @Override
+    public Iterator<ClassTarget> iterator() {
+        return new ClassTargetIterator();
+    }
+
+    /**
+     * Converts path of the class file relative to the root of classpath entry to the name of the class.
+     *
+     * @return name of the class or {@code null} if path does not point to the class that should be checked.
+     */
+    String toClassName(String relativePath) {
+        if (!relativePath.endsWith(CLASS_FILE_EXTENSION)
+                || (packagePath.length() > 0 && !relativePath.startsWith(packagePath + '/'))
+                || relativePath.startsWith("META-INF/")) {
+            return null;
+        }
+
+        final String className = relativePath
+                .substring(0, relativePath.length() - CLASS_FILE_EXTENSION.length())
+                .replace('/', '.');
+
+        if (className.endsWith("package-info") || className.endsWith("module-info")) {
+            return null;
+        }
+
+        return className;
+    }
+
+    /**
+     * Walks roots one by one, roots themselves are walked lazily too.
+     */
+    private class ClassTargetIterator implements Iterator<ClassTarget>, Closeable {
+
+        private final Iterator<File> rootsIterator = roots.iterator();
+
+        private ClassNameSource currentSource;
+
+        private ClassTarget next;
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                if (currentSource == null) {
+                    if (!rootsIterator.hasNext()) {
+                        return false;
+                    }
+
+                    currentSource = open(rootsIterator.next());
+                }
+
+                final String className = currentSource.nextClassName();
+
+                if (className == null) {
+                    currentSource.close();
+                    currentSource = null;
+                } else {
+                    next = ClassTarget.discovered(className, classLoader);
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        public ClassTarget next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            final ClassTarget result = next;
+            next = null;
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("remove");
+        }
+
+        @Override
+        public void close() {
+            if (currentSource != null) {
+                currentSource.close();
+                currentSource = null;
+            }
+        }
+
+        private ClassNameSource open(File root) {
+            if (root.isDirectory()) {
+                return new DirectoryClassNameSource(root);
+            }
+
+            try {
+                return new ZipClassNameSource(new ZipFile(root));
+            } catch (IOException e) {
+                throw new IllegalStateException("Can not open " + root, e);
+            }
+        }
+    }
+
+    private interface ClassNameSource {
+        /**
+         * @return name of the next class or {@code null} if there are no more classes.
+         */
+        String nextClassName();
+
+        void close();
+    }
+
+    private class DirectoryClassNameSource implements ClassNameSource {
+
+        private final String rootPath;
+
+        private final Deque<File> pendingDirectories = new ArrayDeque<File>();
+
+        private final Deque<File> pendingFiles = new ArrayDeque<File>();
+
+        DirectoryClassNameSource(File root) {
+            this.rootPath = root.getAbsolutePath();
+
+            // No need to walk directories outside of the package
+            final File packageDirectory = new File(root, packagePath);
+
+            if (packageDirectory.isDirectory()) {
+                pendingDirectories.add(packageDirectory);
+            }
+        }
+
+        @Override
+        public String nextClassName() {
+            while (true) {
+                final File file = pendingFiles.poll();
+
+                if (file != null) {
+                    final String className = toClassName(relativePathOf(file));
+
+                    if (className != null) {
+                        return className;
+                    }
+                } else {
+                    final File directory = pendingDirectories.poll();
+
+                    if (directory == null) {
+                        return null;
+                    }
+
+                    final File[] children = directory.listFiles();
+
+                    if (children != null) {
+                        for (File child : children) {
+                            if (child.isDirectory()) {
+                                pendingDirectories.add(child);
+                            } else {
+                                pendingFiles.add(child);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        private String relativePathOf(File file) {
+            return file.getAbsolutePath()
+                    .substring(rootPath.length() + 1)
+                    .replace(File.separatorChar, '/');
+        }
+
+        @Override
+        public void close() {
+            pendingDirectories.clear();
+            pendingFiles.clear();
+        }
+    }
+
+    private class ZipClassNameSource implements ClassNameSource {
+
+        private final ZipFile zipFile;
+
+        private final Enumeration<? extends ZipEntry> entries;
+
+        ZipClassNameSource(ZipFile zipFile) {
+            this.zipFile = zipFile;
+            this.entries = zipFile.entries();
+        }
+
+        @Override
+        public String nextClassName() {
+            while (entries.hasMoreElements()) {
+                final ZipEntry entry = entries.nextElement();
+
+                if (!entry.isDirectory()) {
+                    final String className = toClassName(entry.getName());
+
+                    if (className != null) {
+                        return className;
+                    }
+                }
+            }
+
+            return null;
+        }
+
+        @Override
+        public void close() {
+            try {
+                zipFile.close();
+            } catch (IOException e) {
+                // Nothing was written, so nothing can be lost
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Class that needs to be checked.
+ * <p>
+ * It's either already loaded {@link Class} or name of the class with {@link ClassLoader}
+ * that is able to load it, so discovered classes are loaded only when they are actually checked.
+ */
+final class ClassTarget {
+
+    private final String className;
+
+    private final ClassLoader classLoader;
+
+    private final Class clazz;
+
+    private final boolean discovered;
+
+    /**
+     * {@code null} if class is checked with expectations of the {@link PrivateConstructorChecker.Builder}.
+     */
+    private final Expectations expectations;
+
+    private ClassTarget(String className, ClassLoader classLoader, Class clazz, boolean discovered, Expectations expectations) {
+        this.className = className;
+        this.classLoader = classLoader;
+        this.clazz = clazz;
+        this.discovered = discovered;
+        this.expectations = expectations;
+    }
+
+    static ClassTarget of(Class clazz) {
+        return new ClassTarget(clazz.getName(), clazz.getClassLoader(), clazz, false, null);
+    }
+
+    /**
+     * Creates target for the class that was explicitly named by the user, such targets
+     * are checked even if they are interfaces, enums and so on.
+     */
+    static ClassTarget named(String className, ClassLoader classLoader) {
+        return new ClassTarget(className, classLoader, null, false, null);
+    }
+
+    /**
+     * Creates target for the class that was listed in the index together with its own expectations.
+     */
+    static ClassTarget indexed(String className, ClassLoader classLoader, Expectations expectations) {
+        return new ClassTarget(className, classLoader, null, false, expectations);
+    }
+
+    /**
+     * Creates target for the class that was found by scanning, such targets
+     * are silently skipped if they turn out to be interfaces, enums and so on.
+     */
+    static ClassTarget discovered(String className, ClassLoader classLoader) {
+        return new ClassTarget(className, classLoader, null, true, null);
+    }
+
+    /**
+     * Creates target for the same class that will be loaded by another {@link ClassLoader}.
+     */
+    ClassTarget reloadedBy(ClassLoader classLoader) {
+        return new ClassTarget(className, classLoader, null, discovered, expectations);
+    }
+
+    /**
+     * Creates target for the same class that will be checked with passed expectations.
+     */
+    ClassTarget withExpectations(Expectations expectations) {
+        return new ClassTarget(className, classLoader, clazz, discovered, expectations);
+    }
+
+    String getClassName() {
+        return className;
+    }
+
+    /**
+     * @return loader of the class, {@code null} for classes loaded by the bootstrap class loader.
+     */
+    ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    boolean isDiscovered() {
+        return discovered;
+    }
+
+    /**
+     * @return own expectations of the class, {@code null} if it's checked with expectations of the builder.
+     */
+    Expectations getExpectations() {
+        return expectations;
+    }
+
+    /**
+     * Loads the class without initializing it.
+     *
+     * @return loaded class.
+     */
+    Class load() {
+        if (clazz != null) {
+            return clazz;
+        }
+
+        try {
+            return Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Can not load class " + className, e);
+        } catch (LinkageError e) {
+            throw new IllegalStateException("Can not load class " + className, e);
+        }
+    }
+
+    /**
+     * Opens {@code .class} file of the target without loading the class.
+     *
+     * @return stream with the bytecode of the class, caller is responsible for closing it.
+     * @throws IOException if class file can not be found or opened.
+     */
+    InputStream openClassFile() throws IOException {
+        final String resourceName = className.replace('.', '/') + ".class";
+
+        final InputStream inputStream = classLoader != null
+                ? classLoader.getResourceAsStream(resourceName)
+                : ClassLoader.getSystemResourceAsStream(resourceName);
+
+        if (inputStream == null) {
+            throw new IOException("Can not find class file of " + className);
+        }
+
+        return inputStream;
+    }
+
+    /**
+     * Reads {@code .class} file of the target without loading the class.
+     *
+     * @return content of the class file.
+     * @throws IOException if class file can not be found or read.
+     */
+    byte[] readClassFile() throws IOException {
+        final InputStream inputStream = openClassFile();
+
+        try {
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(4096);
+            final byte[] buffer = new byte[4096];
+            int read;
+
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+
+            return outputStream.toByteArray();
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return className;
+    }
+}
@@ -0,0 +1,128 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Declared constructors of the class, looked up once per class in the JVM, so repeated checks of the same class
+ * from different tests do not copy constructors and their parameter types again.
+ * <p>
+ * Metadata references its class via the constructor, so even softly held metadata keeps the weak key of the cache
+ * reachable until the JVM runs low on memory. That's why only classes that live as long as the checker itself
+ * are cached, classes of other class loaders, for example of {@link IsolatedBatches} or of requests
+ * of {@link CheckerDaemon}, are looked up on each check and can be unloaded right after it.
+ */
+final class ConstructorMetadata {
+
+    private static final Map<Class, SoftReference<ConstructorMetadata>> CACHE
+            = new WeakHashMap<Class, SoftReference<ConstructorMetadata>>();
+
+    private final int declaredConstructorsCount;
+
+    /**
+     * {@code null} if class has no declared constructors, for example it's an interface.
+     */
+    private final Constructor<?> constructor;
+
+    private final boolean privateConstructor;
+
+    private final Class<?>[] parameterTypes;
+
+    private volatile boolean accessible;
+
+    /**
+     * Described expectations that the class passed with, see {@link PrivateConstructorChecker.Builder#memoized()}.
+     */
+    private final Set<String> passedExpectations = Collections.synchronizedSet(new HashSet<String>(2));
+
+    private ConstructorMetadata(Constructor<?>[] constructors) {
+        this.declaredConstructorsCount = constructors.length;
+        this.constructor = constructors.length == 0 ? null : constructors[0];
+        this.privateConstructor = constructor != null && Modifier.isPrivate(constructor.getModifiers());
+        this.parameterTypes = constructor == null ? new Class<?>[0] : constructor.getParameterTypes();
+    }
+
+    static ConstructorMetadata of(Class clazz) {
+        if (!isCacheable(clazz.getClassLoader())) {
+            return new ConstructorMetadata(clazz.getDeclaredConstructors());
+        }
+
+        synchronized (CACHE) {
+            final SoftReference<ConstructorMetadata> reference = CACHE.get(clazz);
+            final ConstructorMetadata metadata = reference == null ? null : reference.get();
+
+            if (metadata != null) {
+                return metadata;
+            }
+        }
+
+        // Looked up outside of the lock, so parallel checks of different classes do not wait for each other
+        final ConstructorMetadata metadata = new ConstructorMetadata(clazz.getDeclaredConstructors());
+
+        synchronized (CACHE) {
+            CACHE.put(clazz, new SoftReference<ConstructorMetadata>(metadata));
+        }
+
+        return metadata;
+    }
+
+    /**
+     * @return {@code true} if class loader is the loader of the checker, the system one or one of their parents.
+     */
+    private static boolean isCacheable(ClassLoader classLoader) {
+        return classLoader == null
+                || isSelfOrParent(classLoader, ConstructorMetadata.class.getClassLoader())
+                || isSelfOrParent(classLoader, ClassLoader.getSystemClassLoader());
+    }
+
+    private static boolean isSelfOrParent(ClassLoader classLoader, ClassLoader child) {
+        for (ClassLoader loader = child; loader != null; loader = loader.getParent()) {
+            if (loader == classLoader) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    int getDeclaredConstructorsCount() {
+        return declaredConstructorsCount;
+    }
+
+    /**
+     * @return first declared constructor, made accessible on the first call, class must have constructors.
+     */
+    Constructor<?> getAccessibleConstructor() {
+        if (!accessible) {
+            constructor.setAccessible(true);
+            accessible = true;
+        }
+
+        return constructor;
+    }
+
+    boolean isPrivateConstructor() {
+        return privateConstructor;
+    }
+
+    /**
+     * @return parameter types of the constructor, must not be modified.
+     */
+    Class<?>[] getParameterTypes() {
+        return parameterTypes;
+    }
+
+    boolean isPassed(String describedExpectations) {
+        return passedExpectations.contains(describedExpectations);
+    }
+
+    void markPassed(String describedExpectations) {
+        passedExpectations.add(describedExpectations);
+    }
+}
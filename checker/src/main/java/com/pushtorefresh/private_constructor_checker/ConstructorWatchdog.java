@@ -0,0 +1,124 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Invokes constructor on the separate thread and stops waiting for it after the deadline,
+ * so constructor or static initializer that never completes fails the check of its class
+ * instead of blocking the checks of other classes.
+ * <p>
+ * Stuck thread can not be stopped, it's interrupted and left running as a daemon.
+ */
+final class ConstructorWatchdog {
+
+    private ConstructorWatchdog() {
+        throw new IllegalStateException("No instances please!");
+    }
+
+    static void newInstance(final Constructor<?> constructor, long timeoutNanos)
+            throws InstantiationException, IllegalAccessException, InvocationTargetException {
+
+        final FutureTask<Object> task = new FutureTask<Object>(new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                return constructor.newInstance();
+            }
+        });
+
+        final Thread thread = new Thread(task, "private-constructor-checker-" + constructor.getDeclaringClass().getName());
+        // Stuck constructor must not prevent JVM from exit
+        thread.setDaemon(true);
+        thread.start();
+
+        try {
+            task.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+
+            if (cause instanceof InvocationTargetException) {
+                throw (InvocationTargetException) cause;
+            } else if (cause instanceof InstantiationException) {
+                throw (InstantiationException) cause;
+            } else if (cause instanceof IllegalAccessException) {
+                throw (IllegalAccessException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new IllegalStateException(cause);
+            }
+        } catch (TimeoutException e) {
+            final String threadDump = dumpOf(thread);
+            thread.interrupt();
+            throw new IllegalStateException("Constructor of " + constructor.getDeclaringClass()
+                    + " did not complete in " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms\n" + threadDump);
+        } catch (InterruptedException e) {
+            thread.interrupt();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for constructor of " + constructor.getDeclaringClass(), e);
+        }
+    }
+
+    /**
+     * Dumps the stuck thread and the thread that holds the lock it waits for, if any.
+     */
+    static String dumpOf(Thread thread) {
+        final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        final ThreadInfo threadInfo = threadInfoOf(threadMXBean, thread.getId());
+
+        if (threadInfo == null) {
+            // Thread completed right after the deadline
+            return "\"" + thread.getName() + "\" TERMINATED";
+        }
+
+        final StringBuilder stringBuilder = new StringBuilder();
+        appendThreadInfo(stringBuilder, threadInfo);
+
+        if (threadInfo.getLockOwnerId() != -1) {
+            final ThreadInfo lockOwnerInfo = threadInfoOf(threadMXBean, threadInfo.getLockOwnerId());
+
+            if (lockOwnerInfo != null) {
+                stringBuilder.append("\nLock is held by:\n");
+                appendThreadInfo(stringBuilder, lockOwnerInfo);
+            }
+        }
+
+        return stringBuilder.toString();
+    }
+
+    private static ThreadInfo threadInfoOf(ThreadMXBean threadMXBean, long threadId) {
+        final boolean lockedMonitors = threadMXBean.isObjectMonitorUsageSupported();
+        final boolean lockedSynchronizers = threadMXBean.isSynchronizerUsageSupported();
+        return threadMXBean.getThreadInfo(new long[]{threadId}, lockedMonitors, lockedSynchronizers)[0];
+    }
+
+    private static void appendThreadInfo(StringBuilder stringBuilder, ThreadInfo threadInfo) {
+        stringBuilder
+                .append('"')
+                .append(threadInfo.getThreadName())
+                .append("\" ")
+                .append(threadInfo.getThreadState());
+
+        if (threadInfo.getLockName() != null) {
+            stringBuilder.append(" on ").append(threadInfo.getLockName());
+        }
+
+        if (threadInfo.getLockOwnerName() != null) {
+            stringBuilder.append(" owned by \"").append(threadInfo.getLockOwnerName()).append('"');
+        }
+
+        for (StackTraceElement stackTraceElement : threadInfo.getStackTrace()) {
+            stringBuilder.append("\n\tat ").append(stackTraceElement);
+        }
+    }
+}
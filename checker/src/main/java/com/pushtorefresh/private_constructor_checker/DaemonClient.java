@@ -0,0 +1,205 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Forwards checks to the {@link CheckerDaemon} if it's running.
+ */
+final class DaemonClient {
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 1000;
+
+    private DaemonClient() {
+        throw new IllegalStateException("No instances please!");
+    }
+
+    /**
+     * @param targets      classes that need to be checked.
+     * @param expectations expectations of each class, in the same order as classes.
+     * @param flags        flags of {@link DaemonProtocol}.
+     * @return result of the check made by daemon, {@code null} if daemon is not running or
+     *         classes can not be loaded by it, so they need to be checked in-process.
+     */
+    static CheckResult check(File daemonFile, List<ClassTarget> targets, List<Expectations> expectations, int flags) {
+        final List<String> classpath = classpathOf(targets);
+
+        if (classpath == null) {
+            return null;
+        }
+
+        final String[] portAndToken;
+
+        try {
+            portAndToken = DaemonProtocol.readDaemonFile(daemonFile);
+        } catch (IOException e) {
+            return null;
+        }
+
+        if (portAndToken == null) {
+            return null;
+        }
+
+        final int port;
+
+        try {
+            port = Integer.parseInt(portAndToken[0]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        final Socket socket = new Socket();
+
+        try {
+            try {
+                socket.connect(new InetSocketAddress(InetAddress.getByName(null), port), CONNECT_TIMEOUT_MILLIS);
+            } catch (IOException e) {
+                // Daemon file left by the daemon that is not running anymore
+                return null;
+            }
+
+            final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            final DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+
+            output.writeUTF(DaemonProtocol.VERSION);
+            output.writeUTF(portAndToken[1]);
+            output.writeInt(flags);
+            output.writeInt(classpath.size());
+
+            for (String path : classpath) {
+                output.writeUTF(path);
+            }
+
+            output.writeInt(targets.size());
+
+            for (int i = 0; i < targets.size(); i++) {
+                final ClassTarget target = targets.get(i);
+                output.writeUTF(target.getClassName());
+                output.writeBoolean(target.isDiscovered());
+                DaemonProtocol.writeExpectations(output, expectations.get(i));
+            }
+
+            output.flush();
+
+            if (!DaemonProtocol.VERSION.equals(input.readUTF())) {
+                // Daemon of another version of the checker
+                return null;
+            }
+
+            return readResult(daemonFile, input);
+        } catch (IOException e) {
+            return null;
+        } finally {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Nothing to do
+            }
+        }
+    }
+
+    private static CheckResult readResult(File daemonFile, DataInputStream input) throws IOException {
+        if (input.readInt() != DaemonProtocol.STATUS_OK) {
+            throw new IllegalStateException("Daemon " + daemonFile + " rejected the check: " + DaemonProtocol.readLongString(input));
+        }
+
+        final int checkedClassesCount = input.readInt();
+        final int failuresCount = input.readInt();
+        final List<CheckFailure> failures = new ArrayList<CheckFailure>(failuresCount);
+
+        for (int i = 0; i < failuresCount; i++) {
+            final String className = input.readUTF();
+            final String errorClassName = input.readUTF();
+            final String message = DaemonProtocol.readNullableString(input);
+            failures.add(new CheckFailure(className, errorOf(errorClassName, message)));
+        }
+
+        return new CheckResult(checkedClassesCount, Collections.unmodifiableList(failures));
+    }
+
+    /**
+     * Checks fail with errors of the JDK, anything else is reported with the name of its type.
+     */
+    private static Throwable errorOf(String errorClassName, String message) {
+        if (AssertionError.class.getName().equals(errorClassName)) {
+            return new AssertionError(message);
+        } else if (IllegalStateException.class.getName().equals(errorClassName)) {
+            return new IllegalStateException(message);
+        } else if (RuntimeException.class.getName().equals(errorClassName)) {
+            return new RuntimeException(message);
+        } else {
+            return new RuntimeException(message == null ? errorClassName : errorClassName + ": " + message);
+        }
+    }
+
+    /**
+     * Collects classpath of the loaders of the classes, parent loaders first.
+     *
+     * @return paths of the classpath, {@code null} if some loader is not backed by local files.
+     */
+    static List<String> classpathOf(List<ClassTarget> targets) {
+        final ClassLoader systemClassLoader = ClassLoader.getSystemClassLoader();
+        final ClassLoader jdkClassLoader = systemClassLoader.getParent();
+        final Set<String> classpath = new LinkedHashSet<String>();
+        final Set<ClassLoader> visitedClassLoaders = new LinkedHashSet<ClassLoader>();
+
+        for (ClassTarget target : targets) {
+            final List<ClassLoader> chain = new ArrayList<ClassLoader>();
+
+            for (ClassLoader classLoader = target.getClassLoader();
+                 classLoader != null && classLoader != jdkClassLoader;
+                 classLoader = classLoader.getParent()) {
+                chain.add(classLoader);
+            }
+
+            for (int i = chain.size() - 1; i >= 0; i--) {
+                final ClassLoader classLoader = chain.get(i);
+
+                if (!visitedClassLoaders.add(classLoader)) {
+                    continue;
+                }
+
+                if (classLoader == systemClassLoader) {
+                    for (String path : System.getProperty("java.class.path").split(File.pathSeparator)) {
+                        if (path.length() > 0) {
+                            classpath.add(new File(path).getAbsolutePath());
+                        }
+                    }
+                } else if (classLoader instanceof URLClassLoader) {
+                    for (URL url : ((URLClassLoader) classLoader).getURLs()) {
+                        if (!"file".equals(url.getProtocol())) {
+                            return null;
+                        }
+
+                        try {
+                            classpath.add(new File(url.toURI()).getAbsolutePath());
+                        } catch (URISyntaxException e) {
+                            return null;
+                        } catch (IllegalArgumentException e) {
+                            return null;
+                        }
+                    }
+                } else {
+                    return null;
+                }
+            }
+        }
+
+        return new ArrayList<String>(classpath);
+    }
+}
@@ -0,0 +1,128 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+
+/**
+ * Messages between {@link CheckerDaemon} and its clients, written by {@link DataOutputStream}.
+ * <p>
+ * Request: version, token, flags, classpath and checked classes with their expectations.
+ * Classpath is sent as absolute paths of the directories and jars.
+ * Response: version, status and either count of the checked classes with failures or the error.
+ */
+final class DaemonProtocol {
+
+    static final String VERSION = "private-constructor-checker-daemon/1";
+
+    static final int FLAG_BYTECODE_ONLY = 1;
+    static final int FLAG_PARALLEL = 2;
+    static final int FLAG_FAIL_FAST = 4;
+
+    static final int STATUS_OK = 0;
+    static final int STATUS_ERROR = 1;
+
+    private DaemonProtocol() {
+        throw new IllegalStateException("No instances please!");
+    }
+
+    /**
+     * Reads daemon file written by {@link CheckerDaemon}, which contains port and token on separate lines.
+     *
+     * @return port and token, {@code null} if file does not exist.
+     */
+    static String[] readDaemonFile(File daemonFile) throws IOException {
+        if (!daemonFile.isFile()) {
+            return null;
+        }
+
+        final InputStream inputStream = new FileInputStream(daemonFile);
+
+        try {
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, "UTF-8"));
+            final String port = reader.readLine();
+            final String token = reader.readLine();
+
+            if (port == null || token == null) {
+                // Daemon is writing the file right now
+                return null;
+            }
+
+            return new String[]{port, token};
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    static void writeExpectations(DataOutputStream output, Expectations expectations) throws IOException {
+        writeNullableString(output, expectations.getTypeOfExceptionName());
+        writeNullableString(output, expectations.getExceptionMessage());
+
+        final String[] parameterNames = expectations.getParameterNames();
+
+        if (parameterNames == null) {
+            output.writeInt(-1);
+        } else {
+            output.writeInt(parameterNames.length);
+
+            for (String parameterName : parameterNames) {
+                output.writeUTF(parameterName);
+            }
+        }
+    }
+
+    static Expectations readExpectations(DataInputStream input) throws IOException {
+        final String typeOfExceptionName = readNullableString(input);
+        final String exceptionMessage = readNullableString(input);
+        final int parametersCount = input.readInt();
+        String[] parameterNames = null;
+
+        if (parametersCount >= 0) {
+            parameterNames = new String[parametersCount];
+
+            for (int i = 0; i < parametersCount; i++) {
+                parameterNames[i] = input.readUTF();
+            }
+        }
+
+        return Expectations.named(typeOfExceptionName, exceptionMessage, parameterNames);
+    }
+
+    static void writeNullableString(DataOutputStream output, String value) throws IOException {
+        output.writeBoolean(value != null);
+
+        if (value != null) {
+            writeLongString(output, value);
+        }
+    }
+
+    static String readNullableString(DataInputStream input) throws IOException {
+        return input.readBoolean() ? readLongString(input) : null;
+    }
+
+    /**
+     * Unlike {@link DataOutputStream#writeUTF(String)} is not limited by 64 KiB, messages may contain stack dumps.
+     */
+    static void writeLongString(DataOutputStream output, String value) throws IOException {
+        final byte[] bytes = value.getBytes("UTF-8");
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    static String readLongString(DataInputStream input) throws IOException {
+        final int length = input.readInt();
+
+        if (length < 0) {
+            throw new IOException("Negative length of the string " + length);
+        }
+
+        final byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, "UTF-8");
+    }
+}
@@ -0,0 +1,192 @@
+package com.pushtorefresh.private_constructor_checker;
+
+/**
+ * Expected exception and parameters of the constructor.
+ * <p>
+ * Expectations set via {@link PrivateConstructorChecker.Builder} refer to already loaded types,
+ * expectations read from the index refer to the types by name and are resolved by the loader
+ * of the checked class right before the check.
+ */
+final class Expectations {
+
+    static final Expectations NONE = new Expectations(null, null, null, null, null);
+
+    private static final Class[] PRIMITIVE_TYPES = {
+            boolean.class, byte.class, char.class, short.class, int.class, long.class, float.class, double.class
+    };
+
+    /**
+     * {@code null} if type of the exception is not checked.
+     */
+    private final String typeOfExceptionName;
+
+    /**
+     * {@code null} if message of the exception is not checked.
+     */
+    private final String exceptionMessage;
+
+    /**
+     * {@code null} if parameters were not specified.
+     */
+    private final String[] parameterNames;
+
+    /**
+     * {@code null} if type of the exception is not checked or was not resolved yet.
+     */
+    private final Class<? extends Throwable> typeOfException;
+
+    /**
+     * {@code null} if parameters were not specified or were not resolved yet.
+     */
+    private final Class[] parameters;
+
+    private Expectations(String typeOfExceptionName, String exceptionMessage, String[] parameterNames,
+                         Class<? extends Throwable> typeOfException, Class[] parameters) {
+        this.typeOfExceptionName = typeOfExceptionName;
+        this.exceptionMessage = exceptionMessage;
+        this.parameterNames = parameterNames;
+        this.typeOfException = typeOfException;
+        this.parameters = parameters;
+    }
+
+    static Expectations of(Class<? extends Throwable> typeOfException, String exceptionMessage, Class[] parameters) {
+        String[] parameterNames = null;
+
+        if (parameters != null) {
+            parameters = parameters.clone();
+            parameterNames = new String[parameters.length];
+
+            for (int i = 0; i < parameters.length; i++) {
+                parameterNames[i] = parameters[i].getName();
+            }
+        }
+
+        return new Expectations(
+                typeOfException == null ? null : typeOfException.getName(),
+                exceptionMessage,
+                parameterNames,
+                typeOfException,
+                parameters
+        );
+    }
+
+    /**
+     * @param typeOfExceptionName binary name of the type of the exception, {@code null} if it's not checked.
+     * @param exceptionMessage    message of the exception, {@code null} if it's not checked.
+     * @param parameterNames      names of the types of the parameters as returned by {@link Class#getName()},
+     *                            {@code null} if parameters are not specified.
+     */
+    static Expectations named(String typeOfExceptionName, String exceptionMessage, String[] parameterNames) {
+        return new Expectations(
+                typeOfExceptionName,
+                exceptionMessage,
+                parameterNames == null ? null : parameterNames.clone(),
+                null,
+                null
+        );
+    }
+
+    private boolean isResolved() {
+        return (typeOfExceptionName == null || typeOfException != null)
+                && (parameterNames == null || parameters != null);
+    }
+
+    /**
+     * Loads named types, expectations that refer to loaded types are returned as is.
+     *
+     * @param classLoader loader of the checked class, {@code null} for the bootstrap class loader.
+     * @return expectations that refer to loaded types.
+     */
+    Expectations resolve(ClassLoader classLoader) {
+        if (isResolved()) {
+            return this;
+        }
+
+        Class<? extends Throwable> typeOfException = null;
+
+        if (typeOfExceptionName != null) {
+            final Class<?> type = loadType(typeOfExceptionName, classLoader);
+
+            if (!Throwable.class.isAssignableFrom(type)) {
+                throw new IllegalStateException("Expected type of exception " + typeOfExceptionName + " is not Throwable");
+            }
+
+            typeOfException = type.asSubclass(Throwable.class);
+        }
+
+        Class[] parameters = null;
+
+        if (parameterNames != null) {
+            parameters = new Class[parameterNames.length];
+
+            for (int i = 0; i < parameterNames.length; i++) {
+                parameters[i] = loadType(parameterNames[i], classLoader);
+            }
+        }
+
+        return new Expectations(typeOfExceptionName, exceptionMessage, parameterNames, typeOfException, parameters);
+    }
+
+    private static Class loadType(String name, ClassLoader classLoader) {
+        for (Class primitiveType : PRIMITIVE_TYPES) {
+            if (primitiveType.getName().equals(name)) {
+                return primitiveType;
+            }
+        }
+
+        try {
+            // Arrays are named as "[Ljava.lang.String;" and "[I", Class.forName() understands both
+            return Class.forName(name, false, classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Can not load expected type " + name, e);
+        } catch (LinkageError e) {
+            throw new IllegalStateException("Can not load expected type " + name, e);
+        }
+    }
+
+    Class<? extends Throwable> getTypeOfException() {
+        return typeOfException;
+    }
+
+    String getTypeOfExceptionName() {
+        return typeOfExceptionName;
+    }
+
+    String getExceptionMessage() {
+        return exceptionMessage;
+    }
+
+    Class[] getParameters() {
+        return parameters;
+    }
+
+    String[] getParameterNames() {
+        return parameterNames;
+    }
+
+    /**
+     * Describes expectations for the key of {@link ResultCache}, the same for named and loaded types.
+     */
+    void describeTo(StringBuilder stringBuilder) {
+        stringBuilder
+                .append("type=").append(typeOfExceptionName)
+                .append(";message=");
+
+        if (exceptionMessage != null) {
+            // Length guards against messages that look like other expectations
+            stringBuilder.append(exceptionMessage.length()).append(':').append(exceptionMessage);
+        } else {
+            stringBuilder.append("null");
+        }
+
+        stringBuilder.append(";parameters=");
+
+        if (parameterNames != null) {
+            for (String parameterName : parameterNames) {
+                stringBuilder.append(parameterName).append(',');
+            }
+        } else {
+            stringBuilder.append("null");
+        }
+    }
+}
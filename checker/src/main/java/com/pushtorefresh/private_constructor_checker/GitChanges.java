@@ -0,0 +1,188 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Finds source files changed in the local git repository, no remotes are contacted.
+ * <p>
+ * Classes are matched to the changed {@code .java} files by their names: {@code com.example.Foo$Bar}
+ * is selected if a file with path ending with {@code com/example/Foo.java} was changed, so the source root
+ * does not matter. Secondary top-level classes declared in a file with another name are not selected.
+ */
+final class GitChanges {
+
+    static final String FULL_CHECK_PROPERTY = "private_constructor_checker.full_check";
+
+    static final String FULL_CHECK_ENVIRONMENT_VARIABLE = "PRIVATE_CONSTRUCTOR_CHECKER_FULL_CHECK";
+
+    private static final String JAVA_FILE_EXTENSION = ".java";
+
+    private GitChanges() {
+        throw new IllegalStateException("No instances please!");
+    }
+
+    /**
+     * Reads paths of the changed files relative to the root of the repository.
+     *
+     * @param repository    directory of the repository or any of its subdirectories.
+     * @param revisionRange range of {@code git diff}, for example {@code "origin/master...HEAD"},
+     *                      {@code null} for uncommitted changes of the working tree, including untracked files.
+     * @return paths of the changed files.
+     */
+    static Set<String> readChangedPaths(File repository, String revisionRange) {
+        final Set<String> changedPaths = new HashSet<String>();
+
+        if (revisionRange != null) {
+            changedPaths.addAll(git(repository, "diff", "--name-only", "-z", revisionRange, "--"));
+        } else {
+            changedPaths.addAll(git(repository, "diff", "--name-only", "-z", "HEAD", "--"));
+            changedPaths.addAll(git(repository, "ls-files", "--others", "--exclude-standard", "--full-name", "-z"));
+        }
+
+        return changedPaths;
+    }
+
+    /**
+     * @return targets declared in the changed source files, taken lazily from the passed iterator.
+     */
+    static Iterator<ClassTarget> filter(Iterator<ClassTarget> targets, Set<String> changedPaths) {
+        final Set<String> changedSourcePathSuffixes = sourcePathSuffixesOf(changedPaths);
+
+        return new TargetFilter(targets) {
+            @Override
+            boolean accept(ClassTarget target) {
+                return changedSourcePathSuffixes.contains(sourcePathOf(target.getClassName()));
+            }
+        };
+    }
+
+    /**
+     * @return all suffixes of the paths of changed {@code .java} files that start after {@code '/'},
+     * so a class can be matched by a single lookup whatever its source root is.
+     */
+    static Set<String> sourcePathSuffixesOf(Set<String> changedPaths) {
+        final Set<String> suffixes = new HashSet<String>();
+
+        for (String path : changedPaths) {
+            if (!path.endsWith(JAVA_FILE_EXTENSION)) {
+                continue;
+            }
+
+            suffixes.add(path);
+
+            for (int i = path.indexOf('/'); i != -1; i = path.indexOf('/', i + 1)) {
+                suffixes.add(path.substring(i + 1));
+            }
+        }
+
+        return suffixes;
+    }
+
+    /**
+     * @return path of the source file of the class relative to the source root, for example
+     * {@code "com/example/Foo.java"} for {@code "com.example.Foo$Bar"}.
+     */
+    static String sourcePathOf(String className) {
+        final int nestedClassSeparatorIndex = className.indexOf('$');
+        final String topLevelClassName = nestedClassSeparatorIndex == -1
+                ? className
+                : className.substring(0, nestedClassSeparatorIndex);
+
+        return topLevelClassName.replace('.', '/') + JAVA_FILE_EXTENSION;
+    }
+
+    private static List<String> git(File repository, String... args) {
+        final List<String> command = new ArrayList<String>(args.length + 1);
+        command.add("git");
+        command.addAll(Arrays.asList(args));
+
+        final Process process;
+
+        try {
+            process = new ProcessBuilder(command).directory(repository).start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Can not run git, it should be installed and available on the PATH", e);
+        }
+
+        try {
+            process.getOutputStream().close();
+
+            // Read on another thread, otherwise git blocks on the full stderr pipe while stdout is read
+            final FutureTask<String> errorTask = new FutureTask<String>(new Callable<String>() {
+                @Override
+                public String call() throws IOException {
+                    return readFully(process.getErrorStream());
+                }
+            });
+
+            final Thread errorThread = new Thread(errorTask, "private-constructor-checker-git-stderr");
+            errorThread.setDaemon(true);
+            errorThread.start();
+
+            final String output = readFully(process.getInputStream());
+
+            if (process.waitFor() != 0) {
+                throw new IllegalStateException("Can not read changes of git repository " + repository + ": " + errorOf(errorTask).trim());
+            }
+
+            final List<String> paths = new ArrayList<String>();
+
+            for (String path : output.split("\0")) {
+                if (path.length() > 0) {
+                    paths.add(path);
+                }
+            }
+
+            return paths;
+        } catch (IOException e) {
+            throw new IllegalStateException("Can not read changes of git repository " + repository, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading changes of git repository " + repository, e);
+        } finally {
+            process.destroy();
+        }
+    }
+
+    private static String errorOf(FutureTask<String> errorTask) throws IOException, InterruptedException {
+        try {
+            return errorTask.get();
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new IllegalStateException(cause);
+            }
+        }
+    }
+
+    private static String readFully(InputStream inputStream) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[4096];
+        int read;
+
+        while ((read = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, read);
+        }
+
+        return outputStream.toString("UTF-8");
+    }
+}
@@ -0,0 +1,193 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * Splits targets into batches and reloads classes of each batch by the new {@link ClassLoader},
+ * so after the batch is checked its classes together with everything their static initializers
+ * allocated become unreachable and can be unloaded.
+ * <p>
+ * Loader of the batch defines only classes from the same classpath roots as the targets of the batch,
+ * everything else including classes that are compared by identity (expected type of the exception
+ * and expected parameters) is loaded by the original {@link ClassLoader} of the target.
+ */
+final class IsolatedBatches implements Iterator<ClassTarget>, Closeable {
+
+    private final Iterator<ClassTarget> targets;
+
+    private final int batchSize;
+
+    private final Set<String> sharedClassNames;
+
+    private final Map<ClassLoader, IsolatedClassLoader> batchClassLoaders = new HashMap<ClassLoader, IsolatedClassLoader>();
+
+    private int batchTargetsCount;
+
+    IsolatedBatches(Iterator<ClassTarget> targets, int batchSize, Set<String> sharedClassNames) {
+        this.targets = targets;
+        this.batchSize = batchSize;
+        this.sharedClassNames = sharedClassNames;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return targets.hasNext();
+    }
+
+    @Override
+    public ClassTarget next() {
+        final ClassTarget target = targets.next();
+        final ClassLoader originalClassLoader = target.getClassLoader();
+
+        if (originalClassLoader == null) {
+            // Classes of the JDK can not be reloaded
+            return target;
+        }
+
+        if (batchTargetsCount == batchSize) {
+            // Targets of the previous batch still reference its loaders until they are checked
+            batchClassLoaders.clear();
+            batchTargetsCount = 0;
+        }
+
+        batchTargetsCount++;
+
+        IsolatedClassLoader classLoader = batchClassLoaders.get(originalClassLoader);
+
+        if (classLoader == null) {
+            classLoader = new IsolatedClassLoader(originalClassLoader, sharedClassNames);
+            batchClassLoaders.put(originalClassLoader, classLoader);
+        }
+
+        final String resourceName = resourceNameOf(target.getClassName());
+        final URL resource = originalClassLoader.getResource(resourceName);
+
+        if (resource == null) {
+            // Class was generated at runtime, it can be loaded only by the original loader
+            return target;
+        }
+
+        final String url = resource.toString();
+        classLoader.addRoot(url.substring(0, url.length() - resourceName.length()));
+
+        return target.reloadedBy(classLoader);
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove");
+    }
+
+    @Override
+    public void close() throws IOException {
+        batchClassLoaders.clear();
+
+        if (targets instanceof Closeable) {
+            ((Closeable) targets).close();
+        }
+    }
+
+    private static String resourceNameOf(String className) {
+        return className.replace('.', '/') + ".class";
+    }
+
+    /**
+     * Child-first {@link ClassLoader} for classes of the registered classpath roots.
+     */
+    static final class IsolatedClassLoader extends ClassLoader {
+
+        private final Set<String> roots = new CopyOnWriteArraySet<String>();
+
+        private final Set<String> sharedClassNames;
+
+        IsolatedClassLoader(ClassLoader parent, Set<String> sharedClassNames) {
+            super(parent);
+            this.sharedClassNames = sharedClassNames;
+        }
+
+        void addRoot(String root) {
+            roots.add(root);
+        }
+
+        @Override
+        protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            Class<?> clazz = findLoadedClass(name);
+
+            if (clazz == null) {
+                final byte[] classFile = sharedClassNames.contains(name) ? null : readOwnClassFile(name);
+
+                if (classFile == null) {
+                    return super.loadClass(name, resolve);
+                }
+
+                definePackageOf(name);
+                clazz = defineClass(name, classFile, 0, classFile.length);
+            }
+
+            if (resolve) {
+                resolveClass(clazz);
+            }
+
+            return clazz;
+        }
+
+        /**
+         * @return content of the class file if it belongs to one of the roots, {@code null} otherwise.
+         */
+        private byte[] readOwnClassFile(String name) throws ClassNotFoundException {
+            final String resourceName = resourceNameOf(name);
+            final URL resource = getParent().getResource(resourceName);
+
+            if (resource == null) {
+                return null;
+            }
+
+            final String url = resource.toString();
+
+            if (!roots.contains(url.substring(0, url.length() - resourceName.length()))) {
+                return null;
+            }
+
+            try {
+                final InputStream inputStream = resource.openStream();
+
+                try {
+                    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(4096);
+                    final byte[] buffer = new byte[4096];
+                    int read;
+
+                    while ((read = inputStream.read(buffer)) != -1) {
+                        outputStream.write(buffer, 0, read);
+                    }
+
+                    return outputStream.toByteArray();
+                } finally {
+                    inputStream.close();
+                }
+            } catch (IOException e) {
+                throw new ClassNotFoundException("Can not read class file of " + name, e);
+            }
+        }
+
+        private void definePackageOf(String className) {
+            final int lastDotIndex = className.lastIndexOf('.');
+
+            if (lastDotIndex != -1) {
+                final String packageName = className.substring(0, lastDotIndex);
+
+                if (getPackage(packageName) == null) {
+                    definePackage(packageName, null, null, null, null, null, null, null);
+                }
+            }
+        }
+    }
+}
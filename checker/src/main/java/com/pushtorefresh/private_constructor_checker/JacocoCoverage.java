@@ -0,0 +1,358 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds classes whose constructors were already executed according to JaCoCo execution data ({@code .exec} file).
+ * <p>
+ * Execution data is read block by block and probes of each class are consumed as they are read,
+ * so memory does not depend on the size of the file, only names of the covered classes are kept.
+ * <p>
+ * JaCoCo numbers probes of a class in the order of the methods in the class file. Constructor is covered
+ * if one of its probes was hit, which can be told only if the constructor and all methods before it
+ * are straight-line code: then JaCoCo places probes only at return and throw instructions and at starts
+ * of the lines with method invocations that are reached from the previous instruction, same as its
+ * {@code LabelFlowAnalyzer} does.
+ * Classes with other methods before the constructor, changed classes and classes whose class files
+ * can not be found are never considered covered, so they are always checked.
+ */
+final class JacocoCoverage {
+
+    private static final int BLOCK_HEADER = 0x01;
+    private static final int BLOCK_SESSION_INFO = 0x10;
+    private static final int BLOCK_EXECUTION_DATA = 0x11;
+
+    private static final char MAGIC_NUMBER = 0xC0C0;
+    private static final char FORMAT_VERSION = 0x1007;
+
+    private static final long[] CRC64_TABLE = new long[256];
+
+    static {
+        for (int i = 0; i < CRC64_TABLE.length; i++) {
+            long value = i;
+
+            for (int j = 0; j < 8; j++) {
+                value = (value & 1) == 1 ? (value >>> 1) ^ 0xd800000000000000L : value >>> 1;
+            }
+
+            CRC64_TABLE[i] = value;
+        }
+    }
+
+    /**
+     * Constructor can not be found among probes of the class.
+     */
+    private static final ConstructorProbes UNKNOWN = new ConstructorProbes(0, 0, 0);
+
+    private final ClassLoader classLoader;
+
+    /**
+     * Probes of the constructors by VM names of the classes, classes often repeat in execution data of several sessions.
+     */
+    private final Map<String, ConstructorProbes> constructorProbes = new HashMap<String, ConstructorProbes>();
+
+    private final Set<String> coveredClassNames = new HashSet<String>();
+
+    private JacocoCoverage(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Reads execution data.
+     *
+     * @param execFile    JaCoCo execution data file.
+     * @param classLoader loader of the class files of the covered classes.
+     * @return names of the classes whose constructors were executed.
+     */
+    static Set<String> readCoveredClassNames(File execFile, ClassLoader classLoader) {
+        final JacocoCoverage coverage = new JacocoCoverage(classLoader);
+
+        try {
+            final InputStream inputStream = new BufferedInputStream(new FileInputStream(execFile), 64 * 1024);
+
+            try {
+                coverage.read(new DataInputStream(inputStream));
+            } finally {
+                inputStream.close();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Can not read JaCoCo execution data " + execFile + ": " + e.getMessage(), e);
+        }
+
+        return coverage.coveredClassNames;
+    }
+
+    /**
+     * @return targets whose constructors were not covered, taken lazily from the passed iterator.
+     */
+    static Iterator<ClassTarget> filter(Iterator<ClassTarget> targets, final Set<String> coveredClassNames) {
+        return new TargetFilter(targets) {
+            @Override
+            boolean accept(ClassTarget target) {
+                return !coveredClassNames.contains(target.getClassName());
+            }
+        };
+    }
+
+    private void read(DataInputStream input) throws IOException {
+        boolean first = true;
+        int blockType;
+
+        while ((blockType = input.read()) != -1) {
+            if (first && blockType != BLOCK_HEADER) {
+                throw new IOException("not a JaCoCo execution data file");
+            }
+
+            first = false;
+
+            switch (blockType) {
+                case BLOCK_HEADER:
+                    readHeader(input);
+                    break;
+                case BLOCK_SESSION_INFO:
+                    input.readUTF(); // id
+                    input.readLong(); // start
+                    input.readLong(); // dump
+                    break;
+                case BLOCK_EXECUTION_DATA:
+                    readExecutionData(input);
+                    break;
+                default:
+                    throw new IOException("unknown block type 0x" + Integer.toHexString(blockType));
+            }
+        }
+    }
+
+    private static void readHeader(DataInputStream input) throws IOException {
+        if (input.readChar() != MAGIC_NUMBER) {
+            throw new IOException("not a JaCoCo execution data file");
+        }
+
+        final char version = input.readChar();
+
+        if (version != FORMAT_VERSION) {
+            throw new IOException("unsupported format version 0x" + Integer.toHexString(version));
+        }
+    }
+
+    private void readExecutionData(DataInputStream input) throws IOException {
+        final long classId = input.readLong();
+        final String vmName = input.readUTF();
+        final ConstructorProbes probes = constructorProbesOf(vmName);
+        final int length = readVarInt(input);
+
+        // Probes are packed 8 per byte starting from the lowest bit
+        boolean hit = false;
+        int buffer = 0;
+
+        for (int i = 0; i < length; i++) {
+            if (i % 8 == 0) {
+                buffer = input.readUnsignedByte();
+            }
+
+            if ((buffer & 1) != 0 && i >= probes.first && i < probes.first + probes.count) {
+                hit = true;
+            }
+
+            buffer >>>= 1;
+        }
+
+        if (hit && probes.classId == classId) {
+            coveredClassNames.add(vmName.replace('/', '.'));
+        }
+    }
+
+    private static int readVarInt(DataInputStream input) throws IOException {
+        int value = 0;
+
+        for (int shift = 0; ; shift += 7) {
+            final int b = input.readUnsignedByte();
+            value |= (b & 0x7f) << shift;
+
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+
+            if (shift > 21) {
+                throw new IOException("malformed variable length int");
+            }
+        }
+    }
+
+    private ConstructorProbes constructorProbesOf(String vmName) {
+        ConstructorProbes probes = constructorProbes.get(vmName);
+
+        if (probes == null) {
+            try {
+                probes = findConstructorProbes(vmName);
+            } catch (IOException e) {
+                // Class was removed or class file is not visible to the loader, it will be checked
+                probes = UNKNOWN;
+            }
+
+            constructorProbes.put(vmName, probes);
+        }
+
+        return probes;
+    }
+
+    private ConstructorProbes findConstructorProbes(String vmName) throws IOException {
+        final byte[] classFileContent = readClassFile(vmName);
+        final ClassFile classFile = ClassFile.parse(new ByteArrayInputStream(classFileContent));
+
+        if (classFile.getConstructors().size() != 1) {
+            return UNKNOWN;
+        }
+
+        int first = 0;
+
+        for (ClassFile.Method method : classFile.getMethods()) {
+            if (method.code == null) {
+                // Abstract and native methods have no probes
+                continue;
+            }
+
+            final int probesCount = straightLineProbesCount(method.code);
+
+            if (probesCount == -1) {
+                return UNKNOWN;
+            }
+
+            if ("<init>".equals(method.name)) {
+                return new ConstructorProbes(classIdOf(classFileContent), first, probesCount);
+            }
+
+            first += probesCount;
+        }
+
+        return UNKNOWN;
+    }
+
+    /**
+     * @return count of the probes JaCoCo places into the code or {@code -1} if code has branches or exception handlers.
+     */
+    private static int straightLineProbesCount(ClassFile.Code code) {
+        if (code.exceptionTableLength > 0) {
+            return -1;
+        }
+
+        final byte[] bytecode = code.bytecode;
+        int probesCount = 0;
+
+        // Start of the current line and whether it was reached from the previous instruction
+        int lineStart = -1;
+        boolean lineStartIsSuccessor = false;
+        boolean lineHasInvocations = false;
+        boolean successor = false;
+
+        for (int offset = 0; offset < bytecode.length; offset += BytecodeChecker.instructionLength(bytecode, offset)) {
+            final int opcode = bytecode[offset] & 0xff;
+
+            if ((opcode >= 0x99 && opcode <= 0xab) || (opcode >= 0xc6 && opcode <= 0xc9)) {
+                // Jumps and switches, JaCoCo places probes by control flow there
+                return -1;
+            }
+
+            if (code.lineStarts[offset]) {
+                if (lineStart != -1 && lineStartIsSuccessor && lineHasInvocations) {
+                    probesCount++;
+                }
+
+                lineStart = offset;
+                lineStartIsSuccessor = successor;
+                lineHasInvocations = false;
+            }
+
+            if (opcode >= 0xb6 && opcode <= 0xba) {
+                // invokevirtual, invokespecial, invokestatic, invokeinterface and invokedynamic
+                lineHasInvocations = true;
+            }
+
+            // xreturn and athrow
+            final boolean exit = (opcode >= 0xac && opcode <= 0xb1) || opcode == 0xbf;
+
+            if (exit) {
+                probesCount++;
+            }
+
+            successor = !exit;
+        }
+
+        if (lineStart != -1 && lineStartIsSuccessor && lineHasInvocations) {
+            probesCount++;
+        }
+
+        return probesCount;
+    }
+
+    private byte[] readClassFile(String vmName) throws IOException {
+        final String resourceName = vmName + ".class";
+        final InputStream inputStream = classLoader != null
+                ? classLoader.getResourceAsStream(resourceName)
+                : ClassLoader.getSystemResourceAsStream(resourceName);
+
+        if (inputStream == null) {
+            throw new IOException("Can not find class file " + resourceName);
+        }
+
+        try {
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(4096);
+            final byte[] buffer = new byte[4096];
+            int read;
+
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+
+            return outputStream.toByteArray();
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    /**
+     * Same id as JaCoCo computes: CRC64 of the class file, Java 9 class files are hashed as Java 8 ones.
+     */
+    static long classIdOf(byte[] classFile) {
+        long crc = 0;
+
+        for (int i = 0; i < classFile.length; i++) {
+            int b = classFile[i] & 0xff;
+
+            if (i == 7 && b == 53 && classFile[6] == 0) {
+                b = 52;
+            }
+
+            crc = (crc >>> 8) ^ CRC64_TABLE[((int) crc ^ b) & 0xff];
+        }
+
+        return crc;
+    }
+
+    private static final class ConstructorProbes {
+
+        final long classId;
+
+        final int first;
+
+        final int count;
+
+        ConstructorProbes(long classId, int first, int count) {
+            this.classId = classId;
+            this.first = first;
+            this.count = count;
+        }
+    }
+}
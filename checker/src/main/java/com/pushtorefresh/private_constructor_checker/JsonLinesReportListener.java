@@ -0,0 +1,38 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes outcome and timings of the check of each class to the JSON Lines file, one JSON object per line:
+ * <pre>
+ * {"className":"com.example.Checks","outcome":"PASSED","totalNanos":51000,"phaseNanos":{"LOAD":20000,"NEW_INSTANCE":25000}}
+ * {"className":"com.example.Utils","outcome":"FAILED","totalNanos":9000,"phaseNanos":{"LOAD":8000},"error":"java.lang.AssertionError: ..."}
+ * </pre>
+ * Unlike {@link JsonReportListener}, every line of the report can be parsed while the check is still running,
+ * for example by {@code jq} or a log collector. File is rewritten by every check that uses the listener.
+ */
+public final class JsonLinesReportListener extends StreamingReportListener {
+
+    /**
+     * @param file file of the report, should not be {@code null}.
+     */
+    public JsonLinesReportListener(File file) {
+        super(file);
+    }
+
+    @Override
+    void writeHeader(Writer writer) {
+    }
+
+    @Override
+    boolean writeEvent(Writer writer, ClassCheckEvent event, int writtenEventsCount) throws IOException {
+        writer.write(JsonReportListener.appendEvent(new StringBuilder(), event).append('\n').toString());
+        return true;
+    }
+
+    @Override
+    void writeFooter(Writer writer, int writtenEventsCount) {
+    }
+}
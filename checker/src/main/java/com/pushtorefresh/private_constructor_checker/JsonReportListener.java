@@ -0,0 +1,109 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes outcome and timings of the check of each class to the JSON file:
+ * <pre>
+ * {"classes":[
+ * {"className":"com.example.Checks","outcome":"PASSED","totalNanos":51000,"phaseNanos":{"LOAD":20000,"NEW_INSTANCE":25000}},
+ * {"className":"com.example.Utils","outcome":"FAILED","totalNanos":9000,"phaseNanos":{"LOAD":8000},"error":"java.lang.AssertionError: ..."}
+ * ]}
+ * </pre>
+ * Events are written as they come, so memory used by the listener does not depend on the count of classes.
+ * File is rewritten by every check that uses the listener, see also {@link JsonLinesReportListener}.
+ */
+public final class JsonReportListener extends StreamingReportListener {
+
+    /**
+     * @param file file of the report, should not be {@code null}.
+     */
+    public JsonReportListener(File file) {
+        super(file);
+    }
+
+    @Override
+    void writeHeader(Writer writer) throws IOException {
+        writer.write("{\"classes\":[\n");
+    }
+
+    @Override
+    boolean writeEvent(Writer writer, ClassCheckEvent event, int writtenEventsCount) throws IOException {
+        writer.write(appendEvent(new StringBuilder(writtenEventsCount > 0 ? ",\n" : ""), event).toString());
+        return true;
+    }
+
+    @Override
+    void writeFooter(Writer writer, int writtenEventsCount) throws IOException {
+        writer.write(writtenEventsCount > 0 ? "\n]}\n" : "]}\n");
+    }
+
+    /**
+     * Appends JSON object with outcome, timings and error of the check of the class.
+     */
+    static StringBuilder appendEvent(StringBuilder stringBuilder, ClassCheckEvent event) {
+        appendString(stringBuilder.append("{\"className\":"), event.getClassName())
+                .append(",\"outcome\":\"").append(event.getOutcome())
+                .append("\",\"totalNanos\":").append(event.getTotalDurationNanos())
+                .append(",\"phaseNanos\":{");
+
+        boolean hasPhases = false;
+
+        for (ClassCheckEvent.Phase phase : ClassCheckEvent.Phase.values()) {
+            final long durationNanos = event.getDurationNanos(phase);
+
+            if (durationNanos != 0) {
+                stringBuilder
+                        .append(hasPhases ? ",\"" : "\"")
+                        .append(phase)
+                        .append("\":")
+                        .append(durationNanos);
+                hasPhases = true;
+            }
+        }
+
+        stringBuilder.append('}');
+
+        if (event.getError() != null) {
+            appendString(stringBuilder.append(",\"error\":"), event.getError().toString());
+        }
+
+        return stringBuilder.append('}');
+    }
+
+    static StringBuilder appendString(StringBuilder stringBuilder, String value) {
+        stringBuilder.append('"');
+
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+
+            switch (c) {
+                case '"':
+                    stringBuilder.append("\\\"");
+                    break;
+                case '\\':
+                    stringBuilder.append("\\\\");
+                    break;
+                case '\n':
+                    stringBuilder.append("\\n");
+                    break;
+                case '\r':
+                    stringBuilder.append("\\r");
+                    break;
+                case '\t':
+                    stringBuilder.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        stringBuilder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        stringBuilder.append(c);
+                    }
+            }
+        }
+
+        return stringBuilder.append('"');
+    }
+}
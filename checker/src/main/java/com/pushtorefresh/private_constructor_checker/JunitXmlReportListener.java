@@ -0,0 +1,175 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+
+/**
+ * Writes the check of each class as a test case of the JUnit XML report, which is understood by CI servers:
+ * <pre>
+ * &lt;testsuite name="PrivateConstructorChecker" tests="2" failures="1" skipped="0" time="0.000060"&gt;
+ * &lt;testcase classname="com.example.Checks" name="privateConstructor" time="0.000051"/&gt;
+ * &lt;testcase classname="com.example.Utils" name="privateConstructor" time="0.000009"&gt;&lt;failure type="java.lang.AssertionError" message="..."&gt;...&lt;/failure&gt;&lt;/testcase&gt;
+ * &lt;/testsuite&gt;
+ * </pre>
+ * Test cases are written as they come, so memory used by the listener does not depend on the count of classes.
+ * Counts of the test suite are not known until the check is finished, so the space for them is reserved
+ * in the start tag and filled in place once the report is written. Classes skipped by the discovery
+ * are reported as skipped test cases. File is rewritten by every check that uses the listener.
+ */
+public final class JunitXmlReportListener extends StreamingReportListener {
+
+    static final String TEST_SUITE_NAME = "PrivateConstructorChecker";
+
+    static final String TEST_CASE_NAME = "privateConstructor";
+
+    private static final String HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<testsuite name=\"" + TEST_SUITE_NAME + "\"";
+
+    /**
+     * Enough for the counts and the time, whitespace between attributes is allowed by XML.
+     */
+    private static final int RESERVED_ATTRIBUTES_LENGTH = 128;
+
+    private int testsCount;
+
+    private int failuresCount;
+
+    private int skippedCount;
+
+    private long totalNanos;
+
+    /**
+     * @param file file of the report, should not be {@code null}.
+     */
+    public JunitXmlReportListener(File file) {
+        super(file);
+    }
+
+    @Override
+    void writeHeader(Writer writer) throws IOException {
+        testsCount = 0;
+        failuresCount = 0;
+        skippedCount = 0;
+        totalNanos = 0;
+
+        final StringBuilder stringBuilder = new StringBuilder(HEADER);
+
+        for (int i = 0; i < RESERVED_ATTRIBUTES_LENGTH; i++) {
+            stringBuilder.append(' ');
+        }
+
+        writer.write(stringBuilder.append(">\n").toString());
+    }
+
+    @Override
+    boolean writeEvent(Writer writer, ClassCheckEvent event, int writtenEventsCount) throws IOException {
+        testsCount++;
+        totalNanos += event.getTotalDurationNanos();
+
+        final StringBuilder stringBuilder = new StringBuilder("<testcase classname=\"");
+        appendEscaped(stringBuilder, event.getClassName())
+                .append("\" name=\"" + TEST_CASE_NAME + "\" time=\"");
+        appendSeconds(stringBuilder, event.getTotalDurationNanos()).append('"');
+
+        final Throwable error = event.getError();
+
+        if (error != null) {
+            failuresCount++;
+            stringBuilder.append("><failure type=\"");
+            appendEscaped(stringBuilder, error.getClass().getName()).append('"');
+
+            if (error.getMessage() != null) {
+                appendEscaped(stringBuilder.append(" message=\""), error.getMessage()).append('"');
+            }
+
+            appendEscaped(stringBuilder.append('>'), error.toString()).append("</failure></testcase>\n");
+        } else if (event.getOutcome() == ClassCheckEvent.Outcome.SKIPPED) {
+            skippedCount++;
+            stringBuilder.append("><skipped/></testcase>\n");
+        } else {
+            stringBuilder.append("/>\n");
+        }
+
+        writer.write(stringBuilder.toString());
+        return true;
+    }
+
+    @Override
+    void writeFooter(Writer writer, int writtenEventsCount) throws IOException {
+        writer.write("</testsuite>\n");
+    }
+
+    @Override
+    void onReportWritten() throws IOException {
+        final StringBuilder attributes = new StringBuilder()
+                .append(" tests=\"").append(testsCount)
+                .append("\" failures=\"").append(failuresCount)
+                .append("\" skipped=\"").append(skippedCount)
+                .append("\" time=\"");
+
+        appendSeconds(attributes, totalNanos).append('"');
+
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+
+        try {
+            // Header is ASCII, so its length in chars is its length in bytes
+            randomAccessFile.seek(HEADER.length());
+            randomAccessFile.write(attributes.toString().getBytes("US-ASCII"));
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    static StringBuilder appendSeconds(StringBuilder stringBuilder, long nanos) {
+        final String micros = String.valueOf(nanos / 1000 % 1000000);
+
+        stringBuilder.append(nanos / 1000000000).append('.');
+
+        for (int i = micros.length(); i < 6; i++) {
+            stringBuilder.append('0');
+        }
+
+        return stringBuilder.append(micros);
+    }
+
+    /**
+     * Escapes text for attributes and content, characters that are not allowed in XML 1.0 are dropped.
+     */
+    static StringBuilder appendEscaped(StringBuilder stringBuilder, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+
+            switch (c) {
+                case '&':
+                    stringBuilder.append("&amp;");
+                    break;
+                case '<':
+                    stringBuilder.append("&lt;");
+                    break;
+                case '>':
+                    stringBuilder.append("&gt;");
+                    break;
+                case '"':
+                    stringBuilder.append("&quot;");
+                    break;
+                case '\n':
+                    stringBuilder.append("&#10;");
+                    break;
+                case '\r':
+                    stringBuilder.append("&#13;");
+                    break;
+                case '\t':
+                    stringBuilder.append("&#9;");
+                    break;
+                default:
+                    if (c >= 0x20 && c != 0xFFFE && c != 0xFFFF) {
+                        stringBuilder.append(c);
+                    }
+            }
+        }
+
+        return stringBuilder;
+    }
+}
@@ -0,0 +1,92 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Converts elements of the passed {@link Iterable} to {@link ClassTarget} one by one while they are checked,
+ * so neither classes nor their names are collected before the check.
+ */
+abstract class LazyClassTargets<T> implements Iterable<ClassTarget> {
+
+    private final Iterable<? extends T> source;
+
+    private LazyClassTargets(Iterable<? extends T> source) {
+        this.source = source;
+    }
+
+    static Iterable<ClassTarget> ofClasses(Iterable<? extends Class> classes) {
+        return new LazyClassTargets<Class>(classes) {
+            @Override
+            ClassTarget toClassTarget(Class clazz) {
+                if (clazz == null) {
+                    throw new IllegalArgumentException("class can not be null");
+                }
+
+                return ClassTarget.of(clazz);
+            }
+        };
+    }
+
+    static Iterable<ClassTarget> ofClassNames(Iterable<String> classNames, final ClassLoader classLoader) {
+        return new LazyClassTargets<String>(classNames) {
+            @Override
+            ClassTarget toClassTarget(String className) {
+                if (className == null) {
+                    throw new IllegalArgumentException("className can not be null");
+                }
+
+                return ClassTarget.named(className, classLoader);
+            }
+        };
+    }
+
+    static Iterable<ClassTarget> ofCompiledClassNames(Iterable<String> classNames, final ClassLoader classLoader) {
+        return new LazyClassTargets<String>(classNames) {
+            @Override
+            ClassTarget toClassTarget(String className) {
+                if (className == null) {
+                    throw new IllegalArgumentException("className can not be null");
+                }
+
+                return ClassTarget.discovered(className, classLoader);
+            }
+        };
+    }
+
+    abstract ClassTarget toClassTarget(T element);
+
+    @Override
+    public Iterator<ClassTarget> iterator() {
+        final Iterator<? extends T> iterator = source.iterator();
+
+        return new ClassTargetIterator() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public ClassTarget next() {
+                return toClassTarget(iterator.next());
+            }
+
+            @Override
+            public void close() throws IOException {
+                // For example iterator of the file with names of the classes
+                if (iterator instanceof Closeable) {
+                    ((Closeable) iterator).close();
+                }
+            }
+        };
+    }
+
+    private abstract static class ClassTargetIterator implements Iterator<ClassTarget>, Closeable {
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("remove");
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Follows each target with its static nested classes, recursively.
+ * <p>
+ * Nested classes are found either by {@link Class#getDeclaredClasses()} of the loaded class or by
+ * {@code InnerClasses} attribute of its class file, the latter does not load classes at all.
+ * Interfaces, enums, annotations and synthetic classes are skipped, as well as classes
+ * whose simple name does not match the pattern, but their own nested classes are still followed.
+ * Targets found by scanning are not expanded since scanning already finds their nested classes.
+ */
+final class NestedClasses implements Iterator<ClassTarget>, Closeable {
+
+    private static final Comparator<Class> BY_NAME = new Comparator<Class>() {
+        @Override
+        public int compare(Class first, Class second) {
+            return first.getName().compareTo(second.getName());
+        }
+    };
+
+    private final Iterator<ClassTarget> targets;
+
+    /**
+     * {@code null} if nested classes with any simple name are checked.
+     */
+    private final Pattern simpleNamePattern;
+
+    private final boolean readClassFiles;
+
+    private final Deque<ClassTarget> pendingTargets = new ArrayDeque<ClassTarget>();
+
+    /**
+     * Nested class may also be passed explicitly, so it's checked once.
+     */
+    private final Set<String> returnedClassNames = new HashSet<String>();
+
+    /**
+     * @param readClassFiles {@code true} to find nested classes without loading the classes.
+     */
+    NestedClasses(Iterator<ClassTarget> targets, Pattern simpleNamePattern, boolean readClassFiles) {
+        this.targets = targets;
+        this.simpleNamePattern = simpleNamePattern;
+        this.readClassFiles = readClassFiles;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!pendingTargets.isEmpty()) {
+            if (!returnedClassNames.contains(pendingTargets.peekFirst().getClassName())) {
+                return true;
+            }
+
+            pendingTargets.removeFirst();
+        }
+
+        return targets.hasNext();
+    }
+
+    @Override
+    public ClassTarget next() {
+        if (hasNext() && !pendingTargets.isEmpty()) {
+            final ClassTarget nestedTarget = pendingTargets.removeFirst();
+            returnedClassNames.add(nestedTarget.getClassName());
+            return nestedTarget;
+        }
+
+        final ClassTarget target = targets.next();
+        returnedClassNames.add(target.getClassName());
+
+        if (!target.isDiscovered()) {
+            if (readClassFiles) {
+                addNestedClasses(target.getClassName(), target.getClassLoader());
+            } else {
+                addNestedClasses(target);
+            }
+        }
+
+        return target;
+    }
+
+    private void addNestedClasses(ClassTarget target) {
+        final Class clazz;
+
+        try {
+            clazz = target.load();
+        } catch (IllegalStateException e) {
+            // Check of the class itself reports that it can not be loaded
+            return;
+        }
+
+        addNestedClasses(clazz);
+    }
+
+    private void addNestedClasses(Class clazz) {
+        final Class[] nestedClasses;
+
+        try {
+            nestedClasses = clazz.getDeclaredClasses();
+        } catch (LinkageError e) {
+            return;
+        }
+
+        // Order of the declared classes is not specified
+        Arrays.sort(nestedClasses, BY_NAME);
+
+        for (Class nestedClass : nestedClasses) {
+            if (isCheckable(nestedClass.getModifiers(), nestedClass.isInterface() || nestedClass.isEnum()
+                    || nestedClass.isAnnotation() || nestedClass.isSynthetic(), nestedClass.getSimpleName())) {
+                pendingTargets.addLast(ClassTarget.discovered(nestedClass.getName(), nestedClass.getClassLoader()));
+            }
+
+            addNestedClasses(nestedClass);
+        }
+    }
+
+    private void addNestedClasses(String className, ClassLoader classLoader) {
+        final ClassFile classFile;
+
+        try {
+            final InputStream inputStream = new BufferedInputStream(ClassTarget.named(className, classLoader).openClassFile());
+
+            try {
+                classFile = ClassFile.parse(inputStream);
+            } finally {
+                inputStream.close();
+            }
+        } catch (IOException e) {
+            // Check of the class itself reports that its class file can not be read
+            return;
+        }
+
+        for (ClassFile.InnerClass innerClass : classFile.getInnerClasses()) {
+            // Attribute also lists the outer classes and classes that are only referenced
+            if (!className.equals(innerClass.outerClassName) || innerClass.simpleName == null) {
+                continue;
+            }
+
+            final int skippedFlags = ClassFile.ACC_INTERFACE
+                    | ClassFile.ACC_ANNOTATION
+                    | ClassFile.ACC_ENUM
+                    | ClassFile.ACC_SYNTHETIC;
+
+            if (isCheckable(innerClass.accessFlags, (innerClass.accessFlags & skippedFlags) != 0, innerClass.simpleName)) {
+                pendingTargets.addLast(ClassTarget.discovered(innerClass.className, classLoader));
+            }
+
+            addNestedClasses(innerClass.className, classLoader);
+        }
+    }
+
+    private boolean isCheckable(int modifiers, boolean skipped, String simpleName) {
+        return Modifier.isStatic(modifiers)
+                && !skipped
+                && (simpleNamePattern == null || simpleNamePattern.matcher(simpleName).matches());
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove");
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (targets instanceof Closeable) {
+            ((Closeable) targets).close();
+        }
+    }
+}
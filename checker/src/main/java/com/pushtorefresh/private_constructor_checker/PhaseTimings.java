@@ -0,0 +1,26 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import com.pushtorefresh.private_constructor_checker.ClassCheckEvent.Phase;
+
+/**
+ * Accumulates durations of the phases of the check of one class, used by one thread at a time.
+ */
+final class PhaseTimings {
+
+    private final long[] durationsNanos = new long[Phase.values().length];
+
+    /**
+     * @return start of the phase that should be passed to {@link #end(Phase, long)}.
+     */
+    static long start() {
+        return System.nanoTime();
+    }
+
+    void end(Phase phase, long startNanos) {
+        durationsNanos[phase.ordinal()] += System.nanoTime() - startNanos;
+    }
+
+    long[] toArray() {
+        return durationsNanos.clone();
+    }
+}
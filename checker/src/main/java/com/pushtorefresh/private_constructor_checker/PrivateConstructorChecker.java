@@ -1,32 +1,117 @@
 package com.pushtorefresh.private_constructor_checker;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
-
-import static java.util.Arrays.asList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 public class PrivateConstructorChecker {
 
-    private final List<Class> classes;
+    private final Iterable<ClassTarget> classes;
+
+    private final Expectations expectations;
+
+    private final boolean bytecodeOnly;
+
+    private final boolean parallel;
+
+    private final Executor executor;
+
+    private final boolean failFast;
+
+    private final ResultCache resultCache;
+
+    private final int isolatedBatchSize;
+
+    private final List<CheckListener> listeners;
+
+    private final long constructorTimeoutNanos;
+
+    private final Sharding sharding;
+
+    private final File coverageFile;
+
+    private final CheckPolicy policy;
+
+    private final String describedExpectations;
+
+    private final boolean nestedClasses;
+
+    private final Pattern nestedClassesSimpleNamePattern;
 
-    private final Class<? extends Throwable> expectedTypeOfException;
+    private final File baselineFile;
 
-    private final String expectedExceptionMessage;
+    private final boolean memoized;
 
-    private Class[] expectedParameters;
+    /**
+     * {@code null} if all classes are checked, not only the changed ones.
+     */
+    private final File gitRepository;
+
+    /**
+     * {@code null} if changes of the working tree are checked.
+     */
+    private final String gitRevisionRange;
+
+    /**
+     * {@code null} if checks are not forwarded to the {@link CheckerDaemon}.
+     */
+    private final File daemonFile;
 
-    private PrivateConstructorChecker(List<Class> classes,
-                                      Class<? extends Throwable> expectedTypeOfException,
-                                      String expectedExceptionMessage,
-                                      Class[] expectedParameters) {
-        this.classes = classes;
-        this.expectedTypeOfException = expectedTypeOfException;
-        this.expectedExceptionMessage = expectedExceptionMessage;
-        this.expectedParameters = expectedParameters;
+    private PrivateConstructorChecker(Builder builder) {
+        this.classes = builder.classes;
+        this.expectations = Expectations.of(
+                builder.expectedTypeOfException,
+                builder.expectedExceptionMessage,
+                builder.expectedParameters
+        );
+        this.bytecodeOnly = builder.bytecodeOnly;
+        this.parallel = builder.parallel;
+        this.executor = builder.executor;
+        this.failFast = builder.failFast;
+        this.resultCache = builder.resultCache;
+        this.isolatedBatchSize = builder.isolatedBatchSize;
+        this.listeners = new ArrayList<CheckListener>(builder.listeners);
+        this.constructorTimeoutNanos = builder.constructorTimeoutNanos;
+        this.sharding = builder.shardsCount == 0
+                ? null
+                : new Sharding(builder.shardIndex, builder.shardsCount, builder.shardWeights);
+        this.coverageFile = builder.coverageFile;
+        this.policy = builder.policy;
+        this.describedExpectations = describeExpectations(expectations);
+        this.nestedClasses = builder.nestedClasses;
+        this.nestedClassesSimpleNamePattern = builder.nestedClassesSimpleNamePattern;
+        this.baselineFile = builder.baselineFile;
+        this.memoized = builder.memoized;
+        this.gitRepository = builder.gitRepository;
+        this.gitRevisionRange = builder.gitRevisionRange;
+
+        // Daemon reports only verdicts, so checks that observe each class run in-process
+        this.daemonFile = builder.listeners.isEmpty()
+                && builder.resultCache == null
+                && builder.constructorTimeoutNanos == 0
+                && builder.executor == null
+                && builder.isolatedBatchSize == 0
+                ? builder.daemonFile
+                : null;
     }
 
     public interface Checkable {
@@ -35,6 +120,25 @@ public class PrivateConstructorChecker {
          * which throws or not throws exception and may or may not have expected parameters.
          */
         void check();
+
+        /**
+         * Splits the check into separate checks of each class, for example to report them as separate tests.
+         * <p>
+         * Classes are taken lazily while returned {@link Iterable} is iterated, checks can run on any thread.
+         * {@link ResultCache} is written after each passed check, {@link CheckListener#onCheckFinished()}
+         * is called once all classes were taken and each of their checks was run.
+         *
+         * @return checks of the classes.
+         */
+        Iterable<ClassCheck> checksPerClass();
+
+        /**
+         * Creates immutable copy of the settings of the check that can be shared by concurrent tests
+         * and applied to any classes, see {@link CheckSpec}.
+         *
+         * @return spec of the check.
+         */
+        CheckSpec toSpec();
     }
 
     public interface ExceptionCheckable extends Checkable {
@@ -74,7 +178,7 @@ public class PrivateConstructorChecker {
 
     public static class Builder implements ExceptionCheckable, ParametersCheckable {
 
-        private final List<Class> classes;
+        private final Iterable<ClassTarget> classes;
 
         private Class<? extends Throwable> expectedTypeOfException;
 
@@ -82,8 +186,78 @@ public class PrivateConstructorChecker {
 
         private Class[] expectedParameters;
 
-        Builder(List<Class> classes) {
+        private boolean bytecodeOnly;
+
+        private boolean parallel;
+
+        private Executor executor;
+
+        private boolean failFast;
+
+        private ResultCache resultCache;
+
+        private int isolatedBatchSize;
+
+        private final List<CheckListener> listeners = new ArrayList<CheckListener>();
+
+        private long constructorTimeoutNanos;
+
+        private int shardIndex;
+
+        private int shardsCount;
+
+        private Map<String, Long> shardWeights = Collections.emptyMap();
+
+        private File coverageFile;
+
+        private CheckPolicy policy;
+
+        private File daemonFile;
+
+        private boolean nestedClasses;
+
+        private Pattern nestedClassesSimpleNamePattern;
+
+        private File baselineFile;
+
+        private boolean memoized;
+
+        private File gitRepository;
+
+        private String gitRevisionRange;
+
+        Builder(Iterable<ClassTarget> classes) {
+            this.classes = classes;
+        }
+
+        /**
+         * Copies settings of the passed builder, but for other classes.
+         */
+        Builder(Builder source, Iterable<ClassTarget> classes) {
             this.classes = classes;
+            this.expectedTypeOfException = source.expectedTypeOfException;
+            this.expectedExceptionMessage = source.expectedExceptionMessage;
+            this.expectedParameters = source.expectedParameters == null ? null : source.expectedParameters.clone();
+            this.bytecodeOnly = source.bytecodeOnly;
+            this.parallel = source.parallel;
+            this.executor = source.executor;
+            this.failFast = source.failFast;
+            this.resultCache = source.resultCache;
+            this.isolatedBatchSize = source.isolatedBatchSize;
+            this.listeners.addAll(source.listeners);
+            this.constructorTimeoutNanos = source.constructorTimeoutNanos;
+            this.shardIndex = source.shardIndex;
+            this.shardsCount = source.shardsCount;
+            this.shardWeights = source.shardWeights;
+            this.coverageFile = source.coverageFile;
+            this.policy = source.policy;
+            this.daemonFile = source.daemonFile;
+            this.nestedClasses = source.nestedClasses;
+            this.nestedClassesSimpleNamePattern = source.nestedClassesSimpleNamePattern;
+            this.baselineFile = source.baselineFile;
+            this.memoized = source.memoized;
+            this.gitRepository = source.gitRepository;
+            this.gitRevisionRange = source.gitRevisionRange;
         }
 
         @Override
@@ -112,96 +286,1176 @@ public class PrivateConstructorChecker {
                 throw new IllegalArgumentException("expectedParameters can not be null");
             }
 
-            this.expectedParameters = expectedParameters;
+            // Caller may reuse the array
+            this.expectedParameters = expectedParameters.clone();
             return this;
         }
 
-        @Override
-        public void check() {
-            new PrivateConstructorChecker(
-                    classes,
-                    expectedTypeOfException,
-                    expectedExceptionMessage,
-                    expectedParameters
-            ).check();
+        /**
+         * Switches the check to analysis of class files, checked classes are never loaded or initialized.
+         * <p>
+         * Verdicts are the same as verdicts of the reflective check as long as constructor either
+         * completes normally without calling any code except {@code Object()} in a class without static initializer
+         * or unconditionally ends with {@code throw new SomeException("literal message")},
+         * otherwise the check fails because thrown exception can not be determined.
+         *
+         * @return Builder.
+         */
+        public Builder bytecodeOnly() {
+            this.bytecodeOnly = true;
+            return this;
         }
-    }
 
-    /**
-     * Creates instance of {@link Builder}.
-     *
-     * @param clazz class that needs to be checked.
-     * @return {@link Builder} which will prepare
-     *         check of the passed class.
-     */
-    public static Builder forClass(Class clazz) {
-        if (clazz == null) {
-            throw new IllegalArgumentException("class can not be null");
+        /**
+         * Runs checks of the classes in parallel on the temporary pool with one thread per available processor.
+         * <p>
+         * {@link #check()} then reports all failed classes instead of the first one.
+         *
+         * @return Builder.
+         */
+        public Builder inParallel() {
+            this.parallel = true;
+            this.executor = null;
+            return this;
         }
-        return new Builder(Collections.singletonList(clazz));
-    }
 
-    public static Builder forClasses(Class... classes) {
-        if (classes == null || classes.length == 0) {
-            throw new IllegalArgumentException("classes can not be null or empty");
+        /**
+         * Runs checks of the classes in parallel on the passed {@link Executor}.
+         * <p>
+         * {@link #check()} then reports all failed classes instead of the first one.
+         *
+         * @param executor executor that will run the checks, should not be {@code null}.
+         * @return Builder.
+         */
+        public Builder inParallel(Executor executor) {
+            if (executor == null) {
+                throw new IllegalArgumentException("executor can not be null");
+            }
+
+            this.parallel = true;
+            this.executor = executor;
+            return this;
         }
-        for (Class clazz : classes) {
-            if (clazz == null) {
-                throw new IllegalArgumentException("class can not be null");
+
+        /**
+         * Stops the check after the first failed class, running parallel checks are cancelled.
+         * Ignored together with {@link #baseline(File)}, since failures of the classes from the baseline
+         * must not stop the check.
+         *
+         * @return Builder.
+         */
+        public Builder failFast() {
+            this.failFast = true;
+            return this;
+        }
+
+        /**
+         * Skips classes that passed the check with the same expectations before
+         * and were not changed since then, passed classes are written to the cache.
+         *
+         * @param resultCache cache of the passed checks, should not be {@code null}.
+         * @return Builder.
+         */
+        public Builder resultCache(ResultCache resultCache) {
+            if (resultCache == null) {
+                throw new IllegalArgumentException("resultCache can not be null");
             }
+
+            this.resultCache = resultCache;
+            return this;
         }
 
-        return new Builder(Collections.unmodifiableList(asList(classes)));
-    }
+        /**
+         * Loads checked classes in batches, each batch by the new {@link ClassLoader} which is dropped
+         * after classes of the batch are checked, so loaded classes and everything allocated by their static
+         * initializers can be unloaded and memory used by the check does not grow with count of the classes.
+         * <p>
+         * Classes passed to {@link #forClasses(Class[])} stay loaded by the caller,
+         * but their constructors and static initializers run only in the dropped copies.
+         * Has no effect together with {@link #bytecodeOnly()} since classes are not loaded then.
+         *
+         * @param batchSize how many classes are loaded by one {@link ClassLoader}, should be positive.
+         * @return Builder.
+         */
+        public Builder isolated(int batchSize) {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("batchSize must be positive, but was " + batchSize);
+            }
 
-    /**
-     * Runs the check which will assert that all required classes have one private constructor
-     * which throws or not throws exception.
-     */
-    public void check() {
-        for (Class clazz : classes) {
-            check(clazz);
+            this.isolatedBatchSize = batchSize;
+            return this;
         }
-    }
 
-    /**
-     * Runs the check which will assert that particular class has one private constructor
-     * which throws or not throws exception.
-     *
-     * @param clazz class that needs to be checked.
-     */
-    private void check(Class clazz) {
+        /**
+         * Adds listener that receives outcome and timings of the phases of the check of each class,
+         * see {@link SlowestClassesListener} and {@link JsonReportListener}.
+         *
+         * @param listener listener of the check, should not be {@code null}.
+         * @return Builder.
+         */
+        public Builder listener(CheckListener listener) {
+            if (listener == null) {
+                throw new IllegalArgumentException("listener can not be null");
+            }
 
-        final Constructor<?>[] constructors = clazz.getDeclaredConstructors();
+            this.listeners.add(listener);
+            return this;
+        }
 
-        if (constructors.length > 1) {
-            throw new AssertionError(clazz + " has more than one constructor");
+        /**
+         * Runs each constructor on the separate thread and fails the check of the class
+         * if constructor did not complete in time, error contains dump of the stuck thread.
+         * <p>
+         * Stuck thread can not be stopped, it's interrupted and left running as a daemon thread.
+         *
+         * @param timeout how long constructor can run, should be positive.
+         * @param unit unit of the timeout, should not be {@code null}.
+         * @return Builder.
+         */
+        public Builder constructorTimeout(long timeout, TimeUnit unit) {
+            if (timeout <= 0) {
+                throw new IllegalArgumentException("timeout must be positive, but was " + timeout);
+            }
+
+            if (unit == null) {
+                throw new IllegalArgumentException("unit can not be null");
+            }
+
+            this.constructorTimeoutNanos = unit.toNanos(timeout);
+            return this;
         }
 
-        final Constructor<?> constructor = constructors[0];
+        /**
+         * Checks only classes that belong to the shard, so the check can be split between
+         * several test forks or CI nodes that together check every class exactly once.
+         * <p>
+         * Class belongs to the shard by the hash of its name or by {@link #shardWeights(Map)},
+         * so the same class always belongs to the same shard.
+         *
+         * @param index index of the shard starting from {@code 0}.
+         * @param total total count of the shards, should be positive.
+         * @return Builder.
+         */
+        public Builder shard(int index, int total) {
+            Sharding.validate(index, total);
+            this.shardIndex = index;
+            this.shardsCount = total;
+            return this;
+        }
+
+        /**
+         * Same as {@link #shard(int, int)} with the index and total count of the shards taken from the
+         * {@code private_constructor_checker.shard.index} and {@code private_constructor_checker.shard.total}
+         * system properties or from the {@code PRIVATE_CONSTRUCTOR_CHECKER_SHARD_INDEX} and
+         * {@code PRIVATE_CONSTRUCTOR_CHECKER_SHARD_TOTAL} environment variables.
+         * <p>
+         * All classes are checked if neither of them is set.
+         *
+         * @return Builder.
+         */
+        public Builder shard() {
+            final String index = propertyOrEnvironmentVariable(Sharding.INDEX_PROPERTY, Sharding.INDEX_ENVIRONMENT_VARIABLE);
+            final String total = propertyOrEnvironmentVariable(Sharding.TOTAL_PROPERTY, Sharding.TOTAL_ENVIRONMENT_VARIABLE);
+
+            if (index == null && total == null) {
+                return this;
+            }
 
-        constructor.setAccessible(true);
+            if (index == null || total == null) {
+                throw new IllegalArgumentException("Both index and total count of the shards must be set, but were index = "
+                        + index + ", total = " + total);
+            }
 
-        if (!Modifier.isPrivate(constructor.getModifiers())) {
-            throw new AssertionError("Constructor of " + clazz + " must be private");
+            try {
+                return shard(Integer.parseInt(index.trim()), Integer.parseInt(total.trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Index and total count of the shards must be numbers, but were index = "
+                        + index + ", total = " + total, e);
+            }
         }
 
-        final Class<?>[] parameterTypes = constructor.getParameterTypes();
+        /**
+         * Sets weights of the classes, for example durations of their checks recorded by {@link ShardWeights#recorder(File)},
+         * classes with weights are distributed between the shards so the shards have similar total weight.
+         * <p>
+         * Every shard must use the same weights, otherwise some classes may be checked twice or not checked at all.
+         *
+         * @param weights weights of the classes by their names, should not be {@code null}.
+         * @return Builder.
+         */
+        public Builder shardWeights(Map<String, Long> weights) {
+            if (weights == null) {
+                throw new IllegalArgumentException("weights can not be null");
+            }
 
-        if (parameterTypes.length > 0) {
-            if (expectedParameters == null) {
-                throw new AssertionError(clazz + " has non-default constructor with some parameters");
-            } else {
-                if (!Arrays.equals(parameterTypes, expectedParameters)) {
-                    throw new AssertionError("Expected constructor with parameters " + getReadableClassesOutput(expectedParameters) + " but found constructor with parameters " + getReadableClassesOutput(parameterTypes));
-                } else {
-                    return;
+            for (Map.Entry<String, Long> entry : weights.entrySet()) {
+                if (entry.getKey() == null || entry.getValue() == null) {
+                    throw new IllegalArgumentException("weights can not contain null keys or values");
                 }
             }
+
+            this.shardWeights = new HashMap<String, Long>(weights);
+            return this;
         }
 
-        try {
-            constructor.newInstance();
+        /**
+         * Checks only classes whose constructors were not executed according to JaCoCo execution data,
+         * for example {@code build/jacoco/test.exec} of the tests that ran before, so the check adds coverage
+         * without repeating what other tests already covered.
+         * <p>
+         * Execution data is streamed, so its size does not matter. Class files of the covered classes are
+         * read via context {@link ClassLoader} of the current thread to find probes of their constructors,
+         * classes that were changed since the execution data was recorded are checked.
+         *
+         * @param jacocoExecFile JaCoCo {@code .exec} file, should exist.
+         * @return Builder.
+         */
+        public Builder uncoveredConstructorsOnly(File jacocoExecFile) {
+            if (jacocoExecFile == null) {
+                throw new IllegalArgumentException("jacocoExecFile can not be null");
+            }
+
+            if (!jacocoExecFile.isFile()) {
+                throw new IllegalArgumentException("jacocoExecFile " + jacocoExecFile + " does not exist");
+            }
+
+            this.coverageFile = jacocoExecFile;
+            return this;
+        }
+
+        /**
+         * Applies expectations of the policy to the classes that match its rules,
+         * other classes are checked with expectations set via this builder.
+         *
+         * @param policy rules of the expectations by packages, should not be {@code null}.
+         * @return Builder.
+         */
+        public Builder policy(CheckPolicy policy) {
+            if (policy == null) {
+                throw new IllegalArgumentException("policy can not be null");
+            }
+
+            this.policy = policy;
+            return this;
+        }
+
+        /**
+         * Also checks static nested classes of the checked classes, recursively,
+         * so holders like {@code Foo.Strings} and {@code Foo.Numbers} don't need to be passed one by one.
+         * <p>
+         * Nested classes are found via {@link Class#getDeclaredClasses()}, or via {@code InnerClasses}
+         * attribute of the class files together with {@link #bytecodeOnly()} or {@link #isolated(int)}, so classes
+         * are not loaded just to find their nested classes. Interfaces, enums and annotations are skipped.
+         * Each nested class is checked separately, so with {@link #inParallel()} classes of deep or wide nesting
+         * are spread over all threads.
+         *
+         * @return Builder.
+         */
+        public Builder nestedClasses() {
+            this.nestedClasses = true;
+            this.nestedClassesSimpleNamePattern = null;
+            return this;
+        }
+
+        /**
+         * Same as {@link #nestedClasses()}, but checks only nested classes whose simple names match the pattern,
+         * nested classes of the skipped ones are still checked if they match.
+         *
+         * @param simpleNameRegex regular expression for the whole simple name, for example {@code "Strings|Numbers"}.
+         * @return Builder.
+         */
+        public Builder nestedClasses(String simpleNameRegex) {
+            if (simpleNameRegex == null) {
+                throw new IllegalArgumentException("simpleNameRegex can not be null");
+            }
+
+            try {
+                this.nestedClassesSimpleNamePattern = Pattern.compile(simpleNameRegex);
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException("simpleNameRegex " + simpleNameRegex + " is invalid: " + e.getDescription());
+            }
+
+            this.nestedClasses = true;
+            return this;
+        }
+
+        /**
+         * Skips classes that already passed the check with the same expectations in this JVM, for example
+         * when the same utility classes are checked by tests of several modules, such classes are reported
+         * as {@link ClassCheckEvent.Outcome#CACHED}.
+         * <p>
+         * Verdicts are kept together with constructors of the class that are looked up once per JVM anyway,
+         * so only classes of the class loader of the checker, of the system one and of their parents are memoized,
+         * classes of other loaders can be unloaded. Has no effect together with {@link #bytecodeOnly()} and {@link #isolated(int)}.
+         *
+         * @return Builder.
+         */
+        public Builder memoized() {
+            this.memoized = true;
+            return this;
+        }
+
+        /**
+         * Fails the check only on classes that are not listed in the baseline, so the check can be enabled
+         * for the codebase with existing violations and still catch the new ones.
+         * <p>
+         * If baseline file does not exist, it's created with all classes that fail the check and the check passes.
+         * Classes that pass the check are removed from the existing baseline, new failures are never added to it.
+         * Baseline is a sorted list of class names, so it's compared with the failures in a single pass.
+         * It applies to {@link #check()} and {@link #checkAll()}, which then check all classes before failing,
+         * {@link #checksPerClass()} and {@link #toSpec()} can not have it.
+         *
+         * @param baselineFile file with known violations, should not be {@code null}.
+         * @return Builder.
+         */
+        public Builder baseline(File baselineFile) {
+            if (baselineFile == null) {
+                throw new IllegalArgumentException("baselineFile can not be null");
+            }
+
+            this.baselineFile = baselineFile;
+            return this;
+        }
+
+        /**
+         * Same as {@link #viaDaemon(File)} with the daemon file taken from the
+         * {@code private_constructor_checker.daemon.file} system property or {@code ~/.private-constructor-checker/daemon}.
+         *
+         * @return Builder.
+         */
+        public Builder viaDaemon() {
+            return viaDaemon(CheckerDaemon.defaultDaemonFile());
+        }
+
+        /**
+         * Forwards the check to the {@link CheckerDaemon} if it's running, so the check does not pay
+         * for the warm-up of the JVM and classes that passed before are not checked again.
+         * Otherwise classes are checked in-process as usual.
+         * <p>
+         * Daemon loads classes from the directories and jars of their class loaders, classes of other
+         * loaders are checked in-process. Checks with listeners, result cache, constructor timeout,
+         * custom executor or isolation are always run in-process.
+         *
+         * @param daemonFile file written by the daemon, should not be {@code null}.
+         * @return Builder.
+         */
+        public Builder viaDaemon(File daemonFile) {
+            if (daemonFile == null) {
+                throw new IllegalArgumentException("daemonFile can not be null");
+            }
+
+            this.daemonFile = daemonFile;
+            return this;
+        }
+
+        /**
+         * Checks only classes declared in the {@code .java} files changed in the working tree of the local
+         * git repository, including staged and untracked files, see {@link #changedInGit(File, String)}.
+         *
+         * @param repository directory of the repository or any of its subdirectories.
+         * @return Builder.
+         */
+        public Builder changedInGit(File repository) {
+            return changedInGit(repository, null);
+        }
+
+        /**
+         * Checks only classes declared in the {@code .java} files changed in the revision range of the local
+         * git repository, for example {@code "origin/master...HEAD"} for a pull request, so only a few classes
+         * are checked instead of all of them. Nested classes are matched to the files of their top-level classes.
+         * <p>
+         * Changes are read via {@code git} executable, no remotes are contacted. All classes are checked
+         * if the {@code private_constructor_checker.full_check} system property or the
+         * {@code PRIVATE_CONSTRUCTOR_CHECKER_FULL_CHECK} environment variable is {@code true}.
+         *
+         * @param repository    directory of the repository or any of its subdirectories.
+         * @param revisionRange range of {@code git diff}, {@code null} for changes of the working tree.
+         * @return Builder.
+         */
+        public Builder changedInGit(File repository, String revisionRange) {
+            if (repository == null) {
+                throw new IllegalArgumentException("repository can not be null");
+            }
+
+            if (!repository.isDirectory()) {
+                throw new IllegalArgumentException("repository " + repository + " is not a directory");
+            }
+
+            final String fullCheck = propertyOrEnvironmentVariable(
+                    GitChanges.FULL_CHECK_PROPERTY,
+                    GitChanges.FULL_CHECK_ENVIRONMENT_VARIABLE
+            );
+
+            if (fullCheck != null && Boolean.parseBoolean(fullCheck.trim())) {
+                this.gitRepository = null;
+                this.gitRevisionRange = null;
+                return this;
+            }
+
+            this.gitRepository = repository;
+            this.gitRevisionRange = revisionRange;
+            return this;
+        }
+
+        /**
+         * {@inheritDoc}
+         * <p>
+         * Later changes of this builder do not affect the spec.
+         * <p>
+         * Listeners, {@link ResultCache} and executor are shared by all checks of the spec,
+         * so listeners must be thread-safe. Spec can not have baseline because concurrent checks would
+         * overwrite updates of each other.
+         *
+         * @return spec of the check.
+         */
+        @Override
+        public CheckSpec toSpec() {
+            if (baselineFile != null) {
+                throw new IllegalStateException("Baseline can not be updated by concurrent checks, so spec can not have it");
+            }
+
+            return new CheckSpec(new Builder(this, Collections.<ClassTarget>emptyList()));
+        }
+
+        private static String propertyOrEnvironmentVariable(String propertyName, String environmentVariableName) {
+            final String value = System.getProperty(propertyName);
+            return value != null ? value : System.getenv(environmentVariableName);
+        }
+
+        @Override
+        public void check() {
+            new PrivateConstructorChecker(this).check();
+        }
+
+        /**
+         * {@inheritDoc}
+         * <p>
+         * Checks per class can not have baseline because it's applied to the result of all classes.
+         *
+         * @return checks of the classes.
+         */
+        @Override
+        public Iterable<ClassCheck> checksPerClass() {
+            if (baselineFile != null) {
+                throw new IllegalStateException("Baseline is applied to the result of all classes, so checks per class can not have it");
+            }
+
+            return new PrivateConstructorChecker(this).checksPerClass();
+        }
+
+        /**
+         * Runs the check of all classes without throwing on the failed ones.
+         *
+         * @return result which lists every failed class.
+         */
+        public CheckResult checkAll() {
+            return new PrivateConstructorChecker(this).checkAll();
+        }
+    }
+
+    /**
+     * Creates instance of {@link Builder} without classes, which only prepares {@link CheckSpec} via {@link Builder#toSpec()}.
+     *
+     * @return {@link Builder} which will prepare spec of the check.
+     */
+    public static Builder forSpec() {
+        return new Builder(Collections.<ClassTarget>emptyList());
+    }
+
+    /**
+     * Creates instance of {@link Builder}.
+     *
+     * @param clazz class that needs to be checked.
+     * @return {@link Builder} which will prepare
+     *         check of the passed class.
+     */
+    public static Builder forClass(Class clazz) {
+        if (clazz == null) {
+            throw new IllegalArgumentException("class can not be null");
+        }
+        return new Builder(Collections.singletonList(ClassTarget.of(clazz)));
+    }
+
+    public static Builder forClasses(Class... classes) {
+        if (classes == null || classes.length == 0) {
+            throw new IllegalArgumentException("classes can not be null or empty");
+        }
+
+        final List<ClassTarget> targets = new ArrayList<ClassTarget>(classes.length);
+
+        for (Class clazz : classes) {
+            if (clazz == null) {
+                throw new IllegalArgumentException("class can not be null");
+            }
+            targets.add(ClassTarget.of(clazz));
+        }
+
+        return new Builder(Collections.unmodifiableList(targets));
+    }
+
+    /**
+     * Creates instance of {@link Builder} for classes that are taken from the passed {@link Iterable}
+     * one by one while they are checked, so classes can be produced lazily, for example by generator.
+     * <p>
+     * Sequential {@link Builder#check()} fails on the first failed class without taking further classes.
+     *
+     * @param classes classes that need to be checked, iterated once per check.
+     * @return {@link Builder} which will prepare check of the passed classes.
+     */
+    public static Builder forClassIterable(Iterable<? extends Class> classes) {
+        if (classes == null) {
+            throw new IllegalArgumentException("classes can not be null");
+        }
+
+        return new Builder(LazyClassTargets.ofClasses(classes));
+    }
+
+    /**
+     * Creates instance of {@link Builder} for classes with names that are taken from the passed {@link Iterable}
+     * one by one while they are checked, classes are loaded via context {@link ClassLoader} of the current thread.
+     * <p>
+     * Java 8 {@code Stream} can be passed as {@code stream::iterator}.
+     *
+     * @param classNames fully qualified names of the classes that need to be checked, iterated once per check.
+     * @return {@link Builder} which will prepare check of the named classes.
+     */
+    public static Builder forClassNames(Iterable<String> classNames) {
+        return forClassNames(classNames, defaultClassLoader());
+    }
+
+    /**
+     * Creates instance of {@link Builder} for classes with names that are taken from the passed {@link Iterable}
+     * one by one while they are checked.
+     *
+     * @param classNames fully qualified names of the classes that need to be checked, iterated once per check.
+     * @param classLoader loader of the classes, should not be {@code null}.
+     * @return {@link Builder} which will prepare check of the named classes.
+     */
+    public static Builder forClassNames(Iterable<String> classNames, ClassLoader classLoader) {
+        if (classNames == null) {
+            throw new IllegalArgumentException("classNames can not be null");
+        }
+
+        if (classLoader == null) {
+            throw new IllegalArgumentException("classLoader can not be null");
+        }
+
+        return new Builder(LazyClassTargets.ofClassNames(classNames, classLoader));
+    }
+
+    /**
+     * Same as {@link #forClassNames(Iterable, ClassLoader)}, but interfaces, enums, annotations, anonymous,
+     * local and synthetic classes are skipped like by {@link #forClasspathRoot(File)}, so names of all
+     * compiled classes, for example of changed class files, can be passed as is.
+     *
+     * @param classNames fully qualified names of the compiled classes, iterated once per check.
+     * @param classLoader loader of the classes, should not be {@code null}.
+     * @return {@link Builder} which will prepare check of the named classes.
+     */
+    public static Builder forCompiledClassNames(Iterable<String> classNames, ClassLoader classLoader) {
+        if (classNames == null) {
+            throw new IllegalArgumentException("classNames can not be null");
+        }
+
+        if (classLoader == null) {
+            throw new IllegalArgumentException("classLoader can not be null");
+        }
+
+        return new Builder(LazyClassTargets.ofCompiledClassNames(classNames, classLoader));
+    }
+
+    /**
+     * Creates instance of {@link Builder} for classes listed in {@code META-INF/private-constructor-checker.idx}
+     * indexes of the classpath, loaded via context {@link ClassLoader} of the current thread.
+     * <p>
+     * Indexes are written at build time by the annotation processor run with
+     * {@code -AprivateConstructorChecker.index=true} and list {@code @NonInstantiable} classes together
+     * with expectations of their annotations, which take precedence over expectations set via {@link Builder}.
+     * Classpath is not scanned, so the cost of the discovery depends only on the size of the indexes.
+     *
+     * @return {@link Builder} which will prepare check of the indexed classes.
+     */
+    public static Builder forIndex() {
+        return forIndex(defaultClassLoader());
+    }
+
+    /**
+     * Same as {@link #forIndex()}, but indexes and classes are loaded via passed {@link ClassLoader}.
+     *
+     * @param classLoader loader of the indexes and classes, should not be {@code null}.
+     * @return {@link Builder} which will prepare check of the indexed classes.
+     */
+    public static Builder forIndex(ClassLoader classLoader) {
+        if (classLoader == null) {
+            throw new IllegalArgumentException("classLoader can not be null");
+        }
+
+        return new Builder(ClassIndex.read(classLoader));
+    }
+
+    /**
+     * Creates instance of {@link Builder} for all classes of the package and its subpackages.
+     * <p>
+     * Classes are discovered lazily via context {@link ClassLoader} of the current thread,
+     * interfaces, enums, annotations, anonymous, local and synthetic classes are skipped.
+     *
+     * @param packageName name of the package, for example {@code "com.example.util"}.
+     * @return {@link Builder} which will prepare check of the classes of the package.
+     */
+    public static Builder forPackage(String packageName) {
+        if (packageName == null || packageName.length() == 0) {
+            throw new IllegalArgumentException("packageName can not be null or empty");
+        }
+
+        return new Builder(ClassPathScanner.forPackage(packageName, defaultClassLoader()));
+    }
+
+    /**
+     * Creates instance of {@link Builder} for all classes of the directory or jar.
+     * <p>
+     * Classes are discovered lazily, interfaces, enums, annotations, anonymous,
+     * local and synthetic classes are skipped.
+     *
+     * @param classpathRoot directory with compiled classes or jar file.
+     * @return {@link Builder} which will prepare check of the classes of the classpath root.
+     */
+    public static Builder forClasspathRoot(File classpathRoot) {
+        if (classpathRoot == null) {
+            throw new IllegalArgumentException("classpathRoot can not be null");
+        }
+
+        if (!classpathRoot.exists()) {
+            throw new IllegalArgumentException("classpathRoot " + classpathRoot + " does not exist");
+        }
+
+        return new Builder(ClassPathScanner.forClasspathRoot(classpathRoot, defaultClassLoader()));
+    }
+
+    /**
+     * Same as {@link #forClasspathRoot(File)}, but for classes of several directories or jars,
+     * which are loaded by the same {@link ClassLoader}, so they can reference each other.
+     *
+     * @param classpathRoots directories with compiled classes or jar files.
+     * @return {@link Builder} which will prepare check of the classes of the classpath roots.
+     */
+    public static Builder forClasspathRoots(File... classpathRoots) {
+        if (classpathRoots == null || classpathRoots.length == 0) {
+            throw new IllegalArgumentException("classpathRoots can not be null or empty");
+        }
+
+        for (File classpathRoot : classpathRoots) {
+            if (classpathRoot == null) {
+                throw new IllegalArgumentException("classpathRoot can not be null");
+            }
+
+            if (!classpathRoot.exists()) {
+                throw new IllegalArgumentException("classpathRoot " + classpathRoot + " does not exist");
+            }
+        }
+
+        return new Builder(ClassPathScanner.forClasspathRoots(
+                Collections.unmodifiableList(Arrays.asList(classpathRoots.clone())),
+                defaultClassLoader()
+        ));
+    }
+
+    private static ClassLoader defaultClassLoader() {
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        return contextClassLoader != null ? contextClassLoader : PrivateConstructorChecker.class.getClassLoader();
+    }
+
+    /**
+     * Runs the check which will assert that all required classes have one private constructor
+     * which throws or not throws exception.
+     */
+    public void check() {
+        if (parallel || baselineFile != null) {
+            checkAll().assertSuccessful();
+            return;
+        }
+
+        if (daemonFile != null) {
+            // Stops at the first failure and throws its error as is, same as in-process check
+            checkAll(true).assertSuccessful();
+            return;
+        }
+
+        final Iterator<ClassTarget> iterator = targetsIterator();
+
+        try {
+            while (iterator.hasNext()) {
+                check(iterator.next());
+            }
+        } finally {
+            finish(iterator);
+        }
+    }
+
+    private void flushResultCache() {
+        if (resultCache != null) {
+            resultCache.flush();
+        }
+    }
+
+    CheckResult checkAll() {
+        return checkAll(failFast);
+    }
+
+    private CheckResult checkAll(boolean failFast) {
+        final Baseline baseline = baselineFile == null ? null : new Baseline(baselineFile);
+        final Iterator<ClassTarget> iterator = targetsIterator();
+        final CheckResult result;
+
+        // Failure from the baseline would stop the check, so new failures after it would be missed
+        final boolean stopAtFirstFailure = failFast && baseline == null;
+
+        try {
+            if (daemonFile == null) {
+                result = checkAll(iterator, stopAtFirstFailure, baseline);
+            } else {
+                final List<ClassTarget> targets = new ArrayList<ClassTarget>();
+
+                while (iterator.hasNext()) {
+                    targets.add(iterator.next());
+                }
+
+                final CheckResult daemonResult = checkViaDaemon(targets, stopAtFirstFailure);
+
+                if (daemonResult == null) {
+                    result = checkAll(targets.iterator(), stopAtFirstFailure, baseline);
+                } else {
+                    result = daemonResult;
+
+                    if (baseline != null) {
+                        // Daemon checks all classes unless it fails fast
+                        for (ClassTarget target : targets) {
+                            baseline.recordChecked(target);
+                        }
+                    }
+                }
+            }
+        } finally {
+            finish(iterator);
+        }
+
+        return baseline == null ? result : baseline.apply(result);
+    }
+
+    private CheckResult checkAll(Iterator<ClassTarget> iterator, boolean failFast, Baseline baseline) {
+        final CheckRunner checkRunner = new CheckRunner(this, failFast, baseline);
+
+        return parallel
+                ? checkRunner.runInParallel(iterator, executor)
+                : checkRunner.runSequentially(iterator);
+    }
+
+    /**
+     * @return result of the check made by daemon, {@code null} if classes need to be checked in-process.
+     */
+    private CheckResult checkViaDaemon(List<ClassTarget> targets, boolean failFast) {
+        final List<Expectations> targetsExpectations = new ArrayList<Expectations>(targets.size());
+
+        for (ClassTarget target : targets) {
+            final Expectations ownExpectations = ownExpectationsOf(target);
+            targetsExpectations.add(ownExpectations != null ? ownExpectations : expectations);
+        }
+
+        int flags = 0;
+
+        if (bytecodeOnly) {
+            flags |= DaemonProtocol.FLAG_BYTECODE_ONLY;
+        }
+
+        if (parallel) {
+            flags |= DaemonProtocol.FLAG_PARALLEL;
+        }
+
+        if (failFast) {
+            flags |= DaemonProtocol.FLAG_FAIL_FAST;
+        }
+
+        return DaemonClient.check(daemonFile, targets, targetsExpectations, flags);
+    }
+
+    Iterable<ClassCheck> checksPerClass() {
+        return new Iterable<ClassCheck>() {
+            @Override
+            public Iterator<ClassCheck> iterator() {
+                final Iterator<ClassTarget> iterator = targetsIterator();
+
+                // Taking of the classes counts as one more check, so check is not finished before all classes are taken
+                final AtomicInteger pendingChecksCount = new AtomicInteger(1);
+
+                final Runnable onCheckCompleted = new Runnable() {
+                    @Override
+                    public void run() {
+                        if (pendingChecksCount.decrementAndGet() == 0) {
+                            finish(iterator);
+                        }
+                    }
+                };
+
+                return new Iterator<ClassCheck>() {
+
+                    private boolean taken;
+
+                    @Override
+                    public boolean hasNext() {
+                        if (iterator.hasNext()) {
+                            return true;
+                        }
+
+                        if (!taken) {
+                            taken = true;
+                            onCheckCompleted.run();
+                        }
+
+                        return false;
+                    }
+
+                    @Override
+                    public ClassCheck next() {
+                        final ClassTarget target = iterator.next();
+                        pendingChecksCount.incrementAndGet();
+                        return new ClassCheck(PrivateConstructorChecker.this, target, onCheckCompleted);
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException("remove");
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Checks single class and writes the result cache right away since there is no end of the whole check.
+     */
+    void checkSeparately(ClassTarget target) {
+        try {
+            check(target);
+        } finally {
+            flushResultCache();
+        }
+    }
+
+    private Iterator<ClassTarget> targetsIterator() {
+        Iterator<ClassTarget> iterator = classes.iterator();
+
+        if (gitRepository != null) {
+            // Before nested classes, so unchanged classes are not expanded
+            iterator = GitChanges.filter(iterator, GitChanges.readChangedPaths(gitRepository, gitRevisionRange));
+        }
+
+        if (nestedClasses) {
+            // Loading of the classes is avoided if they would not be loaded by the check itself
+            iterator = new NestedClasses(iterator, nestedClassesSimpleNamePattern, bytecodeOnly || isolatedBatchSize > 0);
+        }
+
+        if (sharding != null) {
+            iterator = sharding.filter(iterator);
+        }
+
+        if (coverageFile != null) {
+            iterator = JacocoCoverage.filter(iterator, JacocoCoverage.readCoveredClassNames(coverageFile, defaultClassLoader()));
+        }
+
+        if (isolatedBatchSize == 0 || bytecodeOnly) {
+            return iterator;
+        }
+
+        // Classes that are compared by identity must not be reloaded
+        final Set<String> sharedClassNames = new HashSet<String>();
+
+        if (expectations.getTypeOfException() != null) {
+            sharedClassNames.add(expectations.getTypeOfException().getName());
+        }
+
+        if (expectations.getParameters() != null) {
+            for (Class expectedParameter : expectations.getParameters()) {
+                while (expectedParameter.isArray()) {
+                    expectedParameter = expectedParameter.getComponentType();
+                }
+
+                sharedClassNames.add(expectedParameter.getName());
+            }
+        }
+
+        return new IsolatedBatches(iterator, isolatedBatchSize, sharedClassNames);
+    }
+
+    /**
+     * Called when checks of all classes are finished or interrupted by the failure.
+     */
+    private void finish(Iterator<ClassTarget> iterator) {
+        flushResultCache();
+
+        for (CheckListener listener : listeners) {
+            listener.onCheckFinished();
+        }
+
+        if (iterator instanceof Closeable) {
+            try {
+                ((Closeable) iterator).close();
+            } catch (IOException e) {
+                // Only resources of discovery are released here, so nothing can be lost
+            }
+        }
+    }
+
+    void check(ClassTarget target) {
+        final PhaseTimings timings = new PhaseTimings();
+        final long startNanos = PhaseTimings.start();
+        final ClassCheckEvent.Outcome outcome;
+
+        try {
+            outcome = checkTimed(target, timings);
+        } catch (RuntimeException e) {
+            notifyClassChecked(target, ClassCheckEvent.Outcome.FAILED, e, startNanos, timings);
+            throw e;
+        } catch (Error e) {
+            notifyClassChecked(target, ClassCheckEvent.Outcome.FAILED, e, startNanos, timings);
+            throw e;
+        }
+
+        notifyClassChecked(target, outcome, null, startNanos, timings);
+    }
+
+    private void notifyClassChecked(ClassTarget target, ClassCheckEvent.Outcome outcome, Throwable error,
+                                    long startNanos, PhaseTimings timings) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+
+        final ClassCheckEvent event = new ClassCheckEvent(
+                target.getClassName(), outcome, error, System.nanoTime() - startNanos, timings.toArray());
+
+        for (CheckListener listener : listeners) {
+            listener.onClassChecked(event);
+        }
+    }
+
+    private ClassCheckEvent.Outcome checkTimed(ClassTarget target, PhaseTimings timings) {
+        if (resultCache == null) {
+            return checkNotCached(target, null, timings);
+        }
+
+        final byte[] classFile;
+        long startNanos = PhaseTimings.start();
+
+        try {
+            classFile = target.readClassFile();
+        } catch (IOException e) {
+            throw new IllegalStateException("Can not read class file of " + target, e);
+        } finally {
+            timings.end(ClassCheckEvent.Phase.READ_CLASS_FILE, startNanos);
+        }
+
+        startNanos = PhaseTimings.start();
+        final ResultCache.Key key = ResultCache.keyOf(classFile, describedExpectationsOf(target));
+        final boolean passed = resultCache.isPassed(key);
+        timings.end(ClassCheckEvent.Phase.CACHE_LOOKUP, startNanos);
+
+        if (passed) {
+            return ClassCheckEvent.Outcome.CACHED;
+        }
+
+        final ClassCheckEvent.Outcome outcome = checkNotCached(target, classFile, timings);
+
+        // Skipped class was not checked, so it's not known to pass the check
+        if (outcome != ClassCheckEvent.Outcome.SKIPPED) {
+            resultCache.markPassed(key);
+        }
+
+        return outcome;
+    }
+
+    /**
+     * @param classFile content of the class file if it was already read, {@code null} otherwise.
+     */
+    private ClassCheckEvent.Outcome checkNotCached(ClassTarget target, byte[] classFile, PhaseTimings timings) {
+        if (bytecodeOnly) {
+            return checkBytecode(target, classFile, timings);
+        }
+
+        final long startNanos = PhaseTimings.start();
+        final Class clazz;
+
+        try {
+            clazz = target.load();
+        } finally {
+            timings.end(ClassCheckEvent.Phase.LOAD, startNanos);
+        }
+
+        if (target.isDiscovered() && !isCheckableClass(clazz)) {
+            return ClassCheckEvent.Outcome.SKIPPED;
+        }
+
+        if (!memoized) {
+            check(clazz, expectationsOf(target), timings);
+            return ClassCheckEvent.Outcome.PASSED;
+        }
+
+        final ConstructorMetadata metadata = ConstructorMetadata.of(clazz);
+        final String verdictKey = describedExpectationsOf(target);
+
+        if (metadata.isPassed(verdictKey)) {
+            return ClassCheckEvent.Outcome.CACHED;
+        }
+
+        check(clazz, expectationsOf(target), timings);
+        metadata.markPassed(verdictKey);
+        return ClassCheckEvent.Outcome.PASSED;
+    }
+
+    private ClassCheckEvent.Outcome checkBytecode(ClassTarget target, byte[] classFileContent, PhaseTimings timings) {
+        try {
+            long startNanos = PhaseTimings.start();
+            final InputStream inputStream = classFileContent != null
+                    ? new ByteArrayInputStream(classFileContent)
+                    : new BufferedInputStream(target.openClassFile());
+            final ClassFile classFile;
+
+            try {
+                classFile = ClassFile.parse(inputStream);
+            } finally {
+                inputStream.close();
+                timings.end(ClassCheckEvent.Phase.PARSE_CLASS_FILE, startNanos);
+            }
+
+            if (target.isDiscovered() && !BytecodeChecker.isCheckableClass(classFile)) {
+                return ClassCheckEvent.Outcome.SKIPPED;
+            }
+
+            final Expectations expectations = expectationsOf(target);
+            startNanos = PhaseTimings.start();
+
+            try {
+                new BytecodeChecker(
+                        expectations.getTypeOfException(),
+                        expectations.getExceptionMessage(),
+                        expectations.getParameters()
+                ).check(classFile);
+            } finally {
+                timings.end(ClassCheckEvent.Phase.ANALYZE_BYTECODE, startNanos);
+            }
+
+            return ClassCheckEvent.Outcome.PASSED;
+        } catch (IOException e) {
+            throw new IllegalStateException("Can not read class file of " + target, e);
+        }
+    }
+
+    /**
+     * Expectations of the index take precedence over expectations of the policy,
+     * which take precedence over expectations set via {@link Builder}.
+     *
+     * @return expectations of the class itself, {@code null} if it's checked with expectations of the builder.
+     */
+    private Expectations ownExpectationsOf(ClassTarget target) {
+        if (target.getExpectations() != null) {
+            return target.getExpectations();
+        }
+
+        return policy == null ? null : policy.expectationsOf(target.getClassName());
+    }
+
+    private Expectations expectationsOf(ClassTarget target) {
+        final Expectations ownExpectations = ownExpectationsOf(target);
+
+        return ownExpectations == null
+                ? expectations
+                : ownExpectations.resolve(target.getClassLoader());
+    }
+
+    private String describedExpectationsOf(ClassTarget target) {
+        final Expectations ownExpectations = ownExpectationsOf(target);
+
+        return ownExpectations == null
+                ? describedExpectations
+                : describeExpectations(ownExpectations);
+    }
+
+    /**
+     * Describes everything that affects verdict of the check except the class itself.
+     */
+    private String describeExpectations(Expectations expectations) {
+        final StringBuilder stringBuilder = new StringBuilder()
+                .append("bytecodeOnly=").append(bytecodeOnly)
+                .append(";constructorTimeoutNanos=").append(constructorTimeoutNanos)
+                .append(';');
+
+        expectations.describeTo(stringBuilder);
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Discovered classes are checked only if they can have constructors written by hand.
+     */
+    private static boolean isCheckableClass(Class clazz) {
+        return !clazz.isInterface()
+                && !clazz.isEnum()
+                && !clazz.isAnonymousClass()
+                && !clazz.isLocalClass()
+                && !clazz.isSynthetic();
+    }
+
+    /**
+     * Runs the check which will assert that particular class has one private constructor
+     * which throws or not throws exception.
+     *
+     * @param clazz class that needs to be checked.
+     * @param expectations expectations of the check.
+     * @param timings timings of the phases of the check.
+     */
+    private void check(Class clazz, Expectations expectations, PhaseTimings timings) {
+        final Class<? extends Throwable> expectedTypeOfException = expectations.getTypeOfException();
+        final String expectedExceptionMessage = expectations.getExceptionMessage();
+        final Class[] expectedParameters = expectations.getParameters();
+
+        long startNanos = PhaseTimings.start();
+        final ConstructorMetadata metadata = ConstructorMetadata.of(clazz);
+        timings.end(ClassCheckEvent.Phase.GET_DECLARED_CONSTRUCTORS, startNanos);
+
+        if (metadata.getDeclaredConstructorsCount() > 1) {
+            throw new AssertionError(clazz + " has more than one constructor");
+        }
+
+        if (metadata.getDeclaredConstructorsCount() == 0) {
+            throw new AssertionError(clazz + " has no constructors");
+        }
+
+        startNanos = PhaseTimings.start();
+        final Constructor<?> constructor = metadata.getAccessibleConstructor();
+        timings.end(ClassCheckEvent.Phase.SET_ACCESSIBLE, startNanos);
+
+        if (!metadata.isPrivateConstructor()) {
+            throw new AssertionError("Constructor of " + clazz + " must be private");
+        }
+
+        final Class<?>[] parameterTypes = metadata.getParameterTypes();
+
+        if (parameterTypes.length > 0) {
+            if (expectedParameters == null) {
+                throw new AssertionError(clazz + " has non-default constructor with some parameters");
+            } else {
+                if (!Arrays.equals(parameterTypes, expectedParameters)) {
+                    throw new AssertionError("Expected constructor with parameters " + getReadableClassesOutput(expectedParameters) + " but found constructor with parameters " + getReadableClassesOutput(parameterTypes));
+                } else {
+                    return;
+                }
+            }
+        }
+
+        startNanos = PhaseTimings.start();
+
+        try {
+            if (constructorTimeoutNanos == 0) {
+                constructor.newInstance();
+            } else {
+                ConstructorWatchdog.newInstance(constructor, constructorTimeoutNanos);
+            }
         } catch (InstantiationException e) {
             throw new RuntimeException("Can not instantiate instance of " + clazz, e);
         } catch (IllegalAccessException e) {
@@ -226,6 +1480,8 @@ public class PrivateConstructorChecker {
             }
         } catch (IllegalArgumentException e) {
             throw new RuntimeException("Looks like constructor of " + clazz + " is not default", e);
+        } finally {
+            timings.end(ClassCheckEvent.Phase.NEW_INSTANCE, startNanos);
         }
     }
 
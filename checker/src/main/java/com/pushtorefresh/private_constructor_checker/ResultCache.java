@@ -0,0 +1,286 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.nio.channels.FileLock;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persistent cache of passed checks, allows to skip classes that were not changed since the previous run.
+ * <p>
+ * Each entry is a SHA-1 digest of the class file together with expectations of the check,
+ * so changed class or changed expectations always lead to the new check. Only passed checks are cached,
+ * failed classes are checked again to report the failure.
+ * <p>
+ * File is append-only: 4 bytes of header followed by 20-byte entries. It's read and appended
+ * under file lock, so it can be shared between several JVMs, for example forks of the test task.
+ * File lock is held on behalf of the whole JVM, so threads of one JVM are serialized by the lock of the file path.
+ */
+public final class ResultCache {
+
+    private static final byte[] HEADER = {'P', 'C', 'C', 1};
+
+    private static final int ENTRY_LENGTH = 20;
+
+    /**
+     * Locks of the files by their canonical paths, shared by all caches of the JVM.
+     */
+    private static final ConcurrentHashMap<String, Object> FILE_LOCKS = new ConcurrentHashMap<String, Object>();
+
+    private final File file;
+
+    /**
+     * Taken before file lock, since overlapping file locks of one JVM throw instead of waiting.
+     */
+    private final Object fileLock;
+
+    private final Set<Key> entries = Collections.newSetFromMap(new ConcurrentHashMap<Key, Boolean>());
+
+    private final List<Key> pendingEntries = new ArrayList<Key>();
+
+    private final AtomicLong hitsCount = new AtomicLong();
+
+    private final AtomicLong missesCount = new AtomicLong();
+
+    private ResultCache(File file) {
+        this.file = file;
+        this.fileLock = fileLockOf(file);
+    }
+
+    private static Object fileLockOf(File file) {
+        String path;
+
+        try {
+            path = file.getCanonicalPath();
+        } catch (IOException e) {
+            path = file.getAbsolutePath();
+        }
+
+        final Object lock = new Object();
+        final Object existingLock = FILE_LOCKS.putIfAbsent(path, lock);
+        return existingLock != null ? existingLock : lock;
+    }
+
+    /**
+     * Opens the cache, file is created on the first write if it does not exist.
+     *
+     * @param file file of the cache, should not be {@code null}.
+     * @return opened cache.
+     */
+    public static ResultCache open(File file) {
+        if (file == null) {
+            throw new IllegalArgumentException("file can not be null");
+        }
+
+        final ResultCache resultCache = new ResultCache(file);
+
+        if (file.exists()) {
+            try {
+                synchronized (resultCache.fileLock) {
+                    resultCache.load();
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Can not read result cache " + file, e);
+            }
+        }
+
+        return resultCache;
+    }
+
+    private void load() throws IOException {
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+
+        try {
+            final FileLock lock = randomAccessFile.getChannel().lock(0, Long.MAX_VALUE, true);
+
+            try {
+                final byte[] content = new byte[(int) randomAccessFile.length()];
+                randomAccessFile.readFully(content);
+
+                if (content.length < HEADER.length
+                        || !Arrays.equals(HEADER, Arrays.copyOf(content, HEADER.length))) {
+                    // Unknown format, cache will be rewritten with the first write
+                    return;
+                }
+
+                // Incomplete trailing entry is ignored
+                for (int offset = HEADER.length; offset + ENTRY_LENGTH <= content.length; offset += ENTRY_LENGTH) {
+                    entries.add(new Key(Arrays.copyOfRange(content, offset, offset + ENTRY_LENGTH)));
+                }
+            } finally {
+                lock.release();
+            }
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    /**
+     * @return how many classes were not checked because they passed the check before.
+     */
+    public long getHitsCount() {
+        return hitsCount.get();
+    }
+
+    /**
+     * @return how many classes were checked because there was no cached result for them.
+     */
+    public long getMissesCount() {
+        return missesCount.get();
+    }
+
+    /**
+     * Computes key of the cache entry.
+     *
+     * @param classFile content of the class file.
+     * @param expectations description of the expectations of the check.
+     */
+    static Key keyOf(byte[] classFile, String expectations) {
+        final MessageDigest messageDigest;
+
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            // Every implementation of the Java platform is required to support SHA-1
+            throw new IllegalStateException(e);
+        }
+
+        messageDigest.update(classFile);
+
+        try {
+            messageDigest.update(expectations.getBytes("UTF-8"));
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+
+        return new Key(messageDigest.digest());
+    }
+
+    /**
+     * @return {@code true} if check with such key passed before.
+     */
+    boolean isPassed(Key key) {
+        if (entries.contains(key)) {
+            hitsCount.incrementAndGet();
+            return true;
+        } else {
+            missesCount.incrementAndGet();
+            return false;
+        }
+    }
+
+    void markPassed(Key key) {
+        if (entries.add(key)) {
+            synchronized (pendingEntries) {
+                pendingEntries.add(key);
+            }
+        }
+    }
+
+    /**
+     * Appends entries added since the previous flush to the file, entries are kept for the next flush if it fails.
+     */
+    void flush() {
+        final List<Key> entriesToWrite;
+
+        synchronized (pendingEntries) {
+            if (pendingEntries.isEmpty()) {
+                return;
+            }
+
+            entriesToWrite = new ArrayList<Key>(pendingEntries);
+            pendingEntries.clear();
+        }
+
+        final byte[] content = new byte[entriesToWrite.size() * ENTRY_LENGTH];
+
+        for (int i = 0; i < entriesToWrite.size(); i++) {
+            System.arraycopy(entriesToWrite.get(i).digest, 0, content, i * ENTRY_LENGTH, ENTRY_LENGTH);
+        }
+
+        boolean written = false;
+
+        try {
+            synchronized (fileLock) {
+                append(content);
+            }
+
+            written = true;
+        } catch (IOException e) {
+            throw new IllegalStateException("Can not write result cache " + file, e);
+        } finally {
+            if (!written) {
+                synchronized (pendingEntries) {
+                    pendingEntries.addAll(entriesToWrite);
+                }
+            }
+        }
+    }
+
+    private void append(byte[] content) throws IOException {
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+
+        try {
+            final FileLock lock = randomAccessFile.getChannel().lock();
+
+            try {
+                final long length = randomAccessFile.length();
+
+                if (length < HEADER.length || !hasHeader(randomAccessFile)) {
+                    randomAccessFile.setLength(0);
+                    randomAccessFile.write(HEADER);
+                } else {
+                    // Drops incomplete trailing entry written by the crashed process, if any
+                    final long completeLength = length - (length - HEADER.length) % ENTRY_LENGTH;
+                    randomAccessFile.setLength(completeLength);
+                    randomAccessFile.seek(completeLength);
+                }
+
+                randomAccessFile.write(content);
+            } finally {
+                lock.release();
+            }
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    private static boolean hasHeader(RandomAccessFile randomAccessFile) throws IOException {
+        final byte[] header = new byte[HEADER.length];
+        randomAccessFile.seek(0);
+        randomAccessFile.readFully(header);
+        return Arrays.equals(HEADER, header);
+    }
+
+    static final class Key {
+
+        private final byte[] digest;
+
+        private final int hashCode;
+
+        Key(byte[] digest) {
+            this.digest = digest;
+            this.hashCode = Arrays.hashCode(digest);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || (o instanceof Key && Arrays.equals(digest, ((Key) o).digest));
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes classes that did not pass the check as results of the SARIF 2.1.0 report, which is understood
+ * by code scanning tools, for example GitHub code scanning:
+ * <pre>
+ * {"version":"2.1.0","runs":[{"tool":{...},"results":[
+ * {"ruleId":"private-constructor","level":"error","message":{"text":"java.lang.AssertionError: ..."},
+ *  "locations":[{"logicalLocations":[{"fullyQualifiedName":"com.example.Utils","kind":"type"}]}]}
+ * ]}]}
+ * </pre>
+ * Results are written as they come, so memory used by the listener does not depend on the count of classes.
+ * File is rewritten by every check that uses the listener.
+ */
+public final class SarifReportListener extends StreamingReportListener {
+
+    static final String RULE_ID = "private-constructor";
+
+    private static final String HEADER = "{\"$schema\":\"https://json.schemastore.org/sarif-2.1.0.json\",\"version\":\"2.1.0\",\"runs\":[{"
+            + "\"tool\":{\"driver\":{\"name\":\"private-constructor-checker\","
+            + "\"informationUri\":\"https://github.com/pushtorefresh/java-private-constructor-checker\","
+            + "\"rules\":[{\"id\":\"" + RULE_ID + "\",\"shortDescription\":{\"text\":\"Class must have only one private constructor\"}}]}},"
+            + "\"results\":[\n";
+
+    /**
+     * @param file file of the report, should not be {@code null}.
+     */
+    public SarifReportListener(File file) {
+        super(file);
+    }
+
+    @Override
+    void writeHeader(Writer writer) throws IOException {
+        writer.write(HEADER);
+    }
+
+    @Override
+    boolean writeEvent(Writer writer, ClassCheckEvent event, int writtenEventsCount) throws IOException {
+        if (event.getError() == null) {
+            return false;
+        }
+
+        final StringBuilder stringBuilder = new StringBuilder(writtenEventsCount > 0 ? ",\n" : "")
+                .append("{\"ruleId\":\"" + RULE_ID + "\",\"level\":\"error\",\"message\":{\"text\":");
+
+        JsonReportListener.appendString(stringBuilder, event.getError().toString())
+                .append("},\"locations\":[{\"logicalLocations\":[{\"fullyQualifiedName\":");
+
+        JsonReportListener.appendString(stringBuilder, event.getClassName())
+                .append(",\"kind\":\"type\"}]}]}");
+
+        writer.write(stringBuilder.toString());
+        return true;
+    }
+
+    @Override
+    void writeFooter(Writer writer, int writtenEventsCount) throws IOException {
+        writer.write(writtenEventsCount > 0 ? "\n]}]}\n" : "]}]}\n");
+    }
+}
@@ -0,0 +1,140 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Weights of the classes for {@link PrivateConstructorChecker.Builder#shardWeights(Map)},
+ * stored as properties file where key is the name of the class and value is duration of its check in nanoseconds.
+ */
+public final class ShardWeights {
+
+    private ShardWeights() {
+        throw new IllegalStateException("No instances please!");
+    }
+
+    /**
+     * Loads weights of the classes, file that does not exist is treated as empty.
+     *
+     * @param file properties file with weights, should not be {@code null}.
+     * @return weights of the classes by their names.
+     */
+    public static Map<String, Long> load(File file) {
+        if (file == null) {
+            throw new IllegalArgumentException("file can not be null");
+        }
+
+        final Map<String, Long> weights = new HashMap<String, Long>();
+
+        if (!file.exists()) {
+            return weights;
+        }
+
+        final Properties properties = new Properties();
+
+        try {
+            final InputStream inputStream = new FileInputStream(file);
+
+            try {
+                properties.load(inputStream);
+            } finally {
+                inputStream.close();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Can not read shard weights " + file, e);
+        }
+
+        for (String className : properties.stringPropertyNames()) {
+            final String value = properties.getProperty(className).trim();
+
+            try {
+                weights.put(className, Long.parseLong(value));
+            } catch (NumberFormatException e) {
+                throw new IllegalStateException("Weight of " + className + " in " + file + " is not a number: " + value, e);
+            }
+        }
+
+        return weights;
+    }
+
+    /**
+     * Creates listener that writes durations of the checks to the file when the check is finished,
+     * so they can be used as weights of the next runs.
+     *
+     * @param file properties file with weights, should not be {@code null}.
+     * @return listener that records weights.
+     */
+    public static CheckListener recorder(final File file) {
+        if (file == null) {
+            throw new IllegalArgumentException("file can not be null");
+        }
+
+        return new CheckListener() {
+
+            private final Map<String, Long> weights = new TreeMap<String, Long>();
+
+            @Override
+            public void onClassChecked(ClassCheckEvent event) {
+                if (event.getOutcome() == ClassCheckEvent.Outcome.CACHED) {
+                    // Duration of the cache lookup says nothing about the duration of the check
+                    return;
+                }
+
+                synchronized (weights) {
+                    weights.put(event.getClassName(), event.getTotalDurationNanos());
+                }
+            }
+
+            @Override
+            public void onCheckFinished() {
+                synchronized (weights) {
+                    write(file, weights);
+                    weights.clear();
+                }
+            }
+        };
+    }
+
+    private static void writeKey(Writer writer, String className) throws IOException {
+        for (int i = 0; i < className.length(); i++) {
+            final char c = className.charAt(i);
+
+            if (c < 0x20 || c > 0x7e) {
+                // Properties files are in ISO 8859-1, other characters of the names are escaped
+                writer.write(String.format("\\u%04x", (int) c));
+            } else {
+                writer.write(c);
+            }
+        }
+    }
+
+    private static void write(File file, Map<String, Long> weights) {
+        try {
+            // Written by hand to keep entries sorted, so the file can be committed and diffed
+            final Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "ISO-8859-1"));
+
+            try {
+                for (Map.Entry<String, Long> entry : weights.entrySet()) {
+                    writeKey(writer, entry.getKey());
+                    writer.write('=');
+                    writer.write(String.valueOf(entry.getValue()));
+                    writer.write('\n');
+                }
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Can not write shard weights " + file, e);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deterministically assigns each class to one of the shards, so shards together check every class exactly once.
+ * <p>
+ * Classes with known weights are distributed greedily from the heaviest one to the least loaded shard,
+ * other classes are assigned by the hash of the name. Assignment depends only on the name of the class
+ * and the weights, so every node computes the same assignment independently.
+ */
+final class Sharding {
+
+    static final String INDEX_PROPERTY = "private_constructor_checker.shard.index";
+
+    static final String TOTAL_PROPERTY = "private_constructor_checker.shard.total";
+
+    static final String INDEX_ENVIRONMENT_VARIABLE = "PRIVATE_CONSTRUCTOR_CHECKER_SHARD_INDEX";
+
+    static final String TOTAL_ENVIRONMENT_VARIABLE = "PRIVATE_CONSTRUCTOR_CHECKER_SHARD_TOTAL";
+
+    private final int index;
+
+    private final int total;
+
+    private final Map<String, Integer> weightedAssignments;
+
+    Sharding(int index, int total, Map<String, Long> weights) {
+        this.index = index;
+        this.total = total;
+        this.weightedAssignments = assign(total, weights);
+    }
+
+    static void validate(int index, int total) {
+        if (total <= 0) {
+            throw new IllegalArgumentException("total count of shards must be positive, but was " + total);
+        }
+
+        if (index < 0 || index >= total) {
+            throw new IllegalArgumentException("shard index must be in [0, " + total + "), but was " + index);
+        }
+    }
+
+    private static Map<String, Integer> assign(int total, Map<String, Long> weights) {
+        if (weights.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        final List<Map.Entry<String, Long>> entries = new ArrayList<Map.Entry<String, Long>>(weights.entrySet());
+
+        // Order must not depend on the order of the map
+        Collections.sort(entries, new Comparator<Map.Entry<String, Long>>() {
+            @Override
+            public int compare(Map.Entry<String, Long> lhs, Map.Entry<String, Long> rhs) {
+                final int byWeight = rhs.getValue().compareTo(lhs.getValue());
+                return byWeight != 0 ? byWeight : lhs.getKey().compareTo(rhs.getKey());
+            }
+        });
+
+        final long[] loads = new long[total];
+        final Map<String, Integer> assignments = new HashMap<String, Integer>(entries.size() * 2);
+
+        for (Map.Entry<String, Long> entry : entries) {
+            int leastLoadedShard = 0;
+
+            for (int shard = 1; shard < total; shard++) {
+                if (loads[shard] < loads[leastLoadedShard]) {
+                    leastLoadedShard = shard;
+                }
+            }
+
+            loads[leastLoadedShard] += entry.getValue();
+            assignments.put(entry.getKey(), leastLoadedShard);
+        }
+
+        return assignments;
+    }
+
+    /**
+     * @return index of the shard that checks the class.
+     */
+    int shardOf(String className) {
+        final Integer weightedAssignment = weightedAssignments.get(className);
+
+        if (weightedAssignment != null) {
+            return weightedAssignment;
+        }
+
+        // String.hashCode() is specified, so it's the same on every JVM, finalizer of MurmurHash3 spreads its bits
+        int hash = className.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+
+        return (hash & Integer.MAX_VALUE) % total;
+    }
+
+    /**
+     * @return targets that belong to this shard, taken lazily from the passed iterator.
+     */
+    Iterator<ClassTarget> filter(Iterator<ClassTarget> targets) {
+        return new TargetFilter(targets) {
+            @Override
+            boolean accept(ClassTarget target) {
+                return shardOf(target.getClassName()) == index;
+            }
+        };
+    }
+}
@@ -0,0 +1,124 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps events of the classes with the longest checks, {@link #toString()} formats them as a table.
+ * <p>
+ * Memory used by the listener is bounded by the count of kept classes, so it can be used for any count of classes.
+ */
+public final class SlowestClassesListener implements CheckListener {
+
+    private static final Comparator<ClassCheckEvent> BY_TOTAL_DURATION = new Comparator<ClassCheckEvent>() {
+        @Override
+        public int compare(ClassCheckEvent lhs, ClassCheckEvent rhs) {
+            final long lhsDuration = lhs.getTotalDurationNanos();
+            final long rhsDuration = rhs.getTotalDurationNanos();
+            return lhsDuration < rhsDuration ? -1 : (lhsDuration == rhsDuration ? 0 : 1);
+        }
+    };
+
+    private final int count;
+
+    private final PriorityQueue<ClassCheckEvent> slowestClasses;
+
+    /**
+     * @param count how many slowest classes should be kept, should be positive.
+     */
+    public SlowestClassesListener(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive, but was " + count);
+        }
+
+        this.count = count;
+        this.slowestClasses = new PriorityQueue<ClassCheckEvent>(count, BY_TOTAL_DURATION);
+    }
+
+    @Override
+    public void onClassChecked(ClassCheckEvent event) {
+        synchronized (slowestClasses) {
+            if (slowestClasses.size() < count) {
+                slowestClasses.add(event);
+            } else if (BY_TOTAL_DURATION.compare(event, slowestClasses.peek()) > 0) {
+                slowestClasses.poll();
+                slowestClasses.add(event);
+            }
+        }
+    }
+
+    @Override
+    public void onCheckFinished() {
+        // Kept classes are available until the listener is dropped
+    }
+
+    /**
+     * @return events of the slowest classes, the slowest one goes first.
+     */
+    public List<ClassCheckEvent> getSlowestClasses() {
+        final List<ClassCheckEvent> result;
+
+        synchronized (slowestClasses) {
+            result = new ArrayList<ClassCheckEvent>(slowestClasses);
+        }
+
+        Collections.sort(result, Collections.reverseOrder(BY_TOTAL_DURATION));
+        return result;
+    }
+
+    /**
+     * @return table with durations of the phases of the slowest classes in milliseconds.
+     */
+    @Override
+    public String toString() {
+        final ClassCheckEvent.Phase[] phases = ClassCheckEvent.Phase.values();
+        final StringBuilder stringBuilder = new StringBuilder(String.format(Locale.US, "%12s", "total ms"));
+
+        for (ClassCheckEvent.Phase phase : phases) {
+            stringBuilder.append(String.format(Locale.US, " %12s", shortNameOf(phase)));
+        }
+
+        stringBuilder.append("  outcome  class");
+
+        for (ClassCheckEvent event : getSlowestClasses()) {
+            stringBuilder.append('\n').append(String.format(Locale.US, "%12.3f", event.getTotalDurationNanos() / 1e6));
+
+            for (ClassCheckEvent.Phase phase : phases) {
+                stringBuilder.append(String.format(Locale.US, " %12.3f", event.getDurationNanos(phase) / 1e6));
+            }
+
+            stringBuilder
+                    .append(String.format(Locale.US, "  %-7s  ", event.getOutcome()))
+                    .append(event.getClassName());
+        }
+
+        return stringBuilder.toString();
+    }
+
+    private static String shortNameOf(ClassCheckEvent.Phase phase) {
+        switch (phase) {
+            case READ_CLASS_FILE:
+                return "read ms";
+            case CACHE_LOOKUP:
+                return "cache ms";
+            case LOAD:
+                return "load ms";
+            case GET_DECLARED_CONSTRUCTORS:
+                return "ctors ms";
+            case SET_ACCESSIBLE:
+                return "access ms";
+            case NEW_INSTANCE:
+                return "new ms";
+            case PARSE_CLASS_FILE:
+                return "parse ms";
+            case ANALYZE_BYTECODE:
+                return "analyze ms";
+            default:
+                throw new IllegalArgumentException("Unknown phase " + phase);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+/**
+ * Writes events to the report file as they come, so memory used by the listener does not depend on the count of classes.
+ * <p>
+ * Report is buffered and flushed every {@link #FLUSH_EVENTS_COUNT} events, so it can be followed while a long check
+ * runs and most of it survives if the JVM dies. File is rewritten by every check that uses the listener.
+ */
+abstract class StreamingReportListener implements CheckListener {
+
+    static final int FLUSH_EVENTS_COUNT = 1000;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    final File file;
+
+    private Writer writer;
+
+    /**
+     * Events of the current check that were written to the report.
+     */
+    private int writtenEventsCount;
+
+    StreamingReportListener(File file) {
+        if (file == null) {
+            throw new IllegalArgumentException("file can not be null");
+        }
+
+        this.file = file;
+    }
+
+    /**
+     * Writes beginning of the report, called before the first event of each check.
+     */
+    abstract void writeHeader(Writer writer) throws IOException;
+
+    /**
+     * @param writtenEventsCount count of the events of the current check that were written before this one.
+     * @return {@code true} if event was written, {@code false} if report does not include such events.
+     */
+    abstract boolean writeEvent(Writer writer, ClassCheckEvent event, int writtenEventsCount) throws IOException;
+
+    /**
+     * Writes end of the report, called once check is finished.
+     *
+     * @param writtenEventsCount count of the events of the current check that were written.
+     */
+    abstract void writeFooter(Writer writer, int writtenEventsCount) throws IOException;
+
+    /**
+     * Called after the report is completely written and closed.
+     */
+    void onReportWritten() throws IOException {
+    }
+
+    @Override
+    public final synchronized void onClassChecked(ClassCheckEvent event) {
+        try {
+            open();
+
+            if (writeEvent(writer, event, writtenEventsCount) && ++writtenEventsCount % FLUSH_EVENTS_COUNT == 0) {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Can not write report " + file, e);
+        }
+    }
+
+    @Override
+    public final synchronized void onCheckFinished() {
+        try {
+            try {
+                open();
+                writeFooter(writer, writtenEventsCount);
+            } finally {
+                if (writer != null) {
+                    writer.close();
+                }
+            }
+
+            onReportWritten();
+        } catch (IOException e) {
+            throw new IllegalStateException("Can not write report " + file, e);
+        } finally {
+            writer = null;
+            writtenEventsCount = 0;
+        }
+    }
+
+    private void open() throws IOException {
+        if (writer == null) {
+            writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"), BUFFER_SIZE);
+            writeHeader(writer);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazily skips targets that should not be checked, source iterator is closed together with the filter.
+ */
+abstract class TargetFilter implements Iterator<ClassTarget>, Closeable {
+
+    private final Iterator<ClassTarget> targets;
+
+    private ClassTarget next;
+
+    TargetFilter(Iterator<ClassTarget> targets) {
+        this.targets = targets;
+    }
+
+    /**
+     * @return {@code true} if target should be checked.
+     */
+    abstract boolean accept(ClassTarget target);
+
+    @Override
+    public boolean hasNext() {
+        while (next == null && targets.hasNext()) {
+            final ClassTarget target = targets.next();
+
+            if (accept(target)) {
+                next = target;
+            }
+        }
+
+        return next != null;
+    }
+
+    @Override
+    public ClassTarget next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        final ClassTarget result = next;
+        next = null;
+        return result;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove");
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (targets instanceof Closeable) {
+            ((Closeable) targets).close();
+        }
+    }
+}
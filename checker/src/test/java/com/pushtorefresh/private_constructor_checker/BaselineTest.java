@@ -0,0 +1,191 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWith2Constructors;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPrivateConstructor;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPublicConstructor;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BaselineTest {
+    @Rule public ExpectedException expectedException = ExpectedException.none();
+
+    @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldRecordFailuresIfBaselineDoesNotExist() throws IOException {
+        final File file = new File(temporaryFolder.getRoot(), "baseline.txt");
+
+        PrivateConstructorChecker
+                .forClasses(ClassWith2Constructors.class, ClassWithPrivateConstructor.class, ClassWithPublicConstructor.class)
+                .baseline(file)
+                .check();
+
+        assertEquals(header()
+                        + ClassWith2Constructors.class.getName() + "\n"
+                        + ClassWithPublicConstructor.class.getName() + "\n",
+                TestFiles.read(file));
+    }
+
+    @Test
+    public void shouldPassIfOnlyBaselinedClassesFail() throws IOException {
+        final File file = write(header() + ClassWithPublicConstructor.class.getName() + "\n");
+
+        final CheckResult result = PrivateConstructorChecker
+                .forClasses(ClassWithPrivateConstructor.class, ClassWithPublicConstructor.class)
+                .baseline(file)
+                .checkAll();
+
+        assertTrue(result.isSuccessful());
+        assertEquals(2, result.getCheckedClassesCount());
+    }
+
+    @Test
+    public void shouldFailOnNewViolations() throws IOException {
+        final File file = write(header() + ClassWithPublicConstructor.class.getName() + "\n");
+
+        final CheckResult result = PrivateConstructorChecker
+                .forClasses(ClassWith2Constructors.class, ClassWithPublicConstructor.class)
+                .baseline(file)
+                .checkAll();
+
+        assertEquals(1, result.getFailures().size());
+        assertEquals(ClassWith2Constructors.class.getName(), result.getFailures().get(0).getClassName());
+
+        // New violations are never added to the baseline
+        assertEquals(header() + ClassWithPublicConstructor.class.getName() + "\n", TestFiles.read(file));
+    }
+
+    @Test
+    public void shouldThrowErrorOfNewViolation() throws IOException {
+        final File file = write(header() + ClassWithPublicConstructor.class.getName() + "\n");
+
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(ClassWith2Constructors.class + " has more than one constructor");
+        PrivateConstructorChecker
+                .forClasses(ClassWithPublicConstructor.class, ClassWith2Constructors.class)
+                .baseline(file)
+                .check();
+    }
+
+    @Test
+    public void shouldRemoveFixedViolationsFromBaseline() throws IOException {
+        final File file = write(header()
+                + "com.example.NotChecked\n"
+                + ClassWithPrivateConstructor.class.getName() + "\n"
+                + ClassWithPublicConstructor.class.getName() + "\n");
+
+        PrivateConstructorChecker
+                .forClasses(ClassWithPrivateConstructor.class, ClassWithPublicConstructor.class)
+                .baseline(file)
+                .check();
+
+        assertEquals(header()
+                        + "com.example.NotChecked\n"
+                        + ClassWithPublicConstructor.class.getName() + "\n",
+                TestFiles.read(file));
+    }
+
+    @Test
+    public void shouldNotRewriteBaselineIfNothingWasFixed() throws IOException {
+        final String content = "com.example.NotChecked\n" + ClassWithPublicConstructor.class.getName() + "\n";
+        final File file = write(content);
+
+        PrivateConstructorChecker
+                .forClass(ClassWithPublicConstructor.class)
+                .baseline(file)
+                .check();
+
+        assertEquals(content, TestFiles.read(file));
+    }
+
+    @Test
+    public void shouldThrowExceptionIfBaselineIsNotSorted() throws IOException {
+        final File file = write(header() + "com.example.B\ncom.example.A\n");
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("Baseline " + file + " is not sorted at line 3");
+        PrivateConstructorChecker
+                .forClass(ClassWithPrivateConstructor.class)
+                .baseline(file)
+                .check();
+    }
+
+    @Test
+    public void shouldNotStopAtBaselinedClassIfFailFast() throws IOException {
+        final File file = write(header() + ClassWithPublicConstructor.class.getName() + "\n");
+
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(ClassWith2Constructors.class + " has more than one constructor");
+        PrivateConstructorChecker
+                .forClasses(ClassWithPublicConstructor.class, ClassWith2Constructors.class)
+                .failFast()
+                .baseline(file)
+                .check();
+    }
+
+    @Test
+    public void shouldKeepBaselinedClassesIfFailFastInParallel() throws IOException {
+        final File file = write(header()
+                + ClassWith2Constructors.class.getName() + "\n"
+                + ClassWithPublicConstructor.class.getName() + "\n");
+
+        final CheckResult result = PrivateConstructorChecker
+                .forClasses(ClassWith2Constructors.class, ClassWithPublicConstructor.class)
+                .failFast()
+                .inParallel()
+                .baseline(file)
+                .checkAll();
+
+        assertTrue(result.isSuccessful());
+        assertEquals(header()
+                        + ClassWith2Constructors.class.getName() + "\n"
+                        + ClassWithPublicConstructor.class.getName() + "\n",
+                TestFiles.read(file));
+    }
+
+    @Test
+    public void builderShouldThrowExceptionIfBaselineWasPassedToChecksPerClass() {
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("Baseline is applied to the result of all classes, so checks per class can not have it");
+        PrivateConstructorChecker
+                .forClass(ClassWithPrivateConstructor.class)
+                .baseline(new File(temporaryFolder.getRoot(), "baseline.txt"))
+                .checksPerClass();
+    }
+
+    @Test
+    public void builderShouldThrowExceptionIfNullWasPassedAsBaselineFile() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("baselineFile can not be null");
+        PrivateConstructorChecker
+                .forClass(ClassWithPrivateConstructor.class)
+                .baseline(null);
+    }
+
+    private static String header() {
+        return "# Classes that fail the private constructor check, one per line, sorted\n";
+    }
+
+    private File write(String content) throws IOException {
+        final File file = temporaryFolder.newFile("baseline.txt");
+        final FileOutputStream outputStream = new FileOutputStream(file);
+
+        try {
+            outputStream.write(content.getBytes("UTF-8"));
+        } finally {
+            outputStream.close();
+        }
+
+        return file;
+    }
+}
@@ -0,0 +1,329 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWith2Constructors;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithConstructorThatThrowsException;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPrivateConstructor;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPrivateStringConstructor;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPrivateStringStringIntConstructor;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPublicConstructor;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithoutDefaultConstructor;
+import com.pushtorefresh.private_constructor_checker.fixtures.valid.SomeInterface;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+public class BytecodeCheckerTest {
+    @Rule public ExpectedException expectedException = ExpectedException.none();
+
+    static class ClassWithFailingStaticInitializer {
+        static {
+            if (true) {
+                throw new IllegalStateException("Static initializer must not run");
+            }
+        }
+
+        private ClassWithFailingStaticInitializer() {
+            throw new UnsupportedOperationException("No instances");
+        }
+    }
+
+    static class ClassWithConditionalException {
+        private ClassWithConditionalException() {
+            if (System.currentTimeMillis() > 0) {
+                throw new IllegalStateException("test exception");
+            }
+        }
+    }
+
+    static class ClassWithComputedExceptionMessage {
+        private ClassWithComputedExceptionMessage() {
+            throw new IllegalStateException("test exception " + System.currentTimeMillis());
+        }
+    }
+
+    static class ClassWithThrowingHelperCall {
+        private ClassWithThrowingHelperCall() {
+            fail();
+        }
+
+        private static void fail() {
+            throw new IllegalStateException("No instances");
+        }
+    }
+
+    static class ClassWithThrowingHelperCallBeforeException {
+        private ClassWithThrowingHelperCallBeforeException() {
+            fail();
+            throw new IllegalStateException("No instances");
+        }
+
+        private static void fail() {
+            throw new UnsupportedOperationException("Helper fails first");
+        }
+    }
+
+    static class ThrowingSuperclass {
+        ThrowingSuperclass() {
+            throw new UnsupportedOperationException("Superclass fails first");
+        }
+    }
+
+    static class ClassWithThrowingSuperclass extends ThrowingSuperclass {
+        private ClassWithThrowingSuperclass() {
+            throw new IllegalStateException("No instances");
+        }
+    }
+
+    static class ClassWithStaticInitializer {
+        static final long CREATED_AT_MILLIS = System.currentTimeMillis();
+
+        private ClassWithStaticInitializer() {
+        }
+    }
+
+    static class ClassWithArrayConstructor {
+        private ClassWithArrayConstructor(String[] strings, long[][] longs) {
+        }
+    }
+
+    @Test
+    public void shouldNotInitializeCheckedClass() {
+        PrivateConstructorChecker
+                .forClass(ClassWithFailingStaticInitializer.class)
+                .bytecodeOnly()
+                .expectedTypeOfException(UnsupportedOperationException.class)
+                .expectedExceptionMessage("No instances")
+                .check();
+    }
+
+    @Test
+    public void shouldAssertThatConstructorIsPrivateAndDoesNotThrowExceptions() {
+        PrivateConstructorChecker
+                .forClass(ClassWithPrivateConstructor.class)
+                .bytecodeOnly()
+                .check();
+    }
+
+    @Test
+    public void shouldThrowExceptionBecauseConstructorHasPublicModifier() {
+        PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                .forClass(ClassWithPublicConstructor.class)
+                .bytecodeOnly();
+
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage("Constructor of " + ClassWithPublicConstructor.class + " must be private");
+        builder.check();
+    }
+
+    @Test
+    public void shouldThrowExceptionBecauseClassHasMoreThanOneConstructor() {
+        PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                .forClass(ClassWith2Constructors.class)
+                .bytecodeOnly();
+
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(ClassWith2Constructors.class + " has more than one constructor");
+        builder.check();
+    }
+
+    @Test
+    public void shouldThrowExceptionIfClassHasNonDefaultConstructor() {
+        PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                .forClass(ClassWithoutDefaultConstructor.class)
+                .bytecodeOnly();
+
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(ClassWithoutDefaultConstructor.class + " has non-default constructor with some parameters");
+        builder.check();
+    }
+
+    @Test
+    public void shouldCheckThatConstructorThrowsExceptionWithExpectedMessage() {
+        PrivateConstructorChecker
+                .forClass(ClassWithConstructorThatThrowsException.class)
+                .bytecodeOnly()
+                .expectedTypeOfException(IllegalStateException.class)
+                .expectedExceptionMessage("test exception")
+                .check();
+    }
+
+    @Test
+    public void shouldThrowExceptionBecauseTypeOfExpectedExceptionDoesNotMatch() {
+        PrivateConstructorChecker.ExceptionCheckable builder = PrivateConstructorChecker
+                .forClass(ClassWithConstructorThatThrowsException.class)
+                .bytecodeOnly()
+                .expectedTypeOfException(IllegalArgumentException.class);
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("For " + ClassWithConstructorThatThrowsException.class + " expected exception of type = class java.lang.IllegalArgumentException, " +
+                "but was exception of type = class java.lang.IllegalStateException");
+        builder.check();
+    }
+
+    @Test
+    public void shouldThrowExceptionBecauseExpectedMessageDoesNotMatch() {
+        PrivateConstructorChecker.ExceptionCheckable builder = PrivateConstructorChecker
+                .forClass(ClassWithConstructorThatThrowsException.class)
+                .bytecodeOnly()
+                .expectedExceptionMessage("lol, not something that you've expected?");
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("For " + ClassWithConstructorThatThrowsException.class + " expected exception message = 'lol, not something that you've expected?', " +
+                "but was = 'test exception'");
+        builder.check();
+    }
+
+    @Test
+    public void shouldThrowExceptionBecauseConstructorThrownUnexpectedException() {
+        PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                .forClass(ClassWithConstructorThatThrowsException.class)
+                .bytecodeOnly();
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("For " + ClassWithConstructorThatThrowsException.class + " no exception was expected");
+        builder.check();
+    }
+
+    @Test
+    public void shouldThrowExceptionIfThrownExceptionCanNotBeDetermined() {
+        PrivateConstructorChecker.ExceptionCheckable builder = PrivateConstructorChecker
+                .forClass(ClassWithConditionalException.class)
+                .bytecodeOnly()
+                .expectedTypeOfException(IllegalStateException.class);
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("For " + ClassWithConditionalException.class + " thrown exception can not be determined from bytecode");
+        builder.check();
+    }
+
+    @Test
+    public void shouldThrowExceptionIfConstructorCallsMethods() {
+        PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                .forClass(ClassWithThrowingHelperCall.class)
+                .bytecodeOnly();
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("For " + ClassWithThrowingHelperCall.class + " no exception was expected, but constructor may throw one");
+        builder.check();
+    }
+
+    @Test
+    public void shouldThrowExceptionIfConstructorCallsMethodsBeforeThrowingException() {
+        PrivateConstructorChecker.ExceptionCheckable builder = PrivateConstructorChecker
+                .forClass(ClassWithThrowingHelperCallBeforeException.class)
+                .bytecodeOnly()
+                .expectedTypeOfException(IllegalStateException.class);
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("For " + ClassWithThrowingHelperCallBeforeException.class + " thrown exception can not be determined from bytecode");
+        builder.check();
+    }
+
+    @Test
+    public void shouldThrowExceptionIfSuperclassConstructorRunsBeforeThrowingException() {
+        PrivateConstructorChecker.ExceptionCheckable builder = PrivateConstructorChecker
+                .forClass(ClassWithThrowingSuperclass.class)
+                .bytecodeOnly()
+                .expectedTypeOfException(IllegalStateException.class);
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("For " + ClassWithThrowingSuperclass.class + " thrown exception can not be determined from bytecode");
+        builder.check();
+    }
+
+    @Test
+    public void shouldThrowExceptionIfClassHasStaticInitializer() {
+        PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                .forClass(ClassWithStaticInitializer.class)
+                .bytecodeOnly();
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("For " + ClassWithStaticInitializer.class + " no exception was expected, but constructor may throw one");
+        builder.check();
+    }
+
+    @Test
+    public void shouldThrowExceptionIfClassHasNoConstructors() {
+        PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                .forClass(SomeInterface.class)
+                .bytecodeOnly();
+
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(SomeInterface.class + " has no constructors");
+        builder.check();
+    }
+
+    @Test
+    public void shouldCheckTypeOfExceptionWithComputedMessage() {
+        PrivateConstructorChecker
+                .forClass(ClassWithComputedExceptionMessage.class)
+                .bytecodeOnly()
+                .expectedTypeOfException(IllegalStateException.class)
+                .check();
+    }
+
+    @Test
+    public void shouldThrowExceptionIfMessageCanNotBeDetermined() {
+        PrivateConstructorChecker.ExceptionCheckable builder = PrivateConstructorChecker
+                .forClass(ClassWithComputedExceptionMessage.class)
+                .bytecodeOnly()
+                .expectedExceptionMessage("test exception");
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("For " + ClassWithComputedExceptionMessage.class + " message of thrown exception can not be determined from bytecode");
+        builder.check();
+    }
+
+    @Test
+    public void shouldCheckPrivateConstructorMatchesParameters() {
+        PrivateConstructorChecker
+                .forClass(ClassWithPrivateStringConstructor.class)
+                .bytecodeOnly()
+                .expectedWithParameters(String.class)
+                .check();
+    }
+
+    @Test
+    public void shouldCheckPrivateConstructorMatchesArrayParameters() {
+        PrivateConstructorChecker
+                .forClass(ClassWithArrayConstructor.class)
+                .bytecodeOnly()
+                .expectedWithParameters(String[].class, long[][].class)
+                .check();
+    }
+
+    @Test
+    public void shouldThrowExceptionBecauseOneConstructorParametersDoesNotMatch() {
+        final PrivateConstructorChecker.ParametersCheckable builder = PrivateConstructorChecker
+                .forClass(ClassWithPrivateStringStringIntConstructor.class)
+                .bytecodeOnly()
+                .expectedWithParameters(String.class, String.class, String.class);
+
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage("Expected constructor with parameters (String, String, String) but found constructor with parameters (String, String, int)");
+        builder.check();
+    }
+
+    @Test
+    public void shouldCheckClassesOfThePackageWithoutLoadingThem() {
+        PrivateConstructorChecker
+                .forPackage("com.pushtorefresh.private_constructor_checker.fixtures.valid")
+                .bytecodeOnly()
+                .expectedTypeOfException(IllegalStateException.class)
+                .expectedExceptionMessage("No instances please!")
+                .check();
+    }
+
+    @Test
+    public void shouldParseParameterDescriptors() {
+        assertEquals(
+                Arrays.asList("I", "[Ljava/lang/String;", "[[J", "Ljava/lang/Object;"),
+                BytecodeChecker.parameterDescriptorsOf("(I[Ljava/lang/String;[[JLjava/lang/Object;)V")
+        );
+    }
+}
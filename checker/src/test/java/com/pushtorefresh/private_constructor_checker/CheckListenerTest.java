@@ -0,0 +1,191 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import com.pushtorefresh.private_constructor_checker.ClassCheckEvent.Outcome;
+import com.pushtorefresh.private_constructor_checker.ClassCheckEvent.Phase;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithConstructorThatThrowsException;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPrivateConstructor;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPublicConstructor;
+import com.pushtorefresh.private_constructor_checker.fixtures.valid.NonInstantiableA;
+import com.pushtorefresh.private_constructor_checker.fixtures.valid.SomeInterface;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CheckListenerTest {
+    @Rule public ExpectedException expectedException = ExpectedException.none();
+
+    @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldReportOutcomeAndTimingsOfEachClass() {
+        final RecordingListener listener = new RecordingListener();
+
+        final PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                .forClasses(ClassWithConstructorThatThrowsException.class, ClassWithPublicConstructor.class)
+                .listener(listener);
+
+        builder.expectedTypeOfException(IllegalStateException.class);
+
+        final CheckResult result = builder.checkAll();
+
+        assertEquals(1, listener.finishedCount);
+        assertEquals(2, listener.events.size());
+
+        final ClassCheckEvent passed = listener.eventOf(ClassWithConstructorThatThrowsException.class);
+        assertEquals(Outcome.PASSED, passed.getOutcome());
+        assertNull(passed.getError());
+        assertTrue(passed.getDurationNanos(Phase.NEW_INSTANCE) > 0);
+        assertTrue(passed.getTotalDurationNanos() >= passed.getDurationNanos(Phase.LOAD)
+                + passed.getDurationNanos(Phase.GET_DECLARED_CONSTRUCTORS)
+                + passed.getDurationNanos(Phase.SET_ACCESSIBLE)
+                + passed.getDurationNanos(Phase.NEW_INSTANCE));
+        assertEquals(0, passed.getDurationNanos(Phase.PARSE_CLASS_FILE));
+
+        final ClassCheckEvent failed = listener.eventOf(ClassWithPublicConstructor.class);
+        assertEquals(Outcome.FAILED, failed.getOutcome());
+        assertSame(result.getFailures().get(0).getError(), failed.getError());
+        assertEquals(0, failed.getDurationNanos(Phase.NEW_INSTANCE));
+    }
+
+    @Test
+    public void shouldReportTimingsOfBytecodeAnalysis() {
+        final RecordingListener listener = new RecordingListener();
+
+        PrivateConstructorChecker
+                .forClass(ClassWithPrivateConstructor.class)
+                .bytecodeOnly()
+                .listener(listener)
+                .check();
+
+        final ClassCheckEvent event = listener.eventOf(ClassWithPrivateConstructor.class);
+        assertEquals(Outcome.PASSED, event.getOutcome());
+        assertTrue(event.getDurationNanos(Phase.PARSE_CLASS_FILE) > 0);
+        assertEquals(0, event.getDurationNanos(Phase.LOAD));
+    }
+
+    @Test
+    public void shouldReportCachedAndSkippedClasses() throws IOException {
+        final File cacheFile = temporaryFolder.newFile("results.cache");
+
+        PrivateConstructorChecker
+                .forClass(ClassWithPrivateConstructor.class)
+                .resultCache(ResultCache.open(cacheFile))
+                .check();
+
+        final RecordingListener listener = new RecordingListener();
+
+        PrivateConstructorChecker
+                .forClass(ClassWithPrivateConstructor.class)
+                .resultCache(ResultCache.open(cacheFile))
+                .listener(listener)
+                .check();
+
+        PrivateConstructorChecker
+                .forPackage("com.pushtorefresh.private_constructor_checker.fixtures.valid")
+                .listener(listener)
+                .expectedTypeOfException(IllegalStateException.class)
+                .check();
+
+        final ClassCheckEvent cached = listener.eventOf(ClassWithPrivateConstructor.class);
+        assertEquals(Outcome.CACHED, cached.getOutcome());
+        assertTrue(cached.getDurationNanos(Phase.CACHE_LOOKUP) > 0);
+        assertEquals(0, cached.getDurationNanos(Phase.LOAD));
+
+        assertEquals(Outcome.SKIPPED, listener.eventOf(SomeInterface.class).getOutcome());
+        assertEquals(Outcome.PASSED, listener.eventOf(NonInstantiableA.class).getOutcome());
+        assertEquals(2, listener.finishedCount);
+    }
+
+    @Test
+    public void shouldNotifyAboutFinishedCheckIfCheckFailed() {
+        final RecordingListener listener = new RecordingListener();
+
+        try {
+            expectedException.expect(AssertionError.class);
+            PrivateConstructorChecker
+                    .forClasses(ClassWithPublicConstructor.class, ClassWithPrivateConstructor.class)
+                    .listener(listener)
+                    .check();
+        } finally {
+            assertEquals(1, listener.events.size());
+            assertEquals(1, listener.finishedCount);
+        }
+    }
+
+    @Test
+    public void shouldKeepSlowestClasses() {
+        final SlowestClassesListener listener = new SlowestClassesListener(2);
+
+        listener.onClassChecked(eventOf("a.A", 30));
+        listener.onClassChecked(eventOf("a.B", 10));
+        listener.onClassChecked(eventOf("a.C", 50));
+        listener.onClassChecked(eventOf("a.D", 20));
+        listener.onCheckFinished();
+
+        final List<ClassCheckEvent> slowestClasses = listener.getSlowestClasses();
+        assertEquals(2, slowestClasses.size());
+        assertEquals("a.C", slowestClasses.get(0).getClassName());
+        assertEquals("a.A", slowestClasses.get(1).getClassName());
+
+        final String[] lines = listener.toString().split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].trim().startsWith("total ms"));
+        assertTrue(lines[1].endsWith("  PASSED   a.C"));
+        assertTrue(lines[1].trim().startsWith("0.050"));
+    }
+
+    @Test
+    public void slowestClassesListenerShouldThrowExceptionIfCountIsNotPositive() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("count must be positive, but was 0");
+        new SlowestClassesListener(0);
+    }
+
+    @Test
+    public void shouldWriteJsonReport() throws IOException {
+        final File reportFile = temporaryFolder.newFile("report.json");
+        final JsonReportListener listener = new JsonReportListener(reportFile);
+
+        final long[] phaseDurations = new long[Phase.values().length];
+        phaseDurations[Phase.LOAD.ordinal()] = 7;
+        phaseDurations[Phase.NEW_INSTANCE.ordinal()] = 3;
+
+        listener.onClassChecked(new ClassCheckEvent("a.A", Outcome.PASSED, null, 12, phaseDurations));
+        listener.onClassChecked(new ClassCheckEvent("a.B", Outcome.FAILED, new AssertionError("\"quoted\"\n"), 5, new long[Phase.values().length]));
+        listener.onCheckFinished();
+
+        assertEquals("{\"classes\":[\n"
+                + "{\"className\":\"a.A\",\"outcome\":\"PASSED\",\"totalNanos\":12,\"phaseNanos\":{\"LOAD\":7,\"NEW_INSTANCE\":3}},\n"
+                + "{\"className\":\"a.B\",\"outcome\":\"FAILED\",\"totalNanos\":5,\"phaseNanos\":{},\"error\":\"java.lang.AssertionError: \\\"quoted\\\"\\n\"}\n"
+                + "]}\n", TestFiles.read(reportFile));
+
+        listener.onCheckFinished();
+
+        assertEquals("{\"classes\":[\n]}\n", TestFiles.read(reportFile));
+    }
+
+    @Test
+    public void builderShouldThrowExceptionIfNullWasPassedAsListener() {
+        PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                .forClass(ClassWithPrivateConstructor.class);
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("listener can not be null");
+        builder.listener(null);
+    }
+
+    private static ClassCheckEvent eventOf(String className, long totalDurationMicros) {
+        return new ClassCheckEvent(className, Outcome.PASSED, null, totalDurationMicros * 1000, new long[Phase.values().length]);
+    }
+}
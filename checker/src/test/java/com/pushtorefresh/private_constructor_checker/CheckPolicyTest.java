@@ -0,0 +1,167 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithConstructorThatThrowsException;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPrivateConstructor;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPrivateStringConstructor;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Properties;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CheckPolicyTest {
+    @Rule public ExpectedException expectedException = ExpectedException.none();
+
+    @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldPickMostSpecificRule() {
+        final CheckPolicy policy = CheckPolicy.fromProperties(properties(
+                "**.util.*.exceptionMessage", "any util",
+                "com.example.util.Strings.exceptionMessage", "exact",
+                "com.example.**.exceptionMessage", "any in com.example",
+                "com.*.util.*.exceptionMessage", "util of com"
+        ));
+
+        assertEquals("exact", policy.expectationsOf("com.example.util.Strings").getExceptionMessage());
+        assertEquals("util of com", policy.expectationsOf("com.example.util.Numbers").getExceptionMessage());
+        assertEquals("any util", policy.expectationsOf("org.example.util.Numbers").getExceptionMessage());
+        assertEquals("any util", policy.expectationsOf("util.Numbers").getExceptionMessage());
+        assertEquals("any in com.example", policy.expectationsOf("com.example.internal.Numbers").getExceptionMessage());
+        assertEquals("any in com.example", policy.expectationsOf("com.example.util.strings.Strings").getExceptionMessage());
+        assertNull(policy.expectationsOf("org.example.Numbers"));
+    }
+
+    @Test
+    public void shouldCombineAttributesOfRule() {
+        final Expectations expectations = CheckPolicy.fromProperties(properties(
+                "com.example.*.typeOfException", "java.lang.UnsupportedOperationException",
+                "com.example.*.exceptionMessage", "No instances ",
+                "com.example.*.parameters", " java.lang.String , [I "
+        )).expectationsOf("com.example.Strings");
+
+        assertEquals("java.lang.UnsupportedOperationException", expectations.getTypeOfExceptionName());
+        assertEquals("No instances ", expectations.getExceptionMessage());
+        assertArrayEquals(new String[]{"java.lang.String", "[I"}, expectations.getParameterNames());
+    }
+
+    @Test
+    public void shouldTreatEmptyParametersAsConstructorWithoutParameters() {
+        final Expectations expectations = CheckPolicy.fromProperties(properties(
+                "com.example.*.parameters", ""
+        )).expectationsOf("com.example.Strings");
+
+        assertArrayEquals(new String[0], expectations.getParameterNames());
+        assertNull(expectations.getTypeOfExceptionName());
+    }
+
+    @Test
+    public void shouldCheckClassesWithExpectationsOfPolicy() {
+        final CheckResult result = PrivateConstructorChecker
+                .forClasses(ClassWithPrivateConstructor.class, ClassWithConstructorThatThrowsException.class, ClassWithPrivateStringConstructor.class)
+                .policy(CheckPolicy.fromProperties(properties(
+                        "**.PrivateConstructionCheckerTest$ClassWithConstructorThatThrowsException.typeOfException", "java.lang.IllegalStateException",
+                        "**.PrivateConstructionCheckerTest$ClassWithConstructorThatThrowsException.exceptionMessage", "test exception",
+                        "**.PrivateConstructionCheckerTest$ClassWithPrivateStringConstructor.parameters", "java.lang.String"
+                )))
+                .checkAll();
+
+        assertTrue(result.isSuccessful());
+        assertEquals(3, result.getCheckedClassesCount());
+    }
+
+    @Test
+    public void shouldReportMismatchedExpectationsOfPolicy() {
+        final PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                .forClass(ClassWithConstructorThatThrowsException.class)
+                .policy(CheckPolicy.fromProperties(properties(
+                        "com.pushtorefresh.**.typeOfException", "java.lang.UnsupportedOperationException"
+                )));
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("For " + ClassWithConstructorThatThrowsException.class
+                + " expected exception of type = class java.lang.UnsupportedOperationException, but was exception of type = class java.lang.IllegalStateException");
+        builder.check();
+    }
+
+    @Test
+    public void shouldLoadPolicyFromFile() throws IOException {
+        final File file = temporaryFolder.newFile("policy.properties");
+        final OutputStream outputStream = new FileOutputStream(file);
+
+        try {
+            outputStream.write("# Utils\n**.util.*.exceptionMessage = No instances\n".getBytes("ISO-8859-1"));
+        } finally {
+            outputStream.close();
+        }
+
+        assertEquals("No instances", CheckPolicy.load(file).expectationsOf("com.example.util.Strings").getExceptionMessage());
+    }
+
+    @Test
+    public void shouldThrowExceptionIfPolicyFileDoesNotExist() {
+        final File file = new File(temporaryFolder.getRoot(), "policy.properties");
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("Can not read policy " + file);
+        CheckPolicy.load(file);
+    }
+
+    @Test
+    public void shouldThrowExceptionIfKeyHasUnknownAttribute() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Key com.example.*.message must be a pattern followed by .typeOfException, .exceptionMessage or .parameters");
+        CheckPolicy.fromProperties(properties("com.example.*.message", "No instances"));
+    }
+
+    @Test
+    public void shouldThrowExceptionIfKeyHasNoPattern() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Key parameters must be a pattern followed by .typeOfException, .exceptionMessage or .parameters");
+        CheckPolicy.fromProperties(properties("parameters", ""));
+    }
+
+    @Test
+    public void shouldThrowExceptionIfWildcardIsNotWholeSegment() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Pattern com.example.*Utils has wildcard that is not a whole segment");
+        CheckPolicy.fromProperties(properties("com.example.*Utils.parameters", ""));
+    }
+
+    @Test
+    public void shouldThrowExceptionIfPatternHasEmptySegment() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Pattern com..Utils has empty segment");
+        CheckPolicy.fromProperties(properties("com..Utils.parameters", ""));
+    }
+
+    @Test
+    public void builderShouldThrowExceptionIfNullWasPassedAsPolicy() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("policy can not be null");
+        PrivateConstructorChecker
+                .forClass(ClassWithPrivateConstructor.class)
+                .policy(null);
+    }
+
+    private static Properties properties(String... keysAndValues) {
+        final Properties properties = new Properties();
+
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            properties.setProperty(keysAndValues[i], keysAndValues[i + 1]);
+        }
+
+        return properties;
+    }
+}
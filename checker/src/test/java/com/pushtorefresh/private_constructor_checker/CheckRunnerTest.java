@@ -0,0 +1,166 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWith2Constructors;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPrivateConstructor;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPublicConstructor;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithoutDefaultConstructor;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CheckRunnerTest {
+    @Rule public ExpectedException expectedException = ExpectedException.none();
+
+    private static final Class[] CLASSES = {
+            ClassWithPrivateConstructor.class,
+            ClassWithPublicConstructor.class,
+            ClassWithPrivateConstructor.class,
+            ClassWith2Constructors.class,
+            ClassWithoutDefaultConstructor.class
+    };
+
+    static class StaticInitializerError extends Error {
+        private static final long serialVersionUID = 1L;
+    }
+
+    static class ClassWithStaticInitializerError {
+        static {
+            if (true) {
+                // Errors are thrown by the initialization as is, without ExceptionInInitializerError
+                throw new StaticInitializerError();
+            }
+        }
+
+        private ClassWithStaticInitializerError() {
+        }
+    }
+
+    @Test
+    public void shouldCollectAllFailuresSequentially() {
+        assertFailuresOfAllClasses(PrivateConstructorChecker
+                .forClasses(CLASSES)
+                .checkAll());
+    }
+
+    @Test
+    public void shouldCollectAllFailuresInParallel() {
+        assertFailuresOfAllClasses(PrivateConstructorChecker
+                .forClasses(CLASSES)
+                .inParallel()
+                .checkAll());
+    }
+
+    @Test
+    public void shouldCollectAllFailuresOnPassedExecutor() {
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+        try {
+            assertFailuresOfAllClasses(PrivateConstructorChecker
+                    .forClasses(CLASSES)
+                    .inParallel(executorService)
+                    .checkAll());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldReportOnlyFirstFailureIfFailFast() {
+        final CheckResult result = PrivateConstructorChecker
+                .forClasses(ClassWithPrivateConstructor.class, ClassWithPublicConstructor.class, ClassWithPrivateConstructor.class)
+                .failFast()
+                .checkAll();
+
+        assertEquals(2, result.getCheckedClassesCount());
+        assertEquals(1, result.getFailures().size());
+        assertEquals(ClassWithPublicConstructor.class.getName(), result.getFailures().get(0).getClassName());
+    }
+
+    @Test
+    public void shouldReportOnlyOneFailureIfFailFastInParallel() {
+        final CheckResult result = PrivateConstructorChecker
+                .forClasses(CLASSES)
+                .inParallel()
+                .failFast()
+                .checkAll();
+
+        assertFalse(result.isSuccessful());
+        assertEquals(1, result.getFailures().size());
+    }
+
+    @Test
+    public void shouldPassIfAllClassesPassInParallel() {
+        PrivateConstructorChecker
+                .forPackage("com.pushtorefresh.private_constructor_checker.fixtures.valid")
+                .inParallel()
+                .expectedTypeOfException(IllegalStateException.class)
+                .check();
+    }
+
+    @Test
+    public void shouldReportErrorsAsFailuresInParallel() {
+        final CheckResult result = PrivateConstructorChecker
+                .forClasses(ClassWithPrivateConstructor.class, ClassWithStaticInitializerError.class)
+                .inParallel()
+                .checkAll();
+
+        assertEquals(1, result.getFailures().size());
+        assertEquals(ClassWithStaticInitializerError.class.getName(), result.getFailures().get(0).getClassName());
+        assertTrue(result.getFailures().get(0).getError() instanceof StaticInitializerError);
+    }
+
+    @Test
+    public void checkShouldThrowErrorOfTheSingleFailureAsIs() {
+        PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                .forClasses(ClassWithPrivateConstructor.class, ClassWithPublicConstructor.class)
+                .inParallel();
+
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage("Constructor of " + ClassWithPublicConstructor.class + " must be private");
+        builder.check();
+    }
+
+    @Test
+    public void checkShouldListAllFailuresInParallel() {
+        PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                .forClasses(CLASSES)
+                .inParallel();
+
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage("3 of 5 classes did not pass the check\n"
+                + "  " + ClassWithPublicConstructor.class.getName() + ": java.lang.AssertionError: Constructor of " + ClassWithPublicConstructor.class + " must be private\n"
+                + "  " + ClassWith2Constructors.class.getName() + ": java.lang.AssertionError: " + ClassWith2Constructors.class + " has more than one constructor\n"
+                + "  " + ClassWithoutDefaultConstructor.class.getName() + ": java.lang.AssertionError: " + ClassWithoutDefaultConstructor.class + " has non-default constructor with some parameters");
+        builder.check();
+    }
+
+    @Test
+    public void builderShouldThrowExceptionIfNullWasPassedAsExecutor() {
+        PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                .forClass(ClassWithPrivateConstructor.class);
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("executor can not be null");
+        builder.inParallel(null);
+    }
+
+    private static void assertFailuresOfAllClasses(CheckResult result) {
+        assertFalse(result.isSuccessful());
+        assertEquals(5, result.getCheckedClassesCount());
+        assertEquals(3, result.getFailures().size());
+
+        // Failures are in the order of the classes
+        assertEquals(ClassWithPublicConstructor.class.getName(), result.getFailures().get(0).getClassName());
+        assertEquals(ClassWith2Constructors.class.getName(), result.getFailures().get(1).getClassName());
+        assertEquals(ClassWithoutDefaultConstructor.class.getName(), result.getFailures().get(2).getClassName());
+        assertTrue(result.getFailures().get(2).getError() instanceof AssertionError);
+    }
+}
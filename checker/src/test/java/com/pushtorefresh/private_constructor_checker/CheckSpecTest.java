@@ -0,0 +1,289 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.AnotherClassWithConstructorThatThrowsException;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithConstructorThatThrowsException;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPrivateConstructor;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPrivateStringConstructor;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPublicConstructor;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CheckSpecTest {
+    @Rule public ExpectedException expectedException = ExpectedException.none();
+
+    @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static final int THREADS_COUNT = 16;
+
+    private static final int ITERATIONS_COUNT = 2000;
+
+    /**
+     * Intentionally not volatile, spec must be safe to publish via data race.
+     */
+    private CheckSpec racilyPublishedSpec;
+
+    @Test
+    public void shouldCheckClassesWithExpectationsOfSpec() {
+        final CheckSpec spec = PrivateConstructorChecker
+                .forSpec()
+                .expectedTypeOfException(IllegalStateException.class)
+                .expectedExceptionMessage("test exception")
+                .toSpec();
+
+        spec.check(ClassWithConstructorThatThrowsException.class, AnotherClassWithConstructorThatThrowsException.class);
+
+        final CheckResult result = spec.checkAll(Arrays.<Class>asList(ClassWithConstructorThatThrowsException.class, ClassWithPublicConstructor.class));
+
+        assertEquals(2, result.getCheckedClassesCount());
+        assertEquals(ClassWithPublicConstructor.class.getName(), result.getFailures().get(0).getClassName());
+    }
+
+    @Test
+    public void shouldThrowAssertionErrorIfClassDidNotPassCheckOfSpec() {
+        final CheckSpec spec = PrivateConstructorChecker.forSpec().toSpec();
+
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage("Constructor of " + ClassWithPublicConstructor.class + " must be private");
+        spec.check(ClassWithPublicConstructor.class);
+    }
+
+    @Test
+    public void shouldNotCheckClassesOfBuilderOfSpec() {
+        final CheckSpec spec = PrivateConstructorChecker
+                .forClass(ClassWithPublicConstructor.class)
+                .toSpec();
+
+        assertTrue(spec.checkAll(ClassWithPrivateConstructor.class).isSuccessful());
+    }
+
+    @Test
+    public void shouldNotBeAffectedByLaterChangesOfBuilder() {
+        final PrivateConstructorChecker.Builder builder = PrivateConstructorChecker.forSpec();
+        builder.expectedTypeOfException(IllegalStateException.class);
+
+        final CheckSpec spec = builder.toSpec();
+        builder.expectedExceptionMessage("another message");
+
+        spec.check(ClassWithConstructorThatThrowsException.class);
+    }
+
+    @Test
+    public void shouldNotBeAffectedByLaterChangesOfExpectedParameters() {
+        final Class[] parameters = {String.class};
+        final PrivateConstructorChecker.Builder builder = PrivateConstructorChecker.forSpec();
+        builder.expectedWithParameters(parameters);
+
+        final CheckSpec spec = builder.toSpec();
+        parameters[0] = Integer.class;
+
+        spec.check(ClassWithPrivateStringConstructor.class);
+        builder.toSpec().check(ClassWithPrivateStringConstructor.class);
+    }
+
+    @Test
+    public void shouldThrowExceptionIfSpecHasBaseline() {
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("Baseline can not be updated by concurrent checks, so spec can not have it");
+        PrivateConstructorChecker
+                .forSpec()
+                .baseline(new File(temporaryFolder.getRoot(), "baseline.txt"))
+                .toSpec();
+    }
+
+    @Test
+    public void shouldThrowExceptionIfNoClassesWerePassed() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("classes can not be null or empty");
+        PrivateConstructorChecker.forSpec().toSpec().check();
+    }
+
+    @Test
+    public void shouldThrowExceptionIfNullClassWasPassed() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("class can not be null");
+        PrivateConstructorChecker.forSpec().toSpec().checkAll(ClassWithPrivateConstructor.class, null);
+    }
+
+    @Test
+    public void shouldThrowExceptionIfNullIterableWasPassed() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("classes can not be null");
+        PrivateConstructorChecker.forSpec().toSpec().checkAll((Iterable<Class>) null);
+    }
+
+    @Test
+    public void stressShouldGiveSameVerdictsWhileBuilderIsChangedConcurrently() throws Exception {
+        final PrivateConstructorChecker.Builder builder = PrivateConstructorChecker.forSpec();
+        builder.expectedTypeOfException(IllegalStateException.class);
+        builder.expectedExceptionMessage("test exception");
+
+        final CheckSpec spec = builder.toSpec();
+        final AtomicBoolean stopped = new AtomicBoolean();
+
+        // Changes of the builder must not be visible to the spec
+        final Thread mutator = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                final Class[] parameters = {String.class};
+
+                while (!stopped.get()) {
+                    builder.expectedExceptionMessage("another message");
+                    builder.expectedWithParameters(parameters);
+                    builder.memoized().inParallel();
+                    parameters[0] = parameters[0] == String.class ? Integer.class : String.class;
+                }
+            }
+        });
+
+        mutator.start();
+
+        try {
+            runConcurrently(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (int i = 0; i < ITERATIONS_COUNT; i++) {
+                        assertVerdicts(spec);
+                    }
+
+                    return null;
+                }
+            });
+        } finally {
+            stopped.set(true);
+            mutator.join();
+        }
+    }
+
+    @Test
+    public void stressShouldGiveSameVerdictsIfSpecIsPublishedViaDataRace() throws Exception {
+        final CountDownLatch published = new CountDownLatch(1);
+
+        final Thread publisher = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                racilyPublishedSpec = PrivateConstructorChecker
+                        .forSpec()
+                        .expectedTypeOfException(IllegalStateException.class)
+                        .expectedExceptionMessage("test exception")
+                        .toSpec();
+
+                published.countDown();
+            }
+        });
+
+        publisher.start();
+
+        runConcurrently(new Callable<Void>() {
+            @Override
+            public Void call() throws InterruptedException {
+                CheckSpec spec;
+
+                // Spin on the plain field to read the spec before the publisher is known to be done
+                while ((spec = racilyPublishedSpec) == null) {
+                    if (published.await(0, TimeUnit.MILLISECONDS)) {
+                        spec = racilyPublishedSpec;
+                        break;
+                    }
+                }
+
+                for (int i = 0; i < ITERATIONS_COUNT; i++) {
+                    assertVerdicts(spec);
+                }
+
+                return null;
+            }
+        });
+
+        publisher.join();
+    }
+
+    @Test
+    public void stressShouldGiveSameVerdictsOfMemoizedParallelSpec() throws Exception {
+        final PrivateConstructorChecker.Builder builder = PrivateConstructorChecker.forSpec();
+        builder.expectedTypeOfException(IllegalStateException.class);
+        builder.expectedExceptionMessage("test exception");
+
+        final CheckSpec spec = builder.memoized().inParallel().toSpec();
+
+        runConcurrently(new Callable<Void>() {
+            @Override
+            public Void call() {
+                for (int i = 0; i < ITERATIONS_COUNT / 10; i++) {
+                    assertVerdicts(spec);
+                }
+
+                return null;
+            }
+        });
+    }
+
+    private static void assertVerdicts(CheckSpec spec) {
+        final CheckResult result = spec.checkAll(
+                ClassWithConstructorThatThrowsException.class,
+                ClassWithPublicConstructor.class,
+                AnotherClassWithConstructorThatThrowsException.class,
+                ClassWithPrivateStringConstructor.class
+        );
+
+        assertEquals(4, result.getCheckedClassesCount());
+        assertEquals(2, result.getFailures().size());
+
+        final List<String> failedClassNames = new ArrayList<String>();
+
+        for (CheckFailure failure : result.getFailures()) {
+            failedClassNames.add(failure.getClassName());
+        }
+
+        assertTrue(failedClassNames.contains(ClassWithPublicConstructor.class.getName()));
+        assertTrue(failedClassNames.contains(ClassWithPrivateStringConstructor.class.getName()));
+        assertFalse(failedClassNames.contains(ClassWithConstructorThatThrowsException.class.getName()));
+    }
+
+    /**
+     * Runs the task on all threads at once and rethrows the first error.
+     */
+    private static void runConcurrently(final Callable<Void> task) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS_COUNT);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<Void>> futures = new ArrayList<Future<Void>>(THREADS_COUNT);
+
+        try {
+            for (int i = 0; i < THREADS_COUNT; i++) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        start.await();
+                        return task.call();
+                    }
+                }));
+            }
+
+            start.countDown();
+
+            for (Future<Void> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithConstructorThatThrowsException;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPrivateConstructor;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPublicConstructor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CheckerDaemonTest {
+    @Rule public ExpectedException expectedException = ExpectedException.none();
+
+    @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File daemonFile;
+
+    private CheckerDaemon daemon;
+
+    @Before
+    public void startDaemon() {
+        daemonFile = new File(temporaryFolder.getRoot(), "daemon");
+        daemon = CheckerDaemon.start(daemonFile);
+    }
+
+    @After
+    public void closeDaemon() {
+        daemon.close();
+    }
+
+    @Test
+    public void shouldForwardCheckToDaemon() {
+        final CheckResult result = PrivateConstructorChecker
+                .forClasses(ClassWithPrivateConstructor.class, ClassWithPublicConstructor.class)
+                .viaDaemon(daemonFile)
+                .checkAll();
+
+        assertEquals(1, daemon.getHandledRequestsCount());
+        assertEquals(2, result.getCheckedClassesCount());
+        assertEquals(1, result.getFailures().size());
+        assertEquals(ClassWithPublicConstructor.class.getName(), result.getFailures().get(0).getClassName());
+    }
+
+    @Test
+    public void shouldReportSameErrorsAsInProcessCheck() {
+        final CheckFailure inProcess = PrivateConstructorChecker
+                .forClass(ClassWithPublicConstructor.class)
+                .checkAll()
+                .getFailures()
+                .get(0);
+
+        final CheckFailure viaDaemon = PrivateConstructorChecker
+                .forClass(ClassWithPublicConstructor.class)
+                .viaDaemon(daemonFile)
+                .checkAll()
+                .getFailures()
+                .get(0);
+
+        assertEquals(1, daemon.getHandledRequestsCount());
+        assertEquals(inProcess.getError().getClass(), viaDaemon.getError().getClass());
+        assertEquals(inProcess.getError().getMessage(), viaDaemon.getError().getMessage());
+    }
+
+    @Test
+    public void shouldForwardExpectationsOfBuilder() {
+        PrivateConstructorChecker
+                .forClass(ClassWithConstructorThatThrowsException.class)
+                .viaDaemon(daemonFile)
+                .expectedTypeOfException(IllegalStateException.class)
+                .expectedExceptionMessage("test exception")
+                .check();
+
+        assertEquals(1, daemon.getHandledRequestsCount());
+    }
+
+    @Test
+    public void shouldThrowErrorOfFailedClassAsIs() {
+        final PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                .forClass(ClassWithConstructorThatThrowsException.class)
+                .viaDaemon(daemonFile);
+
+        try {
+            expectedException.expect(IllegalStateException.class);
+            expectedException.expectMessage("For " + ClassWithConstructorThatThrowsException.class + " no exception was expected");
+            builder.check();
+        } finally {
+            assertEquals(1, daemon.getHandledRequestsCount());
+        }
+    }
+
+    @Test
+    public void shouldReuseVerdictsOfUnchangedClasses() {
+        final File cacheFile = new File(daemonFile.getPath() + ".cache");
+
+        PrivateConstructorChecker
+                .forClass(ClassWithPrivateConstructor.class)
+                .viaDaemon(daemonFile)
+                .check();
+
+        final long cacheLength = cacheFile.length();
+
+        PrivateConstructorChecker
+                .forClass(ClassWithPrivateConstructor.class)
+                .viaDaemon(daemonFile)
+                .check();
+
+        assertEquals(2, daemon.getHandledRequestsCount());
+        assertTrue(cacheLength > 0);
+        assertEquals(cacheLength, cacheFile.length());
+    }
+
+    @Test
+    public void shouldCheckInProcessIfDaemonIsNotRunning() {
+        daemon.close();
+
+        final CheckResult result = PrivateConstructorChecker
+                .forClasses(ClassWithPrivateConstructor.class, ClassWithPublicConstructor.class)
+                .viaDaemon(daemonFile)
+                .checkAll();
+
+        assertEquals(2, result.getCheckedClassesCount());
+        assertEquals(1, result.getFailures().size());
+    }
+
+    @Test
+    public void shouldCheckInProcessIfDaemonFileIsStale() throws IOException {
+        daemon.close();
+
+        // Port that was free a moment ago
+        final ServerSocket serverSocket = new ServerSocket(0);
+        final int port = serverSocket.getLocalPort();
+        serverSocket.close();
+
+        writeDaemonFile(port + "\ntoken\n");
+
+        final CheckResult result = PrivateConstructorChecker
+                .forClass(ClassWithPrivateConstructor.class)
+                .viaDaemon(daemonFile)
+                .checkAll();
+
+        assertEquals(1, result.getCheckedClassesCount());
+        assertTrue(result.isSuccessful());
+    }
+
+    @Test
+    public void shouldCheckInProcessIfCheckHasListener() {
+        final SlowestClassesListener listener = new SlowestClassesListener(1);
+
+        PrivateConstructorChecker
+                .forClass(ClassWithPrivateConstructor.class)
+                .viaDaemon(daemonFile)
+                .listener(listener)
+                .check();
+
+        assertEquals(0, daemon.getHandledRequestsCount());
+    }
+
+    @Test
+    public void shouldThrowExceptionIfTokenIsInvalid() throws IOException {
+        writeDaemonFile(daemon.getPort() + "\ninvalid\n");
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("Daemon " + daemonFile + " rejected the check: Invalid token");
+        PrivateConstructorChecker
+                .forClass(ClassWithPrivateConstructor.class)
+                .viaDaemon(daemonFile)
+                .check();
+    }
+
+    @Test
+    public void closeShouldDeleteDaemonFile() {
+        assertTrue(daemonFile.isFile());
+        daemon.close();
+        assertFalse(daemonFile.exists());
+    }
+
+    @Test
+    public void builderShouldThrowExceptionIfNullWasPassedAsDaemonFile() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("daemonFile can not be null");
+        PrivateConstructorChecker
+                .forClass(ClassWithPrivateConstructor.class)
+                .viaDaemon(null);
+    }
+
+    private void writeDaemonFile(String content) throws IOException {
+        final FileOutputStream outputStream = new FileOutputStream(daemonFile);
+
+        try {
+            outputStream.write(content.getBytes("UTF-8"));
+        } finally {
+            outputStream.close();
+        }
+    }
+}
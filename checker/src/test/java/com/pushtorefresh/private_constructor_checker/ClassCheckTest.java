@@ -0,0 +1,127 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithConstructorThatThrowsException;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPrivateConstructor;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPublicConstructor;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+public class ClassCheckTest {
+    @Rule public ExpectedException expectedException = ExpectedException.none();
+
+    @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldSplitCheckPerClass() {
+        final List<String> errors = new ArrayList<String>();
+
+        for (ClassCheck classCheck : PrivateConstructorChecker
+                .forClasses(ClassWithConstructorThatThrowsException.class, ClassWithPublicConstructor.class)
+                .expectedTypeOfException(IllegalStateException.class)
+                .checksPerClass()) {
+            try {
+                classCheck.check();
+                errors.add(classCheck.getClassName() + ": passed");
+            } catch (AssertionError e) {
+                errors.add(classCheck.getClassName() + ": " + e.getMessage());
+            }
+        }
+
+        assertEquals(2, errors.size());
+        assertEquals(ClassWithConstructorThatThrowsException.class.getName() + ": passed", errors.get(0));
+        assertEquals(ClassWithPublicConstructor.class.getName() + ": Constructor of " + ClassWithPublicConstructor.class
+                + " must be private", errors.get(1));
+    }
+
+    @Test
+    public void shouldWriteResultCacheAfterEachCheck() throws IOException {
+        final File file = temporaryFolder.newFile("results.cache");
+
+        final Iterator<ClassCheck> classChecks = PrivateConstructorChecker
+                .forClass(ClassWithPrivateConstructor.class)
+                .resultCache(ResultCache.open(file))
+                .checksPerClass()
+                .iterator();
+
+        classChecks.next().check();
+
+        assertEquals(4 + 20, file.length());
+    }
+
+    @Test
+    public void shouldNotifyListenersOnceAllClassesWereTaken() {
+        final RecordingListener listener = new RecordingListener();
+
+        final Iterator<ClassCheck> classChecks = PrivateConstructorChecker
+                .forClass(ClassWithPrivateConstructor.class)
+                .listener(listener)
+                .checksPerClass()
+                .iterator();
+
+        classChecks.next().check();
+        assertEquals(0, listener.finishedCount);
+
+        assertFalse(classChecks.hasNext());
+        assertFalse(classChecks.hasNext());
+        assertEquals(1, listener.finishedCount);
+    }
+
+    @Test
+    public void shouldNotifyListenersOnceChecksTakenBeforeWereRun() throws IOException {
+        final File reportFile = temporaryFolder.newFile("report.jsonl");
+        final RecordingListener listener = new RecordingListener();
+        final List<ClassCheck> classChecks = new ArrayList<ClassCheck>();
+
+        for (ClassCheck classCheck : PrivateConstructorChecker
+                .forClasses(ClassWithPublicConstructor.class, ClassWithPublicConstructor.class, ClassWithPublicConstructor.class)
+                .listener(listener)
+                .listener(new JsonLinesReportListener(reportFile))
+                .checksPerClass()) {
+            classChecks.add(classCheck);
+        }
+
+        int failedChecksCount = 0;
+
+        for (ClassCheck classCheck : classChecks) {
+            assertEquals(0, listener.finishedCount);
+
+            try {
+                classCheck.check();
+            } catch (AssertionError expected) {
+                failedChecksCount++;
+            }
+        }
+
+        assertEquals(3, failedChecksCount);
+        assertEquals(1, listener.finishedCount);
+        assertEquals(3, listener.events.size());
+        assertEquals(3, TestFiles.readLines(reportFile).size());
+    }
+
+    @Test
+    public void shouldThrowTheSameErrorAsCheckOfTheClass() {
+        final ClassCheck classCheck = PrivateConstructorChecker
+                .forClass(ClassWithConstructorThatThrowsException.class)
+                .checksPerClass()
+                .iterator()
+                .next();
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("For " + ClassWithConstructorThatThrowsException.class + " no exception was expected");
+        classCheck.check();
+        fail();
+    }
+}
@@ -0,0 +1,165 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithConstructorThatThrowsException;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPrivateConstructor;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPrivateStringConstructor;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ClassIndexTest {
+    @Rule public ExpectedException expectedException = ExpectedException.none();
+
+    @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static final String INDEX = "# private-constructor-checker index\n"
+            + ClassWithPrivateConstructor.class.getName() + "\n"
+            + ClassWithConstructorThatThrowsException.class.getName() + "\tjava.lang.IllegalStateException\ttest exception\n"
+            + "\n"
+            + ClassWithPrivateStringConstructor.class.getName() + "\t\t\t(java.lang.String)\n";
+
+    @Test
+    public void shouldCheckIndexedClassesWithTheirExpectations() throws IOException {
+        final CheckResult result = PrivateConstructorChecker
+                .forIndex(classLoaderWithIndexes(INDEX))
+                .checkAll();
+
+        assertTrue(result.isSuccessful());
+        assertEquals(3, result.getCheckedClassesCount());
+    }
+
+    @Test
+    public void shouldCheckIndexedClassesByBytecode() throws IOException {
+        final CheckResult result = PrivateConstructorChecker
+                .forIndex(classLoaderWithIndexes(INDEX))
+                .bytecodeOnly()
+                .checkAll();
+
+        assertTrue(result.isSuccessful());
+        assertEquals(3, result.getCheckedClassesCount());
+    }
+
+    @Test
+    public void shouldReadIndexesOfAllClasspathRoots() throws IOException {
+        final CheckResult result = PrivateConstructorChecker
+                .forIndex(classLoaderWithIndexes(
+                        ClassWithPrivateConstructor.class.getName() + "\n",
+                        ClassWithPrivateStringConstructor.class.getName() + "\t\t\t(java.lang.String)\n"
+                ))
+                .checkAll();
+
+        assertTrue(result.isSuccessful());
+        assertEquals(2, result.getCheckedClassesCount());
+    }
+
+    @Test
+    public void shouldPreferExpectationsOfIndex() throws IOException {
+        final PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                .forIndex(classLoaderWithIndexes(INDEX));
+
+        builder.expectedTypeOfException(IllegalArgumentException.class);
+        builder.check();
+    }
+
+    @Test
+    public void shouldReportMismatchedExpectationsOfIndex() throws IOException {
+        final PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                .forIndex(classLoaderWithIndexes(
+                        ClassWithConstructorThatThrowsException.class.getName() + "\t\ttest\\texception\n"
+                ));
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("For " + ClassWithConstructorThatThrowsException.class
+                + " expected exception message = 'test\texception', but was = 'test exception'");
+        builder.check();
+    }
+
+    @Test
+    public void shouldReportMalformedIndex() throws IOException {
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("Malformed line 2 of index ");
+        expectedException.expectMessage(": parameters must be enclosed in parentheses, but were java.lang.String");
+        PrivateConstructorChecker
+                .forIndex(classLoaderWithIndexes(
+                        ClassWithPrivateConstructor.class.getName() + "\n"
+                                + ClassWithPrivateStringConstructor.class.getName() + "\t\t\tjava.lang.String\n"
+                ));
+    }
+
+    @Test
+    public void shouldReportUnknownEscapeSequence() throws IOException {
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage(": unknown escape sequence \\q");
+        PrivateConstructorChecker
+                .forIndex(classLoaderWithIndexes(
+                        ClassWithConstructorThatThrowsException.class.getName() + "\t\ttest\\qexception\n"
+                ));
+    }
+
+    @Test
+    public void shouldReportExpectedTypeThatIsNotThrowable() throws IOException {
+        final PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                .forIndex(classLoaderWithIndexes(
+                        ClassWithConstructorThatThrowsException.class.getName() + "\tjava.lang.String\n"
+                ));
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("Expected type of exception java.lang.String is not Throwable");
+        builder.check();
+    }
+
+    @Test
+    public void shouldThrowExceptionIfThereIsNoIndex() throws IOException {
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("Can not find META-INF/private-constructor-checker.idx, make sure that annotation processor "
+                + "of the classes runs with -AprivateConstructorChecker.index=true");
+        PrivateConstructorChecker
+                .forIndex(classLoaderWithIndexes());
+    }
+
+    @Test
+    public void builderShouldThrowExceptionIfNullWasPassedAsClassLoader() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("classLoader can not be null");
+        PrivateConstructorChecker
+                .forIndex(null);
+    }
+
+    /**
+     * Creates loader of the test classes that also sees one classpath root per passed index.
+     */
+    private ClassLoader classLoaderWithIndexes(String... indexes) throws IOException {
+        final URL[] urls = new URL[indexes.length];
+
+        for (int i = 0; i < indexes.length; i++) {
+            final File root = temporaryFolder.newFolder();
+            final File index = new File(root, ClassIndex.RESOURCE_NAME);
+
+            assertTrue(index.getParentFile().mkdirs());
+
+            final OutputStream outputStream = new FileOutputStream(index);
+
+            try {
+                outputStream.write(indexes[i].getBytes("UTF-8"));
+            } finally {
+                outputStream.close();
+            }
+
+            urls[i] = root.toURI().toURL();
+        }
+
+        return new URLClassLoader(urls, getClass().getClassLoader());
+    }
+}
@@ -0,0 +1,247 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import com.pushtorefresh.private_constructor_checker.fixtures.invalid.InstantiableClass;
+import com.pushtorefresh.private_constructor_checker.fixtures.valid.NonInstantiableA;
+import com.pushtorefresh.private_constructor_checker.fixtures.valid.NonInstantiableB;
+import com.pushtorefresh.private_constructor_checker.fixtures.valid.SomeEnum;
+import com.pushtorefresh.private_constructor_checker.fixtures.valid.SomeInterface;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ClassPathScannerTest {
+    @Rule public ExpectedException expectedException = ExpectedException.none();
+
+    @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static final String VALID_PACKAGE = "com.pushtorefresh.private_constructor_checker.fixtures.valid";
+
+    private static final String INVALID_PACKAGE = "com.pushtorefresh.private_constructor_checker.fixtures.invalid";
+
+    @Test
+    public void builderShouldThrowExceptionIfNullWasPassedAsPackage() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("packageName can not be null or empty");
+        PrivateConstructorChecker
+                .forPackage(null);
+    }
+
+    @Test
+    public void builderShouldThrowExceptionIfNullWasPassedAsClasspathRoot() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("classpathRoot can not be null");
+        PrivateConstructorChecker
+                .forClasspathRoot(null);
+    }
+
+    @Test
+    public void builderShouldThrowExceptionIfClasspathRootDoesNotExist() {
+        final File classpathRoot = new File(temporaryFolder.getRoot(), "does-not-exist");
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("classpathRoot " + classpathRoot + " does not exist");
+        PrivateConstructorChecker
+                .forClasspathRoot(classpathRoot);
+    }
+
+    @Test
+    public void shouldDiscoverOnlyClassesOfThePackage() {
+        final List<String> classNames = classNamesOf(ClassPathScanner.forPackage(VALID_PACKAGE, getClass().getClassLoader()));
+
+        assertEquals(
+                sorted(NonInstantiableA.class.getName(),
+                        NonInstantiableA.doNothing().getClass().getName(),
+                        NonInstantiableB.class.getName(),
+                        SomeEnum.class.getName(),
+                        SomeInterface.class.getName()),
+                classNames
+        );
+    }
+
+    @Test
+    public void shouldCheckClassesOfThePackageAndSkipInterfacesEnumsAndAnonymousClasses() {
+        PrivateConstructorChecker
+                .forPackage(VALID_PACKAGE)
+                .expectedTypeOfException(IllegalStateException.class)
+                .expectedExceptionMessage("No instances please!")
+                .check();
+    }
+
+    @Test
+    public void shouldThrowExceptionIfClassOfThePackageHasPublicConstructor() {
+        PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                .forPackage(INVALID_PACKAGE);
+
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage("Constructor of " + InstantiableClass.class + " must be private");
+        builder.check();
+    }
+
+    @Test
+    public void shouldCheckClassesOfTheDirectory() throws IOException {
+        final File directory = temporaryFolder.newFolder("classes");
+
+        for (Class clazz : new Class[]{NonInstantiableA.class, NonInstantiableB.class, SomeInterface.class}) {
+            final File classFile = new File(directory, resourceNameOf(clazz));
+            classFile.getParentFile().mkdirs();
+
+            final OutputStream outputStream = new FileOutputStream(classFile);
+
+            try {
+                copyClassFile(clazz, outputStream);
+            } finally {
+                outputStream.close();
+            }
+        }
+
+        PrivateConstructorChecker
+                .forClasspathRoot(directory)
+                .expectedTypeOfException(IllegalStateException.class)
+                .check();
+    }
+
+    @Test
+    public void shouldCheckClassesOfTheJar() throws IOException {
+        final File jar = jarOf(NonInstantiableB.class, SomeEnum.class, InstantiableClass.class);
+
+        PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                .forClasspathRoot(jar);
+
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage("Constructor of " + InstantiableClass.class + " must be private");
+        builder.expectedTypeOfException(IllegalStateException.class).check();
+    }
+
+    @Test
+    public void shouldCheckClassesOfSeveralJars() throws IOException {
+        final File firstJar = jarOf("first.jar", NonInstantiableB.class);
+        final File secondJar = jarOf("second.jar", SomeEnum.class, InstantiableClass.class);
+
+        final PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                .forClasspathRoots(firstJar, secondJar);
+
+        builder.expectedTypeOfException(IllegalStateException.class);
+
+        final CheckResult result = builder.checkAll();
+
+        assertEquals(3, result.getCheckedClassesCount());
+        assertEquals(1, result.getFailures().size());
+        assertEquals(InstantiableClass.class.getName(), result.getFailures().get(0).getClassName());
+    }
+
+    @Test
+    public void shouldThrowExceptionIfOneOfClasspathRootsDoesNotExist() throws IOException {
+        final File classpathRoot = new File(temporaryFolder.getRoot(), "missing");
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("classpathRoot " + classpathRoot + " does not exist");
+        PrivateConstructorChecker.forClasspathRoots(temporaryFolder.getRoot(), classpathRoot);
+    }
+
+    @Test
+    public void shouldDiscoverClassesOfTheJar() throws IOException {
+        final File jar = jarOf(NonInstantiableB.class, SomeEnum.class);
+
+        assertEquals(
+                sorted(NonInstantiableB.class.getName(), SomeEnum.class.getName()),
+                classNamesOf(ClassPathScanner.forClasspathRoot(jar, getClass().getClassLoader()))
+        );
+    }
+
+    @Test
+    public void shouldDiscoverClassesOfThePackageInJarWithoutDirectoryEntries() throws IOException {
+        final File jar = jarOf(NonInstantiableB.class, InstantiableClass.class);
+        final ClassLoader classLoader = new URLClassLoader(new URL[]{jar.toURI().toURL()}, null);
+
+        assertEquals(
+                sorted(NonInstantiableB.class.getName()),
+                classNamesOf(ClassPathScanner.forPackage(VALID_PACKAGE, classLoader))
+        );
+    }
+
+    @Test
+    public void shouldIgnoreNonClassFilesAndPackageInfo() {
+        final ClassPathScanner scanner = ClassPathScanner.forClasspathRoot(temporaryFolder.getRoot(), getClass().getClassLoader());
+
+        assertNull(scanner.toClassName("com/example/README.md"));
+        assertNull(scanner.toClassName("com/example/package-info.class"));
+        assertNull(scanner.toClassName("META-INF/versions/9/com/example/Util.class"));
+        assertEquals("com.example.Util", scanner.toClassName("com/example/Util.class"));
+    }
+
+    private File jarOf(Class... classes) throws IOException {
+        return jarOf("classes.jar", classes);
+    }
+
+    private File jarOf(String name, Class... classes) throws IOException {
+        final File jar = temporaryFolder.newFile(name);
+        final JarOutputStream jarOutputStream = new JarOutputStream(new FileOutputStream(jar));
+
+        try {
+            for (Class clazz : classes) {
+                jarOutputStream.putNextEntry(new ZipEntry(resourceNameOf(clazz)));
+                copyClassFile(clazz, jarOutputStream);
+                jarOutputStream.closeEntry();
+            }
+        } finally {
+            jarOutputStream.close();
+        }
+
+        return jar;
+    }
+
+    private static String resourceNameOf(Class clazz) {
+        return clazz.getName().replace('.', '/') + ".class";
+    }
+
+    private static void copyClassFile(Class clazz, OutputStream outputStream) throws IOException {
+        final InputStream inputStream = clazz.getClassLoader().getResourceAsStream(resourceNameOf(clazz));
+
+        try {
+            final byte[] buffer = new byte[4096];
+            int read;
+
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    private static List<String> classNamesOf(Iterable<ClassTarget> targets) {
+        final List<String> classNames = new ArrayList<String>();
+
+        for (ClassTarget target : targets) {
+            classNames.add(target.getClassName());
+        }
+
+        Collections.sort(classNames);
+        return classNames;
+    }
+
+    private static List<String> sorted(String... classNames) {
+        final List<String> result = new ArrayList<String>();
+        Collections.addAll(result, classNames);
+        Collections.sort(result);
+        return result;
+    }
+}
@@ -0,0 +1,144 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import com.pushtorefresh.private_constructor_checker.ClassCheckEvent.Outcome;
+import com.pushtorefresh.private_constructor_checker.fixtures.valid.SomeInterface;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ConstructorMetadataTest {
+    @Rule public ExpectedException expectedException = ExpectedException.none();
+
+    // Verdicts are kept per JVM, so each test checks its own classes
+
+    static class LookedUpOnce {
+        private LookedUpOnce() {
+        }
+    }
+
+    static class MemoizedOnce {
+        static int instancesCount;
+
+        private MemoizedOnce() {
+            instancesCount++;
+        }
+    }
+
+    static class NotMemoized {
+        static int instancesCount;
+
+        private NotMemoized() {
+            instancesCount++;
+        }
+    }
+
+    static class MemoizedPerExpectations {
+        private MemoizedPerExpectations() {
+            throw new IllegalStateException("No instances please!");
+        }
+    }
+
+    static class CheckedInIsolation {
+        private CheckedInIsolation() {
+        }
+    }
+
+    static class FailedAgain {
+        FailedAgain() {
+        }
+    }
+
+    @Test
+    public void shouldLookUpConstructorsOncePerClass() {
+        final ConstructorMetadata metadata = ConstructorMetadata.of(LookedUpOnce.class);
+
+        assertSame(metadata, ConstructorMetadata.of(LookedUpOnce.class));
+        assertEquals(1, metadata.getDeclaredConstructorsCount());
+        assertTrue(metadata.isPrivateConstructor());
+        assertSame(metadata.getAccessibleConstructor(), metadata.getAccessibleConstructor());
+    }
+
+    @Test
+    public void shouldSkipClassesThatPassedInThisJvm() {
+        assertEquals(Outcome.PASSED, outcomeOf(PrivateConstructorChecker.forClass(MemoizedOnce.class).memoized()));
+        assertEquals(Outcome.CACHED, outcomeOf(PrivateConstructorChecker.forClass(MemoizedOnce.class).memoized()));
+        assertEquals(1, MemoizedOnce.instancesCount);
+    }
+
+    @Test
+    public void shouldCheckAgainIfNotMemoized() {
+        assertEquals(Outcome.PASSED, outcomeOf(PrivateConstructorChecker.forClass(NotMemoized.class)));
+        assertEquals(Outcome.PASSED, outcomeOf(PrivateConstructorChecker.forClass(NotMemoized.class)));
+        assertEquals(2, NotMemoized.instancesCount);
+    }
+
+    @Test
+    public void shouldCheckAgainIfExpectationsWereChanged() {
+        final PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                .forClass(MemoizedPerExpectations.class)
+                .memoized();
+
+        builder.expectedTypeOfException(IllegalStateException.class);
+        assertEquals(Outcome.PASSED, outcomeOf(builder));
+
+        builder.expectedExceptionMessage("No instances please!");
+        assertEquals(Outcome.PASSED, outcomeOf(builder));
+        assertEquals(Outcome.CACHED, outcomeOf(builder));
+    }
+
+    @Test
+    public void shouldNotMemoizeFailedChecks() {
+        assertEquals(Outcome.FAILED, outcomeOf(PrivateConstructorChecker.forClass(FailedAgain.class).memoized()));
+        assertEquals(Outcome.FAILED, outcomeOf(PrivateConstructorChecker.forClass(FailedAgain.class).memoized()));
+    }
+
+    @Test
+    public void shouldAllowToUnloadMemoizedClassesOfOtherClassLoaders() throws InterruptedException {
+        final WeakReference<Class> checkedClass = checkInIsolation(CheckedInIsolation.class);
+
+        for (int i = 0; i < 50 && checkedClass.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertNull(checkedClass.get());
+    }
+
+    @Test
+    public void shouldFailIfClassHasNoConstructors() {
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(SomeInterface.class + " has no constructors");
+        PrivateConstructorChecker
+                .forClass(SomeInterface.class)
+                .check();
+    }
+
+    private static WeakReference<Class> checkInIsolation(Class clazz) {
+        final Class isolatedClass = new IsolatedBatches(
+                Collections.singletonList(ClassTarget.of(clazz)).iterator(),
+                1,
+                Collections.<String>emptySet()
+        ).next().load();
+
+        assertEquals(Outcome.PASSED, outcomeOf(PrivateConstructorChecker.forClass(isolatedClass).memoized()));
+        return new WeakReference<Class>(isolatedClass);
+    }
+
+    private static Outcome outcomeOf(PrivateConstructorChecker.Builder builder) {
+        final RecordingListener listener = new RecordingListener();
+
+        builder.listener(listener).checkAll();
+
+        assertEquals(1, listener.events.size());
+        return listener.events.get(0).getOutcome();
+    }
+}
@@ -0,0 +1,108 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithConstructorThatThrowsException;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPrivateConstructor;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ConstructorWatchdogTest {
+    @Rule public ExpectedException expectedException = ExpectedException.none();
+
+    static final CountDownLatch NEVER_RELEASED = new CountDownLatch(1);
+
+    static final Object LOCK = new Object();
+
+    static class ClassWithWaitingConstructor {
+        private ClassWithWaitingConstructor() throws InterruptedException {
+            NEVER_RELEASED.await();
+        }
+    }
+
+    static class ClassWithBlockedConstructor {
+        private ClassWithBlockedConstructor() {
+            synchronized (LOCK) {
+                LOCK.notifyAll();
+            }
+        }
+    }
+
+    @Test
+    public void shouldFailIfConstructorDidNotCompleteInTime() {
+        final CheckResult result = PrivateConstructorChecker
+                .forClasses(ClassWithWaitingConstructor.class, ClassWithPrivateConstructor.class)
+                .constructorTimeout(100, TimeUnit.MILLISECONDS)
+                .checkAll();
+
+        assertEquals(1, result.getFailures().size());
+
+        final String message = result.getFailures().get(0).getError().getMessage();
+        assertTrue(message, message.startsWith("Constructor of " + ClassWithWaitingConstructor.class + " did not complete in 100 ms\n"
+                + "\"private-constructor-checker-" + ClassWithWaitingConstructor.class.getName() + "\" WAITING"));
+        assertTrue(message, message.contains(ClassWithWaitingConstructor.class.getName() + ".<init>(ConstructorWatchdogTest.java:"));
+    }
+
+    @Test
+    public void shouldDumpOwnerOfTheLock() {
+        final CheckResult result;
+
+        synchronized (LOCK) {
+            result = PrivateConstructorChecker
+                    .forClass(ClassWithBlockedConstructor.class)
+                    .constructorTimeout(100, TimeUnit.MILLISECONDS)
+                    .checkAll();
+        }
+
+        final String message = result.getFailures().get(0).getError().getMessage();
+        assertTrue(message, message.contains("BLOCKED on java.lang.Object@"));
+        assertTrue(message, message.contains(" owned by \"" + Thread.currentThread().getName() + "\""));
+        assertTrue(message, message.contains("\nLock is held by:\n\"" + Thread.currentThread().getName() + "\""));
+    }
+
+    @Test
+    public void shouldCheckThrownExceptionOfConstructorThatCompletedInTime() {
+        PrivateConstructorChecker
+                .forClass(ClassWithConstructorThatThrowsException.class)
+                .constructorTimeout(10, TimeUnit.SECONDS)
+                .expectedTypeOfException(IllegalStateException.class)
+                .expectedExceptionMessage("test exception")
+                .check();
+    }
+
+    @Test
+    public void shouldReportMismatchedExceptionOfConstructorThatCompletedInTime() {
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("For " + ClassWithConstructorThatThrowsException.class + " no exception was expected");
+        PrivateConstructorChecker
+                .forClass(ClassWithConstructorThatThrowsException.class)
+                .constructorTimeout(10, TimeUnit.SECONDS)
+                .check();
+    }
+
+    @Test
+    public void builderShouldThrowExceptionIfTimeoutIsNotPositive() {
+        PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                .forClass(ClassWithPrivateConstructor.class);
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("timeout must be positive, but was 0");
+        builder.constructorTimeout(0, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void builderShouldThrowExceptionIfNullWasPassedAsUnit() {
+        PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                .forClass(ClassWithPrivateConstructor.class);
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("unit can not be null");
+        builder.constructorTimeout(1, null);
+    }
+}
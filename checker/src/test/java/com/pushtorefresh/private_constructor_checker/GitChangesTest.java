@@ -0,0 +1,188 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import com.pushtorefresh.private_constructor_checker.fixtures.invalid.InstantiableClass;
+import com.pushtorefresh.private_constructor_checker.fixtures.valid.NonInstantiableA;
+import com.pushtorefresh.private_constructor_checker.fixtures.valid.NonInstantiableB;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GitChangesTest {
+    @Rule public ExpectedException expectedException = ExpectedException.none();
+
+    @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static final String SOURCE_ROOT = "module/src/main/java/";
+
+    @Test
+    public void shouldCheckOnlyClassesOfFilesChangedInWorkingTree() throws Exception {
+        final File repository = temporaryFolder.newFolder();
+        git(repository, "init");
+        writeSourceOf(repository, NonInstantiableA.class, "");
+        writeSourceOf(repository, InstantiableClass.class, "");
+        commit(repository);
+
+        writeSourceOf(repository, NonInstantiableA.class, "// changed");
+        writeSourceOf(repository, NonInstantiableB.class, "// untracked");
+
+        final PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                .forClasses(NonInstantiableA.class, NonInstantiableB.class, InstantiableClass.class)
+                .changedInGit(repository);
+
+        builder.expectedTypeOfException(IllegalStateException.class);
+
+        final CheckResult result = builder.checkAll();
+
+        assertTrue(result.isSuccessful());
+        assertEquals(2, result.getCheckedClassesCount());
+    }
+
+    @Test
+    public void shouldCheckOnlyClassesOfFilesChangedInRevisionRange() throws Exception {
+        final File repository = temporaryFolder.newFolder();
+        git(repository, "init");
+        writeSourceOf(repository, NonInstantiableA.class, "");
+        writeSourceOf(repository, NonInstantiableB.class, "");
+        writeSourceOf(repository, InstantiableClass.class, "");
+        commit(repository);
+
+        writeSourceOf(repository, NonInstantiableB.class, "// changed");
+        commit(repository);
+
+        // Not in the range
+        writeSourceOf(repository, InstantiableClass.class, "// changed");
+
+        final PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                .forClasses(NonInstantiableA.class, NonInstantiableB.class, InstantiableClass.class)
+                .changedInGit(repository, "HEAD~1..HEAD");
+
+        builder.expectedTypeOfException(IllegalStateException.class);
+
+        final CheckResult result = builder.checkAll();
+
+        assertTrue(result.isSuccessful());
+        assertEquals(1, result.getCheckedClassesCount());
+    }
+
+    @Test
+    public void shouldCheckAllClassesIfFullCheckIsForced() throws Exception {
+        final File repository = temporaryFolder.newFolder();
+        git(repository, "init");
+        writeSourceOf(repository, NonInstantiableA.class, "");
+        commit(repository);
+
+        System.setProperty(GitChanges.FULL_CHECK_PROPERTY, "true");
+
+        try {
+            final PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                    .forClasses(NonInstantiableA.class, NonInstantiableB.class)
+                    .changedInGit(repository);
+
+            builder.expectedTypeOfException(IllegalStateException.class);
+
+            assertEquals(2, builder.checkAll().getCheckedClassesCount());
+        } finally {
+            System.clearProperty(GitChanges.FULL_CHECK_PROPERTY);
+        }
+    }
+
+    @Test
+    public void shouldMatchNestedClassesToFileOfTopLevelClass() {
+        assertEquals("com/example/Foo.java", GitChanges.sourcePathOf("com.example.Foo$Bar$Baz"));
+        assertEquals("Foo.java", GitChanges.sourcePathOf("Foo"));
+    }
+
+    @Test
+    public void shouldMatchChangedFilesWhateverTheirSourceRootIs() {
+        assertEquals(
+                new HashSet<String>(Arrays.asList("a/src/com/example/Foo.java", "src/com/example/Foo.java", "com/example/Foo.java", "example/Foo.java", "Foo.java")),
+                GitChanges.sourcePathSuffixesOf(new HashSet<String>(Arrays.asList("a/src/com/example/Foo.java", "a/build.gradle")))
+        );
+    }
+
+    @Test
+    public void shouldThrowExceptionIfDirectoryIsNotGitRepository() throws IOException {
+        final File directory = temporaryFolder.newFolder();
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("Can not read changes of git repository " + directory);
+        PrivateConstructorChecker
+                .forClass(NonInstantiableA.class)
+                .changedInGit(directory)
+                .checkAll();
+    }
+
+    @Test
+    public void builderShouldThrowExceptionIfNullWasPassedAsRepository() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("repository can not be null");
+        PrivateConstructorChecker
+                .forClass(NonInstantiableA.class)
+                .changedInGit(null);
+    }
+
+    @Test
+    public void builderShouldThrowExceptionIfRepositoryDoesNotExist() {
+        final File repository = new File(temporaryFolder.getRoot(), "missing");
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("repository " + repository + " is not a directory");
+        PrivateConstructorChecker
+                .forClass(NonInstantiableA.class)
+                .changedInGit(repository, "HEAD~1..HEAD");
+    }
+
+    private static void writeSourceOf(File repository, Class clazz, String content) throws IOException {
+        final File file = new File(repository, SOURCE_ROOT + GitChanges.sourcePathOf(clazz.getName()));
+        file.getParentFile().mkdirs();
+
+        final Writer writer = new FileWriter(file);
+
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static void commit(File repository) throws Exception {
+        git(repository, "add", "-A");
+        git(repository, "-c", "user.name=Test", "-c", "user.email=test@example.com", "commit", "-q", "-m", "Change");
+    }
+
+    private static void git(File repository, String... args) throws Exception {
+        final String[] command = new String[args.length + 1];
+        command[0] = "git";
+        System.arraycopy(args, 0, command, 1, args.length);
+
+        final Process process = new ProcessBuilder(command)
+                .directory(repository)
+                .redirectErrorStream(true)
+                .start();
+
+        final InputStream inputStream = process.getInputStream();
+
+        try {
+            while (inputStream.read() != -1) {
+                // Output is not needed, but must be consumed
+            }
+        } finally {
+            inputStream.close();
+        }
+
+        assertEquals("git " + Arrays.toString(args), 0, process.waitFor());
+    }
+}
@@ -0,0 +1,131 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPrivateConstructor;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPublicConstructor;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class IsolatedBatchesTest {
+    @Rule public ExpectedException expectedException = ExpectedException.none();
+
+    public static class CustomException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+    }
+
+    static class ClassWithConstructorThatThrowsCustomException {
+        private ClassWithConstructorThatThrowsCustomException() {
+            throw new CustomException();
+        }
+    }
+
+    public static class Parameter {
+    }
+
+    static class ClassWithParameter {
+        private ClassWithParameter(Parameter[] parameters) {
+        }
+    }
+
+    @Test
+    public void shouldLoadEachBatchByNewClassLoader() {
+        final Iterator<ClassTarget> targets = new IsolatedBatches(
+                Arrays.asList(
+                        ClassTarget.of(ClassWithPrivateConstructor.class),
+                        ClassTarget.of(ClassWithPublicConstructor.class),
+                        ClassTarget.of(ClassWithParameter.class)
+                ).iterator(),
+                2,
+                Collections.<String>emptySet()
+        );
+
+        final Class first = targets.next().load();
+        final Class second = targets.next().load();
+        final Class third = targets.next().load();
+
+        assertEquals(ClassWithPrivateConstructor.class.getName(), first.getName());
+        assertNotSame(ClassWithPrivateConstructor.class, first);
+        assertSame(first.getClassLoader(), second.getClassLoader());
+        assertNotSame(first.getClassLoader(), third.getClassLoader());
+        assertSame(getClass().getClassLoader(), first.getClassLoader().getParent());
+    }
+
+    @Test
+    public void shouldAllowToUnloadClassesOfCheckedBatch() throws InterruptedException {
+        final WeakReference<Class> checkedClass = checkIsolatedBatch(ClassWithPrivateConstructor.class);
+
+        for (int i = 0; i < 50 && checkedClass.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertNull(checkedClass.get());
+    }
+
+    @Test
+    public void shouldNotReloadExpectedTypeOfException() {
+        PrivateConstructorChecker
+                .forClasses(ClassWithConstructorThatThrowsCustomException.class, ClassWithConstructorThatThrowsCustomException.class)
+                .isolated(1)
+                .expectedTypeOfException(CustomException.class)
+                .check();
+    }
+
+    @Test
+    public void shouldNotReloadExpectedParameters() {
+        PrivateConstructorChecker
+                .forClass(ClassWithParameter.class)
+                .isolated(10)
+                .expectedWithParameters(Parameter[].class)
+                .check();
+    }
+
+    @Test
+    public void shouldReportFailuresOfIsolatedClasses() {
+        final CheckResult result = PrivateConstructorChecker
+                .forClasses(ClassWithPrivateConstructor.class, ClassWithPublicConstructor.class)
+                .isolated(1)
+                .inParallel()
+                .checkAll();
+
+        assertEquals(2, result.getCheckedClassesCount());
+        assertEquals(1, result.getFailures().size());
+        assertEquals("Constructor of " + ClassWithPublicConstructor.class + " must be private",
+                result.getFailures().get(0).getError().getMessage());
+    }
+
+    @Test
+    public void builderShouldThrowExceptionIfBatchSizeIsNotPositive() {
+        PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                .forClass(ClassWithPrivateConstructor.class);
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("batchSize must be positive, but was 0");
+        builder.isolated(0);
+    }
+
+    private static WeakReference<Class> checkIsolatedBatch(Class clazz) {
+        final Class isolatedClass = new IsolatedBatches(
+                Collections.singletonList(ClassTarget.of(clazz)).iterator(),
+                1,
+                Collections.<String>emptySet()
+        ).next().load();
+
+        PrivateConstructorChecker
+                .forClass(isolatedClass)
+                .check();
+
+        return new WeakReference<Class>(isolatedClass);
+    }
+}
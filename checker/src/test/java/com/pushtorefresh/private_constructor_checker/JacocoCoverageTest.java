@@ -0,0 +1,375 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPrivateConstructor;
+
+import org.jacoco.core.data.ExecutionDataStore;
+import org.jacoco.core.data.ExecutionDataWriter;
+import org.jacoco.core.data.SessionInfoStore;
+import org.jacoco.core.instr.Instrumenter;
+import org.jacoco.core.runtime.IRuntime;
+import org.jacoco.core.runtime.LoggerRuntime;
+import org.jacoco.core.runtime.RuntimeData;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import static org.junit.Assert.assertEquals;
+
+public class JacocoCoverageTest {
+    @Rule public ExpectedException expectedException = ExpectedException.none();
+
+    @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    static class ClassWithMethodsBeforeConstructor {
+        static int one() {
+            return 1;
+        }
+
+        static int two() {
+            return 2;
+        }
+
+        static int three() {
+            return 3;
+        }
+
+        static int four() {
+            return 4;
+        }
+
+        static int five() {
+            return 5;
+        }
+
+        static int six() {
+            return 6;
+        }
+
+        static int seven() {
+            return 7;
+        }
+
+        static int eight() {
+            return 8;
+        }
+
+        static int nine() {
+            return 9;
+        }
+
+        private ClassWithMethodsBeforeConstructor() {
+        }
+    }
+
+    static class ClassWithBranchBeforeConstructor {
+        static int abs(int value) {
+            return value < 0 ? -value : value;
+        }
+
+        private ClassWithBranchBeforeConstructor() {
+        }
+    }
+
+    static class ClassWithInvocationsBeforeConstructor {
+        static void invokeBoth() {
+            first();
+            second();
+        }
+
+        static void first() {
+        }
+
+        static void second() {
+        }
+
+        private ClassWithInvocationsBeforeConstructor() {
+            throw new IllegalStateException("No instances please!");
+        }
+    }
+
+    @Test
+    public void shouldCheckClassWhoseMethodsWereExecutedByJacoco() throws Exception {
+        final Method method = instrumentedClass(ClassWithInvocationsBeforeConstructor.class).getDeclaredMethod("invokeBoth");
+        method.setAccessible(true);
+        method.invoke(null);
+
+        assertEquals(1, checkedClassesCount(collectJacocoExecutionData(), ClassWithInvocationsBeforeConstructor.class));
+    }
+
+    @Test
+    public void shouldSkipClassWhoseConstructorWasExecutedByJacoco() throws Exception {
+        final Constructor<?> constructor = instrumentedClass(ClassWithInvocationsBeforeConstructor.class).getDeclaredConstructor();
+        constructor.setAccessible(true);
+
+        try {
+            constructor.newInstance();
+        } catch (InvocationTargetException expected) {
+        }
+
+        assertEquals(0, checkedClassesCount(collectJacocoExecutionData(), ClassWithInvocationsBeforeConstructor.class));
+    }
+
+    @Test
+    public void shouldSkipClassesWithCoveredConstructors() throws IOException {
+        final File execFile = new ExecFile()
+                .executionData(ClassWithPrivateConstructor.class, true)
+                .executionData(ClassWithMethodsBeforeConstructor.class, false, false, false, false, false, false, false, false, false, true)
+                .write();
+
+        assertEquals(0, checkedClassesCount(execFile, ClassWithPrivateConstructor.class, ClassWithMethodsBeforeConstructor.class));
+    }
+
+    @Test
+    public void shouldCheckClassesWithUncoveredConstructors() throws IOException {
+        final File execFile = new ExecFile()
+                .executionData(ClassWithPrivateConstructor.class, false)
+                .executionData(ClassWithMethodsBeforeConstructor.class, true, true, true, true, true, true, true, true, true, false)
+                .write();
+
+        assertEquals(2, checkedClassesCount(execFile, ClassWithPrivateConstructor.class, ClassWithMethodsBeforeConstructor.class));
+    }
+
+    @Test
+    public void shouldCheckClassesWithoutExecutionData() throws IOException {
+        final File execFile = new ExecFile()
+                .executionData(ClassWithPrivateConstructor.class, true)
+                .write();
+
+        assertEquals(1, checkedClassesCount(execFile, ClassWithPrivateConstructor.class, ClassWithMethodsBeforeConstructor.class));
+    }
+
+    @Test
+    public void shouldMergeExecutionDataOfSessions() throws IOException {
+        final File execFile = new ExecFile()
+                .executionData(ClassWithPrivateConstructor.class, false)
+                .session("second")
+                .executionData(ClassWithPrivateConstructor.class, true)
+                .write();
+
+        assertEquals(0, checkedClassesCount(execFile, ClassWithPrivateConstructor.class));
+    }
+
+    @Test
+    public void shouldCheckChangedClasses() throws IOException {
+        final File execFile = new ExecFile()
+                .executionData(ClassWithPrivateConstructor.class.getName(), 42, true)
+                .write();
+
+        assertEquals(1, checkedClassesCount(execFile, ClassWithPrivateConstructor.class));
+    }
+
+    @Test
+    public void shouldCheckClassesWithBranchesBeforeConstructor() throws IOException {
+        final File execFile = new ExecFile()
+                .executionData(ClassWithBranchBeforeConstructor.class, true, true, true, true)
+                .write();
+
+        assertEquals(1, checkedClassesCount(execFile, ClassWithBranchBeforeConstructor.class));
+    }
+
+    @Test
+    public void shouldThrowExceptionIfFileIsNotExecutionData() throws IOException {
+        final File file = temporaryFolder.newFile("test.exec");
+        final FileOutputStream outputStream = new FileOutputStream(file);
+
+        try {
+            outputStream.write("<html>".getBytes("UTF-8"));
+        } finally {
+            outputStream.close();
+        }
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("Can not read JaCoCo execution data " + file + ": not a JaCoCo execution data file");
+        checkedClassesCount(file, ClassWithPrivateConstructor.class);
+    }
+
+    @Test
+    public void shouldThrowExceptionIfFileIsTruncated() throws IOException {
+        final File execFile = new ExecFile()
+                .executionData(ClassWithPrivateConstructor.class, true)
+                .write();
+
+        final byte[] content = new byte[(int) execFile.length() - 1];
+        final FileInputStream inputStream = new FileInputStream(execFile);
+
+        try {
+            new DataInputStream(inputStream).readFully(content);
+        } finally {
+            inputStream.close();
+        }
+
+        final FileOutputStream outputStream = new FileOutputStream(execFile);
+
+        try {
+            outputStream.write(content);
+        } finally {
+            outputStream.close();
+        }
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("Can not read JaCoCo execution data " + execFile);
+        checkedClassesCount(execFile, ClassWithPrivateConstructor.class);
+    }
+
+    @Test
+    public void builderShouldThrowExceptionIfNullWasPassedAsExecFile() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("jacocoExecFile can not be null");
+        PrivateConstructorChecker
+                .forClass(ClassWithPrivateConstructor.class)
+                .uncoveredConstructorsOnly(null);
+    }
+
+    @Test
+    public void builderShouldThrowExceptionIfExecFileDoesNotExist() {
+        final File file = new File(temporaryFolder.getRoot(), "test.exec");
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("jacocoExecFile " + file + " does not exist");
+        PrivateConstructorChecker
+                .forClass(ClassWithPrivateConstructor.class)
+                .uncoveredConstructorsOnly(file);
+    }
+
+    private final IRuntime jacocoRuntime = new LoggerRuntime();
+
+    private final RuntimeData jacocoRuntimeData = new RuntimeData();
+
+    /**
+     * Instruments the class by JaCoCo and defines it by the new class loader.
+     */
+    private Class<?> instrumentedClass(Class clazz) throws Exception {
+        jacocoRuntime.startup(jacocoRuntimeData);
+
+        final byte[] instrumented = new Instrumenter(jacocoRuntime).instrument(ClassTarget.of(clazz).readClassFile(), clazz.getName());
+        return new InstrumentedClassLoader().define(clazz.getName(), instrumented);
+    }
+
+    /**
+     * Writes execution data of the instrumented classes the same way JaCoCo agent does.
+     */
+    private File collectJacocoExecutionData() throws IOException {
+        final ExecutionDataStore executionDataStore = new ExecutionDataStore();
+        final SessionInfoStore sessionInfoStore = new SessionInfoStore();
+
+        jacocoRuntimeData.collect(executionDataStore, sessionInfoStore, false);
+        jacocoRuntime.shutdown();
+
+        final File file = temporaryFolder.newFile("jacoco.exec");
+        final OutputStream outputStream = new FileOutputStream(file);
+
+        try {
+            final ExecutionDataWriter writer = new ExecutionDataWriter(outputStream);
+            sessionInfoStore.accept(writer);
+            executionDataStore.accept(writer);
+        } finally {
+            outputStream.close();
+        }
+
+        return file;
+    }
+
+    private static int checkedClassesCount(File execFile, Class... classes) {
+        return PrivateConstructorChecker
+                .forClasses(classes)
+                .uncoveredConstructorsOnly(execFile)
+                .checkAll()
+                .getCheckedClassesCount();
+    }
+
+    private static class InstrumentedClassLoader extends ClassLoader {
+
+        InstrumentedClassLoader() {
+            super(InstrumentedClassLoader.class.getClassLoader());
+        }
+
+        Class<?> define(String className, byte[] classFile) {
+            return defineClass(className, classFile, 0, classFile.length);
+        }
+    }
+
+    /**
+     * Writes execution data in the same format as JaCoCo 0.7.5+ does.
+     */
+    private class ExecFile {
+
+        private final File file;
+
+        private final DataOutputStream output;
+
+        ExecFile() throws IOException {
+            file = temporaryFolder.newFile("test.exec");
+            output = new DataOutputStream(new FileOutputStream(file));
+            output.writeByte(0x01);
+            output.writeChar(0xC0C0);
+            output.writeChar(0x1007);
+            session("first");
+        }
+
+        ExecFile session(String id) throws IOException {
+            output.writeByte(0x10);
+            output.writeUTF(id);
+            output.writeLong(1L);
+            output.writeLong(2L);
+            return this;
+        }
+
+        ExecFile executionData(Class clazz, boolean... probes) throws IOException {
+            return executionData(clazz.getName(), JacocoCoverage.classIdOf(ClassTarget.of(clazz).readClassFile()), probes);
+        }
+
+        ExecFile executionData(String className, long classId, boolean... probes) throws IOException {
+            output.writeByte(0x11);
+            output.writeLong(classId);
+            output.writeUTF(className.replace('.', '/'));
+
+            // Variable length int, 7 bits per byte
+            int length = probes.length;
+
+            while ((length & ~0x7f) != 0) {
+                output.writeByte(0x80 | (length & 0x7f));
+                length >>>= 7;
+            }
+
+            output.writeByte(length);
+
+            int buffer = 0;
+            int bufferSize = 0;
+
+            for (boolean probe : probes) {
+                if (probe) {
+                    buffer |= 1 << bufferSize;
+                }
+
+                if (++bufferSize == 8) {
+                    output.writeByte(buffer);
+                    buffer = 0;
+                    bufferSize = 0;
+                }
+            }
+
+            if (bufferSize > 0) {
+                output.writeByte(buffer);
+            }
+
+            return this;
+        }
+
+        File write() throws IOException {
+            output.close();
+            return file;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPrivateConstructor;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPublicConstructor;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LazyClassTargetsTest {
+    @Rule public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void shouldCheckGeneratedClassNamesOneByOne() {
+        final GeneratedClassNames classNames = new GeneratedClassNames(10000, ClassWithPrivateConstructor.class.getName());
+
+        final CheckResult result = PrivateConstructorChecker
+                .forClassNames(classNames)
+                .checkAll();
+
+        assertTrue(result.isSuccessful());
+        assertEquals(10000, result.getCheckedClassesCount());
+        assertTrue(classNames.closed);
+    }
+
+    @Test
+    public void shouldStopTakingClassesAfterFirstFailure() {
+        final GeneratedClassNames classNames = new GeneratedClassNames(10000, ClassWithPublicConstructor.class.getName());
+
+        try {
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage("Constructor of " + ClassWithPublicConstructor.class + " must be private");
+            PrivateConstructorChecker
+                    .forClassNames(classNames, getClass().getClassLoader())
+                    .check();
+        } finally {
+            assertEquals(1, classNames.generatedCount);
+            assertTrue(classNames.closed);
+        }
+    }
+
+    @Test
+    public void shouldCheckClassesOfIterable() {
+        final CheckResult result = PrivateConstructorChecker
+                .forClassIterable(Arrays.asList(ClassWithPrivateConstructor.class, ClassWithPublicConstructor.class))
+                .checkAll();
+
+        assertEquals(2, result.getCheckedClassesCount());
+        assertEquals(ClassWithPublicConstructor.class.getName(), result.getFailures().get(0).getClassName());
+    }
+
+    @Test
+    public void shouldSkipInterfacesAndEnumsOfCompiledClassNames() {
+        PrivateConstructorChecker
+                .forCompiledClassNames(
+                        Arrays.asList(ClassWithPrivateConstructor.class.getName(), Runnable.class.getName(), Thread.State.class.getName()),
+                        getClass().getClassLoader()
+                )
+                .check();
+    }
+
+    @Test
+    public void shouldCheckClassesOfCompiledClassNames() {
+        final CheckResult result = PrivateConstructorChecker
+                .forCompiledClassNames(Arrays.asList(ClassWithPublicConstructor.class.getName()), getClass().getClassLoader())
+                .checkAll();
+
+        assertEquals(ClassWithPublicConstructor.class.getName(), result.getFailures().get(0).getClassName());
+    }
+
+    @Test
+    public void shouldReportClassThatCanNotBeLoaded() {
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("Can not load class com.example.DoesNotExist");
+        PrivateConstructorChecker
+                .forClassNames(Arrays.asList("com.example.DoesNotExist"))
+                .check();
+    }
+
+    @Test
+    public void shouldThrowExceptionIfIterableContainsNullClass() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("class can not be null");
+        PrivateConstructorChecker
+                .forClassIterable(Arrays.asList(ClassWithPrivateConstructor.class, null))
+                .check();
+    }
+
+    @Test
+    public void shouldThrowExceptionIfIterableContainsNullClassName() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("className can not be null");
+        PrivateConstructorChecker
+                .forClassNames(Arrays.asList((String) null))
+                .check();
+    }
+
+    @Test
+    public void builderShouldThrowExceptionIfNullWasPassedAsIterable() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("classes can not be null");
+        PrivateConstructorChecker
+                .forClassIterable(null);
+    }
+
+    @Test
+    public void builderShouldThrowExceptionIfNullWasPassedAsClassNames() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("classNames can not be null");
+        PrivateConstructorChecker
+                .forClassNames(null);
+    }
+
+    @Test
+    public void builderShouldThrowExceptionIfNullWasPassedAsClassLoader() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("classLoader can not be null");
+        PrivateConstructorChecker
+                .forClassNames(Arrays.asList(ClassWithPrivateConstructor.class.getName()), null);
+    }
+
+    @Test
+    public void builderShouldThrowExceptionIfNullWasPassedAsCompiledClassNames() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("classNames can not be null");
+        PrivateConstructorChecker
+                .forCompiledClassNames(null, getClass().getClassLoader());
+    }
+
+    /**
+     * Produces the same name again and again without keeping produced names.
+     */
+    private static class GeneratedClassNames implements Iterable<String> {
+
+        final int count;
+
+        final String className;
+
+        int generatedCount;
+
+        boolean closed;
+
+        GeneratedClassNames(int count, String className) {
+            this.count = count;
+            this.className = className;
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return new ClosableIterator();
+        }
+
+        private class ClosableIterator implements Iterator<String>, Closeable {
+
+            @Override
+            public boolean hasNext() {
+                return generatedCount < count;
+            }
+
+            @Override
+            public String next() {
+                generatedCount++;
+                return className;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void close() {
+                closed = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NestedClassesTest {
+    @Rule public ExpectedException expectedException = ExpectedException.none();
+
+    static class Holder {
+        private Holder() {
+        }
+
+        static class Strings {
+            private Strings() {
+            }
+        }
+
+        static class Numbers {
+            private Numbers() {
+            }
+
+            static class Integers {
+                private Integers() {
+                }
+            }
+        }
+
+        class Inner {
+            private Inner() {
+            }
+        }
+
+        interface Callback {
+        }
+
+        enum Mode {
+            FIRST
+        }
+    }
+
+    static class HolderWithPublicNestedConstructor {
+        private HolderWithPublicNestedConstructor() {
+        }
+
+        static class Strings {
+            public Strings() {
+            }
+        }
+    }
+
+    @Test
+    public void shouldCheckStaticNestedClassesRecursively() {
+        assertEquals(
+                Arrays.asList(
+                        Holder.class.getName(),
+                        Holder.Numbers.class.getName(),
+                        Holder.Numbers.Integers.class.getName(),
+                        Holder.Strings.class.getName()
+                ),
+                checkedClassNames(PrivateConstructorChecker
+                        .forClass(Holder.class)
+                        .nestedClasses())
+        );
+    }
+
+    @Test
+    public void shouldFindNestedClassesInClassFilesInBytecodeMode() {
+        final List<String> classNames = checkedClassNames(PrivateConstructorChecker
+                .forClass(Holder.class)
+                .nestedClasses()
+                .bytecodeOnly());
+
+        assertEquals(4, classNames.size());
+        assertEquals(Holder.class.getName(), classNames.get(0));
+        assertTrue(classNames.contains(Holder.Numbers.Integers.class.getName()));
+    }
+
+    @Test
+    public void shouldCheckOnlyNestedClassesThatMatchSimpleName() {
+        assertEquals(
+                Arrays.asList(Holder.class.getName(), Holder.Strings.class.getName()),
+                checkedClassNames(PrivateConstructorChecker
+                        .forClass(Holder.class)
+                        .nestedClasses("Strings"))
+        );
+    }
+
+    @Test
+    public void shouldFollowNestedClassesOfSkippedOnes() {
+        assertEquals(
+                Arrays.asList(Holder.class.getName(), Holder.Numbers.Integers.class.getName()),
+                checkedClassNames(PrivateConstructorChecker
+                        .forClass(Holder.class)
+                        .nestedClasses("Integers"))
+        );
+    }
+
+    @Test
+    public void shouldCheckNestedClassOnce() {
+        assertEquals(
+                4,
+                PrivateConstructorChecker
+                        .forClasses(Holder.Strings.class, Holder.class)
+                        .nestedClasses()
+                        .checkAll()
+                        .getCheckedClassesCount()
+        );
+    }
+
+    @Test
+    public void shouldCheckNestedClassesInParallel() {
+        assertEquals(
+                4,
+                PrivateConstructorChecker
+                        .forClass(Holder.class)
+                        .nestedClasses()
+                        .inParallel()
+                        .checkAll()
+                        .getCheckedClassesCount()
+        );
+    }
+
+    @Test
+    public void shouldFailOnNestedClassWithPublicConstructor() {
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage("Constructor of " + HolderWithPublicNestedConstructor.Strings.class + " must be private");
+        PrivateConstructorChecker
+                .forClass(HolderWithPublicNestedConstructor.class)
+                .nestedClasses()
+                .check();
+    }
+
+    @Test
+    public void builderShouldThrowExceptionIfSimpleNameRegexIsInvalid() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("simpleNameRegex Strings( is invalid");
+        PrivateConstructorChecker
+                .forClass(Holder.class)
+                .nestedClasses("Strings(");
+    }
+
+    private static List<String> checkedClassNames(PrivateConstructorChecker.Builder builder) {
+        final List<String> classNames = new ArrayList<String>();
+
+        for (ClassCheck classCheck : builder.checksPerClass()) {
+            classCheck.check();
+            classNames.add(classCheck.getClassName());
+        }
+
+        return classNames;
+    }
+}
@@ -0,0 +1,54 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records events of the checks, can be notified from several threads.
+ */
+class RecordingListener implements CheckListener {
+
+    final List<ClassCheckEvent> events = Collections.synchronizedList(new ArrayList<ClassCheckEvent>());
+
+    volatile int finishedCount;
+
+    @Override
+    public void onClassChecked(ClassCheckEvent event) {
+        events.add(event);
+    }
+
+    @Override
+    public synchronized void onCheckFinished() {
+        finishedCount++;
+    }
+
+    /**
+     * @return last event of the class or {@code null} if class was not checked.
+     */
+    ClassCheckEvent eventOf(Class clazz) {
+        final Map<String, ClassCheckEvent> eventsByClassName = new HashMap<String, ClassCheckEvent>();
+
+        synchronized (events) {
+            for (ClassCheckEvent event : events) {
+                eventsByClassName.put(event.getClassName(), event);
+            }
+        }
+
+        return eventsByClassName.get(clazz.getName());
+    }
+
+    List<String> classNames() {
+        final List<String> classNames = new ArrayList<String>();
+
+        synchronized (events) {
+            for (ClassCheckEvent event : events) {
+                classNames.add(event.getClassName());
+            }
+        }
+
+        return classNames;
+    }
+}
@@ -0,0 +1,255 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithConstructorThatThrowsException;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPrivateConstructor;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPublicConstructor;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ResultCacheTest {
+    @Rule public ExpectedException expectedException = ExpectedException.none();
+
+    @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldSkipClassesThatPassedTheCheckBefore() throws IOException {
+        final File file = temporaryFolder.newFile("results.cache");
+
+        final ResultCache firstRun = ResultCache.open(file);
+
+        PrivateConstructorChecker
+                .forClasses(ClassWithPrivateConstructor.class, ClassWithConstructorThatThrowsException.class)
+                .resultCache(firstRun)
+                .expectedTypeOfException(IllegalStateException.class)
+                .check();
+
+        assertEquals(0, firstRun.getHitsCount());
+        assertEquals(2, firstRun.getMissesCount());
+
+        final ResultCache secondRun = ResultCache.open(file);
+
+        PrivateConstructorChecker
+                .forClasses(ClassWithPrivateConstructor.class, ClassWithConstructorThatThrowsException.class)
+                .resultCache(secondRun)
+                .expectedTypeOfException(IllegalStateException.class)
+                .check();
+
+        assertEquals(2, secondRun.getHitsCount());
+        assertEquals(0, secondRun.getMissesCount());
+        assertEquals(4 + 2 * 20, file.length());
+    }
+
+    @Test
+    public void shouldCheckClassAgainIfExpectationsWereChanged() throws IOException {
+        final File file = temporaryFolder.newFile("results.cache");
+
+        PrivateConstructorChecker
+                .forClass(ClassWithConstructorThatThrowsException.class)
+                .resultCache(ResultCache.open(file))
+                .expectedTypeOfException(IllegalStateException.class)
+                .check();
+
+        final ResultCache resultCache = ResultCache.open(file);
+
+        PrivateConstructorChecker.ExceptionCheckable builder = PrivateConstructorChecker
+                .forClass(ClassWithConstructorThatThrowsException.class)
+                .resultCache(resultCache)
+                .expectedTypeOfException(IllegalStateException.class)
+                .expectedExceptionMessage("another message");
+
+        try {
+            expectedException.expect(IllegalStateException.class);
+            expectedException.expectMessage("expected exception message = 'another message'");
+            builder.check();
+        } finally {
+            assertEquals(0, resultCache.getHitsCount());
+            assertEquals(1, resultCache.getMissesCount());
+        }
+    }
+
+    @Test
+    public void shouldCheckClassAgainIfConstructorTimeoutWasChanged() throws IOException {
+        final File file = temporaryFolder.newFile("results.cache");
+
+        PrivateConstructorChecker
+                .forClass(ClassWithPrivateConstructor.class)
+                .resultCache(ResultCache.open(file))
+                .check();
+
+        final ResultCache resultCache = ResultCache.open(file);
+
+        PrivateConstructorChecker
+                .forClass(ClassWithPrivateConstructor.class)
+                .resultCache(resultCache)
+                .constructorTimeout(10, TimeUnit.SECONDS)
+                .check();
+
+        assertEquals(0, resultCache.getHitsCount());
+        assertEquals(1, resultCache.getMissesCount());
+    }
+
+    @Test
+    public void shouldNotCacheFailedChecks() throws IOException {
+        final File file = temporaryFolder.newFile("results.cache");
+
+        final CheckResult result = PrivateConstructorChecker
+                .forClasses(ClassWithPublicConstructor.class, ClassWithPrivateConstructor.class)
+                .resultCache(ResultCache.open(file))
+                .checkAll();
+
+        assertEquals(1, result.getFailures().size());
+
+        final ResultCache resultCache = ResultCache.open(file);
+
+        PrivateConstructorChecker
+                .forClasses(ClassWithPublicConstructor.class, ClassWithPrivateConstructor.class)
+                .resultCache(resultCache)
+                .checkAll();
+
+        assertEquals(1, resultCache.getHitsCount());
+        assertEquals(1, resultCache.getMissesCount());
+    }
+
+    @Test
+    public void shouldNotCacheSkippedClasses() throws IOException {
+        final File file = temporaryFolder.newFile("results.cache");
+        final RecordingListener listener = new RecordingListener();
+
+        PrivateConstructorChecker
+                .forPackage("com.pushtorefresh.private_constructor_checker.fixtures.valid")
+                .resultCache(ResultCache.open(file))
+                .listener(listener)
+                .expectedTypeOfException(IllegalStateException.class)
+                .check();
+
+        int passedClassesCount = 0;
+
+        for (ClassCheckEvent event : listener.events) {
+            if (event.getOutcome() == ClassCheckEvent.Outcome.PASSED) {
+                passedClassesCount++;
+            }
+        }
+
+        assertTrue(passedClassesCount < listener.events.size());
+        assertEquals(4 + passedClassesCount * 20, file.length());
+    }
+
+    @Test
+    public void shouldIgnoreIncompleteTrailingEntryAndUnknownFormat() throws IOException {
+        final File file = temporaryFolder.newFile("results.cache");
+        final FileOutputStream outputStream = new FileOutputStream(file);
+
+        try {
+            outputStream.write(new byte[]{'?', '?', '?', '?', 1, 2, 3});
+        } finally {
+            outputStream.close();
+        }
+
+        final ResultCache resultCache = ResultCache.open(file);
+
+        PrivateConstructorChecker
+                .forClass(ClassWithPrivateConstructor.class)
+                .resultCache(resultCache)
+                .check();
+
+        assertEquals(1, resultCache.getMissesCount());
+        assertEquals(4 + 20, file.length());
+    }
+
+    @Test
+    public void shouldFlushConcurrently() throws Exception {
+        final File file = temporaryFolder.newFile("results.cache");
+        final int threadsCount = 16;
+        final int entriesPerThreadCount = 50;
+        final ResultCache[] resultCaches = {ResultCache.open(file), ResultCache.open(file)};
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final List<Throwable> errors = Collections.synchronizedList(new ArrayList<Throwable>());
+        final Thread[] threads = new Thread[threadsCount];
+
+        for (int i = 0; i < threadsCount; i++) {
+            final int threadIndex = i;
+
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        startLatch.await();
+
+                        // Same as checks per class, each passed check is flushed right away
+                        for (int j = 0; j < entriesPerThreadCount; j++) {
+                            final ResultCache resultCache = resultCaches[j % resultCaches.length];
+                            resultCache.markPassed(ResultCache.keyOf(new byte[]{(byte) threadIndex, (byte) j}, ""));
+                            resultCache.flush();
+                        }
+                    } catch (Throwable e) {
+                        errors.add(e);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+
+        startLatch.countDown();
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(Collections.<Throwable>emptyList(), errors);
+        assertEquals(4 + threadsCount * entriesPerThreadCount * 20, file.length());
+    }
+
+    @Test
+    public void shouldKeepEntriesIfFlushFailed() throws IOException {
+        final File file = new File(temporaryFolder.getRoot(), "results.cache");
+        final ResultCache resultCache = ResultCache.open(file);
+
+        resultCache.markPassed(ResultCache.keyOf(new byte[]{1}, ""));
+        assertTrue(file.mkdir());
+
+        try {
+            resultCache.flush();
+            fail();
+        } catch (IllegalStateException expected) {
+            assertEquals("Can not write result cache " + file, expected.getMessage());
+        }
+
+        assertTrue(file.delete());
+        resultCache.flush();
+
+        assertEquals(4 + 20, file.length());
+    }
+
+    @Test
+    public void shouldThrowExceptionIfNullWasPassedAsFile() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("file can not be null");
+        ResultCache.open(null);
+    }
+
+    @Test
+    public void builderShouldThrowExceptionIfNullWasPassedAsResultCache() {
+        PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                .forClass(ClassWithPrivateConstructor.class);
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("resultCache can not be null");
+        builder.resultCache(null);
+    }
+}
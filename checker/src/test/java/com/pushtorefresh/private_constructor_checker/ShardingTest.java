@@ -0,0 +1,196 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.AnotherClassWithConstructorThatThrowsException;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithConstructorThatThrowsException;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPrivateConstructor;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ShardingTest {
+    @Rule public ExpectedException expectedException = ExpectedException.none();
+
+    @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static final Class[] CLASSES = {
+            ClassWithPrivateConstructor.class,
+            ClassWithConstructorThatThrowsException.class,
+            AnotherClassWithConstructorThatThrowsException.class
+    };
+
+    @Test
+    public void shardsShouldCoverEveryClassExactlyOnce() {
+        final int total = 8;
+        final int[] sizes = new int[total];
+
+        for (int i = 0; i < 10000; i++) {
+            final String className = "com.example.Generated" + i;
+            int owners = 0;
+
+            for (int index = 0; index < total; index++) {
+                if (new Sharding(index, total, Collections.<String, Long>emptyMap()).shardOf(className) == index) {
+                    owners++;
+                    sizes[index]++;
+                }
+            }
+
+            assertEquals(1, owners);
+        }
+
+        for (int size : sizes) {
+            // 1250 per shard on average
+            assertTrue(String.valueOf(size), size > 1100 && size < 1400);
+        }
+    }
+
+    @Test
+    public void shardOfClassShouldNotDependOnJvm() {
+        final Sharding sharding = new Sharding(0, 8, Collections.<String, Long>emptyMap());
+
+        assertEquals(4, sharding.shardOf("com.example.Checks"));
+        assertEquals(6, sharding.shardOf("com.example.Utils"));
+    }
+
+    @Test
+    public void shouldBalanceWeightedClasses() {
+        final Map<String, Long> weights = new HashMap<String, Long>();
+        weights.put("a.Slow", 100L);
+        weights.put("a.Medium", 60L);
+        weights.put("a.Fast1", 50L);
+        weights.put("a.Fast2", 10L);
+
+        final Sharding sharding = new Sharding(0, 2, weights);
+
+        assertEquals(0, sharding.shardOf("a.Slow"));
+        assertEquals(1, sharding.shardOf("a.Medium"));
+        assertEquals(1, sharding.shardOf("a.Fast1"));
+        assertEquals(0, sharding.shardOf("a.Fast2"));
+    }
+
+    @Test
+    public void builderShouldCheckOnlyClassesOfTheShard() {
+        final Set<String> checkedClasses = new HashSet<String>();
+        int checkedClassesCount = 0;
+
+        for (int index = 0; index < 3; index++) {
+            final RecordingListener listener = new RecordingListener();
+
+            final PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                    .forClasses(CLASSES)
+                    .shard(index, 3)
+                    .listener(listener);
+
+            builder.expectedTypeOfException(IllegalStateException.class);
+
+            checkedClassesCount += builder.checkAll().getCheckedClassesCount();
+            checkedClasses.addAll(listener.classNames());
+        }
+
+        assertEquals(CLASSES.length, checkedClassesCount);
+        assertEquals(CLASSES.length, checkedClasses.size());
+    }
+
+    @Test
+    public void builderShouldReadShardFromSystemProperties() {
+        System.setProperty(Sharding.INDEX_PROPERTY, "1");
+        System.setProperty(Sharding.TOTAL_PROPERTY, "1000");
+
+        try {
+            final CheckResult result = PrivateConstructorChecker
+                    .forClass(ClassWithPrivateConstructor.class)
+                    .shard()
+                    .checkAll();
+
+            final int shard = new Sharding(0, 1000, Collections.<String, Long>emptyMap())
+                    .shardOf(ClassWithPrivateConstructor.class.getName());
+
+            assertEquals(shard == 1 ? 1 : 0, result.getCheckedClassesCount());
+        } finally {
+            System.clearProperty(Sharding.INDEX_PROPERTY);
+            System.clearProperty(Sharding.TOTAL_PROPERTY);
+        }
+    }
+
+    @Test
+    public void builderShouldCheckAllClassesIfShardIsNotSet() {
+        final PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                .forClasses(CLASSES)
+                .shard();
+
+        builder.expectedTypeOfException(IllegalStateException.class);
+
+        assertEquals(CLASSES.length, builder.checkAll().getCheckedClassesCount());
+    }
+
+    @Test
+    public void builderShouldThrowExceptionIfOnlyIndexOfShardIsSet() {
+        System.setProperty(Sharding.INDEX_PROPERTY, "1");
+
+        try {
+            expectedException.expect(IllegalArgumentException.class);
+            expectedException.expectMessage("Both index and total count of the shards must be set, but were index = 1, total = null");
+            PrivateConstructorChecker
+                    .forClass(ClassWithPrivateConstructor.class)
+                    .shard();
+        } finally {
+            System.clearProperty(Sharding.INDEX_PROPERTY);
+        }
+    }
+
+    @Test
+    public void builderShouldThrowExceptionIfIndexOfShardIsOutOfRange() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("shard index must be in [0, 2), but was 2");
+        PrivateConstructorChecker
+                .forClass(ClassWithPrivateConstructor.class)
+                .shard(2, 2);
+    }
+
+    @Test
+    public void builderShouldThrowExceptionIfTotalCountOfShardsIsNotPositive() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("total count of shards must be positive, but was 0");
+        PrivateConstructorChecker
+                .forClass(ClassWithPrivateConstructor.class)
+                .shard(0, 0);
+    }
+
+    @Test
+    public void shouldRecordAndLoadWeights() throws IOException {
+        final File file = new File(temporaryFolder.getRoot(), "weights.properties");
+
+        assertTrue(ShardWeights.load(file).isEmpty());
+
+        final PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                .forClasses(CLASSES)
+                .listener(ShardWeights.recorder(file));
+
+        builder.expectedTypeOfException(IllegalStateException.class);
+        builder.check();
+
+        final Map<String, Long> weights = ShardWeights.load(file);
+        assertEquals(CLASSES.length, weights.size());
+
+        for (Class clazz : CLASSES) {
+            assertTrue(weights.get(clazz.getName()) > 0);
+        }
+
+        PrivateConstructorChecker
+                .forClasses(CLASSES)
+                .shard(0, 2)
+                .shardWeights(weights);
+    }
+}
@@ -0,0 +1,176 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import com.pushtorefresh.private_constructor_checker.ClassCheckEvent.Outcome;
+import com.pushtorefresh.private_constructor_checker.ClassCheckEvent.Phase;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPrivateConstructor;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructionCheckerTest.ClassWithPrivateStringConstructor;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StreamingReportListenerTest {
+    @Rule public ExpectedException expectedException = ExpectedException.none();
+
+    @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldWriteJsonLinesReport() throws IOException {
+        final File reportFile = temporaryFolder.newFile("report.jsonl");
+        final JsonLinesReportListener listener = new JsonLinesReportListener(reportFile);
+
+        final long[] phaseDurations = new long[Phase.values().length];
+        phaseDurations[Phase.LOAD.ordinal()] = 7;
+
+        listener.onClassChecked(new ClassCheckEvent("a.A", Outcome.PASSED, null, 12, phaseDurations));
+        listener.onClassChecked(new ClassCheckEvent("a.B", Outcome.FAILED, new AssertionError("\"quoted\""), 5, new long[Phase.values().length]));
+        listener.onCheckFinished();
+
+        assertEquals(
+                "{\"className\":\"a.A\",\"outcome\":\"PASSED\",\"totalNanos\":12,\"phaseNanos\":{\"LOAD\":7}}\n"
+                        + "{\"className\":\"a.B\",\"outcome\":\"FAILED\",\"totalNanos\":5,\"phaseNanos\":{},\"error\":\"java.lang.AssertionError: \\\"quoted\\\"\"}\n",
+                TestFiles.read(reportFile)
+        );
+
+        listener.onCheckFinished();
+
+        assertEquals("", TestFiles.read(reportFile));
+    }
+
+    @Test
+    public void shouldWriteSarifReportOfFailedClasses() throws IOException {
+        final File reportFile = temporaryFolder.newFile("report.sarif");
+        final SarifReportListener listener = new SarifReportListener(reportFile);
+
+        listener.onClassChecked(new ClassCheckEvent("a.A", Outcome.PASSED, null, 12, new long[Phase.values().length]));
+        listener.onClassChecked(new ClassCheckEvent("a.B", Outcome.FAILED, new AssertionError("Constructor of class a.B must be private"), 5, new long[Phase.values().length]));
+        listener.onCheckFinished();
+
+        final String report = TestFiles.read(reportFile);
+
+        assertTrue(report.startsWith("{\"$schema\":\"https://json.schemastore.org/sarif-2.1.0.json\",\"version\":\"2.1.0\",\"runs\":[{"));
+        assertTrue(report.endsWith("\"results\":[\n"
+                + "{\"ruleId\":\"private-constructor\",\"level\":\"error\",\"message\":{\"text\":\"java.lang.AssertionError: Constructor of class a.B must be private\"},"
+                + "\"locations\":[{\"logicalLocations\":[{\"fullyQualifiedName\":\"a.B\",\"kind\":\"type\"}]}]}\n"
+                + "]}]}\n"));
+
+        listener.onCheckFinished();
+
+        assertTrue(TestFiles.read(reportFile).endsWith("\"results\":[\n]}]}\n"));
+    }
+
+    @Test
+    public void shouldWriteJunitXmlReport() throws Exception {
+        final File reportFile = temporaryFolder.newFile("TEST-private-constructors.xml");
+        final JunitXmlReportListener listener = new JunitXmlReportListener(reportFile);
+
+        listener.onClassChecked(new ClassCheckEvent("a.A", Outcome.PASSED, null, 1500000, new long[Phase.values().length]));
+        listener.onClassChecked(new ClassCheckEvent("a.B", Outcome.FAILED, new AssertionError("Expected <()> & \"more\"\n"), 2000, new long[Phase.values().length]));
+        listener.onClassChecked(new ClassCheckEvent("a.C", Outcome.SKIPPED, null, 1000000000, new long[Phase.values().length]));
+        listener.onCheckFinished();
+
+        final Element testSuite = parseXml(reportFile).getDocumentElement();
+
+        assertEquals("testsuite", testSuite.getTagName());
+        assertEquals("3", testSuite.getAttribute("tests"));
+        assertEquals("1", testSuite.getAttribute("failures"));
+        assertEquals("1", testSuite.getAttribute("skipped"));
+        assertEquals("1.001502", testSuite.getAttribute("time"));
+
+        final NodeList testCases = testSuite.getElementsByTagName("testcase");
+        assertEquals(3, testCases.getLength());
+        assertEquals("a.A", ((Element) testCases.item(0)).getAttribute("classname"));
+        assertEquals("0.001500", ((Element) testCases.item(0)).getAttribute("time"));
+
+        final Element failure = (Element) ((Element) testCases.item(1)).getElementsByTagName("failure").item(0);
+        assertEquals("java.lang.AssertionError", failure.getAttribute("type"));
+        assertEquals("Expected <()> & \"more\"\n", failure.getAttribute("message"));
+        assertEquals("java.lang.AssertionError: Expected <()> & \"more\"\n", failure.getTextContent());
+
+        assertEquals(1, ((Element) testCases.item(2)).getElementsByTagName("skipped").getLength());
+    }
+
+    @Test
+    public void shouldResetCountsOfJunitXmlReportOnEachCheck() throws Exception {
+        final File reportFile = temporaryFolder.newFile("TEST-private-constructors.xml");
+        final JunitXmlReportListener listener = new JunitXmlReportListener(reportFile);
+
+        listener.onClassChecked(new ClassCheckEvent("a.A", Outcome.PASSED, null, 1, new long[Phase.values().length]));
+        listener.onCheckFinished();
+        listener.onCheckFinished();
+
+        final Element testSuite = parseXml(reportFile).getDocumentElement();
+
+        assertEquals("0", testSuite.getAttribute("tests"));
+        assertEquals(0, testSuite.getElementsByTagName("testcase").getLength());
+    }
+
+    @Test
+    public void shouldRewriteReportOnEachCheck() throws IOException {
+        final File reportFile = temporaryFolder.newFile("report.jsonl");
+        final PrivateConstructorChecker.Builder builder = PrivateConstructorChecker
+                .forClass(ClassWithPrivateConstructor.class)
+                .listener(new JsonLinesReportListener(reportFile));
+
+        builder.checkAll();
+        builder.checkAll();
+
+        assertEquals(1, TestFiles.readLines(reportFile).size());
+    }
+
+    @Test
+    public void shouldStreamReportsOfBulkCheck() throws Exception {
+        final int classesCount = StreamingReportListener.FLUSH_EVENTS_COUNT * 5 + 1;
+        final File jsonLinesFile = temporaryFolder.newFile("report.jsonl");
+        final File junitXmlFile = temporaryFolder.newFile("report.xml");
+        final File sarifFile = temporaryFolder.newFile("report.sarif");
+
+        final List<String> classNames = new ArrayList<String>(Collections.nCopies(classesCount - 1, ClassWithPrivateConstructor.class.getName()));
+        classNames.add(ClassWithPrivateStringConstructor.class.getName());
+
+        final CheckResult result = PrivateConstructorChecker
+                .forClassNames(classNames)
+                .listener(new JsonLinesReportListener(jsonLinesFile))
+                .listener(new JunitXmlReportListener(junitXmlFile))
+                .listener(new SarifReportListener(sarifFile))
+                .inParallel()
+                .checkAll();
+
+        assertEquals(1, result.getFailures().size());
+        assertEquals(classesCount, TestFiles.readLines(jsonLinesFile).size());
+
+        final Element testSuite = parseXml(junitXmlFile).getDocumentElement();
+        assertEquals(String.valueOf(classesCount), testSuite.getAttribute("tests"));
+        assertEquals("1", testSuite.getAttribute("failures"));
+
+        // Detail of the failure is the same as in the message of the check
+        assertTrue(TestFiles.read(sarifFile).contains("\"fullyQualifiedName\":\"" + ClassWithPrivateStringConstructor.class.getName() + "\""));
+        assertTrue(TestFiles.read(sarifFile).contains(result.getFailures().get(0).getError().getMessage()));
+    }
+
+    @Test
+    public void shouldThrowExceptionIfNullWasPassedAsFile() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("file can not be null");
+        new JunitXmlReportListener(null);
+    }
+
+    private static Document parseXml(File file) throws Exception {
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file);
+    }
+}
@@ -0,0 +1,47 @@
+package com.pushtorefresh.private_constructor_checker;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+final class TestFiles {
+
+    private TestFiles() {
+        throw new IllegalStateException("No instances please!");
+    }
+
+    static String read(File file) throws IOException {
+        final byte[] content = new byte[(int) file.length()];
+        final FileInputStream inputStream = new FileInputStream(file);
+
+        try {
+            new DataInputStream(inputStream).readFully(content);
+        } finally {
+            inputStream.close();
+        }
+
+        return new String(content, "UTF-8");
+    }
+
+    static List<String> readLines(File file) throws IOException {
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+        final List<String> lines = new ArrayList<String>();
+
+        try {
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } finally {
+            reader.close();
+        }
+
+        return lines;
+    }
+}
@@ -0,0 +1,7 @@
+package com.pushtorefresh.private_constructor_checker.fixtures.invalid;
+
+public class InstantiableClass {
+
+    public InstantiableClass() {
+    }
+}
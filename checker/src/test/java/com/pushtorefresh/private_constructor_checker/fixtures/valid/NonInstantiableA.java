@@ -0,0 +1,17 @@
+package com.pushtorefresh.private_constructor_checker.fixtures.valid;
+
+public final class NonInstantiableA {
+
+    private NonInstantiableA() {
+        throw new IllegalStateException("No instances please!");
+    }
+
+    public static Runnable doNothing() {
+        // Anonymous class must be skipped by the scanning
+        return new Runnable() {
+            @Override
+            public void run() {
+            }
+        };
+    }
+}
@@ -0,0 +1,8 @@
+package com.pushtorefresh.private_constructor_checker.fixtures.valid;
+
+public final class NonInstantiableB {
+
+    private NonInstantiableB() {
+        throw new IllegalStateException("No instances please!");
+    }
+}
@@ -0,0 +1,5 @@
+package com.pushtorefresh.private_constructor_checker.fixtures.valid;
+
+public enum SomeEnum {
+    VALUE
+}
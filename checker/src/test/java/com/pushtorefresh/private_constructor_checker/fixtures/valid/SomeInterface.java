@@ -0,0 +1,4 @@
+package com.pushtorefresh.private_constructor_checker.fixtures.valid;
+
+public interface SomeInterface {
+}
@@ -0,0 +1,340 @@
+package com.pushtorefresh.private_constructor_checker.cli;
+
+import com.pushtorefresh.private_constructor_checker.CheckResult;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructorChecker;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Watches directories with compiled classes and checks class files right after the compiler writes them,
+ * so there is no need to rerun the whole test task during development:
+ * <pre>
+ * ClassFileWatcher watcher = ClassFileWatcher.watch(directories, parentClassLoader, callback);
+ * new Thread(watcher).start();
+ * </pre>
+ * All classes are checked once when the watcher starts, then only classes of the changed class files.
+ * Bursts of writes, for example of a class and its nested classes, are checked together once the compiler
+ * stays quiet for a few milliseconds. Each check loads classes by a new {@link ClassLoader},
+ * so recompiled classes are never taken from the previous check.
+ * <p>
+ * Changes are reported as soon as the platform {@link WatchService} notices them, which is immediate on Linux
+ * and Windows but may take seconds on platforms where the JDK polls the file system.
+ */
+public final class ClassFileWatcher implements Runnable, Closeable {
+
+    /**
+     * Configures and receives checks of the watcher, called on the thread that runs the watcher.
+     */
+    public interface Callback {
+
+        /**
+         * Configures the check of the changed classes, called before each check.
+         *
+         * @param builder builder of the check of the changed classes.
+         * @param classLoader new loader of the classes of this check, for example to load expected exception.
+         * @return configured builder.
+         */
+        PrivateConstructorChecker.Builder configure(PrivateConstructorChecker.Builder builder, ClassLoader classLoader);
+
+        /**
+         * Called after each check, including the first check of all classes.
+         */
+        void onChecked(CheckResult result);
+
+        /**
+         * Called if the check could not run, for example because class file was not completely written,
+         * the watcher keeps watching and will check the class file again once it's changed.
+         */
+        void onError(RuntimeException error);
+    }
+
+    static final long DEFAULT_QUIET_PERIOD_MILLIS = 15;
+
+    private static final String CLASS_FILE_EXTENSION = ".class";
+
+    private final List<Path> roots;
+
+    private final URL[] rootUrls;
+
+    private final ClassLoader parentClassLoader;
+
+    private final Callback callback;
+
+    private final long quietPeriodMillis;
+
+    private final WatchService watchService;
+
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<WatchKey, Path>();
+
+    private Set<String> changedClassNames = new TreeSet<String>();
+
+    private volatile boolean closed;
+
+    private ClassFileWatcher(List<Path> roots, URL[] rootUrls, ClassLoader parentClassLoader,
+                             Callback callback, long quietPeriodMillis, WatchService watchService) {
+        this.roots = roots;
+        this.rootUrls = rootUrls;
+        this.parentClassLoader = parentClassLoader;
+        this.callback = callback;
+        this.quietPeriodMillis = quietPeriodMillis;
+        this.watchService = watchService;
+    }
+
+    /**
+     * Creates watcher of the directories with compiled classes, watching starts once the watcher is run.
+     *
+     * @param directories directories with compiled classes, jars can not be watched.
+     * @param parentClassLoader parent of the loaders of the checked classes, it should not see
+     *                          classes of the directories, otherwise recompiled classes will not be loaded again.
+     * @param callback configures and receives checks.
+     * @return watcher which should be run on its own thread and closed once it's not needed.
+     */
+    public static ClassFileWatcher watch(List<File> directories, ClassLoader parentClassLoader, Callback callback) {
+        return watch(directories, parentClassLoader, callback, DEFAULT_QUIET_PERIOD_MILLIS);
+    }
+
+    static ClassFileWatcher watch(List<File> directories, ClassLoader parentClassLoader,
+                                  Callback callback, long quietPeriodMillis) {
+        if (directories == null || directories.isEmpty()) {
+            throw new IllegalArgumentException("directories can not be null or empty");
+        }
+
+        if (callback == null) {
+            throw new IllegalArgumentException("callback can not be null");
+        }
+
+        final List<Path> roots = new ArrayList<Path>(directories.size());
+        final URL[] rootUrls = new URL[directories.size()];
+
+        for (int i = 0; i < rootUrls.length; i++) {
+            final File directory = directories.get(i);
+
+            if (directory == null || !directory.isDirectory()) {
+                throw new IllegalArgumentException(directory + " is not a directory");
+            }
+
+            roots.add(directory.toPath().toAbsolutePath().normalize());
+
+            try {
+                rootUrls[i] = directory.toURI().toURL();
+            } catch (MalformedURLException e) {
+                throw new IllegalArgumentException("Can not convert " + directory + " to url", e);
+            }
+        }
+
+        final ClassFileWatcher watcher;
+
+        try {
+            watcher = new ClassFileWatcher(
+                    Collections.unmodifiableList(roots),
+                    rootUrls,
+                    parentClassLoader,
+                    callback,
+                    quietPeriodMillis,
+                    FileSystems.getDefault().newWatchService()
+            );
+        } catch (IOException e) {
+            throw new IllegalStateException("Can not watch " + directories, e);
+        }
+
+        try {
+            for (Path root : roots) {
+                watcher.register(root);
+            }
+        } catch (IOException e) {
+            watcher.close();
+            throw new IllegalStateException("Can not watch " + directories, e);
+        }
+
+        return watcher;
+    }
+
+    /**
+     * Checks all classes and then changed classes until the watcher is closed or the thread is interrupted.
+     */
+    @Override
+    public void run() {
+        try {
+            while (!closed) {
+                if (!changedClassNames.isEmpty()) {
+                    final Set<String> classNames = changedClassNames;
+                    changedClassNames = new TreeSet<String>();
+                    check(classNames);
+                }
+
+                WatchKey key = watchService.take();
+
+                // Collect the whole burst of writes before the check
+                do {
+                    collectChanges(key);
+                    key = watchService.poll(quietPeriodMillis, TimeUnit.MILLISECONDS);
+                } while (key != null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Watcher was closed from another thread
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            // Nothing to do, the watcher is not used anymore
+        }
+    }
+
+    private void check(Set<String> classNames) {
+        final URLClassLoader classLoader = new URLClassLoader(rootUrls, parentClassLoader);
+
+        try {
+            final CheckResult result = callback
+                    .configure(PrivateConstructorChecker.forCompiledClassNames(classNames, classLoader), classLoader)
+                    .checkAll();
+
+            callback.onChecked(result);
+        } catch (RuntimeException e) {
+            callback.onError(e);
+        } finally {
+            try {
+                classLoader.close();
+            } catch (IOException e) {
+                // Classes of the directories do not hold open files
+            }
+        }
+    }
+
+    private void collectChanges(WatchKey key) {
+        final Path directory = watchedDirectories.get(key);
+
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                rescan();
+                continue;
+            }
+
+            if (directory == null) {
+                continue;
+            }
+
+            final Path path = directory.resolve((Path) event.context());
+
+            if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+                try {
+                    register(path);
+                } catch (IOException e) {
+                    callback.onError(new IllegalStateException("Can not watch " + path, e));
+                }
+            } else {
+                final String className = classNameOf(path);
+
+                if (className != null) {
+                    if (event.kind() == ENTRY_DELETE) {
+                        changedClassNames.remove(className);
+                    } else if (event.kind() == ENTRY_MODIFY || event.kind() == ENTRY_CREATE) {
+                        changedClassNames.add(className);
+                    }
+                }
+            }
+        }
+
+        if (!key.reset()) {
+            watchedDirectories.remove(key);
+        }
+    }
+
+    /**
+     * Events were lost, so all directories are walked again.
+     */
+    private void rescan() {
+        try {
+            for (Path root : roots) {
+                register(root);
+            }
+        } catch (IOException e) {
+            callback.onError(new IllegalStateException("Can not watch " + roots, e));
+        }
+    }
+
+    /**
+     * Watches the directory and its subdirectories, class files that are already there are marked
+     * as changed because the compiler could write them before the directory was watched.
+     */
+    private void register(Path directory) throws IOException {
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                watchedDirectories.put(dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                final String className = classNameOf(file);
+
+                if (className != null) {
+                    changedClassNames.add(className);
+                }
+
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * @return name of the class or {@code null} if path does not point to the class that should be checked.
+     */
+    String classNameOf(Path path) {
+        final String fileName = path.getFileName().toString();
+
+        if (!fileName.endsWith(CLASS_FILE_EXTENSION)
+                || fileName.equals("package-info" + CLASS_FILE_EXTENSION)
+                || fileName.equals("module-info" + CLASS_FILE_EXTENSION)) {
+            return null;
+        }
+
+        for (Path root : roots) {
+            if (path.startsWith(root)) {
+                final String relativePath = root.relativize(path).toString();
+
+                return relativePath
+                        .substring(0, relativePath.length() - CLASS_FILE_EXTENSION.length())
+                        .replace(File.separatorChar, '.');
+            }
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,143 @@
+package com.pushtorefresh.private_constructor_checker.cli;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Parsed command line of {@link PrivateConstructorCheckerCli}.
+ */
+final class CliOptions {
+
+    final List<File> classpathRoots = new ArrayList<File>();
+
+    final List<File> classpath = new ArrayList<File>();
+
+    String expectedTypeOfException;
+
+    String expectedExceptionMessage;
+
+    /**
+     * {@code null} if parameters are not specified.
+     */
+    List<String> expectedParameters;
+
+    boolean bytecodeOnly;
+
+    boolean nestedClasses;
+
+    File policyFile;
+
+    File baselineFile;
+
+    boolean watch;
+
+    File junitXmlReportFile;
+
+    File sarifReportFile;
+
+    File jsonLinesReportFile;
+
+    boolean changedInGit;
+
+    /**
+     * {@code null} if changes of the working tree are checked.
+     */
+    String gitRevisionRange;
+
+    boolean fullCheck;
+
+    boolean help;
+
+    private CliOptions() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if arguments are invalid, message explains the problem.
+     */
+    static CliOptions parse(String[] args) {
+        final CliOptions options = new CliOptions();
+
+        for (int i = 0; i < args.length; i++) {
+            final String arg = args[i];
+
+            if ("--help".equals(arg) || "-h".equals(arg)) {
+                options.help = true;
+            } else if ("--bytecode-only".equals(arg)) {
+                options.bytecodeOnly = true;
+            } else if ("--changed-in-git".equals(arg)) {
+                options.changedInGit = true;
+            } else if ("--changed-in-git-range".equals(arg)) {
+                options.changedInGit = true;
+                options.gitRevisionRange = valueOf(args, ++i);
+            } else if ("--full-check".equals(arg)) {
+                options.fullCheck = true;
+            } else if ("--junit-xml".equals(arg)) {
+                options.junitXmlReportFile = new File(valueOf(args, ++i));
+            } else if ("--sarif".equals(arg)) {
+                options.sarifReportFile = new File(valueOf(args, ++i));
+            } else if ("--json-lines".equals(arg)) {
+                options.jsonLinesReportFile = new File(valueOf(args, ++i));
+            } else if ("--watch".equals(arg)) {
+                options.watch = true;
+            } else if ("--nested-classes".equals(arg)) {
+                options.nestedClasses = true;
+            } else if ("--classpath".equals(arg) || "-cp".equals(arg)) {
+                for (String path : valueOf(args, ++i).split(File.pathSeparator)) {
+                    if (path.length() > 0) {
+                        options.classpath.add(new File(path));
+                    }
+                }
+            } else if ("--expected-type-of-exception".equals(arg)) {
+                options.expectedTypeOfException = valueOf(args, ++i);
+            } else if ("--expected-exception-message".equals(arg)) {
+                options.expectedExceptionMessage = valueOf(args, ++i);
+            } else if ("--expected-parameters".equals(arg)) {
+                options.expectedParameters = parseParameters(valueOf(args, ++i));
+            } else if ("--policy".equals(arg)) {
+                options.policyFile = new File(valueOf(args, ++i));
+            } else if ("--baseline".equals(arg)) {
+                options.baselineFile = new File(valueOf(args, ++i));
+            } else if (arg.startsWith("-")) {
+                throw new IllegalArgumentException("Unknown option " + arg);
+            } else {
+                final File classpathRoot = new File(arg);
+
+                if (!classpathRoot.exists()) {
+                    throw new IllegalArgumentException(arg + " does not exist");
+                }
+
+                options.classpathRoots.add(classpathRoot);
+            }
+        }
+
+        if (!options.help && options.classpathRoots.isEmpty()) {
+            throw new IllegalArgumentException("No jars or directories with classes to check");
+        }
+
+        return options;
+    }
+
+    private static String valueOf(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Option " + args[index - 1] + " requires a value");
+        }
+
+        return args[index];
+    }
+
+    private static List<String> parseParameters(String value) {
+        if (value.trim().length() == 0) {
+            return Collections.emptyList();
+        }
+
+        final List<String> parameters = new ArrayList<String>();
+
+        for (String parameter : value.split(",")) {
+            parameters.add(parameter.trim());
+        }
+
+        return parameters;
+    }
+}
@@ -0,0 +1,319 @@
+package com.pushtorefresh.private_constructor_checker.cli;
+
+import com.pushtorefresh.private_constructor_checker.CheckFailure;
+import com.pushtorefresh.private_constructor_checker.CheckPolicy;
+import com.pushtorefresh.private_constructor_checker.CheckResult;
+import com.pushtorefresh.private_constructor_checker.JsonLinesReportListener;
+import com.pushtorefresh.private_constructor_checker.JunitXmlReportListener;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructorChecker;
+import com.pushtorefresh.private_constructor_checker.SarifReportListener;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Array;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks classes of jars and directories from the command line, for example released artifacts
+ * or third-party jars, or as a pre-commit hook:
+ * <pre>
+ * java -jar private-constructor-checker-cli.jar --expected-type-of-exception java.lang.IllegalStateException build/classes/java/main
+ * </pre>
+ * Prints the same report as the Gradle plugin and exits with {@link #EXIT_PASSED}, {@link #EXIT_FAILED}
+ * or {@link #EXIT_ERROR}. Can be built as a native executable with GraalVM {@code native-image},
+ * classes can not be loaded by the native executable, so it always checks them by their bytecode.
+ * With {@code --watch} directories are checked again each time they are recompiled, see {@link ClassFileWatcher}.
+ */
+public final class PrivateConstructorCheckerCli {
+
+    /**
+     * All classes passed the check.
+     */
+    public static final int EXIT_PASSED = 0;
+
+    /**
+     * Some classes did not pass the check.
+     */
+    public static final int EXIT_FAILED = 1;
+
+    /**
+     * Arguments are invalid or the check could not run.
+     */
+    public static final int EXIT_ERROR = 2;
+
+    private static final String USAGE_RESOURCE_NAME = "usage.txt";
+
+    private static final Map<String, Class> PRIMITIVE_TYPES = new HashMap<String, Class>();
+
+    static {
+        for (Class primitiveType : new Class[]{
+                boolean.class, byte.class, char.class, short.class, int.class, long.class, float.class, double.class}) {
+            PRIMITIVE_TYPES.put(primitiveType.getName(), primitiveType);
+        }
+    }
+
+    private PrivateConstructorCheckerCli() {
+        throw new IllegalStateException("No instances please!");
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * @return exit code.
+     */
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        final CliOptions options;
+
+        try {
+            options = CliOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println();
+            printUsage(err);
+            return EXIT_ERROR;
+        }
+
+        if (options.help) {
+            printUsage(out);
+            return EXIT_PASSED;
+        }
+
+        if (options.watch) {
+            return watch(options, out, err);
+        }
+
+        final CheckResult result;
+
+        try {
+            result = check(options);
+        } catch (RuntimeException e) {
+            err.println("Can not check classes: " + e.getMessage());
+            return EXIT_ERROR;
+        }
+
+        printReport(result, out);
+        return result.isSuccessful() ? EXIT_PASSED : EXIT_FAILED;
+    }
+
+    private static CheckResult check(CliOptions options) {
+        final List<File> files = new ArrayList<File>(options.classpathRoots);
+        files.addAll(options.classpath);
+
+        final ClassLoader classLoader = newIsolatedClassLoader(files);
+        final Thread thread = Thread.currentThread();
+        final ClassLoader previousContextClassLoader = thread.getContextClassLoader();
+
+        // Classes of the classpath roots are discovered via context class loader
+        thread.setContextClassLoader(classLoader);
+
+        try {
+            return configure(
+                    PrivateConstructorChecker.forClasspathRoots(options.classpathRoots.toArray(new File[options.classpathRoots.size()])),
+                    options,
+                    classLoader
+            ).checkAll();
+        } finally {
+            thread.setContextClassLoader(previousContextClassLoader);
+        }
+    }
+
+    /**
+     * Runs until the thread is interrupted, classes of the directories are checked each time they are recompiled.
+     */
+    private static int watch(final CliOptions options, final PrintStream out, final PrintStream err) {
+        final ClassFileWatcher watcher;
+
+        try {
+            // Checked classes are loaded by children of this loader, so it should not see them
+            watcher = ClassFileWatcher.watch(options.classpathRoots, newIsolatedClassLoader(options.classpath), new ClassFileWatcher.Callback() {
+                @Override
+                public PrivateConstructorChecker.Builder configure(PrivateConstructorChecker.Builder builder, ClassLoader classLoader) {
+                    return PrivateConstructorCheckerCli.configure(builder, options, classLoader);
+                }
+
+                @Override
+                public void onChecked(CheckResult result) {
+                    printReport(result, out);
+                }
+
+                @Override
+                public void onError(RuntimeException error) {
+                    err.println("Can not check classes: " + error.getMessage());
+                }
+            });
+        } catch (RuntimeException e) {
+            err.println("Can not watch classes: " + e.getMessage());
+            return EXIT_ERROR;
+        }
+
+        try {
+            watcher.run();
+        } finally {
+            watcher.close();
+        }
+
+        return EXIT_PASSED;
+    }
+
+    private static PrivateConstructorChecker.Builder configure(PrivateConstructorChecker.Builder builder,
+                                                               CliOptions options,
+                                                               ClassLoader classLoader) {
+        builder.inParallel();
+
+        if (options.bytecodeOnly || isNativeImage()) {
+            builder.bytecodeOnly();
+        }
+
+        if (options.nestedClasses) {
+            builder.nestedClasses();
+        }
+
+        if (options.policyFile != null) {
+            builder.policy(CheckPolicy.load(options.policyFile));
+        }
+
+        if (options.baselineFile != null) {
+            builder.baseline(options.baselineFile);
+        }
+
+        if (options.junitXmlReportFile != null) {
+            builder.listener(new JunitXmlReportListener(options.junitXmlReportFile));
+        }
+
+        if (options.sarifReportFile != null) {
+            builder.listener(new SarifReportListener(options.sarifReportFile));
+        }
+
+        if (options.jsonLinesReportFile != null) {
+            builder.listener(new JsonLinesReportListener(options.jsonLinesReportFile));
+        }
+
+        if (options.changedInGit && !options.fullCheck) {
+            builder.changedInGit(new File(System.getProperty("user.dir")), options.gitRevisionRange);
+        }
+
+        if (options.expectedTypeOfException != null) {
+            final Class<?> type = loadClass(options.expectedTypeOfException, classLoader);
+
+            if (!Throwable.class.isAssignableFrom(type)) {
+                throw new IllegalArgumentException(options.expectedTypeOfException + " is not Throwable");
+            }
+
+            builder.expectedTypeOfException(type.asSubclass(Throwable.class));
+        }
+
+        if (options.expectedExceptionMessage != null) {
+            builder.expectedExceptionMessage(options.expectedExceptionMessage);
+        }
+
+        if (options.expectedParameters != null) {
+            final Class[] parameters = new Class[options.expectedParameters.size()];
+
+            for (int i = 0; i < parameters.length; i++) {
+                parameters[i] = loadClass(options.expectedParameters.get(i), classLoader);
+            }
+
+            builder.expectedWithParameters(parameters);
+        }
+
+        return builder;
+    }
+
+    /**
+     * Native executable can not define classes at runtime.
+     */
+    static boolean isNativeImage() {
+        return System.getProperty("org.graalvm.nativeimage.imagecode") != null;
+    }
+
+    /**
+     * Loads class by the name as it's written in the source code, for example {@code "int"} or {@code "String[]"}.
+     */
+    static Class loadClass(String name, ClassLoader classLoader) {
+        if (name.endsWith("[]")) {
+            final Class componentType = loadClass(name.substring(0, name.length() - 2), classLoader);
+            return Array.newInstance(componentType, 0).getClass();
+        }
+
+        final Class primitiveType = PRIMITIVE_TYPES.get(name);
+
+        if (primitiveType != null) {
+            return primitiveType;
+        }
+
+        try {
+            return Class.forName(name, false, classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Can not find class " + name + ", fully qualified name is required", e);
+        }
+    }
+
+    private static ClassLoader newIsolatedClassLoader(List<File> files) {
+        final List<URL> urls = new ArrayList<URL>();
+
+        try {
+            for (File file : files) {
+                urls.add(file.toURI().toURL());
+            }
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+
+        // Parent of the system class loader sees only classes of the JDK, so classes of the tool can not leak
+        return new URLClassLoader(urls.toArray(new URL[urls.size()]), ClassLoader.getSystemClassLoader().getParent());
+    }
+
+    private static void printReport(CheckResult result, PrintStream out) {
+        final List<CheckFailure> sortedFailures = new ArrayList<CheckFailure>(result.getFailures());
+
+        Collections.sort(sortedFailures, new Comparator<CheckFailure>() {
+            @Override
+            public int compare(CheckFailure lhs, CheckFailure rhs) {
+                return lhs.getClassName().compareTo(rhs.getClassName());
+            }
+        });
+
+        out.println(sortedFailures.size() + " of " + result.getCheckedClassesCount() + " classes did not pass the check");
+
+        for (CheckFailure failure : sortedFailures) {
+            out.println(failure.getClassName() + ": " + failure.getError().getMessage());
+        }
+    }
+
+    private static void printUsage(PrintStream out) {
+        final InputStream inputStream = PrivateConstructorCheckerCli.class.getResourceAsStream(USAGE_RESOURCE_NAME);
+
+        if (inputStream == null) {
+            throw new IllegalStateException("Can not find " + USAGE_RESOURCE_NAME);
+        }
+
+        try {
+            try {
+                final byte[] buffer = new byte[4096];
+                int read;
+
+                while ((read = inputStream.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+            } finally {
+                inputStream.close();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Can not read " + USAGE_RESOURCE_NAME, e);
+        }
+
+        out.flush();
+    }
+}
@@ -0,0 +1,172 @@
+package com.pushtorefresh.private_constructor_checker.cli;
+
+import com.pushtorefresh.private_constructor_checker.CheckResult;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructorChecker;
+import com.pushtorefresh.private_constructor_checker.cli.fixtures.invalid.InstantiableClass;
+import com.pushtorefresh.private_constructor_checker.cli.fixtures.valid.NonInstantiableClass;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class ClassFileWatcherTest {
+    @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Rule public ExpectedException expectedException = ExpectedException.none();
+
+    private final BlockingQueue<CheckResult> results = new LinkedBlockingQueue<CheckResult>();
+
+    private final List<ClassLoader> classLoaders = Collections.synchronizedList(new ArrayList<ClassLoader>());
+
+    private final ClassFileWatcher.Callback callback = new ClassFileWatcher.Callback() {
+        @Override
+        public PrivateConstructorChecker.Builder configure(PrivateConstructorChecker.Builder builder, ClassLoader classLoader) {
+            classLoaders.add(classLoader);
+            builder.expectedTypeOfException(IllegalStateException.class);
+            return builder;
+        }
+
+        @Override
+        public void onChecked(CheckResult result) {
+            results.add(result);
+        }
+
+        @Override
+        public void onError(RuntimeException error) {
+            throw error;
+        }
+    };
+
+    private ClassFileWatcher watcher;
+
+    private Thread watcherThread;
+
+    @After
+    public void stopWatcher() throws InterruptedException {
+        if (watcher != null) {
+            watcher.close();
+            watcherThread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    @Test
+    public void shouldCheckAllClassesOnStart() throws Exception {
+        final File directory = temporaryFolder.newFolder();
+        ClassFiles.copy(NonInstantiableClass.class, directory);
+        ClassFiles.copy(InstantiableClass.class, directory);
+
+        startWatcher(directory, ClassFileWatcher.DEFAULT_QUIET_PERIOD_MILLIS);
+
+        final CheckResult result = nextResult();
+        assertEquals(2, result.getCheckedClassesCount());
+        assertEquals(1, result.getFailures().size());
+        assertEquals(InstantiableClass.class.getName(), result.getFailures().get(0).getClassName());
+    }
+
+    @Test
+    public void shouldCheckOnlyChangedClassesInNewClassLoader() throws Exception {
+        final File directory = temporaryFolder.newFolder();
+        ClassFiles.copy(NonInstantiableClass.class, directory);
+
+        startWatcher(directory, ClassFileWatcher.DEFAULT_QUIET_PERIOD_MILLIS);
+        assertTrue(nextResult().isSuccessful());
+
+        // Written to the new package directory
+        ClassFiles.copy(InstantiableClass.class, directory);
+
+        final CheckResult changedResult = nextResult();
+        assertEquals(1, changedResult.getCheckedClassesCount());
+        assertEquals(InstantiableClass.class.getName(), changedResult.getFailures().get(0).getClassName());
+
+        ClassFiles.copy(NonInstantiableClass.class, directory);
+
+        final CheckResult recompiledResult = nextResult();
+        assertEquals(1, recompiledResult.getCheckedClassesCount());
+        assertTrue(recompiledResult.isSuccessful());
+
+        assertEquals(3, classLoaders.size());
+        assertNotSame(classLoaders.get(0), classLoaders.get(2));
+    }
+
+    @Test
+    public void shouldCheckBurstOfChangesOnce() throws Exception {
+        final File directory = temporaryFolder.newFolder();
+
+        startWatcher(directory, TimeUnit.SECONDS.toMillis(1));
+
+        ClassFiles.copy(NonInstantiableClass.class, directory);
+        ClassFiles.copy(InstantiableClass.class, directory);
+
+        assertEquals(2, nextResult().getCheckedClassesCount());
+        assertTrue(results.isEmpty());
+    }
+
+    @Test
+    public void shouldStopOnClose() throws Exception {
+        startWatcher(temporaryFolder.newFolder(), ClassFileWatcher.DEFAULT_QUIET_PERIOD_MILLIS);
+
+        watcher.close();
+        watcherThread.join(TimeUnit.SECONDS.toMillis(10));
+
+        assertFalse(watcherThread.isAlive());
+    }
+
+    @Test
+    public void shouldThrowExceptionIfJarIsPassed() throws IOException {
+        final File jar = new File(temporaryFolder.getRoot(), "classes.jar");
+        ClassFiles.copyToJar(NonInstantiableClass.class, jar);
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(jar + " is not a directory");
+        ClassFileWatcher.watch(Collections.singletonList(jar), null, callback);
+    }
+
+    @Test
+    public void shouldThrowExceptionIfNoDirectoriesArePassed() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("directories can not be null or empty");
+        ClassFileWatcher.watch(Collections.<File>emptyList(), null, callback);
+    }
+
+    @Test
+    public void shouldThrowExceptionIfCallbackIsNull() throws IOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("callback can not be null");
+        ClassFileWatcher.watch(Collections.singletonList(temporaryFolder.newFolder()), null, null);
+    }
+
+    private void startWatcher(File directory, long quietPeriodMillis) {
+        watcher = ClassFileWatcher.watch(
+                Collections.singletonList(directory),
+                getClass().getClassLoader().getParent(),
+                callback,
+                quietPeriodMillis
+        );
+
+        watcherThread = new Thread(watcher);
+        watcherThread.start();
+    }
+
+    private CheckResult nextResult() throws InterruptedException {
+        final CheckResult result = results.poll(10, TimeUnit.SECONDS);
+        assertNotNull("No check in 10 seconds", result);
+        return result;
+    }
+}
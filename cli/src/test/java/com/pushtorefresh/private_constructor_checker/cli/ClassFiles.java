@@ -0,0 +1,63 @@
+package com.pushtorefresh.private_constructor_checker.cli;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * Copies compiled test classes to directories and jars that are checked by tests.
+ */
+final class ClassFiles {
+
+    private ClassFiles() {
+        throw new IllegalStateException("No instances please!");
+    }
+
+    static void copy(Class clazz, File directory) throws IOException {
+        final File classFile = new File(directory, resourceNameOf(clazz));
+        classFile.getParentFile().mkdirs();
+
+        final OutputStream outputStream = new FileOutputStream(classFile);
+
+        try {
+            copyClassFile(clazz, outputStream);
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    static void copyToJar(Class clazz, File jar) throws IOException {
+        final JarOutputStream jarOutputStream = new JarOutputStream(new FileOutputStream(jar));
+
+        try {
+            jarOutputStream.putNextEntry(new ZipEntry(resourceNameOf(clazz)));
+            copyClassFile(clazz, jarOutputStream);
+            jarOutputStream.closeEntry();
+        } finally {
+            jarOutputStream.close();
+        }
+    }
+
+    private static String resourceNameOf(Class clazz) {
+        return clazz.getName().replace('.', '/') + ".class";
+    }
+
+    private static void copyClassFile(Class clazz, OutputStream outputStream) throws IOException {
+        final InputStream inputStream = clazz.getClassLoader().getResourceAsStream(resourceNameOf(clazz));
+
+        try {
+            final byte[] buffer = new byte[4096];
+            int read;
+
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+        } finally {
+            inputStream.close();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.pushtorefresh.private_constructor_checker.cli;
+
+import com.pushtorefresh.private_constructor_checker.cli.fixtures.invalid.InstantiableClass;
+import com.pushtorefresh.private_constructor_checker.cli.fixtures.valid.NonInstantiableClass;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PrivateConstructorCheckerCliTest {
+    @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    @Test
+    public void shouldPassIfAllClassesPassedTheCheck() throws IOException {
+        final int exitCode = run(
+                "--expected-type-of-exception", "java.lang.IllegalStateException",
+                "--expected-exception-message", "No instances please!",
+                "--expected-parameters", "",
+                classesDirOf(NonInstantiableClass.class).getPath()
+        );
+
+        assertEquals(PrivateConstructorCheckerCli.EXIT_PASSED, exitCode);
+        assertEquals("0 of 1 classes did not pass the check\n", out.toString("UTF-8"));
+    }
+
+    @Test
+    public void shouldFailIfSomeClassesDidNotPassTheCheck() throws IOException {
+        final int exitCode = run(
+                "--expected-type-of-exception", "java.lang.IllegalStateException",
+                classesDirOf(NonInstantiableClass.class).getPath(),
+                jarOf(InstantiableClass.class).getPath()
+        );
+
+        assertEquals(PrivateConstructorCheckerCli.EXIT_FAILED, exitCode);
+        assertEquals("1 of 2 classes did not pass the check\n"
+                        + InstantiableClass.class.getName() + ": Constructor of " + InstantiableClass.class + " must be private\n",
+                out.toString("UTF-8"));
+    }
+
+    @Test
+    public void shouldCheckClassesByBytecode() throws IOException {
+        final int exitCode = run(
+                "--bytecode-only",
+                "--expected-type-of-exception", "java.lang.IllegalStateException",
+                jarOf(NonInstantiableClass.class).getPath()
+        );
+
+        assertEquals(PrivateConstructorCheckerCli.EXIT_PASSED, exitCode);
+    }
+
+    @Test
+    public void shouldPassIfOnlyBaselinedClassesFail() throws IOException {
+        final File baselineFile = new File(temporaryFolder.getRoot(), "baseline.txt");
+        final File classesDir = classesDirOf(InstantiableClass.class);
+
+        assertEquals(PrivateConstructorCheckerCli.EXIT_PASSED, run("--baseline", baselineFile.getPath(), classesDir.getPath()));
+        assertEquals(PrivateConstructorCheckerCli.EXIT_PASSED, run("--baseline", baselineFile.getPath(), classesDir.getPath()));
+        assertTrue(baselineFile.isFile());
+    }
+
+    @Test
+    public void shouldCheckAllClassesIfFullCheckIsForced() throws IOException {
+        final int exitCode = run("--changed-in-git", "--full-check", classesDirOf(InstantiableClass.class).getPath());
+
+        assertEquals(PrivateConstructorCheckerCli.EXIT_FAILED, exitCode);
+        assertTrue(out.toString("UTF-8").startsWith("1 of 1 classes did not pass the check\n"));
+    }
+
+    @Test
+    public void shouldWriteReports() throws IOException {
+        final File junitXmlFile = new File(temporaryFolder.getRoot(), "TEST-private-constructors.xml");
+        final File sarifFile = new File(temporaryFolder.getRoot(), "private-constructors.sarif");
+        final File jsonLinesFile = new File(temporaryFolder.getRoot(), "private-constructors.jsonl");
+
+        final int exitCode = run(
+                "--junit-xml", junitXmlFile.getPath(),
+                "--sarif", sarifFile.getPath(),
+                "--json-lines", jsonLinesFile.getPath(),
+                classesDirOf(InstantiableClass.class).getPath()
+        );
+
+        assertEquals(PrivateConstructorCheckerCli.EXIT_FAILED, exitCode);
+        assertTrue(junitXmlFile.length() > 0);
+        assertTrue(sarifFile.length() > 0);
+        assertTrue(jsonLinesFile.length() > 0);
+    }
+
+    @Test
+    public void shouldPrintUsage() throws IOException {
+        assertEquals(PrivateConstructorCheckerCli.EXIT_PASSED, run("--help"));
+        assertTrue(out.toString("UTF-8").startsWith("Usage: private-constructor-checker"));
+    }
+
+    @Test
+    public void shouldFailOnUnknownOption() throws IOException {
+        assertEquals(PrivateConstructorCheckerCli.EXIT_ERROR, run("--unknown", "classes"));
+        assertTrue(err.toString("UTF-8").startsWith("Unknown option --unknown\n\nUsage:"));
+    }
+
+    @Test
+    public void shouldFailIfNoClassesWerePassed() throws IOException {
+        assertEquals(PrivateConstructorCheckerCli.EXIT_ERROR, run("--bytecode-only"));
+        assertTrue(err.toString("UTF-8").startsWith("No jars or directories with classes to check\n"));
+    }
+
+    @Test
+    public void shouldFailIfOptionHasNoValue() throws IOException {
+        assertEquals(PrivateConstructorCheckerCli.EXIT_ERROR, run("--policy"));
+        assertTrue(err.toString("UTF-8").startsWith("Option --policy requires a value\n"));
+    }
+
+    @Test
+    public void shouldFailIfClassesDoNotExist() throws IOException {
+        final File missing = new File(temporaryFolder.getRoot(), "missing.jar");
+
+        assertEquals(PrivateConstructorCheckerCli.EXIT_ERROR, run(missing.getPath()));
+        assertTrue(err.toString("UTF-8").startsWith(missing.getPath() + " does not exist\n"));
+    }
+
+    @Test
+    public void shouldFailIfExpectedTypeCanNotBeFound() throws IOException {
+        final int exitCode = run(
+                "--expected-type-of-exception", "IllegalStateException",
+                classesDirOf(NonInstantiableClass.class).getPath()
+        );
+
+        assertEquals(PrivateConstructorCheckerCli.EXIT_ERROR, exitCode);
+        assertEquals("Can not check classes: Can not find class IllegalStateException, fully qualified name is required\n",
+                err.toString("UTF-8"));
+    }
+
+    @Test
+    public void shouldFailToWatchJar() throws IOException {
+        final File jar = jarOf(NonInstantiableClass.class);
+
+        assertEquals(PrivateConstructorCheckerCli.EXIT_ERROR, run("--watch", jar.getPath()));
+        assertEquals("Can not watch classes: " + jar + " is not a directory\n", err.toString("UTF-8"));
+    }
+
+    private int run(String... args) {
+        return PrivateConstructorCheckerCli.run(args, new PrintStream(out, true), new PrintStream(err, true));
+    }
+
+    private File classesDirOf(Class clazz) throws IOException {
+        final File directory = temporaryFolder.newFolder();
+        ClassFiles.copy(clazz, directory);
+        return directory;
+    }
+
+    private File jarOf(Class clazz) throws IOException {
+        final File jar = new File(temporaryFolder.newFolder(), "classes.jar");
+        ClassFiles.copyToJar(clazz, jar);
+        return jar;
+    }
+}
@@ -0,0 +1,7 @@
+package com.pushtorefresh.private_constructor_checker.cli.fixtures.invalid;
+
+public class InstantiableClass {
+
+    public InstantiableClass() {
+    }
+}
@@ -0,0 +1,8 @@
+package com.pushtorefresh.private_constructor_checker.cli.fixtures.valid;
+
+public final class NonInstantiableClass {
+
+    private NonInstantiableClass() {
+        throw new IllegalStateException("No instances please!");
+    }
+}
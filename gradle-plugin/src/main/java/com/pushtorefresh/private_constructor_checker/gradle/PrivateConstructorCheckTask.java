@@ -0,0 +1,333 @@
+package com.pushtorefresh.private_constructor_checker.gradle;
+
+import com.pushtorefresh.private_constructor_checker.CheckFailure;
+import com.pushtorefresh.private_constructor_checker.CheckResult;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructorChecker;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.SkipWhenEmpty;
+import org.gradle.api.tasks.TaskAction;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks compiled classes with {@link PrivateConstructorChecker}, so the verdicts are the same
+ * as verdicts of the checks written as tests.
+ * <p>
+ * Classes are loaded by the separate {@link ClassLoader} that sees only classes dirs and the classpath
+ * of the task, not the classes of the build, and checked in parallel. Report is written to {@link #getReportFile()}
+ * even if some classes did not pass the check, so the task is up-to-date while its inputs are not changed.
+ */
+public class PrivateConstructorCheckTask extends DefaultTask {
+
+    private static final Map<String, Class> PRIMITIVE_TYPES = new HashMap<String, Class>();
+
+    static {
+        for (Class primitiveType : new Class[]{
+                boolean.class, byte.class, char.class, short.class, int.class, long.class, float.class, double.class}) {
+            PRIMITIVE_TYPES.put(primitiveType.getName(), primitiveType);
+        }
+    }
+
+    private FileCollection classesDirs;
+
+    private FileCollection classpath;
+
+    private List<String> packages = new ArrayList<String>();
+
+    private String expectedTypeOfException;
+
+    private String expectedExceptionMessage;
+
+    private List<String> expectedWithParameters;
+
+    private boolean bytecodeOnly;
+
+    private boolean ignoreFailures;
+
+    private File reportFile;
+
+    /**
+     * @return directories with compiled classes that need to be checked.
+     */
+    @InputFiles
+    @SkipWhenEmpty
+    public FileCollection getClassesDirs() {
+        return classesDirs;
+    }
+
+    public void setClassesDirs(FileCollection classesDirs) {
+        this.classesDirs = classesDirs;
+    }
+
+    /**
+     * @return classpath required to load checked classes.
+     */
+    @InputFiles
+    public FileCollection getClasspath() {
+        return classpath;
+    }
+
+    public void setClasspath(FileCollection classpath) {
+        this.classpath = classpath;
+    }
+
+    /**
+     * @return packages which classes need to be checked together with subpackages,
+     * all classes of {@link #getClassesDirs()} are checked if it's empty.
+     */
+    @Input
+    public List<String> getPackages() {
+        return packages;
+    }
+
+    public void setPackages(List<String> packages) {
+        this.packages = packages;
+    }
+
+    /**
+     * @return fully qualified name of the exception that must be thrown by the constructors,
+     * see {@link PrivateConstructorChecker.ExceptionCheckable#expectedTypeOfException(Class)}.
+     */
+    @Input
+    @Optional
+    public String getExpectedTypeOfException() {
+        return expectedTypeOfException;
+    }
+
+    public void setExpectedTypeOfException(String expectedTypeOfException) {
+        this.expectedTypeOfException = expectedTypeOfException;
+    }
+
+    /**
+     * @return message of the exception that must be thrown by the constructors,
+     * see {@link PrivateConstructorChecker.ExceptionCheckable#expectedExceptionMessage(String)}.
+     */
+    @Input
+    @Optional
+    public String getExpectedExceptionMessage() {
+        return expectedExceptionMessage;
+    }
+
+    public void setExpectedExceptionMessage(String expectedExceptionMessage) {
+        this.expectedExceptionMessage = expectedExceptionMessage;
+    }
+
+    /**
+     * @return names of the parameters of the constructors, for example {@code ["java.lang.String", "int[]"]},
+     * see {@link PrivateConstructorChecker.ParametersCheckable#expectedWithParameters(Class[])}.
+     */
+    @Input
+    @Optional
+    public List<String> getExpectedWithParameters() {
+        return expectedWithParameters;
+    }
+
+    public void setExpectedWithParameters(List<String> expectedWithParameters) {
+        this.expectedWithParameters = expectedWithParameters;
+    }
+
+    /**
+     * @return {@code true} if classes are checked by analysis of the class files,
+     * see {@link PrivateConstructorChecker.Builder#bytecodeOnly()}.
+     */
+    @Input
+    public boolean isBytecodeOnly() {
+        return bytecodeOnly;
+    }
+
+    public void setBytecodeOnly(boolean bytecodeOnly) {
+        this.bytecodeOnly = bytecodeOnly;
+    }
+
+    /**
+     * @return {@code true} if the build should not fail when some classes did not pass the check.
+     */
+    @Input
+    public boolean isIgnoreFailures() {
+        return ignoreFailures;
+    }
+
+    public void setIgnoreFailures(boolean ignoreFailures) {
+        this.ignoreFailures = ignoreFailures;
+    }
+
+    /**
+     * @return file with the list of classes that did not pass the check.
+     */
+    @OutputFile
+    public File getReportFile() {
+        return reportFile;
+    }
+
+    public void setReportFile(File reportFile) {
+        this.reportFile = reportFile;
+    }
+
+    @TaskAction
+    public void check() throws IOException {
+        final ClassLoader classLoader = newIsolatedClassLoader();
+        final Thread thread = Thread.currentThread();
+        final ClassLoader previousContextClassLoader = thread.getContextClassLoader();
+
+        int checkedClassesCount = 0;
+        final List<CheckFailure> failures = new ArrayList<CheckFailure>();
+
+        // Classes of the packages and of the classpath roots are discovered via context class loader
+        thread.setContextClassLoader(classLoader);
+
+        try {
+            for (PrivateConstructorChecker.Builder builder : builders()) {
+                final CheckResult result = configure(builder, classLoader).checkAll();
+                checkedClassesCount += result.getCheckedClassesCount();
+                failures.addAll(result.getFailures());
+            }
+        } finally {
+            thread.setContextClassLoader(previousContextClassLoader);
+        }
+
+        writeReport(checkedClassesCount, failures);
+
+        if (!failures.isEmpty()) {
+            final String message = failures.size() + " of " + checkedClassesCount
+                    + " classes did not pass the check, see the report " + reportFile;
+
+            if (ignoreFailures) {
+                getLogger().warn(message);
+            } else {
+                throw new GradleException(message);
+            }
+        }
+    }
+
+    private List<PrivateConstructorChecker.Builder> builders() {
+        final List<PrivateConstructorChecker.Builder> builders = new ArrayList<PrivateConstructorChecker.Builder>();
+
+        if (packages.isEmpty()) {
+            for (File classesDir : classesDirs) {
+                if (classesDir.exists()) {
+                    builders.add(PrivateConstructorChecker.forClasspathRoot(classesDir));
+                }
+            }
+        } else {
+            for (String packageName : packages) {
+                builders.add(PrivateConstructorChecker.forPackage(packageName));
+            }
+        }
+
+        return builders;
+    }
+
+    private PrivateConstructorChecker.Builder configure(PrivateConstructorChecker.Builder builder, ClassLoader classLoader) {
+        builder.inParallel();
+
+        if (bytecodeOnly) {
+            builder.bytecodeOnly();
+        }
+
+        if (expectedTypeOfException != null) {
+            final Class<?> type = loadClass(expectedTypeOfException, classLoader);
+            builder.expectedTypeOfException(type.asSubclass(Throwable.class));
+        }
+
+        if (expectedExceptionMessage != null) {
+            builder.expectedExceptionMessage(expectedExceptionMessage);
+        }
+
+        if (expectedWithParameters != null) {
+            final Class[] parameters = new Class[expectedWithParameters.size()];
+
+            for (int i = 0; i < parameters.length; i++) {
+                parameters[i] = loadClass(expectedWithParameters.get(i), classLoader);
+            }
+
+            builder.expectedWithParameters(parameters);
+        }
+
+        return builder;
+    }
+
+    /**
+     * Loads class by the name as it's written in the source code, for example {@code "int"} or {@code "String[]"}.
+     */
+    static Class loadClass(String name, ClassLoader classLoader) {
+        if (name.endsWith("[]")) {
+            final Class componentType = loadClass(name.substring(0, name.length() - 2), classLoader);
+            return Array.newInstance(componentType, 0).getClass();
+        }
+
+        final Class primitiveType = PRIMITIVE_TYPES.get(name);
+
+        if (primitiveType != null) {
+            return primitiveType;
+        }
+
+        try {
+            return Class.forName(name, false, classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new GradleException("Can not find class " + name + ", fully qualified name is required", e);
+        }
+    }
+
+    private ClassLoader newIsolatedClassLoader() throws MalformedURLException {
+        final List<URL> urls = new ArrayList<URL>();
+
+        for (File file : classesDirs) {
+            urls.add(file.toURI().toURL());
+        }
+
+        if (classpath != null) {
+            for (File file : classpath) {
+                urls.add(file.toURI().toURL());
+            }
+        }
+
+        // Parent of the system class loader sees only classes of the JDK, so classes of the build can not leak
+        return new URLClassLoader(urls.toArray(new URL[urls.size()]), ClassLoader.getSystemClassLoader().getParent());
+    }
+
+    private void writeReport(int checkedClassesCount, List<CheckFailure> failures) throws IOException {
+        final List<CheckFailure> sortedFailures = new ArrayList<CheckFailure>(failures);
+
+        Collections.sort(sortedFailures, new Comparator<CheckFailure>() {
+            @Override
+            public int compare(CheckFailure lhs, CheckFailure rhs) {
+                return lhs.getClassName().compareTo(rhs.getClassName());
+            }
+        });
+
+        reportFile.getParentFile().mkdirs();
+
+        final Writer writer = new OutputStreamWriter(new FileOutputStream(reportFile), "UTF-8");
+
+        try {
+            writer.write(failures.size() + " of " + checkedClassesCount + " classes did not pass the check\n");
+
+            for (CheckFailure failure : sortedFailures) {
+                writer.write(failure.getClassName() + ": " + failure.getError().getMessage() + "\n");
+            }
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.pushtorefresh.private_constructor_checker.gradle;
+
+import org.gradle.api.Action;
+import org.gradle.api.Plugin;
+import org.gradle.api.Project;
+import org.gradle.api.plugins.JavaBasePlugin;
+import org.gradle.api.plugins.JavaPlugin;
+import org.gradle.api.plugins.JavaPluginConvention;
+import org.gradle.api.tasks.SourceSet;
+
+import java.io.File;
+
+/**
+ * Adds {@value #TASK_NAME} task which checks classes of the main source set, {@code check} task depends on it.
+ * <p>
+ * Plugin does nothing until {@code java} plugin is applied.
+ */
+public class PrivateConstructorCheckerPlugin implements Plugin<Project> {
+
+    public static final String TASK_NAME = "checkPrivateConstructors";
+
+    @Override
+    public void apply(final Project project) {
+        project.getPlugins().withType(JavaPlugin.class, new Action<JavaPlugin>() {
+            @Override
+            public void execute(JavaPlugin javaPlugin) {
+                addTask(project);
+            }
+        });
+    }
+
+    private static void addTask(Project project) {
+        final SourceSet mainSourceSet = project.getConvention()
+                .getPlugin(JavaPluginConvention.class)
+                .getSourceSets()
+                .getByName(SourceSet.MAIN_SOURCE_SET_NAME);
+
+        final PrivateConstructorCheckTask task = project.getTasks().create(TASK_NAME, PrivateConstructorCheckTask.class);
+
+        task.setDescription("Checks that classes of the main source set have one private constructor.");
+        task.setGroup(JavaBasePlugin.VERIFICATION_GROUP);
+        task.dependsOn(mainSourceSet.getClassesTaskName());
+        task.setClassesDirs(project.files(mainSourceSet.getOutput().getClassesDir()));
+        task.setClasspath(mainSourceSet.getRuntimeClasspath());
+        task.setReportFile(new File(project.getBuildDir(), "reports/private-constructors/main.txt"));
+
+        project.getTasks().getByName(JavaBasePlugin.CHECK_TASK_NAME).dependsOn(task);
+    }
+}
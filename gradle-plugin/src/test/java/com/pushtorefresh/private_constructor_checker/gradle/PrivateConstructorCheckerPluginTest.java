@@ -0,0 +1,138 @@
+package com.pushtorefresh.private_constructor_checker.gradle;
+
+import com.pushtorefresh.private_constructor_checker.gradle.fixtures.invalid.InstantiableClass;
+import com.pushtorefresh.private_constructor_checker.gradle.fixtures.valid.NonInstantiableClass;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PrivateConstructorCheckerPluginTest {
+    @Rule public ExpectedException expectedException = ExpectedException.none();
+
+    @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldAddTaskToJavaProject() {
+        final Project project = ProjectBuilder.builder().withProjectDir(temporaryFolder.getRoot()).build();
+        project.getPluginManager().apply("java");
+        project.getPluginManager().apply("com.pushtorefresh.private-constructor-checker");
+
+        final PrivateConstructorCheckTask task = (PrivateConstructorCheckTask) project.getTasks()
+                .getByName(PrivateConstructorCheckerPlugin.TASK_NAME);
+
+        assertTrue(project.getTasks().getByName("check").getDependsOn().contains(task));
+        assertEquals(new File(project.getBuildDir(), "reports/private-constructors/main.txt"), task.getReportFile());
+    }
+
+    @Test
+    public void shouldNotAddTaskWithoutJavaPlugin() {
+        final Project project = ProjectBuilder.builder().withProjectDir(temporaryFolder.getRoot()).build();
+        project.getPluginManager().apply(PrivateConstructorCheckerPlugin.class);
+
+        assertNull(project.getTasks().findByName(PrivateConstructorCheckerPlugin.TASK_NAME));
+    }
+
+    @Test
+    public void shouldWriteReportIfAllClassesPassedTheCheck() throws Exception {
+        final PrivateConstructorCheckTask task = newTask(NonInstantiableClass.class);
+        task.setExpectedTypeOfException("java.lang.IllegalStateException");
+        task.setExpectedExceptionMessage("No instances please!");
+        task.setExpectedWithParameters(Collections.<String>emptyList());
+
+        task.check();
+
+        assertEquals("0 of 1 classes did not pass the check\n", readReport(task));
+    }
+
+    @Test
+    public void shouldCheckClassesByBytecode() throws Exception {
+        final PrivateConstructorCheckTask task = newTask(NonInstantiableClass.class);
+        task.setExpectedTypeOfException("java.lang.IllegalStateException");
+        task.setBytecodeOnly(true);
+
+        task.check();
+
+        assertEquals("0 of 1 classes did not pass the check\n", readReport(task));
+    }
+
+    @Test
+    public void shouldFailIfSomeClassesDidNotPassTheCheck() throws Exception {
+        final PrivateConstructorCheckTask task = newTask(InstantiableClass.class);
+
+        try {
+            expectedException.expect(GradleException.class);
+            expectedException.expectMessage("1 of 1 classes did not pass the check, see the report " + task.getReportFile());
+            task.check();
+        } finally {
+            assertEquals("1 of 1 classes did not pass the check\n"
+                    + InstantiableClass.class.getName() + ": Constructor of " + InstantiableClass.class + " must be private\n",
+                    readReport(task));
+        }
+    }
+
+    @Test
+    public void shouldNotFailIfFailuresAreIgnored() throws Exception {
+        final PrivateConstructorCheckTask task = newTask(InstantiableClass.class);
+        task.setIgnoreFailures(true);
+
+        task.check();
+
+        assertTrue(readReport(task).startsWith("1 of 1 classes did not pass the check\n"));
+    }
+
+    @Test
+    public void shouldLoadClassesByTheirSourceNames() {
+        final ClassLoader classLoader = getClass().getClassLoader();
+
+        assertEquals(int.class, PrivateConstructorCheckTask.loadClass("int", classLoader));
+        assertEquals(String[][].class, PrivateConstructorCheckTask.loadClass("java.lang.String[][]", classLoader));
+        assertEquals(long[].class, PrivateConstructorCheckTask.loadClass("long[]", classLoader));
+    }
+
+    @Test
+    public void shouldRequireFullyQualifiedNames() {
+        expectedException.expect(GradleException.class);
+        expectedException.expectMessage("Can not find class String, fully qualified name is required");
+        PrivateConstructorCheckTask.loadClass("String", getClass().getClassLoader());
+    }
+
+    private PrivateConstructorCheckTask newTask(Class fixture) throws URISyntaxException {
+        final Project project = ProjectBuilder.builder().withProjectDir(temporaryFolder.getRoot()).build();
+        final PrivateConstructorCheckTask task = project.getTasks().create("checkFixtures", PrivateConstructorCheckTask.class);
+        final File classesDir = new File(fixture.getProtectionDomain().getCodeSource().getLocation().toURI());
+
+        task.setClassesDirs(project.files(classesDir));
+        task.setPackages(Arrays.asList(fixture.getPackage().getName()));
+        task.setReportFile(new File(project.getBuildDir(), "report.txt"));
+        return task;
+    }
+
+    private static String readReport(PrivateConstructorCheckTask task) throws IOException {
+        final DataInputStream inputStream = new DataInputStream(new FileInputStream(task.getReportFile()));
+
+        try {
+            final byte[] content = new byte[(int) task.getReportFile().length()];
+            inputStream.readFully(content);
+            return new String(content, "UTF-8");
+        } finally {
+            inputStream.close();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.pushtorefresh.private_constructor_checker.gradle.fixtures.valid;
+
+public final class NonInstantiableClass {
+
+    private NonInstantiableClass() {
+        throw new IllegalStateException("No instances please!");
+    }
+}
@@ -0,0 +1,63 @@
+package com.pushtorefresh.private_constructor_checker.junit5;
+
+import com.pushtorefresh.private_constructor_checker.ClassCheck;
+import com.pushtorefresh.private_constructor_checker.PrivateConstructorChecker;
+
+import org.junit.jupiter.api.DynamicTest;
+
+import java.net.URI;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Turns the check of many classes into one {@link DynamicTest} per class,
+ * so each class is reported separately and can be checked in parallel by the JUnit Platform.
+ * <pre>
+ * &#64;TestFactory
+ * Stream&lt;DynamicTest&gt; constructorsMustBePrivate() {
+ *     return PrivateConstructorTests.dynamicTests(PrivateConstructorChecker
+ *             .forPackage("com.example.util")
+ *             .expectedTypeOfException(IllegalStateException.class));
+ * }
+ * </pre>
+ */
+public final class PrivateConstructorTests {
+
+    private PrivateConstructorTests() {
+        throw new IllegalStateException("No instances please!");
+    }
+
+    /**
+     * Creates dynamic test for each class of the check, classes are taken lazily while the stream is consumed.
+     *
+     * @param checkable configured check, for example {@link PrivateConstructorChecker.Builder}.
+     * @return stream of the tests named after the checked classes.
+     */
+    public static Stream<DynamicTest> dynamicTests(PrivateConstructorChecker.Checkable checkable) {
+        if (checkable == null) {
+            throw new IllegalArgumentException("checkable can not be null");
+        }
+
+        return StreamSupport
+                .stream(Spliterators.spliteratorUnknownSize(checkable.checksPerClass().iterator(), Spliterator.ORDERED), false)
+                .map(PrivateConstructorTests::dynamicTestOf);
+    }
+
+    /**
+     * Creates dynamic test for each class of the package and its subpackages,
+     * see {@link PrivateConstructorChecker#forPackage(String)}.
+     *
+     * @param packageName name of the package, for example {@code "com.example.util"}.
+     * @return stream of the tests named after the checked classes.
+     */
+    public static Stream<DynamicTest> forPackage(String packageName) {
+        return dynamicTests(PrivateConstructorChecker.forPackage(packageName));
+    }
+
+    private static DynamicTest dynamicTestOf(ClassCheck classCheck) {
+        // Source allows IDE to navigate from the test to the checked class
+        return DynamicTest.dynamicTest(classCheck.getClassName(), URI.create("class:" + classCheck.getClassName()), classCheck::check);
+    }
+}
@@ -0,0 +1,69 @@
+package com.pushtorefresh.private_constructor_checker.junit5;
+
+import com.pushtorefresh.private_constructor_checker.PrivateConstructorChecker;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.rules.ExpectedException;
+
+import java.net.URI;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PrivateConstructorTestsTest {
+    @Rule public ExpectedException expectedException = ExpectedException.none();
+
+    static class ClassWithPrivateConstructor {
+        private ClassWithPrivateConstructor() {
+            throw new IllegalStateException("No instances please!");
+        }
+    }
+
+    static class ClassWithPublicConstructor {
+        public ClassWithPublicConstructor() {
+        }
+    }
+
+    @Test
+    public void shouldCreateTestForEachClass() throws Throwable {
+        final List<DynamicTest> dynamicTests = PrivateConstructorTests
+                .dynamicTests(PrivateConstructorChecker
+                        .forClasses(ClassWithPrivateConstructor.class, ClassWithPublicConstructor.class)
+                        .expectedTypeOfException(IllegalStateException.class))
+                .collect(Collectors.toList());
+
+        assertEquals(2, dynamicTests.size());
+        assertEquals(ClassWithPrivateConstructor.class.getName(), dynamicTests.get(0).getDisplayName());
+        assertEquals(URI.create("class:" + ClassWithPrivateConstructor.class.getName()), dynamicTests.get(0).getTestSourceUri().get());
+        assertEquals(ClassWithPublicConstructor.class.getName(), dynamicTests.get(1).getDisplayName());
+
+        dynamicTests.get(0).getExecutable().execute();
+
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage("Constructor of " + ClassWithPublicConstructor.class + " must be private");
+        dynamicTests.get(1).getExecutable().execute();
+    }
+
+    @Test
+    public void shouldCreateTestsForClassesOfPackage() {
+        final List<String> displayNames = PrivateConstructorTests
+                .forPackage("com.pushtorefresh.private_constructor_checker.junit5")
+                .map(DynamicTest::getDisplayName)
+                .collect(Collectors.toList());
+
+        assertTrue(displayNames.contains(PrivateConstructorTests.class.getName()));
+        assertTrue(displayNames.contains(ClassWithPrivateConstructor.class.getName()));
+        assertTrue(displayNames.contains(ClassWithPublicConstructor.class.getName()));
+    }
+
+    @Test
+    public void shouldThrowExceptionIfNullWasPassedAsCheckable() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("checkable can not be null");
+        PrivateConstructorTests.dynamicTests(null);
+    }
+}
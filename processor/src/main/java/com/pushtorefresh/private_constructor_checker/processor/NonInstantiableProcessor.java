@@ -0,0 +1,708 @@
+package com.pushtorefresh.private_constructor_checker.processor;
+
+import com.pushtorefresh.private_constructor_checker.annotations.NonInstantiable;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.ImportTree;
+import com.sun.source.tree.LiteralTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.NewClassTree;
+import com.sun.source.tree.StatementTree;
+import com.sun.source.tree.ThrowTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreeScanner;
+import com.sun.source.util.Trees;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Checks classes annotated with {@link NonInstantiable} during compilation against the same rules
+ * as {@code PrivateConstructorChecker.check()}: class has exactly one constructor, it's private,
+ * its parameters match and it throws expected exception with expected message.
+ * <p>
+ * Thrown exception is determined from the source code of the constructor via Compiler Tree API,
+ * so it's checked only if constructor unconditionally ends with {@code throw new SomeException("literal message")}.
+ * In both this case and the case when constructor completes normally, it must call nothing but {@code Object()}
+ * and the class must have no initializers that run code, since called code may throw first.
+ * If compiler does not support Compiler Tree API, bodies of the constructors are not checked.
+ * <p>
+ * With {@code -AprivateConstructorChecker.index=true} annotated classes and their expectations are also written
+ * to the {@code META-INF/private-constructor-checker.idx} resource, which is read at runtime by
+ * {@code PrivateConstructorChecker.forIndex()} instead of scanning the classpath.
+ */
+@SupportedAnnotationTypes(NonInstantiableProcessor.ANNOTATION_TYPE)
+public class NonInstantiableProcessor extends AbstractProcessor {
+
+    static final String ANNOTATION_TYPE = "com.pushtorefresh.private_constructor_checker.annotations.NonInstantiable";
+
+    static final String INDEX_OPTION = "privateConstructorChecker.index";
+
+    static final String INDEX_RESOURCE_NAME = "META-INF/private-constructor-checker.idx";
+
+    /**
+     * Lines of the index by binary names of the classes, sorted so the index is reproducible.
+     */
+    private final Map<String, String> indexLines = new TreeMap<String, String>();
+
+    private final List<Element> indexedElements = new ArrayList<Element>();
+
+    private boolean index;
+
+    /**
+     * {@code null} if compiler does not support Compiler Tree API.
+     */
+    private Trees trees;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+
+        index = Boolean.parseBoolean(processingEnv.getOptions().get(INDEX_OPTION));
+
+        try {
+            trees = Trees.instance(processingEnv);
+        } catch (IllegalArgumentException e) {
+            // Not javac
+            trees = null;
+        } catch (NoClassDefFoundError e) {
+            // Compiler Tree API is not available
+            trees = null;
+        }
+
+        if (trees == null) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "Compiler does not support Compiler Tree API, "
+                    + "exceptions thrown by constructors of @NonInstantiable classes are not checked");
+        }
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        final Set<String> options = new HashSet<String>();
+        options.add(INDEX_OPTION);
+
+        // Gradle incremental compilation, index is written from all annotated classes
+        options.add(index ? "org.gradle.annotation.processing.aggregating" : "org.gradle.annotation.processing.isolating");
+        return options;
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(NonInstantiable.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error("@NonInstantiable can be applied only to classes", element);
+            } else {
+                check((TypeElement) element);
+
+                if (index) {
+                    addToIndex((TypeElement) element);
+                }
+            }
+        }
+
+        if (index && roundEnv.processingOver()) {
+            writeIndex();
+        }
+
+        return false;
+    }
+
+    /**
+     * Line of the index, format is described by {@code ClassIndex} of the checker.
+     */
+    private void addToIndex(TypeElement typeElement) {
+        final Expectations expectations = expectationsOf(typeElement);
+        final String className = processingEnv.getElementUtils().getBinaryName(typeElement).toString();
+        final StringBuilder line = new StringBuilder(className)
+                .append('\t')
+                .append(expectations.typeOfException == null ? "" : classNameOf(expectations.typeOfException))
+                .append('\t')
+                .append(expectations.exceptionMessage == null ? "" : escape(expectations.exceptionMessage))
+                .append('\t');
+
+        if (expectations.parameterTypes != null) {
+            line.append('(');
+
+            for (int i = 0; i < expectations.parameterTypes.size(); i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+
+                line.append(classNameOf(processingEnv.getTypeUtils().erasure(expectations.parameterTypes.get(i))));
+            }
+
+            line.append(')');
+        }
+
+        indexLines.put(className, line.toString());
+        indexedElements.add(typeElement);
+    }
+
+    private void writeIndex() {
+        try {
+            final FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    INDEX_RESOURCE_NAME, indexedElements.toArray(new Element[indexedElements.size()]));
+            final Writer writer = new OutputStreamWriter(resource.openOutputStream(), "UTF-8");
+
+            try {
+                writer.write("# Generated by " + NonInstantiableProcessor.class.getName() + "\n");
+
+                for (String line : indexLines.values()) {
+                    writer.write(line);
+                    writer.write('\n');
+                }
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Can not write " + INDEX_RESOURCE_NAME + ": " + e);
+        }
+    }
+
+    private static String escape(String message) {
+        return message
+                .replace("\\", "\\\\")
+                .replace("\t", "\\t")
+                .replace("\r", "\\r")
+                .replace("\n", "\\n");
+    }
+
+    /**
+     * Name of the type as returned by {@link Class#getName()}.
+     */
+    private String classNameOf(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return "[" + descriptorOf(((ArrayType) type).getComponentType());
+        } else if (type.getKind() == TypeKind.DECLARED) {
+            return processingEnv.getElementUtils().getBinaryName((TypeElement) ((DeclaredType) type).asElement()).toString();
+        } else {
+            // Primitive types
+            return type.toString();
+        }
+    }
+
+    private String descriptorOf(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return "Z";
+            case BYTE:
+                return "B";
+            case CHAR:
+                return "C";
+            case SHORT:
+                return "S";
+            case INT:
+                return "I";
+            case LONG:
+                return "J";
+            case FLOAT:
+                return "F";
+            case DOUBLE:
+                return "D";
+            case ARRAY:
+                return "[" + descriptorOf(((ArrayType) type).getComponentType());
+            default:
+                return "L" + classNameOf(type) + ";";
+        }
+    }
+
+    private void check(TypeElement typeElement) {
+        final String clazz = "class " + processingEnv.getElementUtils().getBinaryName(typeElement);
+        final Expectations expectations = expectationsOf(typeElement);
+        final List<ExecutableElement> constructors = ElementFilter.constructorsIn(typeElement.getEnclosedElements());
+
+        if (constructors.size() > 1) {
+            error(clazz + " has more than one constructor", constructors.get(1));
+            return;
+        }
+
+        final ExecutableElement constructor = constructors.get(0);
+
+        if (!constructor.getModifiers().contains(Modifier.PRIVATE)) {
+            error("Constructor of " + clazz + " must be private", constructor);
+            return;
+        }
+
+        final List<TypeMirror> parameterTypes = parameterTypesOf(typeElement, constructor);
+
+        if (parameterTypes.size() > 0) {
+            if (expectations.parameterTypes == null) {
+                error(clazz + " has non-default constructor with some parameters", constructor);
+            } else if (!isSameTypes(parameterTypes, expectations.parameterTypes)) {
+                error("Expected constructor with parameters " + getReadableTypesOutput(expectations.parameterTypes) + " but found constructor with parameters " + getReadableTypesOutput(parameterTypes), constructor);
+            }
+
+            // Same as at runtime, constructor with parameters is not invoked
+            return;
+        }
+
+        if (trees != null) {
+            checkThrownException(clazz, typeElement, constructor, expectations);
+        }
+    }
+
+    private void checkThrownException(String clazz, TypeElement typeElement, ExecutableElement constructor, Expectations expectations) {
+        final MethodTree methodTree = trees.getTree(constructor);
+
+        if (methodTree == null || methodTree.getBody() == null) {
+            return;
+        }
+
+        final ThrownException thrownException = analyzeConstructor(typeElement, methodTree);
+
+        if (thrownException == ThrownException.NOTHING) {
+            return;
+        }
+
+        if (expectations.typeOfException != null || expectations.exceptionMessage != null) {
+            if (thrownException == ThrownException.UNKNOWN) {
+                error("For " + clazz + " thrown exception can not be determined at compile time", constructor);
+                return;
+            }
+
+            if (expectations.typeOfException != null
+                    && !processingEnv.getTypeUtils().isSameType(expectations.typeOfException, thrownException.type.asType())) {
+                error("For " + clazz + " expected exception of type = class " + binaryNameOf(expectations.typeOfException) + ", but was exception of type = class " + processingEnv.getElementUtils().getBinaryName(thrownException.type), constructor);
+                return;
+            }
+
+            if (expectations.exceptionMessage != null) {
+                if (!thrownException.messageKnown) {
+                    error("For " + clazz + " message of thrown exception can not be determined at compile time", constructor);
+                } else if (!expectations.exceptionMessage.equals(thrownException.message)) {
+                    error("For " + clazz + " expected exception message = '" + expectations.exceptionMessage + "', but was = '" + thrownException.message + "'", constructor);
+                }
+            }
+        } else if (thrownException == ThrownException.UNKNOWN) {
+            error("For " + clazz + " no exception was expected, but constructor may throw one", constructor);
+        } else {
+            error("For " + clazz + " no exception was expected", constructor);
+        }
+    }
+
+    /**
+     * Finds out what constructor throws, same as bytecode analysis of the checker,
+     * only straight-line bodies that end with {@code throw new SomeException(...)} are understood.
+     */
+    private ThrownException analyzeConstructor(TypeElement typeElement, MethodTree methodTree) {
+        final List<? extends StatementTree> statements = methodTree.getBody().getStatements();
+        final int throwsCount = countThrows(methodTree);
+
+        if (throwsCount == 0) {
+            return runsOtherCode(typeElement, statements) ? ThrownException.UNKNOWN : ThrownException.NOTHING;
+        }
+
+        if (throwsCount > 1 || statements.isEmpty()) {
+            return ThrownException.UNKNOWN;
+        }
+
+        for (int i = 0; i < statements.size() - 1; i++) {
+            final Tree.Kind kind = statements.get(i).getKind();
+
+            if (kind != Tree.Kind.EXPRESSION_STATEMENT && kind != Tree.Kind.VARIABLE) {
+                // Exception may be thrown conditionally
+                return ThrownException.UNKNOWN;
+            }
+        }
+
+        final StatementTree lastStatement = statements.get(statements.size() - 1);
+
+        if (lastStatement.getKind() != Tree.Kind.THROW
+                || runsOtherCode(typeElement, statements.subList(0, statements.size() - 1))) {
+            // Code that runs before creation of the exception may throw first
+            return ThrownException.UNKNOWN;
+        }
+
+        final ExpressionTree thrown = ((ThrowTree) lastStatement).getExpression();
+
+        if (thrown.getKind() != Tree.Kind.NEW_CLASS || ((NewClassTree) thrown).getClassBody() != null) {
+            return ThrownException.UNKNOWN;
+        }
+
+        final NewClassTree newClassTree = (NewClassTree) thrown;
+        final TypeElement exceptionType = resolveType(typeElement, newClassTree.getIdentifier());
+
+        if (exceptionType == null) {
+            return ThrownException.UNKNOWN;
+        }
+
+        // Only JDK exceptions are known to use passed message as is
+        final String exceptionTypeName = exceptionType.getQualifiedName().toString();
+        final boolean jdkException = exceptionTypeName.startsWith("java.") || exceptionTypeName.startsWith("javax.");
+        final List<? extends ExpressionTree> arguments = newClassTree.getArguments();
+
+        if (arguments.isEmpty()) {
+            return new ThrownException(exceptionType, jdkException, null);
+        }
+
+        if (arguments.size() == 1
+                && arguments.get(0).getKind() == Tree.Kind.STRING_LITERAL) {
+            return new ThrownException(exceptionType, jdkException, (String) ((LiteralTree) arguments.get(0)).getValue());
+        }
+
+        return new ThrownException(exceptionType, false, null);
+    }
+
+    private static int countThrows(MethodTree methodTree) {
+        final int[] throwsCount = {0};
+
+        methodTree.getBody().accept(new TreeScanner<Void, Void>() {
+            @Override
+            public Void visitThrow(ThrowTree node, Void unused) {
+                throwsCount[0]++;
+                return super.visitThrow(node, unused);
+            }
+
+            @Override
+            public Void visitClass(ClassTree node, Void unused) {
+                // Exceptions thrown by local and anonymous classes are not thrown by the constructor
+                return null;
+            }
+        }, null);
+
+        return throwsCount[0];
+    }
+
+    /**
+     * Same as bytecode analysis of the checker, code of the methods, of the superclass constructor
+     * and of the initializers of the classes may throw.
+     *
+     * @param statements statements of the constructor that are checked.
+     */
+    private boolean runsOtherCode(final TypeElement typeElement, List<? extends StatementTree> statements) {
+        final TypeElement superclass = (TypeElement) processingEnv.getTypeUtils().asElement(typeElement.getSuperclass());
+
+        if (superclass == null || !superclass.getQualifiedName().contentEquals("java.lang.Object")) {
+            return true;
+        }
+
+        for (Tree member : trees.getTree(typeElement).getMembers()) {
+            if (member.getKind() == Tree.Kind.BLOCK) {
+                // Static or instance initializer
+                return true;
+            }
+        }
+
+        for (VariableElement field : ElementFilter.fieldsIn(typeElement.getEnclosedElements())) {
+            final VariableTree fieldTree = (VariableTree) trees.getTree(field);
+
+            if (fieldTree != null && fieldTree.getInitializer() != null && field.getConstantValue() == null) {
+                return true;
+            }
+        }
+
+        final boolean[] runsOtherCode = {false};
+        final TreeScanner<Void, Void> scanner = new TreeScanner<Void, Void>() {
+            @Override
+            public Void visitMethodInvocation(MethodInvocationTree node, Void unused) {
+                final ExpressionTree methodSelect = node.getMethodSelect();
+
+                if (methodSelect.getKind() != Tree.Kind.IDENTIFIER
+                        || !((IdentifierTree) methodSelect).getName().contentEquals("super")) {
+                    runsOtherCode[0] = true;
+                }
+
+                return super.visitMethodInvocation(node, unused);
+            }
+
+            @Override
+            public Void visitNewClass(NewClassTree node, Void unused) {
+                runsOtherCode[0] = true;
+                return null;
+            }
+
+            @Override
+            public Void visitMemberSelect(MemberSelectTree node, Void unused) {
+                // Static field of another class initializes that class, unless it's a constant
+                final TypeElement selectedType = resolveType(typeElement, node.getExpression());
+
+                if (selectedType != null && !selectedType.equals(typeElement) && !isConstant(selectedType, node.getIdentifier().toString())) {
+                    runsOtherCode[0] = true;
+                }
+
+                return super.visitMemberSelect(node, unused);
+            }
+
+            @Override
+            public Void visitClass(ClassTree node, Void unused) {
+                // Bodies of local and anonymous classes are not run by the constructor
+                return null;
+            }
+        };
+
+        for (StatementTree statement : statements) {
+            statement.accept(scanner, null);
+        }
+
+        return runsOtherCode[0];
+    }
+
+    private static boolean isConstant(TypeElement typeElement, String fieldName) {
+        for (VariableElement field : ElementFilter.fieldsIn(typeElement.getEnclosedElements())) {
+            if (field.getSimpleName().contentEquals(fieldName)) {
+                return field.getConstantValue() != null;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Resolves name of the type the same way as compiler does, but only for top level and member types.
+     *
+     * @return resolved type or {@code null} if it can not be resolved.
+     */
+    private TypeElement resolveType(TypeElement typeElement, Tree typeTree) {
+        if (typeTree.getKind() == Tree.Kind.IDENTIFIER) {
+            return resolveSimpleName(typeElement, ((IdentifierTree) typeTree).getName().toString());
+        }
+
+        if (typeTree.getKind() == Tree.Kind.MEMBER_SELECT) {
+            final String qualifiedName = typeTree.toString();
+            final TypeElement resolved = processingEnv.getElementUtils().getTypeElement(qualifiedName);
+
+            if (resolved != null) {
+                return resolved;
+            }
+
+            // Outer.Inner where Outer is imported or declared in the same package
+            final MemberSelectTree memberSelectTree = (MemberSelectTree) typeTree;
+            final TypeElement outer = resolveType(typeElement, memberSelectTree.getExpression());
+
+            if (outer != null) {
+                return processingEnv.getElementUtils().getTypeElement(outer.getQualifiedName() + "." + memberSelectTree.getIdentifier());
+            }
+        }
+
+        return null;
+    }
+
+    private TypeElement resolveSimpleName(TypeElement typeElement, String simpleName) {
+        // Member types of the class and of the enclosing classes
+        for (Element enclosing = typeElement; enclosing instanceof TypeElement; enclosing = enclosing.getEnclosingElement()) {
+            for (TypeElement memberType : ElementFilter.typesIn(enclosing.getEnclosedElements())) {
+                if (memberType.getSimpleName().contentEquals(simpleName)) {
+                    return memberType;
+                }
+            }
+        }
+
+        final TreePath path = trees.getPath(typeElement);
+        final CompilationUnitTree compilationUnit = path.getCompilationUnit();
+        final List<String> onDemandImports = new ArrayList<String>();
+
+        // Single-type imports
+        for (ImportTree importTree : compilationUnit.getImports()) {
+            if (importTree.isStatic()) {
+                continue;
+            }
+
+            final String imported = importTree.getQualifiedIdentifier().toString();
+
+            if (imported.endsWith(".*")) {
+                onDemandImports.add(imported.substring(0, imported.length() - 1));
+            } else if (imported.endsWith("." + simpleName)) {
+                return processingEnv.getElementUtils().getTypeElement(imported);
+            }
+        }
+
+        // Same package
+        final String packageName = processingEnv.getElementUtils().getPackageOf(typeElement).getQualifiedName().toString();
+        final TypeElement samePackageType = processingEnv.getElementUtils()
+                .getTypeElement(packageName.length() == 0 ? simpleName : packageName + "." + simpleName);
+
+        if (samePackageType != null) {
+            return samePackageType;
+        }
+
+        // Type-import-on-demand and java.lang
+        onDemandImports.add("java.lang.");
+
+        for (String onDemandImport : onDemandImports) {
+            final TypeElement onDemandType = processingEnv.getElementUtils().getTypeElement(onDemandImport + simpleName);
+
+            if (onDemandType != null) {
+                return onDemandType;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Parameters as they are seen at runtime: constructors of inner classes have enclosing instance as the first parameter.
+     */
+    private List<TypeMirror> parameterTypesOf(TypeElement typeElement, ExecutableElement constructor) {
+        final List<TypeMirror> parameterTypes = new ArrayList<TypeMirror>();
+
+        if (typeElement.getNestingKind() == NestingKind.MEMBER && !typeElement.getModifiers().contains(Modifier.STATIC)) {
+            parameterTypes.add(processingEnv.getTypeUtils().erasure(typeElement.getEnclosingElement().asType()));
+        }
+
+        for (VariableElement parameter : constructor.getParameters()) {
+            parameterTypes.add(processingEnv.getTypeUtils().erasure(parameter.asType()));
+        }
+
+        return parameterTypes;
+    }
+
+    private boolean isSameTypes(List<TypeMirror> first, List<TypeMirror> second) {
+        if (first.size() != second.size()) {
+            return false;
+        }
+
+        for (int i = 0; i < first.size(); i++) {
+            if (!processingEnv.getTypeUtils().isSameType(first.get(i), processingEnv.getTypeUtils().erasure(second.get(i)))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Same as runtime check prints simple names of the types.
+     */
+    private static String getReadableTypesOutput(List<TypeMirror> types) {
+        final StringBuilder stringBuilder = new StringBuilder("(");
+
+        if (types.size() > 0) {
+            final String concatenator = ", ";
+
+            for (TypeMirror type : types) {
+                stringBuilder.append(simpleNameOf(type)).append(concatenator);
+            }
+
+            stringBuilder.setLength(stringBuilder.length() - concatenator.length());
+        }
+
+        return stringBuilder.append(')').toString();
+    }
+
+    private static String simpleNameOf(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return simpleNameOf(((ArrayType) type).getComponentType()) + "[]";
+        } else if (type.getKind() == TypeKind.DECLARED) {
+            return ((DeclaredType) type).asElement().getSimpleName().toString();
+        } else {
+            return type.toString();
+        }
+    }
+
+    private String binaryNameOf(TypeMirror type) {
+        return processingEnv.getElementUtils().getBinaryName((TypeElement) processingEnv.getTypeUtils().asElement(type)).toString();
+    }
+
+    /**
+     * Values of {@link NonInstantiable} are read from {@link AnnotationMirror},
+     * because classes referenced by the annotation may be not compiled yet.
+     */
+    private Expectations expectationsOf(TypeElement typeElement) {
+        final Expectations expectations = new Expectations();
+
+        for (AnnotationMirror annotationMirror : typeElement.getAnnotationMirrors()) {
+            if (!((TypeElement) annotationMirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(ANNOTATION_TYPE)) {
+                continue;
+            }
+
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotationMirror.getElementValues().entrySet()) {
+                final String name = entry.getKey().getSimpleName().toString();
+                final Object value = entry.getValue().getValue();
+
+                if ("expectedTypeOfException".equals(name)) {
+                    expectations.typeOfException = (TypeMirror) value;
+                } else if ("expectedExceptionMessage".equals(name)) {
+                    final String message = (String) value;
+                    expectations.exceptionMessage = message.length() > 0 ? message : null;
+                } else if ("expectedWithParameters".equals(name)) {
+                    final List<TypeMirror> parameterTypes = new ArrayList<TypeMirror>();
+
+                    for (Object parameter : (List<?>) value) {
+                        parameterTypes.add((TypeMirror) ((AnnotationValue) parameter).getValue());
+                    }
+
+                    expectations.parameterTypes = Collections.unmodifiableList(parameterTypes);
+                }
+            }
+        }
+
+        return expectations;
+    }
+
+    private void error(String message, Element element) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private static final class Expectations {
+
+        TypeMirror typeOfException;
+
+        String exceptionMessage;
+
+        /**
+         * {@code null} if parameters were not specified.
+         */
+        List<TypeMirror> parameterTypes;
+    }
+
+    private static final class ThrownException {
+
+        static final ThrownException NOTHING = new ThrownException(null, false, null);
+
+        static final ThrownException UNKNOWN = new ThrownException(null, false, null);
+
+        final TypeElement type;
+
+        final boolean messageKnown;
+
+        final String message;
+
+        ThrownException(TypeElement type, boolean messageKnown, String message) {
+            this.type = type;
+            this.messageKnown = messageKnown;
+            this.message = message;
+        }
+    }
+}
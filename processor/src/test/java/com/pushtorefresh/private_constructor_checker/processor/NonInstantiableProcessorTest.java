@@ -0,0 +1,390 @@
+package com.pushtorefresh.private_constructor_checker.processor;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class NonInstantiableProcessorTest {
+    @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldPassIfConstructorIsPrivateAndThrowsExpectedException() throws IOException {
+        assertErrors(
+                "import com.pushtorefresh.private_constructor_checker.annotations.NonInstantiable;\n"
+                        + "@NonInstantiable(expectedTypeOfException = IllegalStateException.class, expectedExceptionMessage = \"No instances please!\")\n"
+                        + "class Checks {\n"
+                        + "    private Checks() {\n"
+                        + "        throw new IllegalStateException(\"No instances please!\");\n"
+                        + "    }\n"
+                        + "}\n"
+        );
+    }
+
+    @Test
+    public void shouldPassIfConstructorIsPrivateAndDoesNotThrowExceptions() throws IOException {
+        assertErrors(
+                "@com.pushtorefresh.private_constructor_checker.annotations.NonInstantiable\n"
+                        + "class Checks {\n"
+                        + "    private Checks() {\n"
+                        + "    }\n"
+                        + "}\n"
+        );
+    }
+
+    @Test
+    public void shouldReportImplicitConstructor() throws IOException {
+        assertErrors(
+                "@com.pushtorefresh.private_constructor_checker.annotations.NonInstantiable\n"
+                        + "public class Checks {\n"
+                        + "}\n",
+                "2: Constructor of class Checks must be private"
+        );
+    }
+
+    @Test
+    public void shouldReportNotPrivateConstructor() throws IOException {
+        assertErrors(
+                "@com.pushtorefresh.private_constructor_checker.annotations.NonInstantiable\n"
+                        + "class Checks {\n"
+                        + "    protected Checks() {\n"
+                        + "    }\n"
+                        + "}\n",
+                "3: Constructor of class Checks must be private"
+        );
+    }
+
+    @Test
+    public void shouldReportMoreThanOneConstructor() throws IOException {
+        assertErrors(
+                "@com.pushtorefresh.private_constructor_checker.annotations.NonInstantiable\n"
+                        + "class Checks {\n"
+                        + "    private Checks() {\n"
+                        + "    }\n"
+                        + "    private Checks(String value) {\n"
+                        + "    }\n"
+                        + "}\n",
+                "5: class Checks has more than one constructor"
+        );
+    }
+
+    @Test
+    public void shouldReportUnexpectedParameters() throws IOException {
+        assertErrors(
+                "@com.pushtorefresh.private_constructor_checker.annotations.NonInstantiable\n"
+                        + "class Checks {\n"
+                        + "    private Checks(String value) {\n"
+                        + "    }\n"
+                        + "}\n",
+                "3: class Checks has non-default constructor with some parameters"
+        );
+    }
+
+    @Test
+    public void shouldReportMismatchedParameters() throws IOException {
+        assertErrors(
+                "@com.pushtorefresh.private_constructor_checker.annotations.NonInstantiable(expectedWithParameters = {String.class, long.class})\n"
+                        + "class Checks {\n"
+                        + "    private Checks(String value, int[] values) {\n"
+                        + "    }\n"
+                        + "}\n",
+                "3: Expected constructor with parameters (String, long) but found constructor with parameters (String, int[])"
+        );
+    }
+
+    @Test
+    public void shouldPassIfParametersMatch() throws IOException {
+        assertErrors(
+                "@com.pushtorefresh.private_constructor_checker.annotations.NonInstantiable(expectedWithParameters = {String.class, int[].class})\n"
+                        + "class Checks {\n"
+                        + "    private Checks(String value, int[] values) {\n"
+                        + "    }\n"
+                        + "}\n"
+        );
+    }
+
+    @Test
+    public void shouldReportUnexpectedException() throws IOException {
+        assertErrors(
+                "@com.pushtorefresh.private_constructor_checker.annotations.NonInstantiable\n"
+                        + "class Checks {\n"
+                        + "    private Checks() {\n"
+                        + "        throw new IllegalStateException(\"No instances please!\");\n"
+                        + "    }\n"
+                        + "}\n",
+                "3: For class Checks no exception was expected"
+        );
+    }
+
+    @Test
+    public void shouldReportMismatchedTypeOfException() throws IOException {
+        assertErrors(
+                "import java.util.*;\n"
+                        + "@com.pushtorefresh.private_constructor_checker.annotations.NonInstantiable(expectedTypeOfException = IllegalStateException.class)\n"
+                        + "class Checks {\n"
+                        + "    private Checks() {\n"
+                        + "        throw new NoSuchElementException();\n"
+                        + "    }\n"
+                        + "}\n",
+                "4: For class Checks expected exception of type = class java.lang.IllegalStateException, but was exception of type = class java.util.NoSuchElementException"
+        );
+    }
+
+    @Test
+    public void shouldReportMismatchedExceptionMessage() throws IOException {
+        assertErrors(
+                "@com.pushtorefresh.private_constructor_checker.annotations.NonInstantiable(expectedExceptionMessage = \"No instances\")\n"
+                        + "class Checks {\n"
+                        + "    private Checks() {\n"
+                        + "        throw new java.lang.UnsupportedOperationException(\"Nope\");\n"
+                        + "    }\n"
+                        + "}\n",
+                "3: For class Checks expected exception message = 'No instances', but was = 'Nope'"
+        );
+    }
+
+    @Test
+    public void shouldReportConditionallyThrownException() throws IOException {
+        assertErrors(
+                "@com.pushtorefresh.private_constructor_checker.annotations.NonInstantiable(expectedTypeOfException = IllegalStateException.class)\n"
+                        + "class Checks {\n"
+                        + "    private Checks() {\n"
+                        + "        if (System.currentTimeMillis() > 0) throw new IllegalStateException();\n"
+                        + "    }\n"
+                        + "}\n",
+                "3: For class Checks thrown exception can not be determined at compile time"
+        );
+    }
+
+    @Test
+    public void shouldReportConstructorThatCallsMethods() throws IOException {
+        assertErrors(
+                "@com.pushtorefresh.private_constructor_checker.annotations.NonInstantiable\n"
+                        + "class Checks {\n"
+                        + "    private Checks() {\n"
+                        + "        fail();\n"
+                        + "    }\n"
+                        + "    private static void fail() {\n"
+                        + "        throw new IllegalStateException(\"No instances please!\");\n"
+                        + "    }\n"
+                        + "}\n",
+                "3: For class Checks no exception was expected, but constructor may throw one"
+        );
+    }
+
+    @Test
+    public void shouldReportClassWithInitializers() throws IOException {
+        assertErrors(
+                "@com.pushtorefresh.private_constructor_checker.annotations.NonInstantiable\n"
+                        + "class Checks {\n"
+                        + "    static final long CREATED_AT_MILLIS = System.currentTimeMillis();\n"
+                        + "    private Checks() {\n"
+                        + "    }\n"
+                        + "}\n",
+                "4: For class Checks no exception was expected, but constructor may throw one"
+        );
+    }
+
+    @Test
+    public void shouldReportConstructorThatCallsMethodsBeforeThrowingException() throws IOException {
+        assertErrors(
+                "@com.pushtorefresh.private_constructor_checker.annotations.NonInstantiable(expectedTypeOfException = IllegalStateException.class)\n"
+                        + "class Checks {\n"
+                        + "    private Checks() {\n"
+                        + "        fail();\n"
+                        + "        throw new IllegalStateException(\"No instances please!\");\n"
+                        + "    }\n"
+                        + "    private static void fail() {\n"
+                        + "        throw new UnsupportedOperationException();\n"
+                        + "    }\n"
+                        + "}\n",
+                "3: For class Checks thrown exception can not be determined at compile time"
+        );
+    }
+
+    @Test
+    public void shouldReportClassWithSuperclassThatThrowsBeforeException() throws IOException {
+        assertErrors(
+                "@com.pushtorefresh.private_constructor_checker.annotations.NonInstantiable(expectedTypeOfException = IllegalStateException.class)\n"
+                        + "class Checks extends Base {\n"
+                        + "    private Checks() {\n"
+                        + "        throw new IllegalStateException(\"No instances please!\");\n"
+                        + "    }\n"
+                        + "}\n"
+                        + "class Base {\n"
+                        + "    Base() {\n"
+                        + "        throw new UnsupportedOperationException();\n"
+                        + "    }\n"
+                        + "}\n",
+                "3: For class Checks thrown exception can not be determined at compile time"
+        );
+    }
+
+    @Test
+    public void shouldPassIfClassHasOnlyConstants() throws IOException {
+        assertErrors(
+                "@com.pushtorefresh.private_constructor_checker.annotations.NonInstantiable\n"
+                        + "class Checks {\n"
+                        + "    static final String NAME = \"checks\";\n"
+                        + "    private Checks() {\n"
+                        + "        super();\n"
+                        + "    }\n"
+                        + "}\n"
+        );
+    }
+
+    @Test
+    public void shouldResolveMemberTypeOfException() throws IOException {
+        assertErrors(
+                "@com.pushtorefresh.private_constructor_checker.annotations.NonInstantiable(expectedTypeOfException = Checks.NoInstances.class)\n"
+                        + "class Checks {\n"
+                        + "    private Checks() {\n"
+                        + "        throw new NoInstances();\n"
+                        + "    }\n"
+                        + "    static class NoInstances extends RuntimeException {\n"
+                        + "    }\n"
+                        + "}\n"
+        );
+    }
+
+    @Test
+    public void shouldReportAnnotatedInterface() throws IOException {
+        assertErrors(
+                "@com.pushtorefresh.private_constructor_checker.annotations.NonInstantiable\n"
+                        + "interface Checks {\n"
+                        + "}\n",
+                "2: @NonInstantiable can be applied only to classes"
+        );
+    }
+
+    @Test
+    public void shouldWriteIndexOfAnnotatedClasses() throws IOException {
+        final File outputDirectory = temporaryFolder.newFolder();
+
+        compile(
+                "package com.example;\n"
+                        + "import com.pushtorefresh.private_constructor_checker.annotations.NonInstantiable;\n"
+                        + "@NonInstantiable(expectedTypeOfException = IllegalStateException.class, expectedExceptionMessage = \"No\\tinstances\\\\\")\n"
+                        + "class Checks {\n"
+                        + "    private Checks() {\n"
+                        + "        throw new IllegalStateException(\"No\\tinstances\\\\\");\n"
+                        + "    }\n"
+                        + "    @NonInstantiable(expectedWithParameters = {String.class, int[].class, Checks[][].class})\n"
+                        + "    static class Nested {\n"
+                        + "        private Nested(String value, int[] values, Checks[][] checks) {\n"
+                        + "        }\n"
+                        + "    }\n"
+                        + "}\n"
+                        + "@NonInstantiable\n"
+                        + "class Another {\n"
+                        + "    private Another() {\n"
+                        + "    }\n"
+                        + "}\n",
+                "-d", outputDirectory.getPath(), "-A" + NonInstantiableProcessor.INDEX_OPTION + "=true"
+        );
+
+        assertEquals(
+                "# Generated by " + NonInstantiableProcessor.class.getName() + "\n"
+                        + "com.example.Another\t\t\t\n"
+                        + "com.example.Checks\tjava.lang.IllegalStateException\tNo\\tinstances\\\\\t\n"
+                        + "com.example.Checks$Nested\t\t\t(java.lang.String,[I,[[Lcom.example.Checks;)\n",
+                read(new File(outputDirectory, NonInstantiableProcessor.INDEX_RESOURCE_NAME))
+        );
+    }
+
+    @Test
+    public void shouldNotWriteIndexByDefault() throws IOException {
+        final File outputDirectory = temporaryFolder.newFolder();
+
+        compile(
+                "@com.pushtorefresh.private_constructor_checker.annotations.NonInstantiable\n"
+                        + "class Checks {\n"
+                        + "    private Checks() {\n"
+                        + "    }\n"
+                        + "}\n",
+                "-d", outputDirectory.getPath()
+        );
+
+        assertFalse(new File(outputDirectory, NonInstantiableProcessor.INDEX_RESOURCE_NAME).exists());
+    }
+
+    private static String read(File file) throws IOException {
+        final InputStream inputStream = new FileInputStream(file);
+
+        try {
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+            int read;
+
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+
+            return outputStream.toString("UTF-8");
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    private static void assertErrors(String source, String... expectedErrors) throws IOException {
+        final List<String> errors = new ArrayList<String>();
+
+        for (Diagnostic<? extends JavaFileObject> diagnostic : compile(source)) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                errors.add(diagnostic.getLineNumber() + ": " + diagnostic.getMessage(Locale.ENGLISH));
+            }
+        }
+
+        assertEquals(Arrays.asList(expectedErrors), errors);
+    }
+
+    private static List<Diagnostic<? extends JavaFileObject>> compile(final String source, String... options) throws IOException {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+
+        final JavaFileObject sourceFile = new SimpleJavaFileObject(URI.create("string:///Checks.java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+
+        final List<String> compilerOptions = new ArrayList<String>(Arrays.asList("-proc:only", "-classpath", System.getProperty("java.class.path")));
+        compilerOptions.addAll(Arrays.asList(options));
+
+        final JavaCompiler.CompilationTask task = compiler.getTask(
+                null,
+                null,
+                diagnostics,
+                compilerOptions,
+                null,
+                Collections.singletonList(sourceFile)
+        );
+
+        task.setProcessors(Collections.singletonList(new NonInstantiableProcessor()));
+        task.call();
+
+        return diagnostics.getDiagnostics();
+    }
+}